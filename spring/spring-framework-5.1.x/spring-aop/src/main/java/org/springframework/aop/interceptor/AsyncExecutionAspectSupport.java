@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,8 @@
 package org.springframework.aop.interceptor;
 
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
@@ -37,11 +39,14 @@ import org.springframework.beans.factory.annotation.BeanFactoryAnnotationUtils;
 import org.springframework.core.task.AsyncListenableTaskExecutor;
 import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.core.task.support.BulkheadTaskExecutor;
 import org.springframework.core.task.support.TaskExecutorAdapter;
 import org.springframework.lang.Nullable;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.SettableListenableFuture;
 import org.springframework.util.function.SingletonSupplier;
 
 /**
@@ -54,6 +59,12 @@ import org.springframework.util.function.SingletonSupplier;
  * Executor}, but each individual method may further qualify a specific {@code Executor}
  * bean to be used when executing it, e.g. through an annotation attribute.
  *
+ * <p>As of 5.1.11, each method may also declare a concurrency limit and a queue
+ * capacity, isolating it through a {@link BulkheadTaskExecutor} on top of its
+ * executor: Submissions beyond the limits are rejected, with methods returning
+ * a {@link Future} handle exposing the {@link TaskRejectedException} through
+ * a failed {@code Future}.
+ *
  * @author Chris Beams
  * @author Juergen Hoeller
  * @author Stephane Nicoll
@@ -163,24 +174,33 @@ public abstract class AsyncExecutionAspectSupport implements BeanFactoryAware {
 	protected AsyncTaskExecutor determineAsyncExecutor(Method method) {
 		AsyncTaskExecutor executor = this.executors.get(method);
 		if (executor == null) {
-			Executor targetExecutor;
-			String qualifier = getExecutorQualifier(method);
-			if (StringUtils.hasLength(qualifier)) {
-				targetExecutor = findQualifiedExecutor(this.beanFactory, qualifier);
-			}
-			else {
-				targetExecutor = this.defaultExecutor.get();
-			}
-			if (targetExecutor == null) {
-				return null;
-			}
-			executor = (targetExecutor instanceof AsyncListenableTaskExecutor ?
-					(AsyncListenableTaskExecutor) targetExecutor : new TaskExecutorAdapter(targetExecutor));
-			this.executors.put(method, executor);
+			// Atomically, so that concurrent first invocations share the same bulkhead
+			executor = this.executors.computeIfAbsent(method, this::createAsyncExecutor);
 		}
 		return executor;
 	}
 
+	@Nullable
+	private AsyncTaskExecutor createAsyncExecutor(Method method) {
+		Executor targetExecutor;
+		String qualifier = getExecutorQualifier(method);
+		if (StringUtils.hasLength(qualifier)) {
+			targetExecutor = findQualifiedExecutor(this.beanFactory, qualifier);
+		}
+		else {
+			targetExecutor = this.defaultExecutor.get();
+		}
+		if (targetExecutor == null) {
+			return null;
+		}
+		int concurrencyLimit = getConcurrencyLimit(method);
+		if (concurrencyLimit > 0) {
+			return new BulkheadTaskExecutor(targetExecutor, concurrencyLimit, getQueueCapacity(method));
+		}
+		return (targetExecutor instanceof AsyncListenableTaskExecutor ?
+				(AsyncListenableTaskExecutor) targetExecutor : new TaskExecutorAdapter(targetExecutor));
+	}
+
 	/**
 	 * Return the qualifier or bean name of the executor to be used when executing the
 	 * given async method, typically specified in the form of an annotation attribute.
@@ -195,6 +215,54 @@ public abstract class AsyncExecutionAspectSupport implements BeanFactoryAware {
 	@Nullable
 	protected abstract String getExecutorQualifier(Method method);
 
+	/**
+	 * Return the maximum number of concurrent executions of the given async method,
+	 * typically specified in the form of an annotation attribute.
+	 * <p>The default implementation returns -1, indicating no limit.
+	 * @param method the method to inspect for concurrency limit metadata
+	 * @return the concurrency limit, or -1 for none
+	 * @since 5.1.11
+	 * @see #getQueueCapacity(Method)
+	 * @see BulkheadTaskExecutor
+	 */
+	protected int getConcurrencyLimit(Method method) {
+		return -1;
+	}
+
+	/**
+	 * Return the maximum number of pending executions of the given async method
+	 * beyond its {@linkplain #getConcurrencyLimit concurrency limit}, typically
+	 * specified in the form of an annotation attribute.
+	 * <p>The default implementation returns -1, indicating an unbounded queue.
+	 * @param method the method to inspect for queue capacity metadata
+	 * @return the queue capacity, or -1 for an unbounded queue
+	 * @since 5.1.11
+	 * @see #getConcurrencyLimit(Method)
+	 * @see BulkheadTaskExecutor
+	 */
+	protected int getQueueCapacity(Method method) {
+		return -1;
+	}
+
+	/**
+	 * Return the bulkhead executors for all async methods with a concurrency limit
+	 * that have been invoked so far, exposing their execution statistics.
+	 * @return a Map with the async methods as keys and their bulkheads as values
+	 * @since 5.1.11
+	 * @see #getConcurrencyLimit(Method)
+	 * @see BulkheadTaskExecutor#getTotalQueueTime()
+	 * @see BulkheadTaskExecutor#getTotalExecutionTime()
+	 */
+	public Map<Method, BulkheadTaskExecutor> getBulkheadExecutors() {
+		Map<Method, BulkheadTaskExecutor> bulkheads = new LinkedHashMap<>();
+		this.executors.forEach((method, executor) -> {
+			if (executor instanceof BulkheadTaskExecutor) {
+				bulkheads.put(method, (BulkheadTaskExecutor) executor);
+			}
+		});
+		return Collections.unmodifiableMap(bulkheads);
+	}
+
 	/**
 	 * Retrieve a target executor for the given qualifier.
 	 * @param qualifier the qualifier to resolve
@@ -263,6 +331,8 @@ public abstract class AsyncExecutionAspectSupport implements BeanFactoryAware {
 
 	/**
 	 * Delegate for actually executing the given task with the chosen executor.
+	 * <p>A task rejected by a {@link BulkheadTaskExecutor} leads to a failed
+	 * {@code Future} handle if the declared return type allows for it.
 	 * @param task the task to execute
 	 * @param executor the chosen executor
 	 * @param returnType the declared return type (potentially a {@link Future} variant)
@@ -270,6 +340,26 @@ public abstract class AsyncExecutionAspectSupport implements BeanFactoryAware {
 	 */
 	@Nullable
 	protected Object doSubmit(Callable<Object> task, AsyncTaskExecutor executor, Class<?> returnType) {
+		try {
+			return submitTask(task, executor, returnType);
+		}
+		catch (TaskRejectedException ex) {
+			if (executor instanceof BulkheadTaskExecutor && Future.class.isAssignableFrom(returnType)) {
+				if (ListenableFuture.class.isAssignableFrom(returnType)) {
+					SettableListenableFuture<Object> future = new SettableListenableFuture<>();
+					future.setException(ex);
+					return future;
+				}
+				CompletableFuture<Object> future = new CompletableFuture<>();
+				future.completeExceptionally(ex);
+				return future;
+			}
+			throw ex;
+		}
+	}
+
+	@Nullable
+	private Object submitTask(Callable<Object> task, AsyncTaskExecutor executor, Class<?> returnType) {
 		if (CompletableFuture.class.isAssignableFrom(returnType)) {
 			return CompletableFuture.supplyAsync(() -> {
 				try {
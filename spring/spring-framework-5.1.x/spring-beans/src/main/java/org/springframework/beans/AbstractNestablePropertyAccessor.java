@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -42,6 +43,7 @@ import org.springframework.core.convert.ConverterNotFoundException;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
@@ -76,6 +78,13 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
 	 */
 	private static final Log logger = LogFactory.getLog(AbstractNestablePropertyAccessor.class);
 
+	/**
+	 * Cache of parsed property name tokens for keyed property names,
+	 * shared across accessor instances.
+	 */
+	private static final ConcurrentMap<String, PropertyTokenHolder> keyedPropertyTokenCache =
+			new ConcurrentReferenceHashMap<>(256);
+
 	private int autoGrowCollectionLimit = Integer.MAX_VALUE;
 
 	@Nullable
@@ -926,6 +935,23 @@ public abstract class AbstractNestablePropertyAccessor extends AbstractPropertyA
 	 * @return representation of the parsed property tokens
 	 */
 	private PropertyTokenHolder getPropertyNameTokens(String propertyName) {
+		if (propertyName.indexOf(PROPERTY_KEY_PREFIX_CHAR) == -1) {
+			// Plain property name: nothing to parse
+			return new PropertyTokenHolder(propertyName);
+		}
+		PropertyTokenHolder cachedTokens = keyedPropertyTokenCache.get(propertyName);
+		if (cachedTokens == null) {
+			cachedTokens = parsePropertyNameTokens(propertyName);
+			keyedPropertyTokenCache.put(propertyName, cachedTokens);
+		}
+		// Return a copy since PropertyTokenHolder is mutable
+		PropertyTokenHolder tokens = new PropertyTokenHolder(cachedTokens.actualName);
+		tokens.canonicalName = cachedTokens.canonicalName;
+		tokens.keys = (cachedTokens.keys != null ? cachedTokens.keys.clone() : null);
+		return tokens;
+	}
+
+	private PropertyTokenHolder parsePropertyNameTokens(String propertyName) {
 		String actualName = null;
 		List<String> keys = new ArrayList<>(2);
 		int searchIndex = 0;
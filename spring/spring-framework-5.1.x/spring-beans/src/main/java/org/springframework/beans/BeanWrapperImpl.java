@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -277,7 +277,12 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 
 		@Override
 		public TypeDescriptor toTypeDescriptor() {
-			return new TypeDescriptor(property(this.pd));
+			CachedIntrospectionResults cachedIntrospectionResults = getCachedIntrospectionResults();
+			TypeDescriptor td = cachedIntrospectionResults.getTypeDescriptor(this.pd);
+			if (td == null) {
+				td = cachedIntrospectionResults.addTypeDescriptor(this.pd, new TypeDescriptor(property(this.pd)));
+			}
+			return td;
 		}
 
 		@Override
@@ -304,8 +309,7 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 				}
 			}
 			else {
-				ReflectionUtils.makeAccessible(readMethod);
-				return readMethod.invoke(getWrappedInstance(), (Object[]) null);
+				return getCachedIntrospectionResults().invokePropertyMethod(readMethod, getWrappedInstance());
 			}
 		}
 
@@ -328,8 +332,7 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 				}
 			}
 			else {
-				ReflectionUtils.makeAccessible(writeMethod);
-				writeMethod.invoke(getWrappedInstance(), value);
+				getCachedIntrospectionResults().invokePropertyMethod(writeMethod, getWrappedInstance(), value);
 			}
 		}
 	}
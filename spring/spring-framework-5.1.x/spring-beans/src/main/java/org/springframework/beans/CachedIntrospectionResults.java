@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,8 @@ import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -31,12 +33,14 @@ import java.util.concurrent.ConcurrentMap;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.cglib.reflect.FastClass;
 import org.springframework.core.SpringProperties;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.core.io.support.SpringFactoriesLoader;
 import org.springframework.lang.Nullable;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -92,6 +96,24 @@ public final class CachedIntrospectionResults {
 	 */
 	public static final String IGNORE_BEANINFO_PROPERTY_NAME = "spring.beaninfo.ignore";
 
+	/**
+	 * System property that instructs Spring to invoke bean property read and write
+	 * methods through a generated accessor class per bean class (a CGLIB
+	 * {@link FastClass}) instead of through reflection: "spring.beans.compileAccessors",
+	 * with a value of "true" enabling generated accessors for bean classes introspected
+	 * from then on.
+	 * <p>The default is "false", invoking property methods reflectively. Consider
+	 * switching this flag to "true" for applications that bind large numbers of
+	 * property values, e.g. through data binding of large forms, where reflective
+	 * invocation shows up in profiles. Methods that cannot be invoked through a
+	 * generated class (e.g. non-public methods or classes) are still invoked
+	 * reflectively, as are all methods when running with a security manager.
+	 * @since 5.1.11
+	 */
+	public static final String COMPILE_ACCESSORS_PROPERTY_NAME = "spring.beans.compileAccessors";
+
+	private static final Object NO_FAST_CLASS = new Object();
+
 
 	private static final boolean shouldIntrospectorIgnoreBeaninfoClasses =
 			SpringProperties.getFlag(IGNORE_BEANINFO_PROPERTY_NAME);
@@ -259,6 +281,16 @@ public final class CachedIntrospectionResults {
 	/** TypeDescriptor objects keyed by PropertyDescriptor. */
 	private final ConcurrentMap<PropertyDescriptor, TypeDescriptor> typeDescriptorCache;
 
+	/** Whether to invoke property methods through a generated accessor class. */
+	private final boolean compileAccessors;
+
+	/** The generated accessor class for the bean class, or a marker if not available. */
+	@Nullable
+	private volatile Object fastClass;
+
+	/** Method indexes in the generated accessor class (-1 if not applicable) keyed by Method. */
+	private final ConcurrentMap<Method, Integer> fastMethodIndexCache = new ConcurrentHashMap<>(16);
+
 
 	/**
 	 * Create a new CachedIntrospectionResults instance for the given class.
@@ -304,6 +336,7 @@ public final class CachedIntrospectionResults {
 			}
 
 			this.typeDescriptorCache = new ConcurrentReferenceHashMap<>();
+			this.compileAccessors = SpringProperties.getFlag(COMPILE_ACCESSORS_PROPERTY_NAME);
 		}
 		catch (IntrospectionException ex) {
 			throw new FatalBeanException("Failed to obtain BeanInfo for class [" + beanClass.getName() + "]", ex);
@@ -382,4 +415,64 @@ public final class CachedIntrospectionResults {
 		return this.typeDescriptorCache.get(pd);
 	}
 
+	/**
+	 * Invoke the given property read or write method on the given bean instance,
+	 * through the generated accessor class for the bean class if enabled and
+	 * applicable, or through reflection otherwise.
+	 * @param method the property method to invoke
+	 * @param target the bean instance (an instance of the introspected bean class)
+	 * @param args the method arguments
+	 * @return the method's return value, if any
+	 * @throws Exception in case of invocation failure, with exceptions thrown
+	 * by the method itself wrapped in an InvocationTargetException
+	 * @since 5.1.11
+	 * @see #COMPILE_ACCESSORS_PROPERTY_NAME
+	 */
+	@Nullable
+	Object invokePropertyMethod(Method method, Object target, @Nullable Object... args) throws Exception {
+		if (this.compileAccessors) {
+			Integer index = this.fastMethodIndexCache.get(method);
+			if (index == null) {
+				index = this.fastMethodIndexCache.computeIfAbsent(method, this::determineFastMethodIndex);
+			}
+			if (index >= 0) {
+				return ((FastClass) this.fastClass).invoke(index, target, args);
+			}
+		}
+		ReflectionUtils.makeAccessible(method);
+		return method.invoke(target, args);
+	}
+
+	private int determineFastMethodIndex(Method method) {
+		if (!Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+			return -1;
+		}
+		Object fastClass = this.fastClass;
+		if (fastClass == null) {
+			fastClass = generateFastClass(getBeanClass());
+			this.fastClass = fastClass;
+		}
+		return (fastClass instanceof FastClass ?
+				((FastClass) fastClass).getIndex(method.getName(), method.getParameterTypes()) : -1);
+	}
+
+	private static Object generateFastClass(Class<?> beanClass) {
+		if (!Modifier.isPublic(beanClass.getModifiers()) || beanClass.getClassLoader() == null) {
+			return NO_FAST_CLASS;
+		}
+		try {
+			FastClass.Generator generator = new FastClass.Generator();
+			generator.setType(beanClass);
+			generator.setClassLoader(beanClass.getClassLoader());
+			return generator.create();
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to generate accessor class for [" + beanClass.getName() +
+						"] - falling back to reflective property access", ex);
+			}
+			return NO_FAST_CLASS;
+		}
+	}
+
 }
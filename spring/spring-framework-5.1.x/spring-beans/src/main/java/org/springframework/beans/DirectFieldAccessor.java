@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -102,6 +102,9 @@ public class DirectFieldAccessor extends AbstractNestablePropertyAccessor {
 
 		private final Field field;
 
+		@Nullable
+		private TypeDescriptor typeDescriptor;
+
 		public FieldPropertyHandler(Field field) {
 			super(field.getType(), true, true);
 			this.field = field;
@@ -109,7 +112,12 @@ public class DirectFieldAccessor extends AbstractNestablePropertyAccessor {
 
 		@Override
 		public TypeDescriptor toTypeDescriptor() {
-			return new TypeDescriptor(this.field);
+			TypeDescriptor typeDescriptor = this.typeDescriptor;
+			if (typeDescriptor == null) {
+				typeDescriptor = new TypeDescriptor(this.field);
+				this.typeDescriptor = typeDescriptor;
+			}
+			return typeDescriptor;
 		}
 
 		@Override
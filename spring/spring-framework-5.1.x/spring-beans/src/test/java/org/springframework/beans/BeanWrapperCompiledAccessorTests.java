@@ -0,0 +1,190 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.core.SpringProperties;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BeanWrapperImpl} with generated property accessors enabled.
+ *
+ * @author agent (agent@local)
+ * @see CachedIntrospectionResults#COMPILE_ACCESSORS_PROPERTY_NAME
+ */
+public class BeanWrapperCompiledAccessorTests {
+
+	@Before
+	public void enableCompiledAccessors() {
+		SpringProperties.setFlag(CachedIntrospectionResults.COMPILE_ACCESSORS_PROPERTY_NAME);
+		CachedIntrospectionResults.clearClassLoader(getClass().getClassLoader());
+	}
+
+	@After
+	public void disableCompiledAccessors() {
+		SpringProperties.setProperty(CachedIntrospectionResults.COMPILE_ACCESSORS_PROPERTY_NAME, null);
+		CachedIntrospectionResults.clearClassLoader(getClass().getClassLoader());
+	}
+
+
+	@Test
+	public void propertyMethodsInvokedThroughGeneratedAccessor() {
+		CompiledBean bean = new CompiledBean();
+		BeanWrapper bw = new BeanWrapperImpl(bean);
+
+		bw.setPropertyValue("name", "Juergen");
+		assertEquals("Juergen", bean.name);
+		assertTrue(bean.lastCaller, bean.lastCaller.contains("FastClass"));
+
+		bean.lastCaller = null;
+		assertEquals("Juergen", bw.getPropertyValue("name"));
+		assertTrue(bean.lastCaller, bean.lastCaller.contains("FastClass"));
+	}
+
+	@Test
+	public void typeConversionWithGeneratedAccessor() {
+		CompiledBean bean = new CompiledBean();
+		BeanWrapper bw = new BeanWrapperImpl(bean);
+
+		bw.setPropertyValue("age", "42");
+		assertEquals(42, bean.getAge());
+		assertEquals(42, bw.getPropertyValue("age"));
+	}
+
+	@Test
+	public void nestedAndKeyedPathsWithGeneratedAccessor() {
+		CompiledBean bean = new CompiledBean();
+		bean.setSpouse(new CompiledBean());
+		BeanWrapper bw = new BeanWrapperImpl(bean);
+
+		for (int i = 0; i < 2; i++) {
+			bw.setPropertyValue("spouse.name", "Kerry" + i);
+			bw.setPropertyValue("friends[0]", "Rod" + i);
+			bw.setPropertyValue("attributes['key']", "value" + i);
+			assertEquals("Kerry" + i, bw.getPropertyValue("spouse.name"));
+			assertEquals("Rod" + i, bw.getPropertyValue("friends[0]"));
+			assertEquals("value" + i, bw.getPropertyValue("attributes[\"key\"]"));
+		}
+		assertTrue(bean.getSpouse().lastCaller, bean.getSpouse().lastCaller.contains("FastClass"));
+	}
+
+	@Test
+	public void exceptionFromGeneratedAccessor() {
+		BeanWrapper bw = new BeanWrapperImpl(new CompiledBean());
+		try {
+			bw.setPropertyValue("name", "bogus");
+			fail("Should have thrown MethodInvocationException");
+		}
+		catch (MethodInvocationException ex) {
+			assertTrue(ex.getCause() instanceof IllegalArgumentException);
+			assertEquals("bogus", ex.getCause().getMessage());
+		}
+	}
+
+	@Test
+	public void nonPublicClassFallsBackToReflection() {
+		NonPublicBean bean = new NonPublicBean();
+		BeanWrapper bw = new BeanWrapperImpl(bean);
+
+		bw.setPropertyValue("name", "Juergen");
+		assertEquals("Juergen", bw.getPropertyValue("name"));
+	}
+
+	public static class CompiledBean {
+
+		private String name;
+
+		private int age;
+
+		private CompiledBean spouse;
+
+		private List<String> friends = new ArrayList<>();
+
+		private Map<String, String> attributes = new HashMap<>();
+
+		private String lastCaller;
+
+		public String getName() {
+			this.lastCaller = Thread.currentThread().getStackTrace()[2].getClassName();
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.lastCaller = Thread.currentThread().getStackTrace()[2].getClassName();
+			if ("bogus".equals(name)) {
+				throw new IllegalArgumentException(name);
+			}
+			this.name = name;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+
+		public CompiledBean getSpouse() {
+			return this.spouse;
+		}
+
+		public void setSpouse(CompiledBean spouse) {
+			this.spouse = spouse;
+		}
+
+		public List<String> getFriends() {
+			return this.friends;
+		}
+
+		public void setFriends(List<String> friends) {
+			this.friends = friends;
+		}
+
+		public Map<String, String> getAttributes() {
+			return this.attributes;
+		}
+
+		public void setAttributes(Map<String, String> attributes) {
+			this.attributes = attributes;
+		}
+	}
+
+
+	static class NonPublicBean {
+
+		private String name;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+	}
+
+}
@@ -0,0 +1,657 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.cache.support.ExpiringValueWrapper;
+import org.springframework.core.serializer.support.SerializationDelegate;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link org.springframework.cache.Cache} implementation based on the core JDK
+ * {@code java.util.concurrent} package which, unlike {@link ConcurrentMapCache},
+ * bounds the number (or total weight) of its entries and optionally expires
+ * entries a fixed amount of time after they have been written.
+ *
+ * <p>Eviction follows a segmented LRU policy: new entries are admitted into a
+ * probationary segment and only promoted into the protected segment (80% of the
+ * maximum weight) once they are read again, so that a burst of one-off keys
+ * cannot flush frequently used entries out of the cache. Recency updates on read
+ * are best-effort and skipped under contention, keeping lookups non-blocking.
+ *
+ * <p>Hit, miss, eviction and expiration counters are maintained for monitoring
+ * purposes, see {@link #getHitCount()} and co. With a time to live, lookups via
+ * {@link #get(Object)} return an {@link ExpiringValueWrapper}.
+ *
+ * <p>Useful for lightweight services that need a bounded in-process cache but do
+ * not want to depend on a caching library such as Caffeine or EhCache. Typically
+ * created through {@link ConcurrentMapCacheManager#setMaximumSize},
+ * {@link ConcurrentMapCacheManager#setMaximumWeight} or
+ * {@link ConcurrentMapCacheManager#setTimeToLive}.
+ *
+ * @author agent (agent@local)
+ * @since 5.1.11
+ * @see ConcurrentMapCacheManager
+ */
+public class BoundedConcurrentMapCache extends AbstractValueAdaptingCache {
+
+	private static final Weigher SINGLETON_WEIGHER = (key, value) -> 1;
+
+	private static final int PROBATION = 1;
+
+	private static final int PROTECTED = 2;
+
+
+	private final String name;
+
+	private final ConcurrentMap<Object, Entry> store = new ConcurrentHashMap<>(256);
+
+	private final long maximumWeight;
+
+	private final long protectedMaximumWeight;
+
+	private final Weigher weigher;
+
+	private final long timeToLive;
+
+	@Nullable
+	private final SerializationDelegate serialization;
+
+	private Clock clock = Clock.systemUTC();
+
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+	/** Guarded by the eviction lock. */
+	private final EntryQueue probationQueue = new EntryQueue();
+
+	/** Guarded by the eviction lock. */
+	private final EntryQueue protectedQueue = new EntryQueue();
+
+	/** Guarded by the eviction lock. */
+	private long weightedSize;
+
+	/** Guarded by the eviction lock. */
+	private long protectedWeightedSize;
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+	private final LongAdder expirationCount = new LongAdder();
+
+
+	/**
+	 * Create a new BoundedConcurrentMapCache with the specified name,
+	 * holding up to the given number of entries.
+	 * @param name the name of the cache
+	 * @param maximumSize the maximum number of entries
+	 */
+	public BoundedConcurrentMapCache(String name, long maximumSize) {
+		this(name, maximumSize, null, null, true);
+	}
+
+	/**
+	 * Create a new BoundedConcurrentMapCache with the specified name and bounds.
+	 * @param name the name of the cache
+	 * @param maximumWeight the maximum total weight of all entries, as determined
+	 * by the given {@code weigher} (or the maximum number of entries if none)
+	 * @param weigher the weigher to apply to each entry, or {@code null} for
+	 * a weight of 1 per entry
+	 * @param timeToLive the time after which an entry expires once it has been
+	 * written, or {@code null} for no expiration
+	 * @param allowNullValues whether to allow {@code null} values
+	 * (adapting them to an internal null holder value)
+	 */
+	public BoundedConcurrentMapCache(String name, long maximumWeight, @Nullable Weigher weigher,
+			@Nullable Duration timeToLive, boolean allowNullValues) {
+
+		this(name, maximumWeight, weigher, timeToLive, allowNullValues, null);
+	}
+
+	/**
+	 * Create a new BoundedConcurrentMapCache with the specified name and bounds.
+	 * If the {@link SerializationDelegate} is specified,
+	 * {@link #isStoreByValue() store-by-value} is enabled, and the weigher
+	 * (if any) is applied to the serialized form of each value.
+	 * @param name the name of the cache
+	 * @param maximumWeight the maximum total weight of all entries, as determined
+	 * by the given {@code weigher} (or the maximum number of entries if none)
+	 * @param weigher the weigher to apply to each entry, or {@code null} for
+	 * a weight of 1 per entry
+	 * @param timeToLive the time after which an entry expires once it has been
+	 * written, or {@code null} for no expiration
+	 * @param allowNullValues whether to allow {@code null} values
+	 * (adapting them to an internal null holder value)
+	 * @param serialization the {@link SerializationDelegate} to use
+	 * to serialize cache entry or {@code null} to store the reference
+	 */
+	protected BoundedConcurrentMapCache(String name, long maximumWeight, @Nullable Weigher weigher,
+			@Nullable Duration timeToLive, boolean allowNullValues,
+			@Nullable SerializationDelegate serialization) {
+
+		super(allowNullValues);
+		Assert.notNull(name, "Name must not be null");
+		Assert.isTrue(maximumWeight > 0, "Maximum weight must be greater than 0");
+		Assert.isTrue(timeToLive == null || !timeToLive.isNegative(), "Time to live must not be negative");
+		this.name = name;
+		this.maximumWeight = maximumWeight;
+		this.protectedMaximumWeight = (long) (maximumWeight * 0.8);
+		this.weigher = (weigher != null ? weigher : SINGLETON_WEIGHER);
+		this.timeToLive = (timeToLive != null ? timeToLive.toMillis() : 0);
+		this.serialization = serialization;
+	}
+
+
+	/**
+	 * Configure the {@link Clock} to use for calculating entry expiration.
+	 * <p>This may be useful to advance the clock in a test, e.g.
+	 * {@code Clock.offset(clock, Duration.ofMinutes(5))}, in order to
+	 * simulate entry expiration.
+	 * <p>By default this is {@link Clock#systemUTC()}.
+	 * @param clock the clock to use
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "Clock is required");
+		this.clock = clock;
+	}
+
+	/**
+	 * Return the configured clock for entry expiration calculations.
+	 */
+	public Clock getClock() {
+		return this.clock;
+	}
+
+	/**
+	 * Return whether this cache stores a copy of each entry ({@code true}) or
+	 * a reference ({@code false}, default). If store by value is enabled, each
+	 * entry in the cache must be serializable.
+	 */
+	public final boolean isStoreByValue() {
+		return (this.serialization != null);
+	}
+
+	/**
+	 * Return the maximum total weight (by default: number) of entries.
+	 */
+	public final long getMaximumWeight() {
+		return this.maximumWeight;
+	}
+
+	/**
+	 * Return the time after which an entry expires once it has been written,
+	 * or {@code null} if entries do not expire.
+	 */
+	@Nullable
+	public final Duration getTimeToLive() {
+		return (this.timeToLive > 0 ? Duration.ofMillis(this.timeToLive) : null);
+	}
+
+	@Override
+	public final String getName() {
+		return this.name;
+	}
+
+	/**
+	 * This implementation returns the cache itself, since the internal store
+	 * holds eviction metadata alongside each value.
+	 */
+	@Override
+	public final BoundedConcurrentMapCache getNativeCache() {
+		return this;
+	}
+
+	/**
+	 * Return the number of entries currently held, including expired entries
+	 * that have not been cleaned up yet.
+	 */
+	public int getEstimatedSize() {
+		return this.store.size();
+	}
+
+	/**
+	 * Return the current total weight of all entries.
+	 */
+	public long getWeightedSize() {
+		this.evictionLock.lock();
+		try {
+			return this.weightedSize;
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Return the number of lookups that found a live entry.
+	 */
+	public long getHitCount() {
+		return this.hitCount.sum();
+	}
+
+	/**
+	 * Return the number of lookups that did not find a live entry.
+	 */
+	public long getMissCount() {
+		return this.missCount.sum();
+	}
+
+	/**
+	 * Return the number of entries evicted in order to honor the maximum weight.
+	 */
+	public long getEvictionCount() {
+		return this.evictionCount.sum();
+	}
+
+	/**
+	 * Return the number of entries removed because their time to live elapsed.
+	 */
+	public long getExpirationCount() {
+		return this.expirationCount.sum();
+	}
+
+
+	/**
+	 * This implementation returns an {@link ExpiringValueWrapper} if a time
+	 * to live has been specified.
+	 */
+	@Override
+	@Nullable
+	public ValueWrapper get(Object key) {
+		if (this.timeToLive <= 0) {
+			return super.get(key);
+		}
+		long now = currentTime();
+		Entry entry = lookupEntry(key, now);
+		return (entry != null ?
+				new ExpiringValueWrapper(fromStoreValue(entry.value), Duration.ofMillis(entry.expirationTime - now)) :
+				null);
+	}
+
+	@Override
+	@Nullable
+	protected Object lookup(Object key) {
+		Entry entry = lookupEntry(key, currentTime());
+		return (entry != null ? entry.value : null);
+	}
+
+	@Nullable
+	private Entry lookupEntry(Object key, long now) {
+		Entry entry = this.store.get(key);
+		if (entry != null && entry.isExpired(now)) {
+			if (this.store.remove(key, entry)) {
+				this.expirationCount.increment();
+				afterRemoval(entry);
+			}
+			entry = null;
+		}
+		if (entry == null) {
+			this.missCount.increment();
+			return null;
+		}
+		this.hitCount.increment();
+		afterRead(entry);
+		return entry;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	@Nullable
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		Object value = lookup(key);
+		if (value != null) {
+			return (T) fromStoreValue(value);
+		}
+		Entry[] written = new Entry[2];
+		Entry entry = this.store.compute(key, (k, existing) -> {
+			long now = currentTime();
+			if (existing != null && !existing.isExpired(now)) {
+				return existing;
+			}
+			try {
+				written[0] = existing;
+				written[1] = createEntry(k, toStoreValue(valueLoader.call()), now);
+				return written[1];
+			}
+			catch (Throwable ex) {
+				throw new ValueRetrievalException(key, valueLoader, ex);
+			}
+		});
+		if (entry == written[1]) {
+			if (written[0] != null) {
+				this.expirationCount.increment();
+			}
+			afterWrite(entry, written[0]);
+		}
+		return (T) fromStoreValue(entry.value);
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		Entry entry = createEntry(key, toStoreValue(value), currentTime());
+		afterWrite(entry, this.store.put(key, entry));
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		Entry entry = createEntry(key, toStoreValue(value), currentTime());
+		while (true) {
+			Entry existing = this.store.putIfAbsent(key, entry);
+			if (existing == null) {
+				afterWrite(entry, null);
+				return null;
+			}
+			if (!existing.isExpired(entry.writeTime)) {
+				return toValueWrapper(existing.value);
+			}
+			if (this.store.replace(key, existing, entry)) {
+				this.expirationCount.increment();
+				afterWrite(entry, existing);
+				return null;
+			}
+		}
+	}
+
+	@Override
+	public void evict(Object key) {
+		Entry entry = this.store.remove(key);
+		if (entry != null) {
+			afterRemoval(entry);
+		}
+	}
+
+	@Override
+	public void clear() {
+		for (Entry entry : this.store.values()) {
+			if (this.store.remove(entry.key, entry)) {
+				afterRemoval(entry);
+			}
+		}
+	}
+
+	@Override
+	protected Object toStoreValue(@Nullable Object userValue) {
+		Object storeValue = super.toStoreValue(userValue);
+		if (this.serialization != null) {
+			try {
+				return serializeValue(this.serialization, storeValue);
+			}
+			catch (Throwable ex) {
+				throw new IllegalArgumentException("Failed to serialize cache value '" + userValue +
+						"'. Does it implement Serializable?", ex);
+			}
+		}
+		else {
+			return storeValue;
+		}
+	}
+
+	private Object serializeValue(SerializationDelegate serialization, Object storeValue) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try {
+			serialization.serialize(storeValue, out);
+			return out.toByteArray();
+		}
+		finally {
+			out.close();
+		}
+	}
+
+	@Override
+	protected Object fromStoreValue(@Nullable Object storeValue) {
+		if (storeValue != null && this.serialization != null) {
+			try {
+				return super.fromStoreValue(deserializeValue(this.serialization, storeValue));
+			}
+			catch (Throwable ex) {
+				throw new IllegalArgumentException("Failed to deserialize cache value '" + storeValue + "'", ex);
+			}
+		}
+		else {
+			return super.fromStoreValue(storeValue);
+		}
+	}
+
+	private Object deserializeValue(SerializationDelegate serialization, Object storeValue) throws IOException {
+		ByteArrayInputStream in = new ByteArrayInputStream((byte[]) storeValue);
+		try {
+			return serialization.deserialize(in);
+		}
+		finally {
+			in.close();
+		}
+	}
+
+
+	private long currentTime() {
+		return (this.timeToLive > 0 ? this.clock.millis() : 0);
+	}
+
+	private Entry createEntry(Object key, Object storeValue, long now) {
+		long weight = this.weigher.weigh(key, storeValue);
+		Assert.state(weight >= 0, () -> "Negative weight for cache entry '" + key + "': " + weight);
+		return new Entry(key, storeValue, weight, now, (this.timeToLive > 0 ? now + this.timeToLive : 0));
+	}
+
+	/**
+	 * Promote the given entry on read, provided that the eviction lock is
+	 * uncontended: a lost recency update merely weakens the LRU order.
+	 */
+	private void afterRead(Entry entry) {
+		if (!this.evictionLock.tryLock()) {
+			return;
+		}
+		try {
+			if (entry.segment == PROBATION) {
+				this.probationQueue.remove(entry);
+				this.protectedQueue.addLast(entry);
+				entry.segment = PROTECTED;
+				this.protectedWeightedSize += entry.weight;
+				while (this.protectedWeightedSize > this.protectedMaximumWeight) {
+					Entry demoted = this.protectedQueue.head;
+					if (demoted == null || demoted == entry) {
+						break;
+					}
+					this.protectedQueue.remove(demoted);
+					this.protectedWeightedSize -= demoted.weight;
+					this.probationQueue.addLast(demoted);
+					demoted.segment = PROBATION;
+				}
+			}
+			else if (entry.segment == PROTECTED) {
+				this.protectedQueue.remove(entry);
+				this.protectedQueue.addLast(entry);
+			}
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	private void afterWrite(Entry entry, @Nullable Entry replaced) {
+		this.evictionLock.lock();
+		try {
+			if (replaced != null) {
+				retire(replaced);
+			}
+			if (!entry.retired) {
+				this.probationQueue.addLast(entry);
+				entry.segment = PROBATION;
+				this.weightedSize += entry.weight;
+				evictIfNecessary();
+			}
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	private void afterRemoval(Entry entry) {
+		this.evictionLock.lock();
+		try {
+			retire(entry);
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	private void evictIfNecessary() {
+		while (this.weightedSize > this.maximumWeight) {
+			Entry victim = (this.probationQueue.head != null ? this.probationQueue.head : this.protectedQueue.head);
+			if (victim == null) {
+				return;
+			}
+			retire(victim);
+			if (this.store.remove(victim.key, victim)) {
+				this.evictionCount.increment();
+			}
+		}
+	}
+
+	/**
+	 * Unlink the given entry from its segment, if any, and mark it as retired
+	 * so that a concurrent write completing later does not link it again.
+	 */
+	private void retire(Entry entry) {
+		if (entry.segment == PROBATION) {
+			this.probationQueue.remove(entry);
+			this.weightedSize -= entry.weight;
+		}
+		else if (entry.segment == PROTECTED) {
+			this.protectedQueue.remove(entry);
+			this.weightedSize -= entry.weight;
+			this.protectedWeightedSize -= entry.weight;
+		}
+		entry.segment = 0;
+		entry.retired = true;
+	}
+
+
+	/**
+	 * Strategy for determining the weight of a cache entry, e.g. its
+	 * approximate memory footprint in bytes.
+	 */
+	@FunctionalInterface
+	public interface Weigher {
+
+		/**
+		 * Return the weight of the given entry; must not be negative.
+		 * @param key the cache key
+		 * @param storeValue the value as held in the store: the user value,
+		 * an internal {@code null} holder, or the serialized form in case of
+		 * store-by-value
+		 */
+		long weigh(Object key, Object storeValue);
+	}
+
+
+	private static final class Entry {
+
+		final Object key;
+
+		final Object value;
+
+		final long weight;
+
+		final long writeTime;
+
+		final long expirationTime;
+
+		/* Guarded by the eviction lock */
+
+		@Nullable
+		Entry previous;
+
+		@Nullable
+		Entry next;
+
+		int segment;
+
+		boolean retired;
+
+		Entry(Object key, Object value, long weight, long writeTime, long expirationTime) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+			this.writeTime = writeTime;
+			this.expirationTime = expirationTime;
+		}
+
+		boolean isExpired(long now) {
+			return (this.expirationTime != 0 && now >= this.expirationTime);
+		}
+	}
+
+
+	/**
+	 * Intrusive doubly-linked queue of entries, least recently used first.
+	 */
+	private static final class EntryQueue {
+
+		@Nullable
+		Entry head;
+
+		@Nullable
+		Entry tail;
+
+		void addLast(Entry entry) {
+			entry.previous = this.tail;
+			entry.next = null;
+			if (this.tail != null) {
+				this.tail.next = entry;
+			}
+			else {
+				this.head = entry;
+			}
+			this.tail = entry;
+		}
+
+		void remove(Entry entry) {
+			if (entry.previous != null) {
+				entry.previous.next = entry.next;
+			}
+			else {
+				this.head = entry.next;
+			}
+			if (entry.next != null) {
+				entry.next.previous = entry.previous;
+			}
+			else {
+				this.tail = entry.previous;
+			}
+			entry.previous = null;
+			entry.next = null;
+		}
+	}
+
+}
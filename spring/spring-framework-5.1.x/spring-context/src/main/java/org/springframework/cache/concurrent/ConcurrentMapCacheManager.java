@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.cache.concurrent;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -28,6 +29,7 @@ import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.core.serializer.support.SerializationDelegate;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 
 /**
  * {@link CacheManager} implementation that lazily builds {@link ConcurrentMapCache}
@@ -35,7 +37,12 @@ import org.springframework.lang.Nullable;
  * the set of cache names is pre-defined through {@link #setCacheNames}, with no
  * dynamic creation of further cache regions at runtime.
  *
- * <p>Note: This is by no means a sophisticated CacheManager; it comes with no
+ * <p>Caches are unbounded by default. As of 5.1.11, a {@link #setMaximumSize
+ * maximum size}, a {@link #setMaximumWeight maximum weight} and/or a
+ * {@link #setTimeToLive time to live} may be specified, in which case
+ * {@link BoundedConcurrentMapCache} instances will be created instead.
+ *
+ * <p>Note: This is by no means a sophisticated CacheManager; it comes with few
  * cache configuration options. However, it may be useful for testing or simple
  * caching scenarios. For advanced local caching needs, consider
  * {@link org.springframework.cache.jcache.JCacheCacheManager},
@@ -45,6 +52,7 @@ import org.springframework.lang.Nullable;
  * @author Juergen Hoeller
  * @since 3.1
  * @see ConcurrentMapCache
+ * @see BoundedConcurrentMapCache
  */
 public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderAware {
 
@@ -56,6 +64,16 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 
 	private boolean storeByValue = false;
 
+	private long maximumSize = -1;
+
+	private long maximumWeight = -1;
+
+	@Nullable
+	private BoundedConcurrentMapCache.Weigher weigher;
+
+	@Nullable
+	private Duration timeToLive;
+
 	@Nullable
 	private SerializationDelegate serialization;
 
@@ -146,6 +164,99 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 		return this.storeByValue;
 	}
 
+	/**
+	 * Specify the maximum number of entries for each cache in this cache manager,
+	 * evicting entries according to a segmented LRU policy once exceeded.
+	 * <p>Default is -1, i.e. no bound. Mutually exclusive with
+	 * {@link #setMaximumWeight}.
+	 * <p>Note: A change of the maximum size will reset all existing caches,
+	 * if any, to reconfigure them with the new bound.
+	 * @since 5.1.11
+	 * @see BoundedConcurrentMapCache
+	 */
+	public void setMaximumSize(long maximumSize) {
+		if (maximumSize != this.maximumSize) {
+			this.maximumSize = maximumSize;
+			recreateCaches();
+		}
+	}
+
+	/**
+	 * Return the maximum number of entries for each cache, or -1 if not bounded.
+	 * @since 5.1.11
+	 */
+	public long getMaximumSize() {
+		return this.maximumSize;
+	}
+
+	/**
+	 * Specify the maximum total weight of entries for each cache in this cache
+	 * manager, as determined by the configured {@link #setWeigher weigher},
+	 * evicting entries according to a segmented LRU policy once exceeded.
+	 * <p>Default is -1, i.e. no bound. Mutually exclusive with
+	 * {@link #setMaximumSize}.
+	 * <p>Note: A change of the maximum weight will reset all existing caches,
+	 * if any, to reconfigure them with the new bound.
+	 * @since 5.1.11
+	 * @see #setWeigher
+	 */
+	public void setMaximumWeight(long maximumWeight) {
+		if (maximumWeight != this.maximumWeight) {
+			this.maximumWeight = maximumWeight;
+			recreateCaches();
+		}
+	}
+
+	/**
+	 * Return the maximum total weight of entries for each cache,
+	 * or -1 if not bounded.
+	 * @since 5.1.11
+	 */
+	public long getMaximumWeight() {
+		return this.maximumWeight;
+	}
+
+	/**
+	 * Specify the weigher to apply to each entry against the
+	 * {@link #setMaximumWeight maximum weight}, e.g. estimating its memory
+	 * footprint in bytes. In store-by-value mode, the weigher receives the
+	 * serialized {@code byte[]} form of each value.
+	 * <p>Default is a weight of 1 per entry.
+	 * <p>Note: A change of the weigher will reset all existing caches,
+	 * if any, to reconfigure them with the new weigher.
+	 * @since 5.1.11
+	 */
+	public void setWeigher(@Nullable BoundedConcurrentMapCache.Weigher weigher) {
+		if (weigher != this.weigher) {
+			this.weigher = weigher;
+			recreateCaches();
+		}
+	}
+
+	/**
+	 * Specify the time after which an entry expires once it has been written,
+	 * for each cache in this cache manager.
+	 * <p>Default is none, i.e. no expiration.
+	 * <p>Note: A change of the time to live will reset all existing caches,
+	 * if any, to reconfigure them with the new expiration setting.
+	 * @since 5.1.11
+	 */
+	public void setTimeToLive(@Nullable Duration timeToLive) {
+		if (timeToLive == null ? this.timeToLive != null : !timeToLive.equals(this.timeToLive)) {
+			this.timeToLive = timeToLive;
+			recreateCaches();
+		}
+	}
+
+	/**
+	 * Return the time to live for entries in each cache, or {@code null} if none.
+	 * @since 5.1.11
+	 */
+	@Nullable
+	public Duration getTimeToLive() {
+		return this.timeToLive;
+	}
+
 	@Override
 	public void setBeanClassLoader(ClassLoader classLoader) {
 		this.serialization = new SerializationDelegate(classLoader);
@@ -184,15 +295,24 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 	}
 
 	/**
-	 * Create a new ConcurrentMapCache instance for the specified cache name.
+	 * Create a new ConcurrentMapCache instance for the specified cache name,
+	 * or a {@link BoundedConcurrentMapCache} if any bounds have been specified.
 	 * @param name the name of the cache
 	 * @return the ConcurrentMapCache (or a decorator thereof)
 	 */
 	protected Cache createConcurrentMapCache(String name) {
 		SerializationDelegate actualSerialization = (isStoreByValue() ? this.serialization : null);
+		if (this.maximumSize > 0 || this.maximumWeight > 0 || this.timeToLive != null) {
+			Assert.state(this.maximumSize <= 0 || this.maximumWeight <= 0,
+					"Maximum size and maximum weight are mutually exclusive");
+			long bound = (this.maximumWeight > 0 ? this.maximumWeight :
+					(this.maximumSize > 0 ? this.maximumSize : Long.MAX_VALUE));
+			BoundedConcurrentMapCache.Weigher actualWeigher = (this.maximumWeight > 0 ? this.weigher : null);
+			return new BoundedConcurrentMapCache(name, bound, actualWeigher, this.timeToLive,
+					isAllowNullValues(), actualSerialization);
+		}
 		return new ConcurrentMapCache(name, new ConcurrentHashMap<>(256),
 				isAllowNullValues(), actualSerialization);
-
 	}
 
 }
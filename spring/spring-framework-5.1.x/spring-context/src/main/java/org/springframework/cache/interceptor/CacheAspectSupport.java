@@ -18,6 +18,7 @@ package org.springframework.cache.interceptor;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -25,11 +26,19 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Mono;
 
 import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.aop.support.AopUtils;
@@ -42,8 +51,11 @@ import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.BeanFactoryAnnotationUtils;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.ExpiringValueWrapper;
 import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.ReactiveAdapter;
+import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -69,6 +81,14 @@ import org.springframework.util.function.SupplierUtils;
  * used for determining caching operations, a {@link KeyGenerator} will build the
  * cache keys, and a {@link CacheResolver} will resolve the actual cache(s) to use.
  *
+ * <p>As of 5.1.11, methods returning a {@link CompletableFuture} (or, with Reactor
+ * present, a single-value reactive type such as {@code Mono}) may have their eventual
+ * result cached rather than the future itself, if {@linkplain #setCacheAsyncResults
+ * enabled}. Concurrent misses for the same key may be {@linkplain #setCoalesceMisses
+ * coalesced} into a single invocation, and entries close to their expiration may be
+ * {@linkplain #setRefreshAheadExecutor refreshed ahead} in the background while the
+ * current value is still served.
+ *
  * <p>Note: A cache aspect is serializable but does not perform any actual caching
  * after deserialization.
  *
@@ -83,10 +103,20 @@ import org.springframework.util.function.SupplierUtils;
 public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		implements BeanFactoryAware, InitializingBean, SmartInitializingSingleton {
 
+	private static final boolean reactorPresent = ClassUtils.isPresent(
+			"reactor.core.publisher.Mono", CacheAspectSupport.class.getClassLoader());
+
+
 	protected final Log logger = LogFactory.getLog(getClass());
 
 	private final Map<CacheOperationCacheKey, CacheOperationMetadata> metadataCache = new ConcurrentHashMap<>(1024);
 
+	private final ConcurrentMap<Object, InFlightInvocation> inFlightInvocations = new ConcurrentHashMap<>(64);
+
+	@Nullable
+	private final ReactiveCachingHandler reactiveCachingHandler =
+			(reactorPresent ? new ReactiveCachingHandler() : null);
+
 	private final CacheOperationExpressionEvaluator evaluator = new CacheOperationExpressionEvaluator();
 
 	@Nullable
@@ -100,6 +130,15 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	@Nullable
 	private BeanFactory beanFactory;
 
+	private boolean cacheAsyncResults = false;
+
+	private boolean coalesceMisses = false;
+
+	@Nullable
+	private Executor refreshAheadExecutor;
+
+	private Duration refreshAheadThreshold = Duration.ZERO;
+
 	private boolean initialized = false;
 
 
@@ -194,6 +233,85 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		this.cacheResolver = SingletonSupplier.of(new SimpleCacheResolver(cacheManager));
 	}
 
+	/**
+	 * Specify whether to cache the eventual result of methods returning a
+	 * {@link CompletableFuture} or a single-value reactive type such as
+	 * {@code Mono}, rather than the returned future or publisher itself.
+	 * Cache hits are then returned as a completed future or publisher again.
+	 * <p>Default is "false", i.e. the returned object is cached as-is.
+	 * This setting does not apply to {@code @Cacheable(sync=true)}, which
+	 * always caches the returned object.
+	 * @since 5.1.11
+	 */
+	public void setCacheAsyncResults(boolean cacheAsyncResults) {
+		this.cacheAsyncResults = cacheAsyncResults;
+	}
+
+	/**
+	 * Return whether the eventual result of asynchronous methods is cached.
+	 * @since 5.1.11
+	 */
+	public boolean isCacheAsyncResults() {
+		return this.cacheAsyncResults;
+	}
+
+	/**
+	 * Specify whether concurrent invocations that miss the cache for the same
+	 * key(s) should be coalesced, with only the first invocation calling the
+	 * underlying method and all others waiting for and sharing its result.
+	 * <p>In contrast to {@code @Cacheable(sync=true)}, this does not rely on
+	 * {@link Cache#get(Object, java.util.concurrent.Callable)} and is therefore
+	 * independent of the cache provider, and it may be combined with multiple
+	 * caches, other cache operations and the {@code unless} attribute.
+	 * <p>Callers waiting for a concurrent invocation are treated like a cache
+	 * hit, i.e. only perform their own late evictions. Invocations subject to
+	 * a {@code @CachePut} are never coalesced, and neither is a re-entrant call
+	 * from the thread already invoking the method for the same entry.
+	 * <p>Default is "false". Not applied to {@linkplain #setCacheAsyncResults
+	 * asynchronous results}, whose invocation does not block the caller anyway.
+	 * @since 5.1.11
+	 */
+	public void setCoalesceMisses(boolean coalesceMisses) {
+		this.coalesceMisses = coalesceMisses;
+	}
+
+	/**
+	 * Return whether concurrent invocations for the same cache miss are coalesced.
+	 * @since 5.1.11
+	 */
+	public boolean isCoalesceMisses() {
+		return this.coalesceMisses;
+	}
+
+	/**
+	 * Set the executor to refresh cache entries on, once a cache hit indicates
+	 * that the entry expires within the {@link #setRefreshAheadThreshold
+	 * refresh-ahead threshold}. The current value is returned to the caller
+	 * while the underlying method is invoked on the given executor in order
+	 * to replace the entry, with at most one refresh in progress per key.
+	 * <p>Only applies to caches that expose the remaining time to live of
+	 * their entries through an {@link ExpiringValueWrapper}, and to invocations
+	 * that can be {@linkplain #createRefreshInvoker replayed} on another thread.
+	 * <p>Default is none, i.e. entries are not refreshed ahead of expiration.
+	 * @since 5.1.11
+	 * @see #setRefreshAheadThreshold
+	 */
+	public void setRefreshAheadExecutor(@Nullable Executor refreshAheadExecutor) {
+		this.refreshAheadExecutor = refreshAheadExecutor;
+	}
+
+	/**
+	 * Set the remaining time to live below which a cache hit triggers
+	 * a refresh of the entry on the {@link #setRefreshAheadExecutor
+	 * refresh-ahead executor}.
+	 * <p>Default is {@link Duration#ZERO}, i.e. no refresh ahead.
+	 * @since 5.1.11
+	 */
+	public void setRefreshAheadThreshold(Duration refreshAheadThreshold) {
+		Assert.notNull(refreshAheadThreshold, "Refresh-ahead threshold must not be null");
+		this.refreshAheadThreshold = refreshAheadThreshold;
+	}
+
 	/**
 	 * Set the containing {@link BeanFactory} for {@link CacheManager} and other
 	 * service lookups.
@@ -365,6 +483,23 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return invoker.invoke();
 	}
 
+	/**
+	 * Create an invoker for refreshing a cache entry on the
+	 * {@link #setRefreshAheadExecutor refresh-ahead executor}, independent
+	 * from the given invoker which is bound to the current invocation and
+	 * must not be proceeded with on another thread.
+	 * <p>Called on the thread of the current invocation. The default
+	 * implementation returns {@code null}, i.e. no refresh ahead.
+	 * @param invoker the invoker of the current invocation
+	 * @return an invoker for a fresh invocation of the same method with the
+	 * same arguments, or {@code null} if not supported
+	 * @since 5.1.11
+	 */
+	@Nullable
+	protected CacheOperationInvoker createRefreshInvoker(CacheOperationInvoker invoker) {
+		return null;
+	}
+
 	private Class<?> getTargetClass(Object target) {
 		return AopProxyUtils.ultimateTargetClass(target);
 	}
@@ -413,7 +548,19 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		if (cacheHit != null && !hasCachePut(contexts)) {
 			// If there are no put requests, just use the cache hit
 			cacheValue = cacheHit.get();
-			returnValue = wrapCacheValue(method, cacheValue);
+			returnValue = (isAsyncResultCaching(method) ?
+					wrapAsyncCacheValue(method, cacheValue) : wrapCacheValue(method, cacheValue));
+			refreshAheadIfNecessary(invoker, method, contexts, cacheHit);
+		}
+		else if (isAsyncResultCaching(method)) {
+			// Defer all further cache operations until the asynchronous result is available
+			returnValue = invokeOperation(invoker);
+			return (returnValue != null ? processAsyncResult(returnValue,
+					result -> completeCacheOperations(contexts, cachePutRequests, result)) : null);
+		}
+		else if (cacheHit == null && this.coalesceMisses && !cachePutRequests.isEmpty() && !hasCachePut(contexts)) {
+			// Share a single invocation between concurrent callers missing the same entry
+			return invokeCoalesced(invoker, method, contexts, cachePutRequests);
 		}
 		else {
 			// Invoke the method if we don't have a cache hit
@@ -421,6 +568,13 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			cacheValue = unwrapReturnValue(returnValue);
 		}
 
+		completeCacheOperations(contexts, cachePutRequests, cacheValue);
+		return returnValue;
+	}
+
+	private void completeCacheOperations(CacheOperationContexts contexts,
+			List<CachePutRequest> cachePutRequests, @Nullable Object cacheValue) {
+
 		// Collect any explicit @CachePuts
 		collectPutRequests(contexts.get(CachePutOperation.class), cacheValue, cachePutRequests);
 
@@ -431,8 +585,210 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		// Process any late evictions
 		processCacheEvicts(contexts.get(CacheEvictOperation.class), false, cacheValue);
+	}
 
-		return returnValue;
+	@Nullable
+	private Object invokeCoalesced(CacheOperationInvoker invoker, Method method,
+			CacheOperationContexts contexts, List<CachePutRequest> cachePutRequests) {
+
+		Object invocationKey = createInvocationKey(cachePutRequests);
+		InFlightInvocation invocation = new InFlightInvocation(Thread.currentThread());
+		InFlightInvocation existingInvocation = this.inFlightInvocations.putIfAbsent(invocationKey, invocation);
+		if (existingInvocation != null) {
+			Object returnValue;
+			if (existingInvocation.isCurrentThread()) {
+				// Re-entrant call for the same entry: waiting for the outer invocation would never return
+				returnValue = invokeOperation(invoker);
+				completeCacheOperations(contexts, cachePutRequests, unwrapReturnValue(returnValue));
+			}
+			else {
+				// Another caller is loading the entry: treat its result like a cache hit
+				returnValue = awaitInvocation(existingInvocation, invocationKey);
+				completeCacheOperations(contexts, new LinkedList<>(), unwrapReturnValue(returnValue));
+			}
+			return returnValue;
+		}
+		try {
+			Object returnValue;
+			// Check again: a concurrent invocation may have stored the entry in the meantime
+			Cache.ValueWrapper cacheHit = findCachedItem(contexts.get(CacheableOperation.class));
+			if (cacheHit != null) {
+				Object cacheValue = cacheHit.get();
+				returnValue = wrapCacheValue(method, cacheValue);
+				completeCacheOperations(contexts, new LinkedList<>(), cacheValue);
+			}
+			else {
+				returnValue = invokeOperation(invoker);
+				completeCacheOperations(contexts, cachePutRequests, unwrapReturnValue(returnValue));
+			}
+			invocation.complete(returnValue);
+			return returnValue;
+		}
+		catch (Throwable ex) {
+			invocation.completeExceptionally(ex);
+			throw ex;
+		}
+		finally {
+			this.inFlightInvocations.remove(invocationKey, invocation);
+		}
+	}
+
+	@Nullable
+	private Object awaitInvocation(InFlightInvocation invocation, Object invocationKey) {
+		try {
+			return invocation.get();
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new CacheOperationInvoker.ThrowableWrapper(cause);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for concurrent invocation " +
+					"loading cache entry " + invocationKey, ex);
+		}
+	}
+
+	/**
+	 * Create a key identifying the invocation that resolves the given put requests,
+	 * i.e. the invoked method along with the names and keys of the entries to store.
+	 */
+	private Object createInvocationKey(List<CachePutRequest> cachePutRequests) {
+		Object[] elements = new Object[cachePutRequests.size() * 2 + 1];
+		int i = 0;
+		elements[i++] = cachePutRequests.get(0).context.metadata.methodKey;
+		for (CachePutRequest cachePutRequest : cachePutRequests) {
+			elements[i++] = cachePutRequest.context.getCacheNames();
+			elements[i++] = cachePutRequest.key;
+		}
+		return new SimpleKey(elements);
+	}
+
+	private void refreshAheadIfNecessary(CacheOperationInvoker invoker, Method method,
+			CacheOperationContexts contexts, Cache.ValueWrapper cacheHit) {
+
+		Executor executor = this.refreshAheadExecutor;
+		if (executor == null || !(cacheHit instanceof ExpiringValueWrapper) ||
+				((ExpiringValueWrapper) cacheHit).getRemainingTimeToLive().compareTo(this.refreshAheadThreshold) > 0) {
+			return;
+		}
+		List<CachePutRequest> cachePutRequests = new LinkedList<>();
+		collectPutRequests(contexts.get(CacheableOperation.class),
+				CacheOperationExpressionEvaluator.NO_RESULT, cachePutRequests);
+		if (cachePutRequests.isEmpty()) {
+			return;
+		}
+		Object invocationKey = createInvocationKey(cachePutRequests);
+		if (this.inFlightInvocations.containsKey(invocationKey)) {
+			// Entry is being loaded or refreshed already
+			return;
+		}
+		CacheOperationInvoker refreshInvoker = createRefreshInvoker(invoker);
+		if (refreshInvoker == null) {
+			return;
+		}
+		InFlightInvocation invocation = new InFlightInvocation(null);
+		if (this.inFlightInvocations.putIfAbsent(invocationKey, invocation) != null) {
+			// Entry is being loaded or refreshed already
+			return;
+		}
+		if (logger.isTraceEnabled()) {
+			logger.trace("Refreshing cache entry " + invocationKey + " ahead of expiration for method " + method);
+		}
+		try {
+			executor.execute(() -> {
+				invocation.thread = Thread.currentThread();
+				try {
+					Object returnValue = invokeOperation(refreshInvoker);
+					if (returnValue != null && isAsyncResultCaching(method)) {
+						toCompletableFuture(processAsyncResult(returnValue,
+								result -> applyPutRequests(cachePutRequests, result)))
+								.whenComplete((result, ex) -> completeRefresh(invocationKey, invocation, returnValue, ex));
+					}
+					else {
+						applyPutRequests(cachePutRequests, unwrapReturnValue(returnValue));
+						completeRefresh(invocationKey, invocation, returnValue, null);
+					}
+				}
+				catch (Throwable ex) {
+					completeRefresh(invocationKey, invocation, null, ex);
+				}
+			});
+		}
+		catch (RejectedExecutionException ex) {
+			completeRefresh(invocationKey, invocation, null, ex);
+		}
+	}
+
+	private void applyPutRequests(List<CachePutRequest> cachePutRequests, @Nullable Object cacheValue) {
+		for (CachePutRequest cachePutRequest : cachePutRequests) {
+			cachePutRequest.apply(cacheValue);
+		}
+	}
+
+	private void completeRefresh(Object invocationKey, InFlightInvocation invocation,
+			@Nullable Object returnValue, @Nullable Throwable ex) {
+
+		this.inFlightInvocations.remove(invocationKey, invocation);
+		if (ex != null) {
+			invocation.completeExceptionally(ex);
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to refresh cache entry " + invocationKey + " ahead of expiration", ex);
+			}
+		}
+		else {
+			invocation.complete(returnValue);
+		}
+	}
+
+	/**
+	 * Determine whether the given method returns a single-value asynchronous type,
+	 * i.e. a {@link CompletableFuture} or a reactive type such as {@code Mono},
+	 * whose eventual result is to be cached rather than the returned object.
+	 * @see #setCacheAsyncResults
+	 */
+	private boolean isAsyncResultCaching(Method method) {
+		if (!this.cacheAsyncResults) {
+			return false;
+		}
+		Class<?> returnType = method.getReturnType();
+		return (isFutureType(returnType) ||
+				(this.reactiveCachingHandler != null && this.reactiveCachingHandler.isSupported(returnType)));
+	}
+
+	private boolean isFutureType(Class<?> returnType) {
+		return (CompletionStage.class.isAssignableFrom(returnType) &&
+				returnType.isAssignableFrom(CompletableFuture.class));
+	}
+
+	/**
+	 * Attach the given callback to the asynchronous result, to be invoked with
+	 * the eventual (unwrapped) value on successful completion.
+	 */
+	private Object processAsyncResult(Object returnValue, Consumer<Object> callback) {
+		if (returnValue instanceof CompletionStage) {
+			return ((CompletionStage<?>) returnValue).whenComplete((result, ex) -> {
+				if (ex == null) {
+					callback.accept(unwrapReturnValue(result));
+				}
+			});
+		}
+		Assert.state(this.reactiveCachingHandler != null, "No reactive type support");
+		return this.reactiveCachingHandler.processResult(returnValue, callback);
+	}
+
+	private CompletableFuture<?> toCompletableFuture(Object asyncResult) {
+		if (asyncResult instanceof CompletionStage) {
+			return ((CompletionStage<?>) asyncResult).toCompletableFuture();
+		}
+		Assert.state(this.reactiveCachingHandler != null, "No reactive type support");
+		return this.reactiveCachingHandler.toCompletableFuture(asyncResult);
 	}
 
 	@Nullable
@@ -444,6 +800,15 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return cacheValue;
 	}
 
+	private Object wrapAsyncCacheValue(Method method, @Nullable Object cacheValue) {
+		Class<?> returnType = method.getReturnType();
+		if (isFutureType(returnType)) {
+			return CompletableFuture.completedFuture(cacheValue);
+		}
+		Assert.state(this.reactiveCachingHandler != null, "No reactive type support");
+		return this.reactiveCachingHandler.wrapCacheValue(returnType, cacheValue);
+	}
+
 	@Nullable
 	private Object unwrapReturnValue(Object returnValue) {
 		return ObjectUtils.unwrapOptional(returnValue);
@@ -824,6 +1189,57 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	}
 
 
+	/**
+	 * Inner class to avoid a hard dependency on Project Reactor at runtime.
+	 */
+	private static class ReactiveCachingHandler {
+
+		private final ReactiveAdapterRegistry registry = ReactiveAdapterRegistry.getSharedInstance();
+
+		public boolean isSupported(Class<?> returnType) {
+			ReactiveAdapter adapter = this.registry.getAdapter(returnType);
+			return (adapter != null && !adapter.isMultiValue() && !adapter.isNoValue());
+		}
+
+		public Object wrapCacheValue(Class<?> returnType, @Nullable Object cacheValue) {
+			ReactiveAdapter adapter = this.registry.getAdapter(returnType);
+			Assert.state(adapter != null, () -> "No ReactiveAdapter for " + returnType);
+			return adapter.fromPublisher(Mono.justOrEmpty(cacheValue));
+		}
+
+		public Object processResult(Object returnValue, Consumer<Object> callback) {
+			ReactiveAdapter adapter = this.registry.getAdapter(returnValue.getClass());
+			Assert.state(adapter != null, () -> "No ReactiveAdapter for " + returnValue.getClass());
+			return adapter.fromPublisher(Mono.from(adapter.toPublisher(returnValue)).doOnSuccess(callback));
+		}
+
+		public CompletableFuture<?> toCompletableFuture(Object asyncResult) {
+			ReactiveAdapter adapter = this.registry.getAdapter(asyncResult.getClass());
+			Assert.state(adapter != null, () -> "No ReactiveAdapter for " + asyncResult.getClass());
+			return Mono.from(adapter.toPublisher(asyncResult)).toFuture();
+		}
+	}
+
+
+	/**
+	 * An invocation loading or refreshing a cache entry, along with the thread
+	 * performing it (if known) in order to detect re-entrant calls.
+	 */
+	private static class InFlightInvocation extends CompletableFuture<Object> {
+
+		@Nullable
+		volatile Thread thread;
+
+		InFlightInvocation(@Nullable Thread thread) {
+			this.thread = thread;
+		}
+
+		boolean isCurrentThread() {
+			return (this.thread == Thread.currentThread());
+		}
+	}
+
+
 	private static final class CacheOperationCacheKey implements Comparable<CacheOperationCacheKey> {
 
 		private final CacheOperation cacheOperation;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,7 @@ import java.lang.reflect.Method;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 
+import org.springframework.aop.ProxyMethodInvocation;
 import org.springframework.lang.Nullable;
 
 /**
@@ -48,14 +49,7 @@ public class CacheInterceptor extends CacheAspectSupport implements MethodInterc
 	public Object invoke(final MethodInvocation invocation) throws Throwable {
 		Method method = invocation.getMethod();
 
-		CacheOperationInvoker aopAllianceInvoker = () -> {
-			try {
-				return invocation.proceed();
-			}
-			catch (Throwable ex) {
-				throw new CacheOperationInvoker.ThrowableWrapper(ex);
-			}
-		};
+		CacheOperationInvoker aopAllianceInvoker = new MethodInvocationInvoker(invocation);
 
 		try {
 			return execute(aopAllianceInvoker, invocation.getThis(), method, invocation.getArguments());
@@ -65,4 +59,45 @@ public class CacheInterceptor extends CacheAspectSupport implements MethodInterc
 		}
 	}
 
+	/**
+	 * This implementation proceeds with a clone of the current proxy method
+	 * invocation, continuing with the remaining interceptors of the chain.
+	 * @since 5.1.11
+	 * @see ProxyMethodInvocation#invocableClone()
+	 */
+	@Override
+	@Nullable
+	protected CacheOperationInvoker createRefreshInvoker(CacheOperationInvoker invoker) {
+		if (invoker instanceof MethodInvocationInvoker) {
+			MethodInvocation invocation = ((MethodInvocationInvoker) invoker).invocation;
+			if (invocation instanceof ProxyMethodInvocation) {
+				return new MethodInvocationInvoker(((ProxyMethodInvocation) invocation).invocableClone());
+			}
+		}
+		return null;
+	}
+
+
+	/**
+	 * {@link CacheOperationInvoker} proceeding with an AOP Alliance {@link MethodInvocation}.
+	 */
+	private static class MethodInvocationInvoker implements CacheOperationInvoker {
+
+		private final MethodInvocation invocation;
+
+		public MethodInvocationInvoker(MethodInvocation invocation) {
+			this.invocation = invocation;
+		}
+
+		@Override
+		public Object invoke() throws ThrowableWrapper {
+			try {
+				return this.invocation.proceed();
+			}
+			catch (Throwable ex) {
+				throw new CacheOperationInvoker.ThrowableWrapper(ex);
+			}
+		}
+	}
+
 }
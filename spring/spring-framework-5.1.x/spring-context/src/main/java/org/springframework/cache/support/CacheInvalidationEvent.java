@@ -0,0 +1,79 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.lang.Nullable;
+
+/**
+ * Event signalling that an entry (or all entries) of a cache has been written
+ * or removed, so that local copies held in front of a shared cache need to be
+ * invalidated.
+ *
+ * <p>Published by a {@link TwoLevelCache} through its
+ * {@link CacheInvalidationPublisher}; a {@link TwoLevelCacheManager} picks up
+ * such events from other sources and invalidates its local cache tier.
+ *
+ * @author agent (agent@local)
+ * @since 5.1.11
+ * @see TwoLevelCache#invalidateLocal
+ */
+@SuppressWarnings("serial")
+public class CacheInvalidationEvent extends ApplicationEvent {
+
+	private final String cacheName;
+
+	@Nullable
+	private final Object key;
+
+
+	/**
+	 * Create a new CacheInvalidationEvent.
+	 * @param source the cache (or other component) that published the event
+	 * @param cacheName the name of the affected cache
+	 * @param key the affected key, or {@code null} if the entire cache
+	 * has been cleared
+	 */
+	public CacheInvalidationEvent(Object source, String cacheName, @Nullable Object key) {
+		super(source);
+		this.cacheName = cacheName;
+		this.key = key;
+	}
+
+
+	/**
+	 * Return the name of the affected cache.
+	 */
+	public String getCacheName() {
+		return this.cacheName;
+	}
+
+	/**
+	 * Return the affected key, or {@code null} if the entire cache has been cleared.
+	 */
+	@Nullable
+	public Object getKey() {
+		return this.key;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " for cache '" + this.cacheName + "': " +
+				(this.key != null ? "key [" + this.key + "]" : "all entries");
+	}
+
+}
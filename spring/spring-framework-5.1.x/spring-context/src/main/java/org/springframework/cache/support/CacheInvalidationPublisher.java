@@ -0,0 +1,38 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+/**
+ * Strategy for propagating {@link CacheInvalidationEvent CacheInvalidationEvents}
+ * from a {@link TwoLevelCache} to the local tiers of other application instances,
+ * e.g. through the application context or a message broker.
+ *
+ * @author agent (agent@local)
+ * @since 5.1.11
+ * @see TwoLevelCache#setInvalidationPublisher
+ * @see TwoLevelCacheManager#setInvalidationPublisher
+ */
+@FunctionalInterface
+public interface CacheInvalidationPublisher {
+
+	/**
+	 * Publish the given invalidation event.
+	 * @param event the event describing the written or removed entries
+	 */
+	void publishInvalidation(CacheInvalidationEvent event);
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.time.Duration;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Extension of {@link SimpleValueWrapper} for cache entries that expire,
+ * additionally exposing the time left until expiration as of the lookup.
+ *
+ * <p>Returned by {@link org.springframework.cache.Cache} implementations that
+ * track entry expiration, allowing callers such as the caching aspect to
+ * refresh an entry ahead of its expiration.
+ *
+ * @author agent (agent@local)
+ * @since 5.1.11
+ * @see org.springframework.cache.concurrent.BoundedConcurrentMapCache
+ * @see org.springframework.cache.interceptor.CacheAspectSupport#setRefreshAheadThreshold
+ */
+public class ExpiringValueWrapper extends SimpleValueWrapper {
+
+	private final Duration remainingTimeToLive;
+
+
+	/**
+	 * Create a new ExpiringValueWrapper instance for exposing the given value.
+	 * @param value the value to expose (may be {@code null})
+	 * @param remainingTimeToLive the time left until the entry expires
+	 */
+	public ExpiringValueWrapper(@Nullable Object value, Duration remainingTimeToLive) {
+		super(value);
+		this.remainingTimeToLive = remainingTimeToLive;
+	}
+
+
+	/**
+	 * Return the time left until the entry expires, as of the lookup.
+	 */
+	public Duration getRemainingTimeToLive() {
+		return this.remainingTimeToLive;
+	}
+
+}
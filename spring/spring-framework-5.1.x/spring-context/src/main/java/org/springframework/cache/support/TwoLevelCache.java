@@ -0,0 +1,258 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.cache.Cache;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Cache decorator which layers a local (near) cache over a remote (far) cache,
+ * e.g. an in-process {@link org.springframework.cache.concurrent.BoundedConcurrentMapCache}
+ * in front of a shared Redis or Hazelcast cache.
+ *
+ * <p>Lookups are served from the local cache if possible, falling back to the
+ * remote cache and populating the local cache with the value found there.
+ * Writes and removals go through to the remote cache first and are then applied
+ * to the local cache, with a {@link CacheInvalidationEvent} published through
+ * the configured {@link CacheInvalidationPublisher} so that other application
+ * instances can {@linkplain #invalidateLocal invalidate} their local copies.
+ *
+ * <p>Since local copies may briefly outlive changes made by other instances,
+ * the local cache should be bounded in size and time to live.
+ *
+ * <p>Hit and miss counters are maintained per tier for monitoring purposes.
+ * Local hits return the local cache's {@link ValueWrapper} as-is, so that an
+ * {@link ExpiringValueWrapper} still drives refresh-ahead in the caching aspect.
+ *
+ * @author agent (agent@local)
+ * @since 5.1.11
+ * @see TwoLevelCacheManager
+ */
+public class TwoLevelCache implements Cache {
+
+	private final Cache localCache;
+
+	private final Cache remoteCache;
+
+	@Nullable
+	private CacheInvalidationPublisher invalidationPublisher;
+
+	private final LongAdder localHitCount = new LongAdder();
+
+	private final LongAdder localMissCount = new LongAdder();
+
+	private final LongAdder remoteHitCount = new LongAdder();
+
+	private final LongAdder remoteMissCount = new LongAdder();
+
+
+	/**
+	 * Create a new TwoLevelCache for the given local and remote caches.
+	 * @param localCache the local (near) cache to consult first
+	 * @param remoteCache the remote (far) cache holding the authoritative entries
+	 */
+	public TwoLevelCache(Cache localCache, Cache remoteCache) {
+		Assert.notNull(localCache, "Local Cache must not be null");
+		Assert.notNull(remoteCache, "Remote Cache must not be null");
+		this.localCache = localCache;
+		this.remoteCache = remoteCache;
+	}
+
+
+	/**
+	 * Set the publisher to notify of every write and removal, in order to
+	 * invalidate local copies held by other application instances.
+	 * <p>Default is none, i.e. the local cache of other instances is
+	 * only refreshed once its entries expire.
+	 */
+	public void setInvalidationPublisher(@Nullable CacheInvalidationPublisher invalidationPublisher) {
+		this.invalidationPublisher = invalidationPublisher;
+	}
+
+	/**
+	 * Return the local (near) cache.
+	 */
+	public Cache getLocalCache() {
+		return this.localCache;
+	}
+
+	/**
+	 * Return the remote (far) cache.
+	 */
+	public Cache getRemoteCache() {
+		return this.remoteCache;
+	}
+
+	/**
+	 * Return the number of lookups served by the local cache.
+	 */
+	public long getLocalHitCount() {
+		return this.localHitCount.sum();
+	}
+
+	/**
+	 * Return the number of lookups not served by the local cache.
+	 */
+	public long getLocalMissCount() {
+		return this.localMissCount.sum();
+	}
+
+	/**
+	 * Return the number of lookups served by the remote cache.
+	 */
+	public long getRemoteHitCount() {
+		return this.remoteHitCount.sum();
+	}
+
+	/**
+	 * Return the number of lookups served by neither cache.
+	 */
+	public long getRemoteMissCount() {
+		return this.remoteMissCount.sum();
+	}
+
+	@Override
+	public String getName() {
+		return this.remoteCache.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return this.remoteCache.getNativeCache();
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper get(Object key) {
+		ValueWrapper wrapper = this.localCache.get(key);
+		if (wrapper != null) {
+			this.localHitCount.increment();
+			return wrapper;
+		}
+		this.localMissCount.increment();
+		wrapper = this.remoteCache.get(key);
+		if (wrapper != null) {
+			this.remoteHitCount.increment();
+			this.localCache.put(key, wrapper.get());
+		}
+		else {
+			this.remoteMissCount.increment();
+		}
+		return wrapper;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, @Nullable Class<T> type) {
+		ValueWrapper wrapper = get(key);
+		Object value = (wrapper != null ? wrapper.get() : null);
+		if (value != null && type != null && !type.isInstance(value)) {
+			throw new IllegalStateException(
+					"Cached value is not of required type [" + type.getName() + "]: " + value);
+		}
+		return (T) value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		ValueWrapper wrapper = this.localCache.get(key);
+		if (wrapper != null) {
+			this.localHitCount.increment();
+			return (T) wrapper.get();
+		}
+		this.localMissCount.increment();
+		boolean[] loaded = new boolean[1];
+		T value = this.remoteCache.get(key, () -> {
+			loaded[0] = true;
+			return valueLoader.call();
+		});
+		if (loaded[0]) {
+			this.remoteMissCount.increment();
+			this.localCache.put(key, value);
+			publishInvalidation(key);
+		}
+		else {
+			this.remoteHitCount.increment();
+			this.localCache.put(key, value);
+		}
+		return value;
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		this.remoteCache.put(key, value);
+		this.localCache.put(key, value);
+		publishInvalidation(key);
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		ValueWrapper existing = this.remoteCache.putIfAbsent(key, value);
+		if (existing != null) {
+			this.localCache.put(key, existing.get());
+		}
+		else {
+			this.localCache.put(key, value);
+			publishInvalidation(key);
+		}
+		return existing;
+	}
+
+	@Override
+	public void evict(Object key) {
+		this.remoteCache.evict(key);
+		this.localCache.evict(key);
+		publishInvalidation(key);
+	}
+
+	@Override
+	public void clear() {
+		this.remoteCache.clear();
+		this.localCache.clear();
+		publishInvalidation(null);
+	}
+
+	/**
+	 * Invalidate the given entry (or all entries) in the local cache only,
+	 * typically in response to a {@link CacheInvalidationEvent} published
+	 * by another application instance.
+	 * @param key the key to invalidate, or {@code null} for all entries
+	 */
+	public void invalidateLocal(@Nullable Object key) {
+		if (key != null) {
+			this.localCache.evict(key);
+		}
+		else {
+			this.localCache.clear();
+		}
+	}
+
+	private void publishInvalidation(@Nullable Object key) {
+		if (this.invalidationPublisher != null) {
+			this.invalidationPublisher.publishInvalidation(new CacheInvalidationEvent(this, getName(), key));
+		}
+	}
+
+}
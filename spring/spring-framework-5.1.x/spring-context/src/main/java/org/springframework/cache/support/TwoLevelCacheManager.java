@@ -0,0 +1,142 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link CacheManager} that combines the caches of a local (near) and a remote
+ * (far) {@code CacheManager} into {@link TwoLevelCache TwoLevelCaches}, e.g. a
+ * bounded {@link org.springframework.cache.concurrent.ConcurrentMapCacheManager}
+ * in front of a Redis-based {@code CacheManager}.
+ *
+ * <p>The set of caches is determined by the remote cache manager, with the
+ * local cache manager expected to provide a cache of the same name on demand.
+ *
+ * <p>Writes and removals are published as {@link CacheInvalidationEvent
+ * CacheInvalidationEvents}: by default through the application context, or
+ * through a custom {@link #setInvalidationPublisher publisher} such as a
+ * message broker bridge. Received events that originate from another cache
+ * manager invalidate the corresponding entries in the local tier; remote
+ * bridges may call {@link #onApplicationEvent} directly.
+ *
+ * @author agent (agent@local)
+ * @since 5.1.11
+ * @see TwoLevelCache
+ */
+public class TwoLevelCacheManager extends AbstractCacheManager
+		implements ApplicationEventPublisherAware, ApplicationListener<CacheInvalidationEvent> {
+
+	private final CacheManager localCacheManager;
+
+	private final CacheManager remoteCacheManager;
+
+	@Nullable
+	private CacheInvalidationPublisher invalidationPublisher;
+
+
+	/**
+	 * Create a new TwoLevelCacheManager for the given local and remote cache managers.
+	 * @param localCacheManager the cache manager providing the local (near) caches
+	 * @param remoteCacheManager the cache manager providing the remote (far) caches
+	 */
+	public TwoLevelCacheManager(CacheManager localCacheManager, CacheManager remoteCacheManager) {
+		Assert.notNull(localCacheManager, "Local CacheManager must not be null");
+		Assert.notNull(remoteCacheManager, "Remote CacheManager must not be null");
+		this.localCacheManager = localCacheManager;
+		this.remoteCacheManager = remoteCacheManager;
+	}
+
+
+	/**
+	 * Set a custom publisher for invalidation events, e.g. sending them
+	 * to other application instances through a message broker.
+	 * <p>Default is to publish them as application events.
+	 */
+	public void setInvalidationPublisher(@Nullable CacheInvalidationPublisher invalidationPublisher) {
+		this.invalidationPublisher = invalidationPublisher;
+	}
+
+	@Override
+	public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+		if (this.invalidationPublisher == null) {
+			this.invalidationPublisher = applicationEventPublisher::publishEvent;
+		}
+	}
+
+
+	@Override
+	protected Collection<? extends Cache> loadCaches() {
+		Collection<Cache> caches = new LinkedHashSet<>();
+		for (String name : this.remoteCacheManager.getCacheNames()) {
+			Cache remoteCache = this.remoteCacheManager.getCache(name);
+			if (remoteCache != null) {
+				caches.add(createTwoLevelCache(remoteCache));
+			}
+		}
+		return caches;
+	}
+
+	@Override
+	@Nullable
+	protected Cache getMissingCache(String name) {
+		Cache remoteCache = this.remoteCacheManager.getCache(name);
+		return (remoteCache != null ? createTwoLevelCache(remoteCache) : null);
+	}
+
+	/**
+	 * Create a TwoLevelCache for the given remote cache, obtaining the
+	 * local cache of the same name from the local cache manager.
+	 * @param remoteCache the remote cache
+	 * @return the TwoLevelCache (or a decorator thereof)
+	 */
+	protected Cache createTwoLevelCache(Cache remoteCache) {
+		Cache localCache = this.localCacheManager.getCache(remoteCache.getName());
+		Assert.state(localCache != null, () -> "No local cache named '" + remoteCache.getName() + "'");
+		TwoLevelCache cache = new TwoLevelCache(localCache, remoteCache);
+		cache.setInvalidationPublisher(this::publishInvalidation);
+		return cache;
+	}
+
+	private void publishInvalidation(CacheInvalidationEvent event) {
+		if (this.invalidationPublisher != null) {
+			this.invalidationPublisher.publishInvalidation(event);
+		}
+	}
+
+	/**
+	 * Invalidate the local tier of the affected cache, unless the event
+	 * originates from that very cache.
+	 */
+	@Override
+	public void onApplicationEvent(CacheInvalidationEvent event) {
+		Cache cache = lookupCache(event.getCacheName());
+		if (cache instanceof TwoLevelCache && cache != event.getSource()) {
+			((TwoLevelCache) cache).invalidateLocal(event.getKey());
+		}
+	}
+
+}
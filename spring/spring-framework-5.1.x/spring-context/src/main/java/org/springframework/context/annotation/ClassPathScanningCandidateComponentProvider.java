@@ -27,6 +27,7 @@ import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.context.index.CandidateComponentsIndex;
 import org.springframework.context.index.CandidateComponentsIndexLoader;
+import org.springframework.core.SpringProperties;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.EnvironmentCapable;
@@ -51,6 +52,7 @@ import org.springframework.util.ClassUtils;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.util.*;
+import java.util.stream.IntStream;
 
 /**
  * A component provider that provides candidate components from a base package. Can
@@ -104,6 +106,9 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	@Nullable
 	private CandidateComponentsIndex componentsIndex;
 
+	private boolean parallelScanning =
+			SpringProperties.getFlag(PathMatchingResourcePatternResolver.PARALLEL_SCANNING_PROPERTY_NAME);
+
 
 	/**
 	 * Protected constructor for flexible subclass initialization.
@@ -293,6 +298,21 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		return this.metadataReaderFactory;
 	}
 
+	/**
+	 * Specify whether to read the metadata of candidate classes in parallel,
+	 * using the common fork-join pool, before applying the type filters and
+	 * conditions to them in the usual scanning order.
+	 * <p>Default is "false", unless the
+	 * {@link PathMatchingResourcePatternResolver#PARALLEL_SCANNING_PROPERTY_NAME}
+	 * property has been set. The {@link #setMetadataReaderFactory MetadataReaderFactory}
+	 * in use needs to be thread-safe for parallel scanning, as the default one is.
+	 * @since 5.1.11
+	 * @see PathMatchingResourcePatternResolver#setParallelScanning
+	 */
+	public void setParallelScanning(boolean parallelScanning) {
+		this.parallelScanning = parallelScanning;
+	}
+
 
 	/**
 	 * Scan the class path for candidate components.
@@ -415,14 +435,17 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 			Resource[] resources = getResourcePatternResolver().getResources(packageSearchPath);
 			boolean traceEnabled = logger.isTraceEnabled();
 			boolean debugEnabled = logger.isDebugEnabled();
-			for (Resource resource : resources) {
+			MetadataReader[] metadataReaders = (this.parallelScanning ? readMetadataInParallel(resources) : null);
+			for (int i = 0; i < resources.length; i++) {
+				Resource resource = resources[i];
 				if (traceEnabled) {
 					logger.trace("Scanning " + resource);
 				}
 				if (resource.isReadable()) {
 					try {
 						// MetadataReader包含了对应class的元信息以及注解元信息
-						MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
+						MetadataReader metadataReader = (metadataReaders != null && metadataReaders[i] != null ?
+								metadataReaders[i] : getMetadataReaderFactory().getMetadataReader(resource));
 						// 判断一个类是不是Component
 						if (isCandidateComponent(metadataReader)) {
 							// 通过扫描@Component得到的BeanDefinition为ScannedGenericBeanDefinition
@@ -465,6 +488,29 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		return candidates;
 	}
 
+	/**
+	 * Read the metadata for the given resources in parallel.
+	 * <p>A resource that cannot be read leaves a {@code null} element in the
+	 * returned array, to be read again in the sequential scanning step:
+	 * skipped if not readable, or reported with its exception in scanning order.
+	 * Errors such as an {@code OutOfMemoryError} are not deferred but propagated.
+	 * @param resources the candidate resources
+	 * @return an array with the corresponding metadata readers
+	 */
+	private MetadataReader[] readMetadataInParallel(Resource[] resources) {
+		MetadataReaderFactory metadataReaderFactory = getMetadataReaderFactory();
+		MetadataReader[] metadataReaders = new MetadataReader[resources.length];
+		IntStream.range(0, resources.length).parallel().forEach(i -> {
+			try {
+				metadataReaders[i] = metadataReaderFactory.getMetadataReader(resources[i]);
+			}
+			catch (IOException | RuntimeException ex) {
+				// Leave it to the sequential scanning step, reporting it with its resource
+			}
+		});
+		return metadataReaders;
+	}
+
 
 	/**
 	 * Resolve the specified base package into a pattern specification for
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,8 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -47,6 +49,7 @@ import org.springframework.cglib.proxy.MethodProxy;
 import org.springframework.cglib.proxy.NoOp;
 import org.springframework.cglib.transform.ClassEmitterTransformer;
 import org.springframework.cglib.transform.TransformingClassGenerator;
+import org.springframework.core.SpringProperties;
 import org.springframework.lang.Nullable;
 import org.springframework.objenesis.ObjenesisException;
 import org.springframework.objenesis.SpringObjenesis;
@@ -83,6 +86,12 @@ class ConfigurationClassEnhancer {
 
 	private static final String BEAN_FACTORY_FIELD = "$$beanFactory";
 
+	/**
+	 * Name suffix for enhanced subclasses pre-generated at build time.
+	 * @see ConfigurationClassPregenerator
+	 */
+	static final String PREGENERATED_CLASS_SUFFIX = "$$EnhancerBySpringCGLIB$$Pregenerated";
+
 
 	private static final Log logger = LogFactory.getLog(ConfigurationClassEnhancer.class);
 
@@ -106,7 +115,16 @@ class ConfigurationClassEnhancer {
 			}
 			return configClass;
 		}
-		Class<?> enhancedClass = createClass(newEnhancer(configClass, classLoader));
+		Class<?> enhancedClass = null;
+		if (SpringProperties.getFlag(ConfigurationClassPregenerator.PREGENERATED_CLASSES_PROPERTY_NAME)) {
+			enhancedClass = loadPregeneratedClass(configClass, classLoader);
+		}
+		if (enhancedClass != null) {
+			Enhancer.registerStaticCallbacks(enhancedClass, CALLBACKS);
+		}
+		else {
+			enhancedClass = createClass(newEnhancer(configClass, classLoader));
+		}
 		if (logger.isTraceEnabled()) {
 			logger.trace(String.format("Successfully enhanced %s; enhanced class name is: %s",
 					configClass.getName(), enhancedClass.getName()));
@@ -141,6 +159,126 @@ class ConfigurationClassEnhancer {
 		return subclass;
 	}
 
+	/**
+	 * Generate the enhanced subclass of the given configuration class under
+	 * its pre-generated class name, returning the bytecode for storage.
+	 * @param configClass the configuration class to enhance
+	 * @param classLoader the ClassLoader to generate the subclass in
+	 * @return the bytecode of the enhanced subclass
+	 * @see #PREGENERATED_CLASS_SUFFIX
+	 */
+	byte[] generateEnhancedClass(Class<?> configClass, @Nullable ClassLoader classLoader) {
+		Assert.isTrue(!EnhancedConfiguration.class.isAssignableFrom(configClass),
+				() -> "Configuration class [" + configClass.getName() + "] has already been enhanced");
+		String className = configClass.getName() + PREGENERATED_CLASS_SUFFIX;
+		Enhancer enhancer = newEnhancer(configClass, classLoader);
+		enhancer.setNamingPolicy((prefix, source, key, names) -> className);
+		enhancer.setUseCache(false);
+		enhancer.setStrategy(new BeanFactoryAwareGeneratorStrategy(classLoader) {
+			@Override
+			public byte[] generate(ClassGenerator cg) throws Exception {
+				// Not defining the class in the current ClassLoader: just interested in the bytecode
+				throw new GeneratedBytecode(super.generate(cg));
+			}
+		});
+		try {
+			enhancer.createClass();
+		}
+		catch (GeneratedBytecode generated) {
+			return generated.bytecode;
+		}
+		throw new IllegalStateException("No bytecode generated for " + className);
+	}
+
+	/**
+	 * Load the pre-generated enhanced subclass of the given configuration class,
+	 * if available and still matching the methods of the configuration class.
+	 * @return the pre-generated subclass, or {@code null} for runtime generation
+	 */
+	@Nullable
+	private Class<?> loadPregeneratedClass(Class<?> configClass, @Nullable ClassLoader classLoader) {
+		String className = configClass.getName() + PREGENERATED_CLASS_SUFFIX;
+		Class<?> pregeneratedClass;
+		try {
+			pregeneratedClass = ClassUtils.forName(className, classLoader);
+		}
+		catch (ClassNotFoundException | LinkageError ex) {
+			return null;
+		}
+		if (!matchesConfigClass(pregeneratedClass, configClass)) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Ignoring pre-generated class [" + className + "] since it does not match " +
+						"the current shape of configuration class [" + configClass.getName() + "]");
+			}
+			return null;
+		}
+		return pregeneratedClass;
+	}
+
+	/**
+	 * Check whether the given pre-generated subclass overrides exactly the
+	 * methods that runtime generation would intercept for the given
+	 * configuration class, i.e. its {@code @Bean} methods and
+	 * {@code setBeanFactory}, as determined by the {@link #CALLBACK_FILTER}.
+	 * Any mismatch indicates a subclass generated for a different version of
+	 * the configuration class, for example with {@code @Bean} methods added
+	 * or removed since, or with their parameter or return types changed.
+	 */
+	private static boolean matchesConfigClass(Class<?> pregeneratedClass, Class<?> configClass) {
+		if (pregeneratedClass.getSuperclass() != configClass ||
+				!EnhancedConfiguration.class.isAssignableFrom(pregeneratedClass)) {
+			return false;
+		}
+		Set<String> expectedOverrides = new HashSet<>();
+		String packageName = ClassUtils.getPackageName(configClass);
+		for (Method method : ReflectionUtils.getUniqueDeclaredMethods(configClass)) {
+			int modifiers = method.getModifiers();
+			if (method.getDeclaringClass() == Object.class || method.isBridge() || method.isSynthetic() ||
+					Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || Modifier.isPrivate(modifiers)) {
+				continue;
+			}
+			if (!Modifier.isPublic(modifiers) && !Modifier.isProtected(modifiers) &&
+					!packageName.equals(ClassUtils.getPackageName(method.getDeclaringClass()))) {
+				// Package-visible method from another package: not overridden
+				continue;
+			}
+			if (isIntercepted(method)) {
+				expectedOverrides.add(getSignature(method));
+			}
+		}
+		for (Method method : EnhancedConfiguration.class.getMethods()) {
+			if (isIntercepted(method)) {
+				expectedOverrides.add(getSignature(method));
+			}
+		}
+		Set<String> actualOverrides = new HashSet<>();
+		for (Method method : pregeneratedClass.getDeclaredMethods()) {
+			// Skipping CGLIB's internal methods as well as bridge methods for NoOp-routed methods
+			if (!method.getName().startsWith("CGLIB$") && !method.isBridge() && !method.isSynthetic() &&
+					!Modifier.isStatic(method.getModifiers())) {
+				actualOverrides.add(getSignature(method));
+			}
+		}
+		return expectedOverrides.equals(actualOverrides);
+	}
+
+	/**
+	 * Determine whether the given method gets routed to one of our method
+	 * interceptors rather than to {@link NoOp}, i.e. whether the enhanced
+	 * subclass overrides it.
+	 */
+	private static boolean isIntercepted(Method method) {
+		return !(CALLBACKS[CALLBACK_FILTER.accept(method)] instanceof NoOp);
+	}
+
+	/**
+	 * Build the signature of the given method, including its return type:
+	 * a changed {@code @Bean} return type means a stale pre-generated subclass.
+	 */
+	private static String getSignature(Method method) {
+		return method.getName() + Type.getMethodDescriptor(method);
+	}
+
 
 	/**
 	 * Marker interface to be implemented by all @Configuration CGLIB subclasses.
@@ -202,6 +340,22 @@ class ConfigurationClassEnhancer {
 	}
 
 
+	/**
+	 * Carries the bytecode generated for a pre-generated subclass out of
+	 * the CGLIB generation process, before the class gets defined.
+	 */
+	@SuppressWarnings("serial")
+	private static class GeneratedBytecode extends RuntimeException {
+
+		final byte[] bytecode;
+
+		GeneratedBytecode(byte[] bytecode) {
+			super(null, null, false, false);
+			this.bytecode = bytecode;
+		}
+	}
+
+
 	/**
 	 * Custom extension of CGLIB's DefaultGeneratorStrategy, introducing a {@link BeanFactory} field.
 	 * Also exposes the application ClassLoader as thread context ClassLoader for the time of
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.FileCopyUtils;
+
+/**
+ * Build-time generator for the CGLIB subclasses of {@link Configuration @Configuration}
+ * classes, storing them as class files for inclusion in the application's classpath.
+ *
+ * <p>With the {@value #PREGENERATED_CLASSES_PROPERTY_NAME} property set to "true"
+ * (as a JVM system property or in a {@code spring.properties} file), the container
+ * loads pre-generated subclasses instead of generating them at startup, saving
+ * the generation time and the associated metaspace for every application context,
+ * e.g. in test suites which start many contexts. A pre-generated subclass which
+ * does not match the current methods of its configuration class, e.g. after a
+ * change without re-running the generator, is ignored in favor of runtime generation.
+ *
+ * <p>Typically invoked through its {@link #main} method as a build step after
+ * compilation, e.g. from a Gradle {@code JavaExec} task with the compiled classes
+ * on the classpath, the output directory as first argument and the base packages
+ * to scan for configuration classes as further arguments.
+ *
+ * @author agent (agent@local)
+ * @since 5.1.11
+ * @see Configuration
+ * @see ConfigurationClassPostProcessor
+ */
+public class ConfigurationClassPregenerator {
+
+	/**
+	 * System property that instructs Spring to load pre-generated CGLIB subclasses
+	 * for {@code @Configuration} classes where available: {@code
+	 * "spring.context.pregeneratedConfigClasses"}.
+	 * <p>The default is "false", always generating such subclasses at runtime.
+	 */
+	public static final String PREGENERATED_CLASSES_PROPERTY_NAME = "spring.context.pregeneratedConfigClasses";
+
+
+	private final ConfigurationClassEnhancer enhancer = new ConfigurationClassEnhancer();
+
+	@Nullable
+	private final ClassLoader classLoader;
+
+
+	/**
+	 * Create a new ConfigurationClassPregenerator for the default ClassLoader.
+	 * @see ClassUtils#getDefaultClassLoader()
+	 */
+	public ConfigurationClassPregenerator() {
+		this(ClassUtils.getDefaultClassLoader());
+	}
+
+	/**
+	 * Create a new ConfigurationClassPregenerator for the given ClassLoader.
+	 * @param classLoader the ClassLoader to load configuration classes with
+	 */
+	public ConfigurationClassPregenerator(@Nullable ClassLoader classLoader) {
+		this.classLoader = classLoader;
+	}
+
+
+	/**
+	 * Scan the given base packages for {@code @Configuration} classes and store
+	 * their pre-generated subclasses in the given output directory.
+	 * @param outputDirectory the root directory for the generated class files
+	 * @param basePackages the packages to check for configuration classes
+	 * @return the names of the generated classes
+	 * @throws IOException if a class file could not be written
+	 */
+	public List<String> pregenerate(File outputDirectory, String... basePackages) throws IOException {
+		Assert.notEmpty(basePackages, "At least one base package must be specified");
+		ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+		scanner.addIncludeFilter(new AnnotationTypeFilter(Configuration.class));
+		if (this.classLoader != null) {
+			scanner.setResourceLoader(new DefaultResourceLoader(this.classLoader));
+		}
+		List<String> classNames = new ArrayList<>();
+		for (String basePackage : basePackages) {
+			for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+				if (candidate instanceof AnnotatedBeanDefinition && ConfigurationClassUtils.isFullConfigurationCandidate(
+						((AnnotatedBeanDefinition) candidate).getMetadata())) {
+					String className = candidate.getBeanClassName();
+					Assert.state(className != null, "No bean class name");
+					classNames.add(pregenerate(outputDirectory, ClassUtils.resolveClassName(className, this.classLoader)));
+				}
+			}
+		}
+		return classNames;
+	}
+
+	/**
+	 * Store the pre-generated subclass of the given {@code @Configuration} class
+	 * in the given output directory.
+	 * @param outputDirectory the root directory for the generated class file
+	 * @param configClass the configuration class to generate a subclass for
+	 * @return the name of the generated class
+	 * @throws IOException if the class file could not be written
+	 */
+	public String pregenerate(File outputDirectory, Class<?> configClass) throws IOException {
+		byte[] bytecode = this.enhancer.generateEnhancedClass(configClass, this.classLoader);
+		String className = configClass.getName() + ConfigurationClassEnhancer.PREGENERATED_CLASS_SUFFIX;
+		File classFile = new File(outputDirectory, ClassUtils.convertClassNameToResourcePath(className) +
+				ClassUtils.CLASS_FILE_SUFFIX);
+		File parent = classFile.getParentFile();
+		if (!parent.isDirectory() && !parent.mkdirs()) {
+			throw new IOException("Could not create directory " + parent);
+		}
+		FileCopyUtils.copy(bytecode, classFile);
+		return className;
+	}
+
+
+	/**
+	 * Command-line entry point for pre-generating configuration class subclasses.
+	 * @param args the output directory, followed by the base packages to scan
+	 * @throws IOException if a class file could not be written
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("Usage: ConfigurationClassPregenerator <outputDirectory> <basePackage>...");
+			System.exit(1);
+		}
+		List<String> classNames = new ConfigurationClassPregenerator().pregenerate(
+				new File(args[0]), Arrays.copyOfRange(args, 1, args.length));
+		System.out.println("Pre-generated " + classNames.size() + " configuration class subclasses in " + args[0]);
+	}
+
+}
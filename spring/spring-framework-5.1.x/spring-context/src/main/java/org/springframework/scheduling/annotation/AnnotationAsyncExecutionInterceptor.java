@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -80,11 +80,41 @@ public class AnnotationAsyncExecutionInterceptor extends AsyncExecutionIntercept
 	protected String getExecutorQualifier(Method method) {
 		// Maintainer's note: changes made here should also be made in
 		// AnnotationAsyncExecutionAspect#getExecutorQualifier
+		Async async = findAsyncAnnotation(method);
+		return (async != null ? async.value() : null);
+	}
+
+	/**
+	 * Return the concurrency limit for the given method, specified via
+	 * {@link Async#concurrencyLimit} at the method or declaring class level.
+	 * @since 5.1.11
+	 * @see #determineAsyncExecutor(Method)
+	 */
+	@Override
+	protected int getConcurrencyLimit(Method method) {
+		Async async = findAsyncAnnotation(method);
+		return (async != null ? async.concurrencyLimit() : -1);
+	}
+
+	/**
+	 * Return the queue capacity for the given method, specified via
+	 * {@link Async#queueCapacity} at the method or declaring class level.
+	 * @since 5.1.11
+	 * @see #determineAsyncExecutor(Method)
+	 */
+	@Override
+	protected int getQueueCapacity(Method method) {
+		Async async = findAsyncAnnotation(method);
+		return (async != null ? async.queueCapacity() : -1);
+	}
+
+	@Nullable
+	private Async findAsyncAnnotation(Method method) {
 		Async async = AnnotatedElementUtils.findMergedAnnotation(method, Async.class);
 		if (async == null) {
 			async = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), Async.class);
 		}
-		return (async != null ? async.value() : null);
+		return async;
 	}
 
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -67,4 +67,27 @@ public @interface Async {
 	 */
 	String value() default "";
 
+	/**
+	 * The maximum number of concurrent executions of the specified asynchronous
+	 * operation(s), isolating them as a <i>bulkhead</i> on top of the target executor.
+	 * <p>Further invocations are queued up to the specified {@link #queueCapacity}
+	 * and rejected beyond that: with a {@link org.springframework.core.task.TaskRejectedException}
+	 * thrown for {@code void} methods, or a failed {@code Future} handle returned otherwise.
+	 * <p>When specified on a class level {@code @Async} annotation, each method within
+	 * the class gets its own bulkhead with the given limit. The default of -1 indicates
+	 * no limit, with invocations getting passed to the target executor right away.
+	 * @since 5.1.11
+	 * @see org.springframework.core.task.support.BulkheadTaskExecutor
+	 */
+	int concurrencyLimit() default -1;
+
+	/**
+	 * The maximum number of queued invocations of the specified asynchronous
+	 * operation(s) beyond the {@link #concurrencyLimit}, with further invocations
+	 * getting rejected. Only applicable in combination with a concurrency limit.
+	 * <p>The default of -1 indicates an unbounded queue.
+	 * @since 5.1.11
+	 */
+	int queueCapacity() default -1;
+
 }
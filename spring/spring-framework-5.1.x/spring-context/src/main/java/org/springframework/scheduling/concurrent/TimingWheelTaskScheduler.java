@@ -0,0 +1,779 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.SchedulingTaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+import org.springframework.scheduling.support.TaskUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.ErrorHandler;
+
+/**
+ * Implementation of Spring's {@link TaskScheduler} interface, based on
+ * hashed timing wheels instead of a {@link java.util.concurrent.DelayQueue}.
+ * Designed for a large number of scheduled tasks, e.g. tens of thousands
+ * of cron triggers registered through a
+ * {@link org.springframework.scheduling.config.ScheduledTaskRegistrar}.
+ *
+ * <p>Scheduling a task is a constant-time operation: the task is handed over
+ * to one of the wheels (shards) through a lock-free queue, and the ticker
+ * thread of that wheel places it into the bucket for its deadline. On every
+ * tick, the ticker thread wakes up once and dispatches all due tasks of the
+ * current bucket to a shared worker pool in a batch. The next execution time
+ * of a trigger is computed on the worker thread after each execution, so
+ * cron calculations never delay the ticker.
+ *
+ * <p>As a consequence, execution times are only as precise as the configured
+ * {@link #setTickDuration tick duration} (100 milliseconds by default), which
+ * is usually acceptable for cron expressions with second-level resolution.
+ * The wheels follow the configured {@link #setClock Clock}: if the clock jumps
+ * ahead (or the ticker thread gets delayed), the wheel catches up with all
+ * tasks that became due in the meantime.
+ *
+ * <p>Trigger lag (actual versus scheduled execution start) and execution
+ * duration are recorded per task and in aggregate; see
+ * {@link #getTaskMetrics(ScheduledFuture)} and {@link #getMetrics()}.
+ *
+ * @author agent (agent@local)
+ * @since 5.1.11
+ * @see #setPoolSize
+ * @see #setTickDuration
+ * @see #setTicksPerWheel
+ * @see #setShardCount
+ * @see ThreadPoolTaskScheduler
+ */
+@SuppressWarnings("serial")
+public class TimingWheelTaskScheduler extends ExecutorConfigurationSupport
+		implements SchedulingTaskExecutor, TaskScheduler {
+
+	private volatile int poolSize = 1;
+
+	private long tickDuration = 100;
+
+	private int ticksPerWheel = 512;
+
+	private int shardCount = 1;
+
+	private Clock clock = Clock.systemDefaultZone();
+
+	@Nullable
+	private volatile ErrorHandler errorHandler;
+
+	@Nullable
+	private ThreadPoolExecutor workerExecutor;
+
+	@Nullable
+	private Wheel[] wheels;
+
+	private final AtomicInteger nextShard = new AtomicInteger();
+
+	private final AtomicInteger scheduledTaskCount = new AtomicInteger();
+
+	private final TaskMetrics metrics = new TaskMetrics();
+
+
+	/**
+	 * Set the pool size of the worker threads which execute due tasks.
+	 * Default is 1.
+	 * <p><b>This setting can be modified at runtime, for example through JMX.</b>
+	 */
+	public void setPoolSize(int poolSize) {
+		Assert.isTrue(poolSize > 0, "'poolSize' must be 1 or higher");
+		this.poolSize = poolSize;
+		ThreadPoolExecutor executor = this.workerExecutor;
+		if (executor != null) {
+			if (poolSize > executor.getMaximumPoolSize()) {
+				executor.setMaximumPoolSize(poolSize);
+				executor.setCorePoolSize(poolSize);
+			}
+			else {
+				executor.setCorePoolSize(poolSize);
+				executor.setMaximumPoolSize(poolSize);
+			}
+		}
+	}
+
+	/**
+	 * Return the pool size of the worker threads.
+	 */
+	public int getPoolSize() {
+		ThreadPoolExecutor executor = this.workerExecutor;
+		return (executor != null ? executor.getPoolSize() : this.poolSize);
+	}
+
+	/**
+	 * Set the duration of a single tick of the timing wheels, in milliseconds.
+	 * This is the resolution of all execution times. Default is 100.
+	 */
+	public void setTickDuration(long tickDuration) {
+		Assert.isTrue(tickDuration > 0, "'tickDuration' must be 1 or higher");
+		this.tickDuration = tickDuration;
+	}
+
+	/**
+	 * Set the number of buckets per timing wheel, rounded up to a power of two.
+	 * Default is 512, i.e. one revolution of the wheel covers 51.2 seconds with
+	 * the default tick duration; tasks further out stay in their bucket for
+	 * additional revolutions.
+	 */
+	public void setTicksPerWheel(int ticksPerWheel) {
+		Assert.isTrue(ticksPerWheel > 0 && ticksPerWheel <= (1 << 30), "'ticksPerWheel' must be between 1 and 2^30");
+		this.ticksPerWheel = ticksPerWheel;
+	}
+
+	/**
+	 * Set the number of timing wheels to distribute scheduled tasks across,
+	 * each with its own ticker thread. Default is 1.
+	 * <p>Consider raising this with tens of thousands of tasks, in order to
+	 * spread the work of placing and dispatching tasks across several threads.
+	 */
+	public void setShardCount(int shardCount) {
+		Assert.isTrue(shardCount > 0, "'shardCount' must be 1 or higher");
+		this.shardCount = shardCount;
+	}
+
+	/**
+	 * Set the {@link Clock} to use for determining due tasks and for the
+	 * timestamps exposed to triggers. Default is the system clock.
+	 * <p>This may be useful for aligning with a custom time source,
+	 * or for advancing time in a test.
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "Clock must not be null");
+		this.clock = clock;
+	}
+
+	/**
+	 * Return the configured {@link Clock}.
+	 */
+	public Clock getClock() {
+		return this.clock;
+	}
+
+	/**
+	 * Set a custom {@link ErrorHandler} strategy.
+	 */
+	public void setErrorHandler(ErrorHandler errorHandler) {
+		this.errorHandler = errorHandler;
+	}
+
+
+	@Override
+	protected ExecutorService initializeExecutor(
+			ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(this.poolSize, this.poolSize,
+				0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), threadFactory, rejectedExecutionHandler);
+		this.workerExecutor = executor;
+
+		int wheelSize = 1;
+		while (wheelSize < this.ticksPerWheel) {
+			wheelSize <<= 1;
+		}
+		Wheel[] wheels = new Wheel[this.shardCount];
+		long startTime = this.clock.millis();
+		for (int i = 0; i < wheels.length; i++) {
+			wheels[i] = new Wheel(wheelSize, startTime);
+		}
+		this.wheels = wheels;
+		for (Wheel wheel : wheels) {
+			wheel.start(threadFactory);
+		}
+		return executor;
+	}
+
+	@Override
+	public void shutdown() {
+		Wheel[] wheels = this.wheels;
+		if (wheels != null) {
+			for (Wheel wheel : wheels) {
+				wheel.stop();
+			}
+		}
+		super.shutdown();
+	}
+
+	private ThreadPoolExecutor getWorkerExecutor() {
+		Assert.state(this.workerExecutor != null, "TimingWheelTaskScheduler not initialized");
+		return this.workerExecutor;
+	}
+
+	private Wheel nextWheel() {
+		Assert.state(this.wheels != null, "TimingWheelTaskScheduler not initialized");
+		return this.wheels[Math.floorMod(this.nextShard.getAndIncrement(), this.wheels.length)];
+	}
+
+	/**
+	 * Return the number of currently scheduled tasks, i.e. tasks which have
+	 * neither been cancelled nor completed their final execution.
+	 */
+	public int getScheduledTaskCount() {
+		return this.scheduledTaskCount.get();
+	}
+
+	/**
+	 * Return the metrics aggregated across all scheduled tasks.
+	 */
+	public TaskMetrics getMetrics() {
+		return this.metrics;
+	}
+
+	/**
+	 * Return the metrics for the given scheduled task.
+	 * @param future a handle returned by one of the {@code schedule} methods
+	 * of this scheduler
+	 * @return the metrics for the task, or {@code null} if the given handle
+	 * has not been obtained from this scheduler
+	 */
+	@Nullable
+	public TaskMetrics getTaskMetrics(ScheduledFuture<?> future) {
+		if (future instanceof WheelTask && ((WheelTask) future).getScheduler() == this) {
+			return ((WheelTask) future).metrics;
+		}
+		return null;
+	}
+
+
+	// SchedulingTaskExecutor implementation
+
+	@Override
+	public void execute(Runnable task) {
+		ExecutorService executor = getWorkerExecutor();
+		try {
+			executor.execute(errorHandlingTask(task, false));
+		}
+		catch (RejectedExecutionException ex) {
+			throw new TaskRejectedException("Executor [" + executor + "] did not accept task: " + task, ex);
+		}
+	}
+
+	@Override
+	public void execute(Runnable task, long startTimeout) {
+		execute(task);
+	}
+
+	@Override
+	public Future<?> submit(Runnable task) {
+		ExecutorService executor = getWorkerExecutor();
+		try {
+			return executor.submit(errorHandlingTask(task, false));
+		}
+		catch (RejectedExecutionException ex) {
+			throw new TaskRejectedException("Executor [" + executor + "] did not accept task: " + task, ex);
+		}
+	}
+
+	@Override
+	public <T> Future<T> submit(Callable<T> task) {
+		ExecutorService executor = getWorkerExecutor();
+		try {
+			ErrorHandler errorHandler = this.errorHandler;
+			if (errorHandler == null) {
+				return executor.submit(task);
+			}
+			return executor.submit(() -> {
+				try {
+					return task.call();
+				}
+				catch (Throwable ex) {
+					errorHandler.handleError(ex);
+					return null;
+				}
+			});
+		}
+		catch (RejectedExecutionException ex) {
+			throw new TaskRejectedException("Executor [" + executor + "] did not accept task: " + task, ex);
+		}
+	}
+
+
+	// TaskScheduler implementation
+
+	@Override
+	@Nullable
+	public ScheduledFuture<?> schedule(Runnable task, Trigger trigger) {
+		ErrorHandler errorHandler = this.errorHandler;
+		if (errorHandler == null) {
+			errorHandler = TaskUtils.getDefaultErrorHandler(true);
+		}
+		WheelTask wheelTask = new WheelTask(
+				TaskUtils.decorateTaskWithErrorHandler(task, errorHandler, true), trigger, nextWheel());
+		return (wheelTask.schedule() ? wheelTask : null);
+	}
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable task, Date startTime) {
+		WheelTask wheelTask = new WheelTask(errorHandlingTask(task, false),
+				context -> (context.lastScheduledExecutionTime() == null ? startTime : null), nextWheel());
+		wheelTask.schedule();
+		return wheelTask;
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Date startTime, long period) {
+		Assert.isTrue(period > 0, "Period must be positive");
+		WheelTask wheelTask = new WheelTask(errorHandlingTask(task, true), context -> {
+			Date lastScheduled = context.lastScheduledExecutionTime();
+			return (lastScheduled != null ? new Date(lastScheduled.getTime() + period) : startTime);
+		}, nextWheel());
+		wheelTask.schedule();
+		return wheelTask;
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long period) {
+		return scheduleAtFixedRate(task, new Date(this.clock.millis()), period);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Date startTime, long delay) {
+		Assert.isTrue(delay > 0, "Delay must be positive");
+		WheelTask wheelTask = new WheelTask(errorHandlingTask(task, true), context -> {
+			Date lastCompletion = context.lastCompletionTime();
+			return (lastCompletion != null ? new Date(lastCompletion.getTime() + delay) : startTime);
+		}, nextWheel());
+		wheelTask.schedule();
+		return wheelTask;
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long delay) {
+		return scheduleWithFixedDelay(task, new Date(this.clock.millis()), delay);
+	}
+
+
+	private Runnable errorHandlingTask(Runnable task, boolean isRepeatingTask) {
+		return TaskUtils.decorateTaskWithErrorHandler(task, this.errorHandler, isRepeatingTask);
+	}
+
+
+	/**
+	 * Execution metrics for a scheduled task, or aggregated across all tasks
+	 * of a {@link TimingWheelTaskScheduler}.
+	 * <p>The lag is the difference between the scheduled and the actual start
+	 * of an execution, as determined by the scheduler's clock. It covers both
+	 * the tick resolution and any waiting for a free worker thread.
+	 */
+	public static final class TaskMetrics {
+
+		private final LongAdder executionCount = new LongAdder();
+
+		private final LongAdder totalLag = new LongAdder();
+
+		private final LongAccumulator maxLag = new LongAccumulator(Math::max, 0);
+
+		private final LongAdder totalDuration = new LongAdder();
+
+		private final LongAccumulator maxDuration = new LongAccumulator(Math::max, 0);
+
+		TaskMetrics() {
+		}
+
+		void record(long lagMillis, long durationNanos) {
+			this.executionCount.increment();
+			this.totalLag.add(lagMillis);
+			this.maxLag.accumulate(lagMillis);
+			this.totalDuration.add(durationNanos);
+			this.maxDuration.accumulate(durationNanos);
+		}
+
+		/**
+		 * Return the number of executions so far.
+		 */
+		public long getExecutionCount() {
+			return this.executionCount.sum();
+		}
+
+		/**
+		 * Return the average trigger lag across all executions so far.
+		 */
+		public Duration getAverageLag() {
+			long count = this.executionCount.sum();
+			return (count > 0 ? Duration.ofMillis(this.totalLag.sum() / count) : Duration.ZERO);
+		}
+
+		/**
+		 * Return the maximum trigger lag observed so far.
+		 */
+		public Duration getMaxLag() {
+			return Duration.ofMillis(this.maxLag.get());
+		}
+
+		/**
+		 * Return the average execution duration across all executions so far.
+		 */
+		public Duration getAverageDuration() {
+			long count = this.executionCount.sum();
+			return (count > 0 ? Duration.ofNanos(this.totalDuration.sum() / count) : Duration.ZERO);
+		}
+
+		/**
+		 * Return the maximum execution duration observed so far.
+		 */
+		public Duration getMaxDuration() {
+			return Duration.ofNanos(this.maxDuration.get());
+		}
+
+		@Override
+		public String toString() {
+			return "executions=" + getExecutionCount() + ", averageLag=" + getAverageLag() + ", maxLag=" +
+					getMaxLag() + ", averageDuration=" + getAverageDuration() + ", maxDuration=" + getMaxDuration();
+		}
+	}
+
+
+	/**
+	 * A scheduled task, rescheduling itself according to its {@link Trigger}
+	 * after each execution. Wheel-related fields are only accessed by the
+	 * ticker thread of the owning wheel.
+	 */
+	private class WheelTask implements ScheduledFuture<Object>, Runnable {
+
+		private final Runnable delegate;
+
+		private final Trigger trigger;
+
+		private final Wheel wheel;
+
+		private final SimpleTriggerContext triggerContext = new SimpleTriggerContext();
+
+		private final CompletableFuture<Object> completion = new CompletableFuture<>();
+
+		private final TaskMetrics metrics = new TaskMetrics();
+
+		private volatile long scheduledExecutionTime;
+
+		@Nullable
+		private volatile Thread runner;
+
+		long deadlineTick;
+
+		@Nullable
+		WheelTask previous;
+
+		@Nullable
+		WheelTask next;
+
+		public WheelTask(Runnable delegate, Trigger trigger, Wheel wheel) {
+			this.delegate = delegate;
+			this.trigger = trigger;
+			this.wheel = wheel;
+			scheduledTaskCount.incrementAndGet();
+			this.completion.whenComplete((result, ex) -> scheduledTaskCount.decrementAndGet());
+		}
+
+		TimingWheelTaskScheduler getScheduler() {
+			return TimingWheelTaskScheduler.this;
+		}
+
+		long getScheduledExecutionTime() {
+			return this.scheduledExecutionTime;
+		}
+
+		public boolean schedule() {
+			Date nextExecutionTime = this.trigger.nextExecutionTime(this.triggerContext);
+			if (nextExecutionTime == null) {
+				this.completion.complete(null);
+				return false;
+			}
+			this.scheduledExecutionTime = nextExecutionTime.getTime();
+			this.wheel.add(this);
+			return true;
+		}
+
+		@Override
+		public void run() {
+			if (this.completion.isDone()) {
+				return;
+			}
+			long actualExecutionTime = clock.millis();
+			long startNanos = System.nanoTime();
+			this.runner = Thread.currentThread();
+			try {
+				this.delegate.run();
+			}
+			catch (Throwable ex) {
+				this.completion.completeExceptionally(ex);
+				return;
+			}
+			finally {
+				this.runner = null;
+				long durationNanos = System.nanoTime() - startNanos;
+				long lagMillis = Math.max(actualExecutionTime - this.scheduledExecutionTime, 0);
+				this.metrics.record(lagMillis, durationNanos);
+				TimingWheelTaskScheduler.this.metrics.record(lagMillis, durationNanos);
+			}
+			this.triggerContext.update(new Date(this.scheduledExecutionTime),
+					new Date(actualExecutionTime), new Date(clock.millis()));
+			if (!this.completion.isDone()) {
+				schedule();
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = this.completion.cancel(false);
+			Thread runner = this.runner;
+			if (cancelled && mayInterruptIfRunning && runner != null) {
+				runner.interrupt();
+			}
+			return cancelled;
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return this.completion.isCancelled();
+		}
+
+		@Override
+		public boolean isDone() {
+			return this.completion.isDone();
+		}
+
+		@Override
+		public Object get() throws InterruptedException, ExecutionException {
+			return this.completion.get();
+		}
+
+		@Override
+		public Object get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+			return this.completion.get(timeout, unit);
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(this.scheduledExecutionTime - clock.millis(), TimeUnit.MILLISECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			if (this == other) {
+				return 0;
+			}
+			long diff = getDelay(TimeUnit.MILLISECONDS) - other.getDelay(TimeUnit.MILLISECONDS);
+			return (diff == 0 ? 0 : ((diff < 0) ? -1 : 1));
+		}
+
+		@Override
+		public String toString() {
+			return "Scheduled task [" + this.delegate + "] with trigger [" + this.trigger + "]";
+		}
+	}
+
+
+	/**
+	 * A single timing wheel with its own ticker thread. Tasks are handed over
+	 * through a lock-free queue and placed into their buckets by the ticker.
+	 */
+	private class Wheel implements Runnable {
+
+		private final WheelBucket[] buckets;
+
+		private final int mask;
+
+		private final long startTime;
+
+		private final Queue<WheelTask> pendingTasks = new ConcurrentLinkedQueue<>();
+
+		private volatile boolean running = true;
+
+		private long tick;
+
+		@Nullable
+		private Thread thread;
+
+		public Wheel(int wheelSize, long startTime) {
+			this.buckets = new WheelBucket[wheelSize];
+			for (int i = 0; i < wheelSize; i++) {
+				this.buckets[i] = new WheelBucket();
+			}
+			this.mask = wheelSize - 1;
+			this.startTime = startTime;
+		}
+
+		public void start(ThreadFactory threadFactory) {
+			Thread thread = threadFactory.newThread(this);
+			thread.setDaemon(true);
+			this.thread = thread;
+			thread.start();
+		}
+
+		public void stop() {
+			this.running = false;
+			Thread thread = this.thread;
+			if (thread != null) {
+				thread.interrupt();
+			}
+		}
+
+		public void add(WheelTask task) {
+			this.pendingTasks.add(task);
+			if (!this.running) {
+				cancelPendingTasks();
+			}
+		}
+
+		@Override
+		public void run() {
+			while (this.running) {
+				long currentTick = Math.floorDiv(clock.millis() - this.startTime, tickDuration);
+				if (currentTick >= this.tick) {
+					transferPendingTasks(currentTick);
+					// Catch up with all ticks since the last run, but visit each bucket at most once
+					for (long tick = Math.max(this.tick, currentTick - this.mask); tick <= currentTick; tick++) {
+						expireTasks(this.buckets[(int) (tick & this.mask)], currentTick);
+					}
+					this.tick = currentTick + 1;
+				}
+				long sleepMillis = this.startTime + this.tick * tickDuration - clock.millis();
+				try {
+					Thread.sleep(Math.max(Math.min(sleepMillis, tickDuration), 1));
+				}
+				catch (InterruptedException ex) {
+					// Interrupted on shutdown: check running flag again
+				}
+			}
+			for (WheelBucket bucket : this.buckets) {
+				WheelTask task;
+				while ((task = bucket.poll()) != null) {
+					task.cancel(false);
+				}
+			}
+			cancelPendingTasks();
+		}
+
+		private void transferPendingTasks(long currentTick) {
+			WheelTask task;
+			while ((task = this.pendingTasks.poll()) != null) {
+				if (task.isDone()) {
+					continue;
+				}
+				long deadline = task.getScheduledExecutionTime() - this.startTime;
+				task.deadlineTick = Math.max(-Math.floorDiv(-deadline, tickDuration), currentTick);
+				this.buckets[(int) (task.deadlineTick & this.mask)].add(task);
+			}
+		}
+
+		private void expireTasks(WheelBucket bucket, long currentTick) {
+			ThreadPoolExecutor executor = getWorkerExecutor();
+			WheelTask task = bucket.head;
+			while (task != null) {
+				WheelTask next = task.next;
+				if (task.isDone()) {
+					bucket.remove(task);
+				}
+				else if (task.deadlineTick <= currentTick) {
+					bucket.remove(task);
+					try {
+						executor.execute(task);
+					}
+					catch (RejectedExecutionException ex) {
+						logger.debug("Worker executor rejected scheduled task - cancelling it", ex);
+						task.cancel(false);
+					}
+				}
+				task = next;
+			}
+		}
+
+		private void cancelPendingTasks() {
+			WheelTask task;
+			while ((task = this.pendingTasks.poll()) != null) {
+				task.cancel(false);
+			}
+		}
+	}
+
+
+	/**
+	 * Doubly-linked list of the tasks in a wheel bucket.
+	 */
+	private static class WheelBucket {
+
+		@Nullable
+		WheelTask head;
+
+		@Nullable
+		WheelTask tail;
+
+		void add(WheelTask task) {
+			task.previous = this.tail;
+			task.next = null;
+			if (this.tail != null) {
+				this.tail.next = task;
+			}
+			else {
+				this.head = task;
+			}
+			this.tail = task;
+		}
+
+		void remove(WheelTask task) {
+			if (task.previous != null) {
+				task.previous.next = task.next;
+			}
+			else {
+				this.head = task.next;
+			}
+			if (task.next != null) {
+				task.next.previous = task.previous;
+			}
+			else {
+				this.tail = task.previous;
+			}
+			task.previous = null;
+			task.next = null;
+		}
+
+		@Nullable
+		WheelTask poll() {
+			WheelTask task = this.head;
+			if (task != null) {
+				remove(task);
+			}
+			return task;
+		}
+	}
+
+}
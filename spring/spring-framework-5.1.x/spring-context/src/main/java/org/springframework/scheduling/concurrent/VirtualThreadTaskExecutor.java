@@ -0,0 +1,277 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.concurrent.ListenableFuture;
+
+/**
+ * {@link org.springframework.core.task.TaskExecutor} implementation that runs
+ * each task on a new virtual thread, as available on JDK 21 and higher.
+ *
+ * <p>Virtual threads are cheap to create and to block, so there is no pool
+ * and no concurrency limit here: this executor is meant for tasks that spend
+ * most of their time waiting for I/O, e.g. for invoking blocking Spring MVC
+ * handler methods without tying up a container thread (see
+ * {@code RequestMappingHandlerAdapter#setInvocationExecutor}). For CPU-bound
+ * tasks, consider a {@link ThreadPoolTaskExecutor} instead.
+ *
+ * <p>Virtual threads are created through reflection, so this class may be
+ * compiled and deployed against older JDKs; however, creating an instance
+ * fails with an {@link IllegalStateException} there. Check {@link #isSupported()}
+ * for conditional setup.
+ *
+ * <p>Exposes task counts and the accumulated execution time of tasks. Note that
+ * the time virtual threads spend parked or pinned to their carrier thread is
+ * not accessible from application code: use JFR events such as
+ * {@code jdk.VirtualThreadPinned} or {@code -Djdk.tracePinnedThreads} for that.
+ *
+ * @author agent (agent@local)
+ * @since 5.1.11
+ * @see ConcurrentTaskExecutor
+ * @see org.springframework.core.task.SimpleAsyncTaskExecutor
+ */
+public class VirtualThreadTaskExecutor implements AsyncListenableTaskExecutor {
+
+	@Nullable
+	private static final Method ofVirtualMethod;
+
+	static {
+		Method method;
+		try {
+			method = Thread.class.getMethod("ofVirtual");
+		}
+		catch (NoSuchMethodException ex) {
+			// Pre-JDK 19: no virtual threads
+			method = null;
+		}
+		ofVirtualMethod = method;
+	}
+
+
+	private final ThreadFactory threadFactory;
+
+	private final TaskExecutorAdapter adaptedExecutor;
+
+	private final AtomicInteger activeCount = new AtomicInteger();
+
+	private final LongAdder taskCount = new LongAdder();
+
+	private final LongAdder failureCount = new LongAdder();
+
+	private final LongAdder executionTime = new LongAdder();
+
+
+	/**
+	 * Create a new VirtualThreadTaskExecutor, with unnamed virtual threads.
+	 * @throws IllegalStateException if virtual threads are not supported
+	 * on the current JDK
+	 */
+	public VirtualThreadTaskExecutor() {
+		this(null);
+	}
+
+	/**
+	 * Create a new VirtualThreadTaskExecutor, naming virtual threads with the
+	 * given prefix followed by a sequence number.
+	 * @param threadNamePrefix the prefix for virtual thread names, if any
+	 * @throws IllegalStateException if virtual threads are not supported
+	 * on the current JDK
+	 */
+	public VirtualThreadTaskExecutor(@Nullable String threadNamePrefix) {
+		this.threadFactory = createVirtualThreadFactory(threadNamePrefix);
+		this.adaptedExecutor = new TaskExecutorAdapter(task -> this.threadFactory.newThread(task).start());
+	}
+
+
+	/**
+	 * Specify a custom {@link TaskDecorator} to be applied to any {@link Runnable}
+	 * about to be executed, e.g. for exposing some execution context.
+	 */
+	public final void setTaskDecorator(TaskDecorator taskDecorator) {
+		this.adaptedExecutor.setTaskDecorator(taskDecorator);
+	}
+
+
+	@Override
+	public void execute(Runnable task) {
+		this.adaptedExecutor.execute(new MeasuredRunnable(task));
+	}
+
+	@Override
+	public void execute(Runnable task, long startTimeout) {
+		execute(task);
+	}
+
+	@Override
+	public Future<?> submit(Runnable task) {
+		return this.adaptedExecutor.submit(new MeasuredRunnable(task));
+	}
+
+	@Override
+	public <T> Future<T> submit(Callable<T> task) {
+		return this.adaptedExecutor.submit(new MeasuredCallable<>(task));
+	}
+
+	@Override
+	public ListenableFuture<?> submitListenable(Runnable task) {
+		return this.adaptedExecutor.submitListenable(new MeasuredRunnable(task));
+	}
+
+	@Override
+	public <T> ListenableFuture<T> submitListenable(Callable<T> task) {
+		return this.adaptedExecutor.submitListenable(new MeasuredCallable<>(task));
+	}
+
+
+	/**
+	 * Return the number of tasks currently being executed.
+	 */
+	public int getActiveCount() {
+		return this.activeCount.get();
+	}
+
+	/**
+	 * Return the number of tasks executed so far, including failed ones.
+	 */
+	public long getTaskCount() {
+		return this.taskCount.sum();
+	}
+
+	/**
+	 * Return the number of tasks so far that failed with an exception.
+	 */
+	public long getFailureCount() {
+		return this.failureCount.sum();
+	}
+
+	/**
+	 * Return the accumulated wall-clock execution time of all tasks so far,
+	 * including the time spent blocked.
+	 */
+	public Duration getTotalExecutionTime() {
+		return Duration.ofNanos(this.executionTime.sum());
+	}
+
+	private void taskStarted() {
+		this.activeCount.incrementAndGet();
+	}
+
+	private void taskCompleted(long startTime, boolean success) {
+		this.executionTime.add(System.nanoTime() - startTime);
+		this.taskCount.increment();
+		if (!success) {
+			this.failureCount.increment();
+		}
+		this.activeCount.decrementAndGet();
+	}
+
+
+	/**
+	 * Return whether virtual threads are supported on the current JDK.
+	 */
+	public static boolean isSupported() {
+		if (ofVirtualMethod == null) {
+			return false;
+		}
+		try {
+			ofVirtualMethod.invoke(null);
+			return true;
+		}
+		catch (Throwable ex) {
+			// e.g. JDK 19/20 without preview features enabled
+			return false;
+		}
+	}
+
+	private static ThreadFactory createVirtualThreadFactory(@Nullable String threadNamePrefix) {
+		Assert.state(ofVirtualMethod != null, "Virtual threads not supported: JDK 21 or higher required");
+		try {
+			Object builder = ofVirtualMethod.invoke(null);
+			Class<?> builderType = ofVirtualMethod.getReturnType();
+			if (threadNamePrefix != null) {
+				builder = builderType.getMethod("name", String.class, long.class).invoke(builder, threadNamePrefix, 0L);
+			}
+			return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+		}
+		catch (Throwable ex) {
+			throw new IllegalStateException("Virtual threads not supported: " + ex, ex);
+		}
+	}
+
+
+	private class MeasuredRunnable implements Runnable {
+
+		private final Runnable task;
+
+		public MeasuredRunnable(Runnable task) {
+			this.task = task;
+		}
+
+		@Override
+		public void run() {
+			taskStarted();
+			long startTime = System.nanoTime();
+			boolean success = false;
+			try {
+				this.task.run();
+				success = true;
+			}
+			finally {
+				taskCompleted(startTime, success);
+			}
+		}
+	}
+
+
+	private class MeasuredCallable<T> implements Callable<T> {
+
+		private final Callable<T> task;
+
+		public MeasuredCallable(Callable<T> task) {
+			this.task = task;
+		}
+
+		@Override
+		public T call() throws Exception {
+			taskStarted();
+			long startTime = System.nanoTime();
+			boolean success = false;
+			try {
+				T result = this.task.call();
+				success = true;
+				return result;
+			}
+			finally {
+				taskCompleted(startTime, success);
+			}
+		}
+	}
+
+}
@@ -16,22 +16,32 @@
 
 package org.springframework.scheduling.support;
 
+import java.util.Arrays;
 import java.util.Date;
+import java.util.Map;
 import java.util.TimeZone;
 
 import org.springframework.scheduling.Trigger;
 import org.springframework.scheduling.TriggerContext;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 /**
  * {@link Trigger} implementation for cron expressions.
  * Wraps a {@link CronSequenceGenerator}.
  *
+ * <p>As of 5.1.11, the parsed {@code CronSequenceGenerator} is shared across
+ * triggers for the same expression and time zone, since a large number of
+ * dynamically registered triggers typically use a few distinct expressions.
+ *
  * @author Juergen Hoeller
  * @since 3.0
  * @see CronSequenceGenerator
  */
 public class CronTrigger implements Trigger {
 
+	private static final Map<Object, CronSequenceGenerator> sequenceGeneratorCache =
+			new ConcurrentReferenceHashMap<>();
+
 	private final CronSequenceGenerator sequenceGenerator;
 
 
@@ -41,7 +51,7 @@ public class CronTrigger implements Trigger {
 	 * expression conventions
 	 */
 	public CronTrigger(String expression) {
-		this.sequenceGenerator = new CronSequenceGenerator(expression);
+		this(expression, TimeZone.getDefault());
 	}
 
 	/**
@@ -51,7 +61,16 @@ public class CronTrigger implements Trigger {
 	 * @param timeZone a time zone in which the trigger times will be generated
 	 */
 	public CronTrigger(String expression, TimeZone timeZone) {
-		this.sequenceGenerator = new CronSequenceGenerator(expression, timeZone);
+		String timeZoneId = timeZone.getID();
+		if (timeZone.hasSameRules(TimeZone.getTimeZone(timeZoneId))) {
+			// Keyed by id since TimeZone is mutable: sharing a private copy of the time zone
+			this.sequenceGenerator = sequenceGeneratorCache.computeIfAbsent(Arrays.asList(expression, timeZoneId),
+					key -> new CronSequenceGenerator(expression, (TimeZone) timeZone.clone()));
+		}
+		else {
+			// Custom time zone rules for its id
+			this.sequenceGenerator = new CronSequenceGenerator(expression, timeZone);
+		}
 	}
 
 
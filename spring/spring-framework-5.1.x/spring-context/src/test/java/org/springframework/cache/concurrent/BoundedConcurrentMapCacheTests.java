@@ -0,0 +1,212 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cache.AbstractValueAdaptingCacheTests;
+import org.springframework.core.serializer.support.SerializationDelegate;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BoundedConcurrentMapCache}.
+ *
+ * @author agent (agent@local)
+ */
+public class BoundedConcurrentMapCacheTests
+		extends AbstractValueAdaptingCacheTests<BoundedConcurrentMapCache> {
+
+	protected BoundedConcurrentMapCache cache;
+
+	protected BoundedConcurrentMapCache cacheNoNull;
+
+
+	@Before
+	public void setUp() throws Exception {
+		this.cache = new BoundedConcurrentMapCache(CACHE_NAME, 1000);
+		this.cacheNoNull = new BoundedConcurrentMapCache(CACHE_NAME_NO_NULL, 1000, null, null, false);
+	}
+
+	@Override
+	protected BoundedConcurrentMapCache getCache() {
+		return getCache(true);
+	}
+
+	@Override
+	protected BoundedConcurrentMapCache getCache(boolean allowNull) {
+		return allowNull ? this.cache : this.cacheNoNull;
+	}
+
+	@Override
+	protected Object getNativeCache() {
+		return this.cache;
+	}
+
+
+	@Test
+	public void evictsLeastRecentlyWrittenEntryOnceFull() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 3);
+		cache.put("a", 1);
+		cache.put("b", 2);
+		cache.put("c", 3);
+		cache.put("d", 4);
+
+		assertNull(cache.get("a"));
+		assertEquals(4, cache.get("d").get());
+		assertEquals(3, cache.getEstimatedSize());
+		assertEquals(3, cache.getWeightedSize());
+		assertEquals(1, cache.getEvictionCount());
+	}
+
+	@Test
+	public void protectsEntriesThatHaveBeenReadAgain() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 5);
+		cache.put("hot1", 1);
+		cache.put("hot2", 2);
+		assertNotNull(cache.get("hot1"));
+		assertNotNull(cache.get("hot2"));
+
+		for (int i = 0; i < 20; i++) {
+			cache.put("scan" + i, i);
+		}
+
+		assertEquals(1, cache.get("hot1").get());
+		assertEquals(2, cache.get("hot2").get());
+		assertEquals(5, cache.getEstimatedSize());
+		assertEquals(17, cache.getEvictionCount());
+	}
+
+	@Test
+	public void boundsTotalWeight() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 10,
+				(key, value) -> ((String) value).length(), null, true);
+		cache.put("a", "12345");
+		cache.put("b", "1234");
+		assertEquals(9, cache.getWeightedSize());
+
+		cache.put("c", "123");
+		assertNull(cache.get("a"));
+		assertEquals(7, cache.getWeightedSize());
+
+		cache.put("b", "1");
+		assertEquals(4, cache.getWeightedSize());
+		assertEquals(2, cache.getEstimatedSize());
+	}
+
+	@Test
+	public void rejectsEntryHeavierThanMaximumWeight() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 3,
+				(key, value) -> ((String) value).length(), null, true);
+		cache.put("a", "1234");
+		assertNull(cache.get("a"));
+		assertEquals(0, cache.getWeightedSize());
+	}
+
+	@Test
+	public void expiresEntriesAfterTimeToLive() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 100,
+				null, Duration.ofMinutes(5), true);
+		Clock clock = Clock.systemUTC();
+		cache.setClock(clock);
+		cache.put("a", 1);
+		assertEquals(1, cache.get("a").get());
+
+		cache.setClock(Clock.offset(clock, Duration.ofMinutes(5)));
+		assertNull(cache.get("a"));
+		assertEquals(0, cache.getEstimatedSize());
+		assertEquals(0, cache.getWeightedSize());
+		assertEquals(1, cache.getExpirationCount());
+	}
+
+	@Test
+	public void putIfAbsentReplacesExpiredEntry() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 100,
+				null, Duration.ofMinutes(5), true);
+		Clock clock = Clock.systemUTC();
+		cache.setClock(clock);
+		cache.put("a", 1);
+		assertEquals(1, cache.putIfAbsent("a", 2).get());
+
+		cache.setClock(Clock.offset(clock, Duration.ofMinutes(10)));
+		assertNull(cache.putIfAbsent("a", 3));
+		assertEquals(3, cache.get("a").get());
+		assertEquals(1, cache.getWeightedSize());
+	}
+
+	@Test
+	public void valueLoaderReplacesExpiredEntry() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 100,
+				null, Duration.ofMinutes(5), true);
+		Clock clock = Clock.systemUTC();
+		cache.setClock(clock);
+		assertEquals("first", cache.get("a", () -> "first"));
+		assertEquals("first", cache.get("a", () -> "second"));
+
+		cache.setClock(Clock.offset(clock, Duration.ofMinutes(10)));
+		assertEquals("third", cache.get("a", () -> "third"));
+		assertEquals(1, cache.getWeightedSize());
+		assertEquals(1, cache.getExpirationCount());
+	}
+
+	@Test
+	public void recordsHitsAndMisses() {
+		this.cache.get("a");
+		this.cache.put("a", "b");
+		this.cache.get("a");
+		this.cache.get("a", String.class);
+
+		assertEquals(2, this.cache.getHitCount());
+		assertEquals(1, this.cache.getMissCount());
+	}
+
+	@Test
+	public void clearResetsWeightedSize() {
+		this.cache.put("a", 1);
+		this.cache.put("b", 2);
+		this.cache.clear();
+
+		assertEquals(0, this.cache.getEstimatedSize());
+		assertEquals(0, this.cache.getWeightedSize());
+		this.cache.put("c", 3);
+		assertEquals(1, this.cache.getWeightedSize());
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void storeByValue() {
+		BoundedConcurrentMapCache serializeCache = new BoundedConcurrentMapCache(CACHE_NAME, 10, null, null, true,
+				new SerializationDelegate(BoundedConcurrentMapCacheTests.class.getClassLoader()));
+		assertTrue(serializeCache.isStoreByValue());
+
+		Object key = createRandomKey();
+		List<String> content = new ArrayList<>(Arrays.asList("one", "two", "three"));
+		serializeCache.put(key, content);
+		content.remove(0);
+		List<String> entry = (List<String>) serializeCache.get(key).get();
+		assertEquals(3, entry.size());
+		assertEquals("one", entry.get(0));
+	}
+
+}
@@ -16,6 +16,8 @@
 
 package org.springframework.cache.concurrent;
 
+import java.time.Duration;
+
 import org.junit.Test;
 
 import org.springframework.cache.Cache;
@@ -131,4 +133,43 @@ public class ConcurrentMapCacheManagerTests {
 		assertNull(cache1x.get("key"));
 	}
 
+	@Test
+	public void testBoundedCaches() {
+		ConcurrentMapCacheManager cm = new ConcurrentMapCacheManager("c1");
+		assertTrue(cm.getCache("c1") instanceof ConcurrentMapCache);
+
+		cm.setMaximumSize(2);
+		cm.setTimeToLive(Duration.ofMinutes(1));
+		Cache cache1 = cm.getCache("c1");
+		assertTrue(cache1 instanceof BoundedConcurrentMapCache);
+		BoundedConcurrentMapCache bounded = (BoundedConcurrentMapCache) cache1;
+		assertEquals(2, bounded.getMaximumWeight());
+		assertEquals(Duration.ofMinutes(1), bounded.getTimeToLive());
+
+		cache1.put("key1", "value1");
+		cache1.put("key2", "value2");
+		cache1.put("key3", "value3");
+		assertNull(cache1.get("key1"));
+		assertEquals(1, bounded.getEvictionCount());
+
+		cm.setMaximumSize(-1);
+		cm.setMaximumWeight(10);
+		cm.setWeigher((key, value) -> ((String) value).length());
+		bounded = (BoundedConcurrentMapCache) cm.getCache("c1");
+		bounded.put("key1", "value1");
+		assertEquals(6, bounded.getWeightedSize());
+
+		cm.setMaximumWeight(-1);
+		cm.setTimeToLive(null);
+		assertTrue(cm.getCache("c1") instanceof ConcurrentMapCache);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testMaximumSizeAndWeightAreMutuallyExclusive() {
+		ConcurrentMapCacheManager cm = new ConcurrentMapCacheManager();
+		cm.setMaximumSize(10);
+		cm.setMaximumWeight(10);
+		cm.getCache("c1");
+	}
+
 }
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for caching the eventual result of methods returning
+ * a {@link CompletableFuture} or a {@link Mono}.
+ *
+ * @author agent (agent@local)
+ */
+public class CacheAsyncResultTests {
+
+	private ConfigurableApplicationContext context;
+
+	private Cache cache;
+
+	private AsyncService service;
+
+
+	@Before
+	public void setup() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.cache = this.context.getBean(CacheManager.class).getCache("test");
+		this.service = this.context.getBean(AsyncService.class);
+		this.context.getBean(CacheInterceptor.class).setCacheAsyncResults(true);
+	}
+
+	@After
+	public void closeContext() {
+		this.context.close();
+	}
+
+
+	@Test
+	public void completableFutureResultIsCached() throws Exception {
+		CompletableFuture<Long> first = this.service.future(1L);
+		assertEquals(Long.valueOf(0), first.get());
+		assertEquals(0L, this.cache.get(1L).get());
+
+		CompletableFuture<Long> second = this.service.future(1L);
+		assertTrue(second.isDone());
+		assertEquals(Long.valueOf(0), second.get());
+		assertEquals(1, this.service.getCount());
+	}
+
+	@Test
+	public void completableFutureFailureIsNotCached() {
+		CompletableFuture<Long> result = this.service.failingFuture(1L);
+		assertTrue(result.isCompletedExceptionally());
+		assertNull(this.cache.get(1L));
+	}
+
+	@Test
+	public void completableFutureResultHonorsUnless() throws Exception {
+		assertEquals(Long.valueOf(0), this.service.futureUnless(1L).get());
+		assertNull(this.cache.get(1L));
+		assertEquals(Long.valueOf(1), this.service.futureUnless(1L).get());
+		assertEquals(1L, this.cache.get(1L).get());
+	}
+
+	@Test
+	public void monoResultIsCached() {
+		Mono<Long> first = this.service.mono(1L);
+		assertNull(this.cache.get(1L));
+		assertEquals(Long.valueOf(0), first.block());
+		assertEquals(0L, this.cache.get(1L).get());
+
+		assertEquals(Long.valueOf(0), this.service.mono(1L).block());
+		assertEquals(1, this.service.getCount());
+	}
+
+	@Test
+	public void emptyMonoIsCachedAsNull() {
+		assertNull(this.service.emptyMono(1L).block());
+		assertNull(this.cache.get(1L).get());
+		assertNull(this.service.emptyMono(1L).block());
+		assertEquals(1, this.service.getCount());
+	}
+
+	@Test
+	public void completableFutureCachedAsReturnedByDefault() throws Exception {
+		this.context.getBean(CacheInterceptor.class).setCacheAsyncResults(false);
+		CompletableFuture<Long> first = this.service.future(1L);
+		assertSame(first, this.cache.get(1L).get());
+		assertSame(first, this.service.future(1L));
+		assertEquals(Long.valueOf(0), first.get());
+		assertEquals(1, this.service.getCount());
+	}
+
+	@Test
+	public void syncWithCompletableFutureCachesReturnedFuture() throws Exception {
+		CompletableFuture<Long> first = this.service.syncFuture(1L);
+		assertEquals(Long.valueOf(0), first.get());
+		assertSame(first, this.cache.get(1L).get());
+
+		CompletableFuture<Long> second = this.service.syncFuture(1L);
+		assertSame(first, second);
+		assertEquals(1, this.service.getCount());
+	}
+
+	@Test
+	public void syncWithMonoCachesReturnedMono() {
+		Mono<Long> first = this.service.syncMono(1L);
+		assertSame(first, this.cache.get(1L).get());
+		assertSame(first, this.service.syncMono(1L));
+		assertEquals(Long.valueOf(0), first.block());
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config {
+
+		@Bean
+		public CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager("test");
+		}
+
+		@Bean
+		public AsyncService asyncService() {
+			return new AsyncService();
+		}
+	}
+
+
+	@CacheConfig(cacheNames = "test")
+	public static class AsyncService {
+
+		private final AtomicLong counter = new AtomicLong();
+
+		public long getCount() {
+			return this.counter.get();
+		}
+
+		@Cacheable
+		public CompletableFuture<Long> future(Long id) {
+			return CompletableFuture.supplyAsync(this.counter::getAndIncrement);
+		}
+
+		@Cacheable
+		public CompletableFuture<Long> failingFuture(Long id) {
+			CompletableFuture<Long> result = new CompletableFuture<>();
+			result.completeExceptionally(new IllegalStateException("Test failure"));
+			return result;
+		}
+
+		@Cacheable(unless = "#result == 0")
+		public CompletableFuture<Long> futureUnless(Long id) {
+			return CompletableFuture.completedFuture(this.counter.getAndIncrement());
+		}
+
+		@Cacheable
+		public Mono<Long> mono(Long id) {
+			return Mono.fromSupplier(this.counter::getAndIncrement);
+		}
+
+		@Cacheable
+		public Mono<Long> emptyMono(Long id) {
+			return Mono.fromRunnable(this.counter::getAndIncrement);
+		}
+
+		@Cacheable(sync = true)
+		public CompletableFuture<Long> syncFuture(Long id) {
+			return CompletableFuture.completedFuture(this.counter.getAndIncrement());
+		}
+
+		@Cacheable(sync = true)
+		public Mono<Long> syncMono(Long id) {
+			return Mono.fromSupplier(this.counter::getAndIncrement);
+		}
+	}
+
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.aopalliance.intercept.MethodInterceptor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.aop.framework.Advised;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.BoundedConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for miss coalescing and refresh-ahead in {@link CacheAspectSupport}.
+ *
+ * @author agent (agent@local)
+ */
+public class CacheCoalescingTests {
+
+	private ConfigurableApplicationContext context;
+
+	private CacheInterceptor cacheInterceptor;
+
+	private SlowService service;
+
+	private ExecutorService executor;
+
+
+	@Before
+	public void setup() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.cacheInterceptor = this.context.getBean(CacheInterceptor.class);
+		this.service = this.context.getBean(SlowService.class);
+		this.executor = Executors.newFixedThreadPool(4);
+	}
+
+	@After
+	public void tearDown() {
+		this.executor.shutdownNow();
+		this.context.close();
+	}
+
+
+	@Test
+	public void concurrentMissesAreCoalesced() throws Exception {
+		this.cacheInterceptor.setCoalesceMisses(true);
+
+		CountDownLatch started = new CountDownLatch(4);
+		List<Future<Long>> results = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			results.add(this.executor.submit(() -> {
+				started.countDown();
+				return this.service.get(1L);
+			}));
+		}
+		assertTrue(this.service.awaitInvocations(1));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		this.service.release();
+
+		for (Future<Long> result : results) {
+			assertEquals(Long.valueOf(0), result.get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(1, this.service.getCount());
+	}
+
+	@Test
+	public void concurrentMissesAreNotCoalescedByDefault() throws Exception {
+		List<Future<Long>> results = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			results.add(this.executor.submit(() -> this.service.get(1L)));
+		}
+		// Both callers invoke the method while the entry is missing
+		assertTrue(this.service.awaitInvocations(2));
+		this.service.release();
+
+		for (Future<Long> result : results) {
+			result.get(5, TimeUnit.SECONDS);
+		}
+		assertEquals(2, this.service.getCount());
+	}
+
+	@Test
+	public void concurrentMissesForDifferentMethodsAreNotCoalesced() throws Exception {
+		this.cacheInterceptor.setCoalesceMisses(true);
+
+		Future<Long> result1 = this.executor.submit(() -> this.service.get(1L));
+		assertTrue(this.service.awaitInvocations(1));
+		// Same cache and key, but a different method: must not wait for the first invocation
+		Future<Long> result2 = this.executor.submit(() -> this.service.getOther(1L));
+		assertTrue(this.service.awaitInvocations(1));
+		this.service.release();
+
+		result1.get(5, TimeUnit.SECONDS);
+		result2.get(5, TimeUnit.SECONDS);
+		assertEquals(2, this.service.getCount());
+	}
+
+	@Test
+	public void reentrantMissIsNotCoalescedWithOuterInvocation() throws Exception {
+		this.cacheInterceptor.setCoalesceMisses(true);
+		this.service.setSelf(this.service);
+
+		Future<Long> result = this.executor.submit(() -> this.service.nested(1L, 2));
+		assertEquals(Long.valueOf(0), result.get(5, TimeUnit.SECONDS));
+		assertEquals(1, this.service.getCount());
+	}
+
+	@Test
+	public void entryIsRefreshedAheadOfExpiration() throws Exception {
+		this.service.release();
+		this.cacheInterceptor.setRefreshAheadExecutor(new SyncTaskExecutor());
+		this.cacheInterceptor.setRefreshAheadThreshold(Duration.ofSeconds(30));
+		BoundedConcurrentMapCache cache = (BoundedConcurrentMapCache)
+				this.context.getBean(CacheManager.class).getCache("test");
+		Clock clock = Clock.systemUTC();
+		cache.setClock(clock);
+
+		assertEquals(Long.valueOf(0), this.service.get(1L));
+		assertEquals(Long.valueOf(0), this.service.get(1L));
+		assertEquals(1, this.service.getCount());
+
+		cache.setClock(Clock.offset(clock, Duration.ofSeconds(45)));
+		// Stale value returned, entry refreshed in the background
+		assertEquals(Long.valueOf(0), this.service.get(1L));
+		assertEquals(2, this.service.getCount());
+		assertEquals(1L, cache.get(1L).get());
+	}
+
+	@Test
+	public void entryIsRefreshedThroughFreshInvocation() throws Exception {
+		this.service.release();
+		AtomicInteger interceptorInvocations = new AtomicInteger();
+		((Advised) this.service).addAdvice((MethodInterceptor) invocation -> {
+			interceptorInvocations.incrementAndGet();
+			return invocation.proceed();
+		});
+		List<Runnable> refreshTasks = new ArrayList<>();
+		this.cacheInterceptor.setRefreshAheadExecutor(refreshTasks::add);
+		this.cacheInterceptor.setRefreshAheadThreshold(Duration.ofSeconds(30));
+		BoundedConcurrentMapCache cache = (BoundedConcurrentMapCache)
+				this.context.getBean(CacheManager.class).getCache("test");
+		Clock clock = Clock.systemUTC();
+		cache.setClock(clock);
+
+		assertEquals(Long.valueOf(0), this.service.get(1L));
+		cache.setClock(Clock.offset(clock, Duration.ofSeconds(45)));
+		assertEquals(Long.valueOf(0), this.service.get(1L));
+		assertEquals(1, refreshTasks.size());
+		assertEquals(1, interceptorInvocations.get());
+
+		// Refresh runs after the triggering invocation returned, through the rest of the chain
+		refreshTasks.get(0).run();
+		assertEquals(2, interceptorInvocations.get());
+		assertEquals(2, this.service.getCount());
+		assertEquals(1L, cache.get(1L).get());
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config {
+
+		@Bean
+		public CacheManager cacheManager() {
+			ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("test");
+			cacheManager.setTimeToLive(Duration.ofMinutes(1));
+			return cacheManager;
+		}
+
+		@Bean
+		public SlowService slowService() {
+			return new SlowService();
+		}
+	}
+
+
+	@CacheConfig(cacheNames = "test")
+	public static class SlowService {
+
+		private final AtomicLong counter = new AtomicLong();
+
+		private final Semaphore invocations = new Semaphore(0);
+
+		private final CountDownLatch release = new CountDownLatch(1);
+
+		private SlowService self;
+
+		public void setSelf(SlowService self) {
+			this.self = self;
+		}
+
+		public long getCount() {
+			return this.counter.get();
+		}
+
+		public boolean awaitInvocations(int count) throws InterruptedException {
+			return this.invocations.tryAcquire(count, 5, TimeUnit.SECONDS);
+		}
+
+		public void release() {
+			this.release.countDown();
+		}
+
+		@Cacheable
+		public Long get(Long id) throws InterruptedException {
+			this.invocations.release();
+			this.release.await(5, TimeUnit.SECONDS);
+			return this.counter.getAndIncrement();
+		}
+
+		@Cacheable
+		public Long getOther(Long id) throws InterruptedException {
+			return get(id);
+		}
+
+		@Cacheable(key = "#id")
+		public Long nested(Long id, int depth) throws InterruptedException {
+			if (depth > 0) {
+				return this.self.nested(id, depth - 1);
+			}
+			return this.counter.getAndIncrement();
+		}
+	}
+
+}
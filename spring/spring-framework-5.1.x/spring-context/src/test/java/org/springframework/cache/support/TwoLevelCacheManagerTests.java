@@ -0,0 +1,90 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import org.junit.Test;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link TwoLevelCacheManager}.
+ *
+ * @author agent (agent@local)
+ */
+public class TwoLevelCacheManagerTests {
+
+	@Test
+	public void cachesFollowRemoteCacheManager() {
+		TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(
+				new ConcurrentMapCacheManager(), new ConcurrentMapCacheManager("c1"));
+		cacheManager.afterPropertiesSet();
+
+		assertTrue(cacheManager.getCacheNames().contains("c1"));
+		assertTrue(cacheManager.getCache("c1") instanceof TwoLevelCache);
+		assertNull(cacheManager.getCache("c2"));
+	}
+
+	@Test
+	public void invalidationEventsFromOtherInstancesEvictLocalEntries() {
+		ConfigurableApplicationContext context = new AnnotationConfigApplicationContext(Config.class);
+		TwoLevelCacheManager instance1 = context.getBean("instance1", TwoLevelCacheManager.class);
+		TwoLevelCacheManager instance2 = context.getBean("instance2", TwoLevelCacheManager.class);
+		TwoLevelCache cache1 = (TwoLevelCache) instance1.getCache("test");
+		TwoLevelCache cache2 = (TwoLevelCache) instance2.getCache("test");
+
+		cache1.put("key", "value1");
+		assertEquals("value1", cache2.get("key").get());
+		assertEquals("value1", cache2.getLocalCache().get("key").get());
+
+		cache1.put("key", "value2");
+		assertEquals("value2", cache1.getLocalCache().get("key").get());
+		assertNull(cache2.getLocalCache().get("key"));
+		assertEquals("value2", cache2.get("key").get());
+
+		cache2.clear();
+		assertNull(cache1.getLocalCache().get("key"));
+		context.close();
+	}
+
+
+	@Configuration
+	static class Config {
+
+		@Bean
+		public CacheManager remoteCacheManager() {
+			return new ConcurrentMapCacheManager("test");
+		}
+
+		@Bean
+		public TwoLevelCacheManager instance1() {
+			return new TwoLevelCacheManager(new ConcurrentMapCacheManager(), remoteCacheManager());
+		}
+
+		@Bean
+		public TwoLevelCacheManager instance2() {
+			return new TwoLevelCacheManager(new ConcurrentMapCacheManager(), remoteCacheManager());
+		}
+	}
+
+}
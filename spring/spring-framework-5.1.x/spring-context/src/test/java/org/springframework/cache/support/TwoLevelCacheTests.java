@@ -0,0 +1,143 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cache.AbstractCacheTests;
+import org.springframework.cache.concurrent.BoundedConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link TwoLevelCache}.
+ *
+ * @author agent (agent@local)
+ */
+public class TwoLevelCacheTests extends AbstractCacheTests<TwoLevelCache> {
+
+	private BoundedConcurrentMapCache localCache;
+
+	private ConcurrentMapCache remoteCache;
+
+	private TwoLevelCache cache;
+
+	private final List<CacheInvalidationEvent> events = new ArrayList<>();
+
+
+	@Before
+	public void setUp() {
+		this.localCache = new BoundedConcurrentMapCache(CACHE_NAME, 2);
+		this.remoteCache = new ConcurrentMapCache(CACHE_NAME);
+		this.cache = new TwoLevelCache(this.localCache, this.remoteCache);
+		this.cache.setInvalidationPublisher(this.events::add);
+	}
+
+	@Override
+	protected TwoLevelCache getCache() {
+		return this.cache;
+	}
+
+	@Override
+	protected Object getNativeCache() {
+		return this.remoteCache.getNativeCache();
+	}
+
+
+	@Test
+	public void remoteHitPopulatesLocalCache() {
+		this.remoteCache.put("key", "value");
+
+		assertEquals("value", this.cache.get("key").get());
+		assertEquals("value", this.localCache.get("key").get());
+		assertEquals("value", this.cache.get("key", String.class));
+
+		assertEquals(1, this.cache.getLocalHitCount());
+		assertEquals(1, this.cache.getLocalMissCount());
+		assertEquals(1, this.cache.getRemoteHitCount());
+		assertEquals(0, this.cache.getRemoteMissCount());
+	}
+
+	@Test
+	public void missInBothTiers() {
+		assertNull(this.cache.get("key"));
+		assertEquals(1, this.cache.getLocalMissCount());
+		assertEquals(1, this.cache.getRemoteMissCount());
+	}
+
+	@Test
+	public void localCacheIsBounded() {
+		this.cache.put("a", 1);
+		this.cache.put("b", 2);
+		this.cache.put("c", 3);
+
+		assertNull(this.localCache.get("a"));
+		assertEquals(1, this.cache.get("a").get());
+		assertEquals(1, this.cache.getRemoteHitCount());
+	}
+
+	@Test
+	public void writesGoThroughAndPublishInvalidation() {
+		this.cache.put("key", "value");
+		assertEquals("value", this.remoteCache.get("key").get());
+		assertEquals("value", this.localCache.get("key").get());
+
+		this.cache.evict("key");
+		assertNull(this.remoteCache.get("key"));
+		assertNull(this.localCache.get("key"));
+
+		this.cache.clear();
+		assertEquals(3, this.events.size());
+		assertEquals("key", this.events.get(0).getKey());
+		assertEquals(CACHE_NAME, this.events.get(1).getCacheName());
+		assertNull(this.events.get(2).getKey());
+		assertSame(this.cache, this.events.get(2).getSource());
+	}
+
+	@Test
+	public void putIfAbsentKeepsRemoteValue() {
+		this.remoteCache.put("key", "remote");
+		assertEquals("remote", this.cache.putIfAbsent("key", "local").get());
+		assertEquals("remote", this.localCache.get("key").get());
+		assertTrue(this.events.isEmpty());
+	}
+
+	@Test
+	public void valueLoaderPopulatesBothTiers() {
+		assertEquals("loaded", this.cache.get("key", () -> "loaded"));
+		assertEquals("loaded", this.remoteCache.get("key").get());
+		assertEquals("loaded", this.cache.get("key", () -> "other"));
+		assertEquals(1, this.cache.getRemoteMissCount());
+		assertEquals(1, this.cache.getLocalHitCount());
+	}
+
+	@Test
+	public void invalidateLocalLeavesRemoteCacheUntouched() {
+		this.cache.put("key", "value");
+		this.cache.invalidateLocal("key");
+
+		assertNull(this.localCache.get("key"));
+		assertEquals("value", this.cache.get("key").get());
+		assertEquals(1, this.cache.getRemoteHitCount());
+	}
+
+}
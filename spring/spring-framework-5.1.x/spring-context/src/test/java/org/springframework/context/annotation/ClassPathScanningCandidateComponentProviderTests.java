@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,8 +18,10 @@ package org.springframework.context.annotation;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.List;
 import java.util.Set;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import example.profilescan.DevComponent;
 import example.profilescan.ProfileAnnotatedComponent;
@@ -90,6 +92,21 @@ public class ClassPathScanningCandidateComponentProviderTests {
 		testDefault(provider, AnnotatedGenericBeanDefinition.class);
 	}
 
+	@Test
+	public void defaultsWithParallelScan() {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+		provider.setResourceLoader(new DefaultResourceLoader(
+				CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader())));
+		provider.setParallelScanning(true);
+		testDefault(provider, ScannedGenericBeanDefinition.class);
+
+		ClassPathScanningCandidateComponentProvider sequentialProvider = new ClassPathScanningCandidateComponentProvider(true);
+		sequentialProvider.setResourceLoader(new DefaultResourceLoader(
+				CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader())));
+		assertEquals(getBeanClassNames(sequentialProvider.findCandidateComponents(TEST_BASE_PACKAGE)),
+				getBeanClassNames(provider.findCandidateComponents(TEST_BASE_PACKAGE)));
+	}
+
 	private void testDefault(ClassPathScanningCandidateComponentProvider provider,
 			Class<? extends BeanDefinition> expectedBeanDefinitionType) {
 		Set<BeanDefinition> candidates = provider.findCandidateComponents(TEST_BASE_PACKAGE);
@@ -510,6 +527,10 @@ public class ClassPathScanningCandidateComponentProviderTests {
 		return false;
 	}
 
+	private List<String> getBeanClassNames(Set<BeanDefinition> candidates) {
+		return candidates.stream().map(BeanDefinition::getBeanClassName).collect(Collectors.toList());
+	}
+
 	private void assertBeanDefinitionType(Set<BeanDefinition> candidates,
 			Class<? extends BeanDefinition> expectedType) {
 		candidates.forEach(c -> {
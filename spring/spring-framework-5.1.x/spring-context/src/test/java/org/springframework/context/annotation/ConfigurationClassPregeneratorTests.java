@@ -0,0 +1,273 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.context.annotation.ConfigurationClassEnhancer.EnhancedConfiguration;
+import org.springframework.context.annotation.configuration.pregenerated.PregeneratedConfig;
+import org.springframework.core.SpringProperties;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ConfigurationClassPregenerator} and the use of
+ * pre-generated subclasses by {@link ConfigurationClassEnhancer}.
+ *
+ * @author agent (agent@local)
+ */
+public class ConfigurationClassPregeneratorTests {
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+
+	@Before
+	public void enablePregeneratedClasses() {
+		SpringProperties.setFlag(ConfigurationClassPregenerator.PREGENERATED_CLASSES_PROPERTY_NAME);
+	}
+
+	@After
+	public void disablePregeneratedClasses() {
+		SpringProperties.setProperty(ConfigurationClassPregenerator.PREGENERATED_CLASSES_PROPERTY_NAME, null);
+	}
+
+
+	@Test
+	public void pregenerateForBasePackage() throws Exception {
+		File outputDirectory = this.folder.getRoot();
+		List<String> classNames = new ConfigurationClassPregenerator().pregenerate(
+				outputDirectory, PregeneratedConfig.class.getPackage().getName());
+
+		String className = PregeneratedConfig.class.getName() + ConfigurationClassEnhancer.PREGENERATED_CLASS_SUFFIX;
+		assertEquals(1, classNames.size());
+		assertEquals(className, classNames.get(0));
+		assertTrue(new File(outputDirectory, className.replace('.', '/') + ".class").isFile());
+	}
+
+	@Test
+	public void pregeneratedClassUsedByContainer() throws Exception {
+		File outputDirectory = this.folder.getRoot();
+		new ConfigurationClassPregenerator().pregenerate(outputDirectory, PregeneratedConfig.class);
+
+		// Pre-generated classes on the classpath, as after a build step
+		URLClassLoader classLoader = new URLClassLoader(
+				new URL[] {outputDirectory.toURI().toURL()}, getClass().getClassLoader());
+
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setResourceLoader(new DefaultResourceLoader(classLoader));
+		context.register(PregeneratedConfig.class);
+		context.refresh();
+		Object config = context.getBean(PregeneratedConfig.class);
+		assertEquals(PregeneratedConfig.class.getName() + ConfigurationClassEnhancer.PREGENERATED_CLASS_SUFFIX,
+				config.getClass().getName());
+		assertSame(classLoader, config.getClass().getClassLoader());
+		TestBean testBean = context.getBean("testBean", TestBean.class);
+		assertSame(context.getBean("spouse"), testBean.getSpouse());
+		context.close();
+	}
+
+	@Test
+	public void pregeneratedClassWithHelperMethodUsedByContainer() throws Exception {
+		File outputDirectory = this.folder.getRoot();
+		new ConfigurationClassPregenerator().pregenerate(outputDirectory, HelperMethodConfig.class);
+		URLClassLoader classLoader = new URLClassLoader(
+				new URL[] {outputDirectory.toURI().toURL()}, getClass().getClassLoader());
+
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setResourceLoader(new DefaultResourceLoader(classLoader));
+		context.register(HelperMethodConfig.class);
+		context.refresh();
+		HelperMethodConfig config = context.getBean(HelperMethodConfig.class);
+		assertEquals(HelperMethodConfig.class.getName() + ConfigurationClassEnhancer.PREGENERATED_CLASS_SUFFIX,
+				config.getClass().getName());
+		assertEquals("helper", config.helper());
+		assertEquals("helper", context.getBean("testBean", TestBean.class).getName());
+		context.close();
+	}
+
+	@Test
+	public void pregeneratedClassNotMatching() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(StaleConfig.class);
+		Object config = context.getBean(StaleConfig.class);
+		assertTrue(config instanceof EnhancedConfiguration);
+		assertNotSame(StaleConfig$$EnhancerBySpringCGLIB$$Pregenerated.class, config.getClass());
+		assertSame(context.getBean("spouse"), context.getBean("testBean", TestBean.class).getSpouse());
+		context.close();
+	}
+
+	@Test
+	public void pregeneratedClassNotMatchingAfterBeanMethodRemoval() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(RemovedBeanConfig.class);
+		Object config = context.getBean(RemovedBeanConfig.class);
+		assertTrue(config instanceof EnhancedConfiguration);
+		assertNotSame(RemovedBeanConfig$$EnhancerBySpringCGLIB$$Pregenerated.class, config.getClass());
+		assertFalse(context.containsBean("spouse"));
+		assertEquals("spouse", context.getBean("testBean", TestBean.class).getSpouse().getName());
+		context.close();
+	}
+
+	@Test
+	public void pregeneratedClassNotMatchingAfterBeanReturnTypeChange() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(ReturnTypeConfig.class);
+		Object config = context.getBean(ReturnTypeConfig.class);
+		assertTrue(config instanceof EnhancedConfiguration);
+		assertNotSame(ReturnTypeConfig$$EnhancerBySpringCGLIB$$Pregenerated.class, config.getClass());
+		assertSame(context.getBean("spouse"), context.getBean("testBean", TestBean.class).getSpouse());
+		context.close();
+	}
+
+
+	@Configuration
+	static class StaleConfig {
+
+		@Bean
+		public TestBean testBean() {
+			TestBean testBean = new TestBean("test");
+			testBean.setSpouse(spouse());
+			return testBean;
+		}
+
+		@Bean
+		public TestBean spouse() {
+			return new TestBean("spouse");
+		}
+	}
+
+
+	@Configuration
+	public static class HelperMethodConfig {
+
+		@Bean
+		public TestBean testBean() {
+			return new TestBean(helper());
+		}
+
+		public String helper() {
+			return "helper";
+		}
+	}
+
+
+	@Configuration
+	static class RemovedBeanConfig {
+
+		@Bean
+		public TestBean testBean() {
+			TestBean testBean = new TestBean("test");
+			testBean.setSpouse(spouse());
+			return testBean;
+		}
+
+		public TestBean spouse() {
+			return new TestBean("spouse");
+		}
+	}
+
+
+	@Configuration
+	static class ReturnTypeConfig {
+
+		@Bean
+		public TestBean testBean() {
+			TestBean testBean = new TestBean("test");
+			testBean.setSpouse((TestBean) spouse());
+			return testBean;
+		}
+
+		@Bean
+		public Object spouse() {
+			return new TestBean("spouse");
+		}
+	}
+
+
+	/**
+	 * Simulates a pre-generated subclass for a previous version of {@link StaleConfig},
+	 * i.e. not overriding the {@code spouse} method which has been added since.
+	 */
+	static class StaleConfig$$EnhancerBySpringCGLIB$$Pregenerated extends StaleConfig implements EnhancedConfiguration {
+
+		@Override
+		public TestBean testBean() {
+			return super.testBean();
+		}
+
+		@Override
+		public void setBeanFactory(BeanFactory beanFactory) {
+		}
+	}
+
+
+	/**
+	 * Simulates a pre-generated subclass for a previous version of {@link RemovedBeanConfig},
+	 * i.e. still overriding the {@code spouse} method which used to be a {@code @Bean} method.
+	 */
+	static class RemovedBeanConfig$$EnhancerBySpringCGLIB$$Pregenerated extends RemovedBeanConfig
+			implements EnhancedConfiguration {
+
+		@Override
+		public TestBean testBean() {
+			return super.testBean();
+		}
+
+		@Override
+		public TestBean spouse() {
+			return super.spouse();
+		}
+
+		@Override
+		public void setBeanFactory(BeanFactory beanFactory) {
+		}
+	}
+
+
+	/**
+	 * Simulates a pre-generated subclass for a previous version of {@link ReturnTypeConfig},
+	 * i.e. overriding the {@code spouse} method with its former {@code TestBean} return type.
+	 */
+	static class ReturnTypeConfig$$EnhancerBySpringCGLIB$$Pregenerated extends ReturnTypeConfig
+			implements EnhancedConfiguration {
+
+		@Override
+		public TestBean testBean() {
+			return super.testBean();
+		}
+
+		@Override
+		public TestBean spouse() {
+			return new TestBean("stale");
+		}
+
+		@Override
+		public void setBeanFactory(BeanFactory beanFactory) {
+		}
+	}
+
+}
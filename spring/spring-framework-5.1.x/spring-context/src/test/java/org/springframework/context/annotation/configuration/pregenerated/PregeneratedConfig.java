@@ -0,0 +1,41 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation.configuration.pregenerated;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.tests.sample.beans.TestBean;
+
+/**
+ * @author agent (agent@local)
+ */
+@Configuration
+public class PregeneratedConfig {
+
+	@Bean
+	public TestBean testBean() {
+		TestBean testBean = new TestBean("test");
+		testBean.setSpouse(spouse());
+		return testBean;
+	}
+
+	@Bean
+	public TestBean spouse() {
+		return new TestBean("spouse");
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,9 +18,19 @@ package org.springframework.scheduling.annotation;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.core.task.support.BulkheadTaskExecutor;
+
 import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
 
@@ -58,7 +68,71 @@ public class AnnotationAsyncExecutionInterceptorTests {
 		}
 	}
 
+	@Test
+	@SuppressWarnings("unused")
+	public void testGetConcurrencyLimitAndQueueCapacity() throws SecurityException, NoSuchMethodException {
+		AnnotationAsyncExecutionInterceptor i = new AnnotationAsyncExecutionInterceptor(null);
+		{ // no limit by default
+			class C { @Async void m() { } }
+			assertThat(i.getConcurrencyLimit(C.class.getDeclaredMethod("m")), is(-1));
+			assertThat(i.getQueueCapacity(C.class.getDeclaredMethod("m")), is(-1));
+		}
+		{ // class level
+			@Async(concurrencyLimit = 2, queueCapacity = 10) class C { void m() { } }
+			assertThat(i.getConcurrencyLimit(C.class.getDeclaredMethod("m")), is(2));
+			assertThat(i.getQueueCapacity(C.class.getDeclaredMethod("m")), is(10));
+		}
+		{ // method and class level -> method value overrides
+			@Async(concurrencyLimit = 2) class C { @Async(concurrencyLimit = 1, queueCapacity = 0) void m() { } }
+			assertThat(i.getConcurrencyLimit(C.class.getDeclaredMethod("m")), is(1));
+			assertThat(i.getQueueCapacity(C.class.getDeclaredMethod("m")), is(0));
+		}
+	}
+
+	@Test
+	public void bulkheadWithRejectedInvocation() throws Exception {
+		AnnotationAsyncExecutionInterceptor interceptor =
+				new AnnotationAsyncExecutionInterceptor(new SimpleAsyncTaskExecutor());
+		ProxyFactory pf = new ProxyFactory(new BulkheadBean());
+		pf.addAdvice(interceptor);
+		BulkheadBean proxy = (BulkheadBean) pf.getProxy();
+
+		CountDownLatch latch = new CountDownLatch(1);
+		CompletableFuture<String> future1 = proxy.await(latch);
+		CompletableFuture<String> future2 = proxy.await(latch);
+		assertFalse(future1.isDone());
+		try {
+			proxy.await(latch).get();
+			fail("Should have thrown ExecutionException");
+		}
+		catch (ExecutionException ex) {
+			assertThat(ex.getCause(), instanceOf(TaskRejectedException.class));
+		}
+
+		latch.countDown();
+		assertThat(future1.get(1, TimeUnit.SECONDS), is("done"));
+		assertThat(future2.get(1, TimeUnit.SECONDS), is("done"));
+
+		Method method = BulkheadBean.class.getMethod("await", CountDownLatch.class);
+		BulkheadTaskExecutor bulkhead = interceptor.getBulkheadExecutors().get(method);
+		assertNotNull(bulkhead);
+		assertThat(bulkhead.getRejectedCount(), is(1L));
+		assertThat(bulkhead.getConcurrencyLimit(), is(1));
+	}
+
+
 	@Async("qMeta")
 	@Retention(RetentionPolicy.RUNTIME)
 	@interface MyAsync { }
+
+
+	public static class BulkheadBean {
+
+		@Async(concurrencyLimit = 1, queueCapacity = 1)
+		public CompletableFuture<String> await(CountDownLatch latch) throws InterruptedException {
+			latch.await();
+			return CompletableFuture.completedFuture("done");
+		}
+	}
+
 }
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.TriggerContext;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link TimingWheelTaskScheduler}.
+ *
+ * @author agent (agent@local)
+ */
+public class TimingWheelTaskSchedulerTests {
+
+	private static final String THREAD_NAME_PREFIX = "wheel-test-";
+
+	private final TimingWheelTaskScheduler scheduler = new TimingWheelTaskScheduler();
+
+
+	@Before
+	public void initScheduler() {
+		this.scheduler.setThreadNamePrefix(THREAD_NAME_PREFIX);
+		this.scheduler.setTickDuration(10);
+		this.scheduler.setTicksPerWheel(64);
+		this.scheduler.setPoolSize(2);
+		this.scheduler.afterPropertiesSet();
+	}
+
+	@After
+	public void shutdownScheduler() {
+		this.scheduler.destroy();
+	}
+
+
+	@Test
+	public void executeRunnable() throws Exception {
+		CountDownLatch latch = new CountDownLatch(1);
+		this.scheduler.execute(latch::countDown);
+		assertTrue(latch.await(1000, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void scheduleOneTimeTask() throws Exception {
+		AtomicInteger count = new AtomicInteger();
+		Future<?> future = this.scheduler.schedule(count::incrementAndGet, new Date(System.currentTimeMillis() + 50));
+		assertFalse(future.isDone());
+		assertNull(future.get(1000, TimeUnit.MILLISECONDS));
+		assertTrue(future.isDone());
+		assertEquals(1, count.get());
+		assertEquals(0, this.scheduler.getScheduledTaskCount());
+	}
+
+	@Test(expected = ExecutionException.class)
+	public void scheduleOneTimeFailingTaskWithoutErrorHandler() throws Exception {
+		Future<?> future = this.scheduler.schedule(() -> {
+			throw new IllegalStateException("intentional test failure");
+		}, new Date());
+		future.get(1000, TimeUnit.MILLISECONDS);
+	}
+
+	@Test
+	public void scheduleOneTimeFailingTaskWithErrorHandler() throws Exception {
+		AtomicInteger errorCount = new AtomicInteger();
+		this.scheduler.setErrorHandler(ex -> errorCount.incrementAndGet());
+		Future<?> future = this.scheduler.schedule(() -> {
+			throw new IllegalStateException("intentional test failure");
+		}, new Date());
+		assertNull(future.get(1000, TimeUnit.MILLISECONDS));
+		assertEquals(1, errorCount.get());
+	}
+
+	@Test
+	public void scheduleTriggerTask() throws Exception {
+		TestTrigger trigger = new TestTrigger(3);
+		AtomicInteger count = new AtomicInteger();
+		ScheduledFuture<?> future = this.scheduler.schedule(() -> {
+			count.incrementAndGet();
+			throw new IllegalStateException("suppressed for repeating task");
+		}, trigger);
+		assertNull(future.get(1000, TimeUnit.MILLISECONDS));
+		assertEquals(3, count.get());
+
+		TimingWheelTaskScheduler.TaskMetrics metrics = this.scheduler.getTaskMetrics(future);
+		assertNotNull(metrics);
+		assertEquals(3, metrics.getExecutionCount());
+	}
+
+	@Test
+	public void scheduleTriggerTaskWithoutExecution() {
+		assertNull(this.scheduler.schedule(() -> {}, triggerContext -> null));
+		assertEquals(0, this.scheduler.getScheduledTaskCount());
+	}
+
+	@Test
+	public void scheduleAtFixedRateAndCancel() throws Exception {
+		CountDownLatch latch = new CountDownLatch(5);
+		ScheduledFuture<?> future = this.scheduler.scheduleAtFixedRate(latch::countDown, 20);
+		assertTrue(latch.await(1000, TimeUnit.MILLISECONDS));
+		assertEquals(1, this.scheduler.getScheduledTaskCount());
+
+		assertTrue(future.cancel(false));
+		assertTrue(future.isCancelled());
+		assertTrue(future.isDone());
+		assertEquals(0, this.scheduler.getScheduledTaskCount());
+		try {
+			future.get();
+			fail("Should have thrown CancellationException");
+		}
+		catch (CancellationException ex) {
+			// expected
+		}
+
+		Thread.sleep(50);
+		long executionCount = this.scheduler.getTaskMetrics(future).getExecutionCount();
+		assertTrue(executionCount >= 5);
+		Thread.sleep(50);
+		assertEquals(executionCount, this.scheduler.getTaskMetrics(future).getExecutionCount());
+	}
+
+	@Test
+	public void scheduleWithFixedDelay() throws Exception {
+		CountDownLatch latch = new CountDownLatch(3);
+		ScheduledFuture<?> future = this.scheduler.scheduleWithFixedDelay(latch::countDown, 10);
+		assertTrue(latch.await(1000, TimeUnit.MILLISECONDS));
+		future.cancel(true);
+	}
+
+	@Test
+	public void scheduleManyTasksAcrossShards() throws Exception {
+		TimingWheelTaskScheduler scheduler = new TimingWheelTaskScheduler();
+		scheduler.setTickDuration(10);
+		scheduler.setTicksPerWheel(8);
+		scheduler.setShardCount(4);
+		scheduler.setPoolSize(4);
+		scheduler.setWaitForTasksToCompleteOnShutdown(true);
+		scheduler.setAwaitTerminationSeconds(5);
+		scheduler.afterPropertiesSet();
+		try {
+			int taskCount = 10000;
+			CountDownLatch latch = new CountDownLatch(taskCount);
+			long now = System.currentTimeMillis();
+			for (int i = 0; i < taskCount; i++) {
+				// spread across more than one revolution of the wheel
+				scheduler.schedule(latch::countDown, new Date(now + (i % 200)));
+			}
+			assertTrue(latch.await(5000, TimeUnit.MILLISECONDS));
+			scheduler.shutdown();
+			assertEquals(taskCount, scheduler.getMetrics().getExecutionCount());
+		}
+		finally {
+			scheduler.destroy();
+		}
+	}
+
+	@Test
+	public void catchesUpWhenClockJumpsAhead() throws Exception {
+		TestClock clock = new TestClock(Instant.now());
+		TimingWheelTaskScheduler scheduler = new TimingWheelTaskScheduler();
+		scheduler.setClock(clock);
+		scheduler.setTickDuration(10);
+		scheduler.setTicksPerWheel(16);
+		scheduler.afterPropertiesSet();
+		try {
+			CountDownLatch latch = new CountDownLatch(2);
+			Date startTime = new Date(clock.millis() + TimeUnit.HOURS.toMillis(1));
+			ScheduledFuture<?> future1 = scheduler.schedule(latch::countDown, startTime);
+			ScheduledFuture<?> future2 = scheduler.schedule(latch::countDown, new Date(startTime.getTime() + 5));
+			assertEquals(TimeUnit.HOURS.toMillis(1), future1.getDelay(TimeUnit.MILLISECONDS));
+			Thread.sleep(50);
+			assertEquals(2, latch.getCount());
+
+			clock.advance(TimeUnit.HOURS.toMillis(2));
+			assertTrue(latch.await(1000, TimeUnit.MILLISECONDS));
+			future1.get(1000, TimeUnit.MILLISECONDS);
+			future2.get(1000, TimeUnit.MILLISECONDS);
+			assertTrue(scheduler.getTaskMetrics(future1).getMaxLag().toMinutes() >= 59);
+		}
+		finally {
+			scheduler.destroy();
+		}
+	}
+
+	@Test
+	public void shutdownCancelsScheduledTasks() {
+		ScheduledFuture<?> future = this.scheduler.schedule(() -> {}, new Date(System.currentTimeMillis() + 60000));
+		ScheduledFuture<?> otherFuture = this.scheduler.scheduleAtFixedRate(() -> {}, 60000);
+		this.scheduler.shutdown();
+		assertNull(this.scheduler.getTaskMetrics(new ScheduledFutureStub()));
+		long deadline = System.currentTimeMillis() + 1000;
+		while (!(future.isCancelled() && otherFuture.isCancelled()) && System.currentTimeMillis() < deadline) {
+			Thread.yield();
+		}
+		assertTrue(future.isCancelled());
+		assertTrue(otherFuture.isCancelled());
+	}
+
+
+	private static class TestTrigger implements Trigger {
+
+		private final int maxRunCount;
+
+		private final AtomicInteger actualRunCount = new AtomicInteger();
+
+		TestTrigger(int maxRunCount) {
+			this.maxRunCount = maxRunCount;
+		}
+
+		@Override
+		public Date nextExecutionTime(TriggerContext triggerContext) {
+			if (this.actualRunCount.incrementAndGet() > this.maxRunCount) {
+				return null;
+			}
+			return new Date();
+		}
+	}
+
+
+	private static class TestClock extends Clock {
+
+		private volatile long offset;
+
+		private final Instant start;
+
+		TestClock(Instant start) {
+			this.start = start;
+		}
+
+		void advance(long millis) {
+			this.offset += millis;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneId.systemDefault();
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Instant instant() {
+			return this.start.plusMillis(this.offset);
+		}
+	}
+
+
+	private static class ScheduledFutureStub extends java.util.concurrent.FutureTask<Object>
+			implements ScheduledFuture<Object> {
+
+		ScheduledFutureStub() {
+			super(() -> null);
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return 0;
+		}
+
+		@Override
+		public int compareTo(java.util.concurrent.Delayed other) {
+			return 0;
+		}
+	}
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+/**
+ * @author agent (agent@local)
+ */
+public class VirtualThreadTaskExecutorTests {
+
+	@Test
+	public void notSupportedOnOlderJdk() {
+		assumeFalse(VirtualThreadTaskExecutor.isSupported());
+		try {
+			new VirtualThreadTaskExecutor();
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			// expected
+		}
+	}
+
+	@Test
+	public void executeOnNamedVirtualThread() throws Exception {
+		assumeTrue(VirtualThreadTaskExecutor.isSupported());
+		VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor("vt-");
+
+		Future<String> future = executor.submit(() -> Thread.currentThread().getName());
+		assertEquals("vt-0", future.get(1, TimeUnit.SECONDS));
+		future = executor.submitListenable(() -> Thread.currentThread().getName());
+		assertEquals("vt-1", future.get(1, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void taskMetrics() throws Exception {
+		assumeTrue(VirtualThreadTaskExecutor.isSupported());
+		VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch latch = new CountDownLatch(1);
+
+		Future<?> blocked = executor.submit(() -> {
+			started.countDown();
+			latch.await();
+			return null;
+		});
+		Future<?> failed = executor.submit(() -> {
+			throw new IllegalStateException("failure");
+		});
+		try {
+			failed.get(1, TimeUnit.SECONDS);
+			fail("Should have thrown ExecutionException");
+		}
+		catch (ExecutionException ex) {
+			assertTrue(ex.getCause() instanceof IllegalStateException);
+		}
+		assertTrue(started.await(1, TimeUnit.SECONDS));
+		assertEquals(1, executor.getActiveCount());
+
+		latch.countDown();
+		blocked.get(1, TimeUnit.SECONDS);
+		assertEquals(0, executor.getActiveCount());
+		assertEquals(2, executor.getTaskCount());
+		assertEquals(1, executor.getFailureCount());
+		assertFalse(executor.getTotalExecutionTime().isZero());
+	}
+
+}
@@ -29,6 +29,7 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.junit.runners.Parameterized.Parameters;
 
+import org.springframework.beans.DirectFieldAccessor;
 import org.springframework.scheduling.TriggerContext;
 
 import static org.junit.Assert.*;
@@ -715,6 +716,33 @@ public class CronTriggerTests {
 		assertEquals(calendar.getTime(), date = trigger.nextExecutionTime(context1));
 	}
 
+	@Test
+	public void sequenceGeneratorSharedPerTimeZoneId() {
+		TimeZone zone = (TimeZone) this.timeZone.clone();
+		CronTrigger trigger1 = new CronTrigger("0 0 12 * * *", zone);
+		CronTrigger trigger2 = new CronTrigger("0 0 12 * * *", TimeZone.getTimeZone(this.timeZone.getID()));
+		assertSame(getSequenceGenerator(trigger1), getSequenceGenerator(trigger2));
+
+		// Modifying the given time zone affects neither the trigger nor the shared generator
+		zone.setRawOffset(zone.getRawOffset() + 60 * 60 * 1000);
+		CronTrigger trigger3 = new CronTrigger("0 0 12 * * *", zone);
+		assertNotSame(getSequenceGenerator(trigger1), getSequenceGenerator(trigger3));
+
+		calendar.set(Calendar.HOUR_OF_DAY, 10);
+		calendar.set(Calendar.MINUTE, 0);
+		calendar.set(Calendar.SECOND, 0);
+		Date date = calendar.getTime();
+		calendar.set(Calendar.HOUR_OF_DAY, 12);
+		assertEquals(calendar.getTime(), trigger1.nextExecutionTime(getTriggerContext(date)));
+		assertEquals(calendar.getTime(), trigger2.nextExecutionTime(getTriggerContext(date)));
+		calendar.add(Calendar.HOUR_OF_DAY, -1);
+		assertEquals(calendar.getTime(), trigger3.nextExecutionTime(getTriggerContext(date)));
+	}
+
+	private static Object getSequenceGenerator(CronTrigger trigger) {
+		return new DirectFieldAccessor(trigger).getPropertyValue("sequenceGenerator");
+	}
+
 	private void assertMatchesNextSecond(CronTrigger trigger, Calendar calendar) {
 		Date date = calendar.getTime();
 		roundup(calendar);
@@ -30,6 +30,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.core.SerializableTypeWrapper.FieldTypeProvider;
 import org.springframework.core.SerializableTypeWrapper.MethodParameterTypeProvider;
@@ -90,9 +91,14 @@ public class ResolvableType implements Serializable {
 
 	private static final ResolvableType[] EMPTY_TYPES_ARRAY = new ResolvableType[0];
 
+	private static final Class<?>[] EMPTY_CLASS_ARRAY = new Class<?>[0];
+
 	private static final ConcurrentReferenceHashMap<ResolvableType, ResolvableType> cache =
 			new ConcurrentReferenceHashMap<>(256);
 
+	private static final ConcurrentReferenceHashMap<Class<?>, ResolvableType> classTypeCache =
+			new ConcurrentReferenceHashMap<>(256);
+
 
 	/**
 	 * The underlying Java type being managed.
@@ -132,6 +138,13 @@ public class ResolvableType implements Serializable {
 	@Nullable
 	private volatile ResolvableType[] generics;
 
+	/**
+	 * Memoized {@link #as(Class)} results, only available for canonical
+	 * {@link #forClass(Class)} instances.
+	 */
+	@Nullable
+	private transient Map<Class<?>, ResolvableType> asTypeCache;
+
 
 	/**
 	 * Private constructor used to create a new {@link ResolvableType} for cache key purposes,
@@ -259,6 +272,10 @@ public class ResolvableType implements Serializable {
 	 * @see #isAssignableFrom(ResolvableType)
 	 */
 	public boolean isAssignableFrom(Class<?> other) {
+		// Shortcut: plain class without generics -> no ResolvableType needed for the other side
+		if (this.type == this.resolved && other != null && !this.resolved.isArray() && getGenerics().length == 0) {
+			return ClassUtils.isAssignable(this.resolved, other);
+		}
 		return isAssignableFrom(forClass(other), null);
 	}
 
@@ -446,6 +463,19 @@ public class ResolvableType implements Serializable {
 		if (resolved == null || resolved == type) {
 			return this;
 		}
+		Map<Class<?>, ResolvableType> asTypeCache = this.asTypeCache;
+		if (asTypeCache != null) {
+			ResolvableType asType = asTypeCache.get(type);
+			if (asType == null) {
+				asType = searchAs(type);
+				asTypeCache.put(type, asType);
+			}
+			return asType;
+		}
+		return searchAs(type);
+	}
+
+	private ResolvableType searchAs(Class<?> type) {
 		for (ResolvableType interfaceType : getInterfaces()) {
 			ResolvableType interfaceAsType = interfaceType.as(type);
 			if (interfaceAsType != NONE) {
@@ -723,6 +753,9 @@ public class ResolvableType implements Serializable {
 	 */
 	public Class<?>[] resolveGenerics() {
 		ResolvableType[] generics = getGenerics();
+		if (generics.length == 0) {
+			return EMPTY_CLASS_ARRAY;
+		}
 		Class<?>[] resolvedGenerics = new Class<?>[generics.length];
 		for (int i = 0; i < generics.length; i++) {
 			resolvedGenerics[i] = generics[i].resolve();
@@ -741,6 +774,9 @@ public class ResolvableType implements Serializable {
 	 */
 	public Class<?>[] resolveGenerics(Class<?> fallback) {
 		ResolvableType[] generics = getGenerics();
+		if (generics.length == 0) {
+			return EMPTY_CLASS_ARRAY;
+		}
 		Class<?>[] resolvedGenerics = new Class<?>[generics.length];
 		for (int i = 0; i < generics.length; i++) {
 			resolvedGenerics[i] = generics[i].resolve(fallback);
@@ -938,6 +974,14 @@ public class ResolvableType implements Serializable {
 		return new DefaultVariableResolver();
 	}
 
+	/**
+	 * Serialize a plain copy of a canonical {@link #forClass(Class)} instance,
+	 * without the memoized state that it accumulates through shared use.
+	 */
+	private Object writeReplace() {
+		return (this.asTypeCache != null ? new ResolvableType(this.resolved) : this);
+	}
+
 	/**
 	 * Custom serialization support for {@link #NONE}.
 	 */
@@ -984,11 +1028,25 @@ public class ResolvableType implements Serializable {
 	 * @param clazz the class to introspect ({@code null} is semantically
 	 * equivalent to {@code Object.class} for typical use cases here}
 	 * @return a {@link ResolvableType} for the specified class
+	 * (as of 5.1.11, a canonical instance per class, with memoized
+	 * {@link #as(Class)} resolution)
 	 * @see #forClass(Class, Class)
 	 * @see #forClassWithGenerics(Class, Class...)
 	 */
 	public static ResolvableType forClass(@Nullable Class<?> clazz) {
-		return new ResolvableType(clazz);
+		if (clazz == null) {
+			return new ResolvableType((Class<?>) null);
+		}
+		ResolvableType resolvableType = classTypeCache.get(clazz);
+		if (resolvableType == null) {
+			resolvableType = new ResolvableType(clazz);
+			resolvableType.asTypeCache = new ConcurrentHashMap<>(4);
+			ResolvableType existing = classTypeCache.putIfAbsent(clazz, resolvableType);
+			if (existing != null) {
+				resolvableType = existing;
+			}
+		}
+		return resolvableType;
 	}
 
 	/**
@@ -1430,6 +1488,7 @@ public class ResolvableType implements Serializable {
 	 */
 	public static void clearCache() {
 		cache.clear();
+		classTypeCache.clear();
 		SerializableTypeWrapper.cache.clear();
 	}
 
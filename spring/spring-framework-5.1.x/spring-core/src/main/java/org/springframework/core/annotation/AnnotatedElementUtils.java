@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -376,6 +376,8 @@ public abstract class AnnotatedElementUtils {
 	 * within a single annotation and within the annotation hierarchy.
 	 * <p>This method delegates to {@link #getMergedAnnotationAttributes(AnnotatedElement, Class)}
 	 * and {@link AnnotationUtils#synthesizeAnnotation(Map, Class, AnnotatedElement)}.
+	 * <p>As of 5.1.11, the result is cached for classes and members, with the same
+	 * synthesized annotation instance returned for subsequent lookups.
 	 * @param element the annotated element
 	 * @param annotationType the annotation type to find
 	 * @return the merged, synthesized {@code Annotation}, or {@code null} if not found
@@ -386,6 +388,12 @@ public abstract class AnnotatedElementUtils {
 	 */
 	@Nullable
 	public static <A extends Annotation> A getMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
+		return AnnotationUtils.getMergedAnnotation(element, annotationType, false,
+				() -> doGetMergedAnnotation(element, annotationType));
+	}
+
+	@Nullable
+	private static <A extends Annotation> A doGetMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
 		// Shortcut: directly present on the element, with no merging needed?
 		A annotation = element.getDeclaredAnnotation(annotationType);
 		if (annotation != null) {
@@ -686,6 +694,8 @@ public abstract class AnnotatedElementUtils {
 	 * within a single annotation and within the annotation hierarchy.
 	 * <p>This method follows <em>find semantics</em> as described in the
 	 * {@linkplain AnnotatedElementUtils class-level javadoc}.
+	 * <p>As of 5.1.11, the result is cached for classes and members, with the same
+	 * synthesized annotation instance returned for subsequent lookups.
 	 * @param element the annotated element
 	 * @param annotationType the annotation type to find
 	 * @return the merged, synthesized {@code Annotation}, or {@code null} if not found
@@ -696,6 +706,12 @@ public abstract class AnnotatedElementUtils {
 	 */
 	@Nullable
 	public static <A extends Annotation> A findMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
+		return AnnotationUtils.getMergedAnnotation(element, annotationType, true,
+				() -> doFindMergedAnnotation(element, annotationType));
+	}
+
+	@Nullable
+	private static <A extends Annotation> A doFindMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
 		// Shortcut: directly present on the element, with no merging needed?
 		A annotation = element.getDeclaredAnnotation(annotationType);
 		if (annotation != null) {
@@ -35,6 +35,8 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -131,6 +133,9 @@ public abstract class AnnotationUtils {
 	private static final Map<Class<?>, Set<Method>> annotatedBaseTypeCache =
 			new ConcurrentReferenceHashMap<>(256);
 
+	private static final Map<AnnotatedElement, MergedAnnotations> mergedAnnotationsCache =
+			new ConcurrentReferenceHashMap<>(256);
+
 	@SuppressWarnings("unused")
 	@Deprecated  // just here for older tool versions trying to reflectively clear the cache
 	private static final Map<Class<?>, ?> annotatedInterfaceCache = annotatedBaseTypeCache;
@@ -680,6 +685,49 @@ public abstract class AnnotationUtils {
 		return element.getDeclaredAnnotations();
 	}
 
+	/**
+	 * Retrieve a potentially cached merged annotation of the given type for the
+	 * given element, resolving and synthesizing it only once per element.
+	 * <p>Merged annotations are cached for each {@code Class}, {@code Field},
+	 * {@code Method} and {@code Constructor}, separately for <em>get</em> and
+	 * <em>find</em> semantics, including the absence of a merged annotation.
+	 * @param element the annotated element
+	 * @param annotationType the annotation type to find
+	 * @param findSemantics whether the resolver follows <em>find</em> semantics
+	 * (as opposed to <em>get</em> semantics)
+	 * @param resolver the callback for resolving the merged, synthesized annotation
+	 * in case of a cache miss
+	 * @return the merged, synthesized {@code Annotation}, or {@code null} if not found
+	 * @since 5.1.11
+	 * @see AnnotatedElementUtils#getMergedAnnotation
+	 * @see AnnotatedElementUtils#findMergedAnnotation
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	static <A extends Annotation> A getMergedAnnotation(AnnotatedElement element, Class<A> annotationType,
+			boolean findSemantics, Supplier<A> resolver) {
+
+		if (!(element instanceof Class || element instanceof Member)) {
+			return resolver.get();
+		}
+		MergedAnnotations mergedAnnotations = mergedAnnotationsCache.get(element);
+		if (mergedAnnotations == null) {
+			mergedAnnotations = new MergedAnnotations();
+			MergedAnnotations existing = mergedAnnotationsCache.putIfAbsent(element, mergedAnnotations);
+			if (existing != null) {
+				mergedAnnotations = existing;
+			}
+		}
+		Map<Class<? extends Annotation>, Object> annotations =
+				(findSemantics ? mergedAnnotations.foundAnnotations : mergedAnnotations.presentAnnotations);
+		Object annotation = annotations.get(annotationType);
+		if (annotation == null) {
+			annotation = resolver.get();
+			annotations.put(annotationType, (annotation != null ? annotation : MergedAnnotations.NOT_FOUND));
+		}
+		return (annotation != MergedAnnotations.NOT_FOUND ? (A) annotation : null);
+	}
+
 	/**
 	 * Find a single {@link Annotation} of {@code annotationType} on the
 	 * supplied {@link Class}, traversing its interfaces, annotations, and
@@ -1984,6 +2032,7 @@ public abstract class AnnotationUtils {
 		metaPresentCache.clear();
 		declaredAnnotationsCache.clear();
 		annotatedBaseTypeCache.clear();
+		mergedAnnotationsCache.clear();
 		synthesizableCache.clear();
 		attributeAliasesCache.clear();
 		attributeMethodsCache.clear();
@@ -2038,6 +2087,20 @@ public abstract class AnnotationUtils {
 	}
 
 
+	/**
+	 * Merged, synthesized annotations for a specific annotated element,
+	 * keyed by annotation type: for <em>get</em> and for <em>find</em> semantics.
+	 */
+	private static final class MergedAnnotations {
+
+		static final Object NOT_FOUND = new Object();
+
+		final Map<Class<? extends Annotation>, Object> presentAnnotations = new ConcurrentHashMap<>(4);
+
+		final Map<Class<? extends Annotation>, Object> foundAnnotations = new ConcurrentHashMap<>(4);
+	}
+
+
 	private static class AnnotationCollector<A extends Annotation> {
 
 		private final Class<A> annotationType;
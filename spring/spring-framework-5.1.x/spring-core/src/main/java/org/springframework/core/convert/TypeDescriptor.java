@@ -21,6 +21,8 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Field;
 import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
@@ -56,7 +58,8 @@ public class TypeDescriptor implements Serializable {
 	private static final Class<?>[] CACHED_COMMON_TYPES = {
 			boolean.class, Boolean.class, byte.class, Byte.class, char.class, Character.class,
 			double.class, Double.class, float.class, Float.class, int.class, Integer.class,
-			long.class, Long.class, short.class, Short.class, String.class, Object.class};
+			long.class, Long.class, short.class, Short.class, String.class, Object.class,
+			Number.class, BigInteger.class, BigDecimal.class};
 
 	static {
 		for (Class<?> preCachedClass : CACHED_COMMON_TYPES) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,9 +17,12 @@
 package org.springframework.core.convert.support;
 
 import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
@@ -27,6 +30,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.springframework.core.DecoratingProxy;
 import org.springframework.core.ResolvableType;
@@ -73,11 +78,39 @@ public class GenericConversionService implements ConfigurableConversionService {
 	 */
 	private static final GenericConverter NO_MATCH = new NoOpConverter("NO_MATCH");
 
+	/**
+	 * Common types with a pre-sized converter table: primitives, their wrappers,
+	 * String and common number types, mapped to their index in the table.
+	 */
+	private static final Map<Class<?>, Integer> commonTypeIndexes = new IdentityHashMap<>(32);
+
+	static {
+		Class<?>[] commonTypes = {boolean.class, Boolean.class, byte.class, Byte.class, char.class, Character.class,
+				double.class, Double.class, float.class, Float.class, int.class, Integer.class,
+				long.class, Long.class, short.class, Short.class, String.class, Object.class,
+				Number.class, BigInteger.class, BigDecimal.class};
+		for (int i = 0; i < commonTypes.length; i++) {
+			commonTypeIndexes.put(commonTypes[i], i);
+		}
+	}
+
 
 	private final Converters converters = new Converters();
 
 	private final Map<ConverterCacheKey, GenericConverter> converterCache = new ConcurrentReferenceHashMap<>(64);
 
+	/**
+	 * Converters for pairs of common types without annotations, indexed by
+	 * source type index * number of common types + target type index.
+	 */
+	private volatile AtomicReferenceArray<GenericConverter> commonConverterTable = createCommonConverterTable();
+
+	private final LongAdder commonConverterHitCount = new LongAdder();
+
+	private final LongAdder converterCacheHitCount = new LongAdder();
+
+	private final LongAdder converterCacheMissCount = new LongAdder();
+
 
 	// ConverterRegistry implementation
 
@@ -212,6 +245,33 @@ public class GenericConversionService implements ConfigurableConversionService {
 		return convert(source, TypeDescriptor.forObject(source), targetType);
 	}
 
+	/**
+	 * Return the number of converter lookups served from the table of converters
+	 * for common types, i.e. without creating a cache key.
+	 * @since 5.1.11
+	 */
+	public long getCommonConverterHitCount() {
+		return this.commonConverterHitCount.sum();
+	}
+
+	/**
+	 * Return the number of converter lookups served from the general converter cache.
+	 * @since 5.1.11
+	 */
+	public long getConverterCacheHitCount() {
+		return this.converterCacheHitCount.sum();
+	}
+
+	/**
+	 * Return the number of converter lookups that required a search through
+	 * the registered converters, i.e. that were neither served from the table
+	 * of converters for common types nor from the general converter cache.
+	 * @since 5.1.11
+	 */
+	public long getConverterCacheMissCount() {
+		return this.converterCacheMissCount.sum();
+	}
+
 	@Override
 	public String toString() {
 		return this.converters.toString();
@@ -251,24 +311,60 @@ public class GenericConversionService implements ConfigurableConversionService {
 	 */
 	@Nullable
 	protected GenericConverter getConverter(TypeDescriptor sourceType, TypeDescriptor targetType) {
+		AtomicReferenceArray<GenericConverter> commonConverterTable = this.commonConverterTable;
+		int commonIndex = getCommonConverterIndex(sourceType, targetType);
+		GenericConverter converter;
+		if (commonIndex != -1) {
+			converter = commonConverterTable.get(commonIndex);
+			if (converter != null) {
+				this.commonConverterHitCount.increment();
+				return (converter != NO_MATCH ? converter : null);
+			}
+		}
+
 		ConverterCacheKey key = new ConverterCacheKey(sourceType, targetType);
-		GenericConverter converter = this.converterCache.get(key);
+		converter = this.converterCache.get(key);
 		if (converter != null) {
-			return (converter != NO_MATCH ? converter : null);
+			this.converterCacheHitCount.increment();
+		}
+		else {
+			this.converterCacheMissCount.increment();
+			converter = this.converters.find(sourceType, targetType);
+			if (converter == null) {
+				converter = getDefaultConverter(sourceType, targetType);
+			}
+			if (converter == null) {
+				converter = NO_MATCH;
+			}
+			this.converterCache.put(key, converter);
 		}
 
-		converter = this.converters.find(sourceType, targetType);
-		if (converter == null) {
-			converter = getDefaultConverter(sourceType, targetType);
+		if (commonIndex != -1) {
+			commonConverterTable.set(commonIndex, converter);
 		}
+		return (converter != NO_MATCH ? converter : null);
+	}
 
-		if (converter != null) {
-			this.converterCache.put(key, converter);
-			return converter;
+	/**
+	 * Determine the index in the converter table for common types, if applicable:
+	 * i.e. if both types are common types without annotations, with such type
+	 * descriptors being equal to each other for the purposes of converter lookup.
+	 * @return the index, or -1 if not applicable
+	 */
+	private static int getCommonConverterIndex(TypeDescriptor sourceType, TypeDescriptor targetType) {
+		Integer sourceIndex = commonTypeIndexes.get(sourceType.getType());
+		if (sourceIndex == null || sourceType.getAnnotations().length > 0) {
+			return -1;
+		}
+		Integer targetIndex = commonTypeIndexes.get(targetType.getType());
+		if (targetIndex == null || targetType.getAnnotations().length > 0) {
+			return -1;
 		}
+		return sourceIndex * commonTypeIndexes.size() + targetIndex;
+	}
 
-		this.converterCache.put(key, NO_MATCH);
-		return null;
+	private static AtomicReferenceArray<GenericConverter> createCommonConverterTable() {
+		return new AtomicReferenceArray<>(commonTypeIndexes.size() * commonTypeIndexes.size());
 	}
 
 	/**
@@ -304,6 +400,7 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	private void invalidateCache() {
 		this.converterCache.clear();
+		this.commonConverterTable = createCommonConverterTable();
 	}
 
 	@Nullable
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import java.util.List;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufAllocatorMetricProvider;
 import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
 
@@ -118,10 +119,15 @@ public class NettyDataBufferFactory implements DataBufferFactory {
 	 * <p>Returns the {@linkplain NettyDataBuffer#getNativeBuffer() native buffer}
 	 * if {@code buffer} is a {@link NettyDataBuffer}; returns
 	 * {@link Unpooled#wrappedBuffer(ByteBuffer)} otherwise.
+	 * <p>A buffer from a {@link TrackingDataBufferFactory} is unwrapped,
+	 * with the returned {@code ByteBuf} to be released by the caller.
 	 * @param buffer the {@code DataBuffer} to return a {@code ByteBuf} for
 	 * @return the netty {@code ByteBuf}
 	 */
 	public static ByteBuf toByteBuf(DataBuffer buffer) {
+		if (buffer instanceof TrackingDataBuffer) {
+			buffer = ((TrackingDataBuffer) buffer).transferOwnership();
+		}
 		if (buffer instanceof NettyDataBuffer) {
 			return ((NettyDataBuffer) buffer).getNativeBuffer();
 		}
@@ -131,6 +137,29 @@ public class NettyDataBufferFactory implements DataBufferFactory {
 	}
 
 
+	/**
+	 * Return the amount of heap memory used by the underlying allocator,
+	 * e.g. the pool of a {@link io.netty.buffer.PooledByteBufAllocator}.
+	 * @return the used heap memory in bytes, or -1 if not exposed by the allocator
+	 * @since 5.1.11
+	 */
+	public long getUsedHeapMemory() {
+		return (this.byteBufAllocator instanceof ByteBufAllocatorMetricProvider ?
+				((ByteBufAllocatorMetricProvider) this.byteBufAllocator).metric().usedHeapMemory() : -1);
+	}
+
+	/**
+	 * Return the amount of direct memory used by the underlying allocator,
+	 * e.g. the pool of a {@link io.netty.buffer.PooledByteBufAllocator}.
+	 * @return the used direct memory in bytes, or -1 if not exposed by the allocator
+	 * @since 5.1.11
+	 */
+	public long getUsedDirectMemory() {
+		return (this.byteBufAllocator instanceof ByteBufAllocatorMetricProvider ?
+				((ByteBufAllocatorMetricProvider) this.byteBufAllocator).metric().usedDirectMemory() : -1);
+	}
+
+
 	@Override
 	public String toString() {
 		return "NettyDataBufferFactory (" + this.byteBufAllocator + ")";
@@ -0,0 +1,340 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link PooledDataBuffer} created by {@link TrackingDataBufferFactory},
+ * reporting its release back to the factory's statistics.
+ *
+ * <p>A buffer is considered released once the references obtained through
+ * this wrapper have been released, i.e. one for its creation plus one per
+ * {@link #retain()} call, independent from other references to the underlying
+ * buffer. This also applies to buffers which are not pooled themselves, with
+ * {@link DataBufferUtils#release} calling {@link #release()} for them as well.
+ *
+ * <p>{@link #slice Slices} are tracking buffers themselves, sharing the
+ * reference count of the buffer they have been sliced from, analogous to
+ * Netty's derived buffers. Retaining a slice therefore keeps the original
+ * buffer outstanding until the slice has been released as well.
+ *
+ * @author agent (agent@local)
+ * @since 5.1.11
+ */
+class TrackingDataBuffer implements PooledDataBuffer {
+
+	private final DataBuffer delegate;
+
+	private final TrackingDataBufferFactory factory;
+
+	final long id;
+
+	final String source;
+
+	final int capacity;
+
+	@Nullable
+	final Throwable allocationSite;
+
+	private final AtomicInteger referenceCount;
+
+	private final AtomicBoolean released;
+
+
+	TrackingDataBuffer(DataBuffer delegate, TrackingDataBufferFactory factory, long id, String source,
+			@Nullable Throwable allocationSite) {
+
+		this.delegate = delegate;
+		this.factory = factory;
+		this.id = id;
+		this.source = source;
+		this.capacity = delegate.capacity();
+		this.allocationSite = allocationSite;
+		this.referenceCount = new AtomicInteger(1);
+		this.released = new AtomicBoolean();
+	}
+
+	/**
+	 * Create a slice of the given buffer, tracked along with it.
+	 */
+	private TrackingDataBuffer(DataBuffer delegate, TrackingDataBuffer parent) {
+		this.delegate = delegate;
+		this.factory = parent.factory;
+		this.id = parent.id;
+		this.source = parent.source;
+		this.capacity = parent.capacity;
+		this.allocationSite = parent.allocationSite;
+		this.referenceCount = parent.referenceCount;
+		this.released = parent.released;
+	}
+
+
+	/**
+	 * Return the underlying buffer.
+	 */
+	DataBuffer getDelegate() {
+		return this.delegate;
+	}
+
+	/**
+	 * Hand the underlying buffer over to a new owner, e.g. a composite buffer
+	 * or the Netty channel, which is responsible for releasing it from now on.
+	 * @return the underlying buffer
+	 */
+	DataBuffer transferOwnership() {
+		markReleased();
+		return this.delegate;
+	}
+
+	private void markReleased() {
+		if (this.released.compareAndSet(false, true)) {
+			this.factory.released(this);
+		}
+	}
+
+
+	@Override
+	public boolean isAllocated() {
+		if (this.delegate instanceof PooledDataBuffer) {
+			return ((PooledDataBuffer) this.delegate).isAllocated();
+		}
+		return !this.released.get();
+	}
+
+	@Override
+	public PooledDataBuffer retain() {
+		if (this.delegate instanceof PooledDataBuffer) {
+			((PooledDataBuffer) this.delegate).retain();
+		}
+		this.referenceCount.incrementAndGet();
+		return this;
+	}
+
+	@Override
+	public boolean release() {
+		boolean deallocated = true;
+		if (this.delegate instanceof PooledDataBuffer) {
+			deallocated = ((PooledDataBuffer) this.delegate).release();
+		}
+		if (this.referenceCount.decrementAndGet() <= 0) {
+			markReleased();
+		}
+		return deallocated;
+	}
+
+
+	// Delegation, returning this buffer instead of the delegate for fluent calls
+
+	@Override
+	public DataBufferFactory factory() {
+		return this.factory;
+	}
+
+	@Override
+	public int indexOf(IntPredicate predicate, int fromIndex) {
+		return this.delegate.indexOf(predicate, fromIndex);
+	}
+
+	@Override
+	public int lastIndexOf(IntPredicate predicate, int fromIndex) {
+		return this.delegate.lastIndexOf(predicate, fromIndex);
+	}
+
+	@Override
+	public int readableByteCount() {
+		return this.delegate.readableByteCount();
+	}
+
+	@Override
+	public int writableByteCount() {
+		return this.delegate.writableByteCount();
+	}
+
+	@Override
+	public int capacity() {
+		return this.delegate.capacity();
+	}
+
+	@Override
+	public DataBuffer capacity(int capacity) {
+		this.delegate.capacity(capacity);
+		return this;
+	}
+
+	@Override
+	public DataBuffer ensureCapacity(int capacity) {
+		this.delegate.ensureCapacity(capacity);
+		return this;
+	}
+
+	@Override
+	public int readPosition() {
+		return this.delegate.readPosition();
+	}
+
+	@Override
+	public DataBuffer readPosition(int readPosition) {
+		this.delegate.readPosition(readPosition);
+		return this;
+	}
+
+	@Override
+	public int writePosition() {
+		return this.delegate.writePosition();
+	}
+
+	@Override
+	public DataBuffer writePosition(int writePosition) {
+		this.delegate.writePosition(writePosition);
+		return this;
+	}
+
+	@Override
+	public byte getByte(int index) {
+		return this.delegate.getByte(index);
+	}
+
+	@Override
+	public byte read() {
+		return this.delegate.read();
+	}
+
+	@Override
+	public DataBuffer read(byte[] destination) {
+		this.delegate.read(destination);
+		return this;
+	}
+
+	@Override
+	public DataBuffer read(byte[] destination, int offset, int length) {
+		this.delegate.read(destination, offset, length);
+		return this;
+	}
+
+	@Override
+	public DataBuffer write(byte b) {
+		this.delegate.write(b);
+		return this;
+	}
+
+	@Override
+	public DataBuffer write(byte[] source) {
+		this.delegate.write(source);
+		return this;
+	}
+
+	@Override
+	public DataBuffer write(byte[] source, int offset, int length) {
+		this.delegate.write(source, offset, length);
+		return this;
+	}
+
+	@Override
+	public DataBuffer write(DataBuffer... buffers) {
+		DataBuffer[] delegates = new DataBuffer[buffers.length];
+		for (int i = 0; i < buffers.length; i++) {
+			DataBuffer buffer = buffers[i];
+			delegates[i] = (buffer instanceof TrackingDataBuffer ? ((TrackingDataBuffer) buffer).delegate : buffer);
+		}
+		this.delegate.write(delegates);
+		return this;
+	}
+
+	@Override
+	public DataBuffer write(ByteBuffer... buffers) {
+		this.delegate.write(buffers);
+		return this;
+	}
+
+	@Override
+	public DataBuffer write(CharSequence charSequence, Charset charset) {
+		this.delegate.write(charSequence, charset);
+		return this;
+	}
+
+	@Override
+	public DataBuffer slice(int index, int length) {
+		return new TrackingDataBuffer(this.delegate.slice(index, length), this);
+	}
+
+	@Override
+	public ByteBuffer asByteBuffer() {
+		return this.delegate.asByteBuffer();
+	}
+
+	@Override
+	public ByteBuffer asByteBuffer(int index, int length) {
+		return this.delegate.asByteBuffer(index, length);
+	}
+
+	@Override
+	public InputStream asInputStream() {
+		return this.delegate.asInputStream();
+	}
+
+	@Override
+	public InputStream asInputStream(boolean releaseOnClose) {
+		if (!releaseOnClose) {
+			return this.delegate.asInputStream();
+		}
+		return new FilterInputStream(this.delegate.asInputStream()) {
+			@Override
+			public void close() throws IOException {
+				try {
+					super.close();
+				}
+				finally {
+					release();
+				}
+			}
+		};
+	}
+
+	@Override
+	public OutputStream asOutputStream() {
+		return this.delegate.asOutputStream();
+	}
+
+
+	@Override
+	public boolean equals(Object other) {
+		return (this == other || (other instanceof TrackingDataBuffer &&
+				this.delegate.equals(((TrackingDataBuffer) other).delegate)));
+	}
+
+	@Override
+	public int hashCode() {
+		return this.delegate.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return "TrackingDataBuffer [" + this.source + "] (" + this.delegate + ")";
+	}
+
+}
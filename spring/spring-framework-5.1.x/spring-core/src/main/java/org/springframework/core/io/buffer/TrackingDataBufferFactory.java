@@ -0,0 +1,407 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link DataBufferFactory} decorator which keeps track of the buffers allocated
+ * through it until they are released, exposing the number of outstanding buffers
+ * and bytes per source as well as the allocation sites of unreleased buffers.
+ *
+ * <p>A source is a name for the component allocating through a particular
+ * factory instance, e.g. a codec or a server adapter: see {@link #forSource}
+ * and {@link #decorate}. All factory instances derived from the same original
+ * factory share their statistics and settings.
+ *
+ * <p>The allocation site of a buffer is recorded as a stack trace, by default
+ * for one out of {@link #setSamplingInterval 100} allocations. In
+ * {@link #setStrict strict} mode, typically for tests, the allocation site of
+ * every buffer is recorded, and {@link #checkForLeaks()} fails with an
+ * exception if any buffers are still outstanding.
+ *
+ * <p>Buffers are considered released once released to the point of
+ * deallocation, or once handed over to a new owner, e.g. to a composite
+ * through {@link #join} or to the Netty channel through
+ * {@link NettyDataBufferFactory#toByteBuf}. Buffers created through
+ * {@link #wrap} do not occupy new memory and are not tracked. Only metadata
+ * about outstanding buffers is retained, so tracking does not prevent leaked
+ * buffers from being garbage collected.
+ *
+ * @author agent (agent@local)
+ * @since 5.1.11
+ * @see DataBufferUtils#release
+ * @see NettyDataBufferFactory#getUsedDirectMemory()
+ */
+public class TrackingDataBufferFactory implements DataBufferFactory {
+
+	/**
+	 * The source name for a factory created through the public constructor.
+	 */
+	public static final String DEFAULT_SOURCE = "default";
+
+	private static final Log logger = LogFactory.getLog(TrackingDataBufferFactory.class);
+
+
+	private final DataBufferFactory delegate;
+
+	private final String source;
+
+	private final Tracker tracker;
+
+
+	/**
+	 * Create a new {@code TrackingDataBufferFactory} for the given delegate.
+	 * @param delegate the factory to allocate buffers from
+	 */
+	public TrackingDataBufferFactory(DataBufferFactory delegate) {
+		this(delegate, DEFAULT_SOURCE, new Tracker());
+	}
+
+	private TrackingDataBufferFactory(DataBufferFactory delegate, String source, Tracker tracker) {
+		Assert.notNull(delegate, "Delegate DataBufferFactory must not be null");
+		Assert.hasText(source, "Source must not be empty");
+		this.delegate = delegate;
+		this.source = source;
+		this.tracker = tracker;
+	}
+
+
+	/**
+	 * Specify the interval for recording the allocation site of a buffer,
+	 * e.g. 100 for one out of 100 allocations.
+	 * <p>The default is 100. Set this to 1 for recording the allocation site
+	 * of every buffer, or to 0 for not recording allocation sites at all.
+	 */
+	public void setSamplingInterval(int samplingInterval) {
+		Assert.isTrue(samplingInterval >= 0, "Sampling interval must not be negative");
+		this.tracker.samplingInterval = samplingInterval;
+	}
+
+	/**
+	 * Return the interval for recording the allocation site of a buffer.
+	 */
+	public int getSamplingInterval() {
+		return this.tracker.samplingInterval;
+	}
+
+	/**
+	 * Specify whether to record the allocation site of every buffer and to
+	 * fail on outstanding buffers in {@link #checkForLeaks()}.
+	 * <p>The default is "false". Switch this to "true" in test setups.
+	 */
+	public void setStrict(boolean strict) {
+		this.tracker.strict = strict;
+	}
+
+	/**
+	 * Return whether this factory operates in strict mode.
+	 */
+	public boolean isStrict() {
+		return this.tracker.strict;
+	}
+
+	/**
+	 * Return the underlying factory that buffers are allocated from.
+	 */
+	public DataBufferFactory getDelegate() {
+		return this.delegate;
+	}
+
+	/**
+	 * Return the name of the source that this factory attributes allocations to.
+	 */
+	public String getSource() {
+		return this.source;
+	}
+
+
+	/**
+	 * Return a factory for the same delegate which attributes allocations
+	 * to the given source, sharing the statistics of this factory.
+	 * @param source the name of the allocating component, e.g. a codec
+	 */
+	public TrackingDataBufferFactory forSource(String source) {
+		return decorate(this.delegate, source);
+	}
+
+	/**
+	 * Return a factory for the given delegate which attributes allocations
+	 * to the given source, sharing the statistics of this factory.
+	 * <p>Useful for per-request factories, e.g. for the channel-specific
+	 * allocator of a Reactor Netty response.
+	 * @param delegate the factory to allocate buffers from
+	 * @param source the name of the allocating component
+	 */
+	public TrackingDataBufferFactory decorate(DataBufferFactory delegate, String source) {
+		return new TrackingDataBufferFactory(delegate, source, this.tracker);
+	}
+
+	/**
+	 * Track the given buffer, allocated elsewhere, attributing it to the
+	 * source of this factory.
+	 * <p>Only {@link PooledDataBuffer pooled buffers} are tracked, with
+	 * other buffers returned as-is.
+	 * @param dataBuffer the buffer to track
+	 * @return the tracked buffer, to be used instead of the given buffer
+	 */
+	public DataBuffer track(DataBuffer dataBuffer) {
+		if (dataBuffer instanceof TrackingDataBuffer || !(dataBuffer instanceof PooledDataBuffer)) {
+			return dataBuffer;
+		}
+		return createTrackingBuffer(dataBuffer);
+	}
+
+
+	@Override
+	public DataBuffer allocateBuffer() {
+		return createTrackingBuffer(this.delegate.allocateBuffer());
+	}
+
+	@Override
+	public DataBuffer allocateBuffer(int initialCapacity) {
+		return createTrackingBuffer(this.delegate.allocateBuffer(initialCapacity));
+	}
+
+	@Override
+	public DataBuffer wrap(ByteBuffer byteBuffer) {
+		return this.delegate.wrap(byteBuffer);
+	}
+
+	@Override
+	public DataBuffer wrap(byte[] bytes) {
+		return this.delegate.wrap(bytes);
+	}
+
+	@Override
+	public DataBuffer join(List<? extends DataBuffer> dataBuffers) {
+		List<DataBuffer> delegates = new ArrayList<>(dataBuffers.size());
+		boolean tracked = false;
+		for (DataBuffer dataBuffer : dataBuffers) {
+			if (dataBuffer instanceof TrackingDataBuffer) {
+				// Released as part of the composite
+				delegates.add(((TrackingDataBuffer) dataBuffer).transferOwnership());
+				tracked = true;
+			}
+			else {
+				delegates.add(dataBuffer);
+			}
+		}
+		DataBuffer result = this.delegate.join(delegates);
+		return (tracked ? createTrackingBuffer(result) : track(result));
+	}
+
+	private DataBuffer createTrackingBuffer(DataBuffer dataBuffer) {
+		Tracker tracker = this.tracker;
+		long id = tracker.idGenerator.incrementAndGet();
+		int samplingInterval = tracker.samplingInterval;
+		Throwable allocationSite = null;
+		if (tracker.strict || (samplingInterval > 0 && id % samplingInterval == 0)) {
+			allocationSite = new Throwable("Allocation site of buffer #" + id + " for source '" + this.source + "'");
+		}
+		TrackingDataBuffer trackingBuffer = new TrackingDataBuffer(dataBuffer, this, id, this.source, allocationSite);
+		tracker.outstandingBuffers.put(id, new BufferRecord(trackingBuffer));
+		tracker.allocatedCount.increment();
+		tracker.outstandingBytes.add(trackingBuffer.capacity);
+		SourceStatistics statistics = tracker.getSourceStatistics(this.source);
+		statistics.outstandingCount.increment();
+		statistics.outstandingBytes.add(trackingBuffer.capacity);
+		return trackingBuffer;
+	}
+
+	/**
+	 * Callback from a {@link TrackingDataBuffer} once released.
+	 */
+	void released(TrackingDataBuffer trackingBuffer) {
+		Tracker tracker = this.tracker;
+		tracker.outstandingBuffers.remove(trackingBuffer.id);
+		tracker.releasedCount.increment();
+		tracker.outstandingBytes.add(-trackingBuffer.capacity);
+		SourceStatistics statistics = tracker.getSourceStatistics(trackingBuffer.source);
+		statistics.outstandingCount.decrement();
+		statistics.outstandingBytes.add(-trackingBuffer.capacity);
+	}
+
+
+	/**
+	 * Check for outstanding buffers, i.e. allocated but not released yet.
+	 * <p>In {@link #setStrict strict} mode, this method throws an exception
+	 * if any buffers are outstanding, with the recorded allocation sites
+	 * attached as suppressed exceptions. Otherwise, outstanding buffers are
+	 * logged at warn level.
+	 * @return the number of outstanding buffers
+	 * @throws IllegalStateException in strict mode if any buffers are outstanding
+	 */
+	public int checkForLeaks() {
+		List<BufferRecord> leaked = new ArrayList<>(this.tracker.outstandingBuffers.values());
+		if (leaked.isEmpty()) {
+			return 0;
+		}
+		if (this.tracker.strict) {
+			IllegalStateException ex = new IllegalStateException(leaked.size() + " data buffers not released: " + leaked);
+			for (BufferRecord record : leaked) {
+				if (record.allocationSite != null) {
+					ex.addSuppressed(record.allocationSite);
+				}
+			}
+			throw ex;
+		}
+		if (logger.isWarnEnabled()) {
+			for (BufferRecord record : leaked) {
+				logger.warn("Data buffer not released: " + record, record.allocationSite);
+			}
+		}
+		return leaked.size();
+	}
+
+	/**
+	 * Return the total number of buffers allocated so far.
+	 */
+	public long getAllocatedCount() {
+		return this.tracker.allocatedCount.sum();
+	}
+
+	/**
+	 * Return the total number of buffers released so far.
+	 */
+	public long getReleasedCount() {
+		return this.tracker.releasedCount.sum();
+	}
+
+	/**
+	 * Return the number of currently outstanding buffers.
+	 */
+	public int getOutstandingCount() {
+		return this.tracker.outstandingBuffers.size();
+	}
+
+	/**
+	 * Return the initial capacity of all currently outstanding buffers, in bytes.
+	 */
+	public long getOutstandingBytes() {
+		return this.tracker.outstandingBytes.sum();
+	}
+
+	/**
+	 * Return the number of currently outstanding buffers per source.
+	 */
+	public Map<String, Long> getOutstandingCountBySource() {
+		Map<String, Long> result = new TreeMap<>();
+		this.tracker.sourceStatistics.forEach((source, statistics) ->
+				result.put(source, statistics.outstandingCount.sum()));
+		return result;
+	}
+
+	/**
+	 * Return the initial capacity of currently outstanding buffers per source, in bytes.
+	 */
+	public Map<String, Long> getOutstandingBytesBySource() {
+		Map<String, Long> result = new TreeMap<>();
+		this.tracker.sourceStatistics.forEach((source, statistics) ->
+				result.put(source, statistics.outstandingBytes.sum()));
+		return result;
+	}
+
+
+	@Override
+	public String toString() {
+		return "TrackingDataBufferFactory [" + this.source + "] (" + this.delegate + ")";
+	}
+
+
+	/**
+	 * Statistics and settings shared by all factory instances derived from
+	 * the same original factory.
+	 */
+	private static class Tracker {
+
+		final AtomicLong idGenerator = new AtomicLong();
+
+		final ConcurrentMap<Long, BufferRecord> outstandingBuffers = new ConcurrentHashMap<>(64);
+
+		final ConcurrentMap<String, SourceStatistics> sourceStatistics = new ConcurrentHashMap<>(16);
+
+		final LongAdder allocatedCount = new LongAdder();
+
+		final LongAdder releasedCount = new LongAdder();
+
+		final LongAdder outstandingBytes = new LongAdder();
+
+		volatile int samplingInterval = 100;
+
+		volatile boolean strict;
+
+		SourceStatistics getSourceStatistics(String source) {
+			SourceStatistics statistics = this.sourceStatistics.get(source);
+			if (statistics == null) {
+				statistics = this.sourceStatistics.computeIfAbsent(source, key -> new SourceStatistics());
+			}
+			return statistics;
+		}
+	}
+
+
+	/**
+	 * Metadata about an outstanding buffer, not holding on to the buffer itself.
+	 */
+	private static class BufferRecord {
+
+		final long id;
+
+		final String source;
+
+		final int capacity;
+
+		@Nullable
+		final Throwable allocationSite;
+
+		BufferRecord(TrackingDataBuffer trackingBuffer) {
+			this.id = trackingBuffer.id;
+			this.source = trackingBuffer.source;
+			this.capacity = trackingBuffer.capacity;
+			this.allocationSite = trackingBuffer.allocationSite;
+		}
+
+		@Override
+		public String toString() {
+			return "Buffer #" + this.id + " [" + this.source + "] (capacity " + this.capacity + ")";
+		}
+	}
+
+
+	private static class SourceStatistics {
+
+		final LongAdder outstandingCount = new LongAdder();
+
+		final LongAdder outstandingBytes = new LongAdder();
+	}
+
+}
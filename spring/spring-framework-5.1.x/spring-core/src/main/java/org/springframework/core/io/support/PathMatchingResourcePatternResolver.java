@@ -19,6 +19,7 @@ package org.springframework.core.io.support;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.net.JarURLConnection;
@@ -27,19 +28,27 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.net.URLConnection;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.zip.ZipException;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.core.SpringProperties;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
@@ -50,6 +59,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.PathMatcher;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.ResourceUtils;
@@ -169,6 +179,20 @@ import org.springframework.util.StringUtils;
  * Ant-style pattern in such a case, which will search <i>all</i> class path
  * locations that contain the root package.
  *
+ * <p><b>Parallel Scanning:</b>
+ *
+ * <p>For large class paths, this resolver may be switched to
+ * {@link #setParallelScanning parallel scanning}, processing multiple root
+ * locations as well as the entries of large jar files on the common fork-join
+ * pool. The result order is the same as with sequential scanning. In addition,
+ * the entry names of jar files may be {@link #setCacheJarIndexes cached} across
+ * resolver instances, keyed by jar file path and validated against the jar
+ * file's last-modified timestamp and length. That cache holds its entries
+ * through soft references and gets cleared along with Spring's other common
+ * caches at the end of an application context refresh. Both options can be
+ * switched on by default through the {@link #PARALLEL_SCANNING_PROPERTY_NAME}
+ * property.
+ *
  * @author Juergen Hoeller
  * @author Colin Sampaleanu
  * @author Marius Bogoevici
@@ -182,8 +206,25 @@ import org.springframework.util.StringUtils;
  */
 public class PathMatchingResourcePatternResolver implements ResourcePatternResolver {
 
+	/**
+	 * System property that instructs Spring to scan class path locations in
+	 * parallel and to cache jar file indexes by default: "spring.classpath.parallelScanning".
+	 * <p>Default is "false", scanning sequentially without jar index caching.
+	 * @since 5.1.11
+	 * @see #setParallelScanning
+	 * @see #setCacheJarIndexes
+	 */
+	public static final String PARALLEL_SCANNING_PROPERTY_NAME = "spring.classpath.parallelScanning";
+
+	/**
+	 * The minimum number of entries in a jar file for matching them in parallel.
+	 */
+	private static final int PARALLEL_ENTRY_THRESHOLD = 1024;
+
 	private static final Log logger = LogFactory.getLog(PathMatchingResourcePatternResolver.class);
 
+	private static final Map<String, JarIndex> jarIndexCache = new ConcurrentReferenceHashMap<>(64);
+
 	@Nullable
 	private static Method equinoxResolveMethod;
 
@@ -205,6 +246,10 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 
 	private PathMatcher pathMatcher = new AntPathMatcher();
 
+	private boolean parallelScanning = SpringProperties.getFlag(PARALLEL_SCANNING_PROPERTY_NAME);
+
+	private boolean cacheJarIndexes = SpringProperties.getFlag(PARALLEL_SCANNING_PROPERTY_NAME);
+
 
 	/**
 	 * Create a new PathMatchingResourcePatternResolver with a DefaultResourceLoader.
@@ -268,6 +313,46 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		return this.pathMatcher;
 	}
 
+	/**
+	 * Specify whether to scan multiple root locations as well as the entries of
+	 * large jar files in parallel, using the common fork-join pool.
+	 * <p>Default is "false", unless the {@link #PARALLEL_SCANNING_PROPERTY_NAME}
+	 * property has been set. Note that a custom {@link PathMatcher} needs to be
+	 * thread-safe for parallel scanning, as {@link AntPathMatcher} is.
+	 * @since 5.1.11
+	 */
+	public void setParallelScanning(boolean parallelScanning) {
+		this.parallelScanning = parallelScanning;
+	}
+
+	/**
+	 * Return whether this resource pattern resolver scans in parallel.
+	 * @since 5.1.11
+	 */
+	public boolean isParallelScanning() {
+		return this.parallelScanning;
+	}
+
+	/**
+	 * Specify whether to cache the entry names of jar files in a shared index,
+	 * avoiding repeated enumeration of jar files that have not been modified.
+	 * <p>Default is "false", unless the {@link #PARALLEL_SCANNING_PROPERTY_NAME}
+	 * property has been set.
+	 * @since 5.1.11
+	 * @see #clearJarIndexCache()
+	 */
+	public void setCacheJarIndexes(boolean cacheJarIndexes) {
+		this.cacheJarIndexes = cacheJarIndexes;
+	}
+
+	/**
+	 * Return whether this resource pattern resolver caches jar file indexes.
+	 * @since 5.1.11
+	 */
+	public boolean isCacheJarIndexes() {
+		return this.cacheJarIndexes;
+	}
+
 
 	@Override
 	public Resource getResource(String location) {
@@ -493,24 +578,35 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		String subPattern = locationPattern.substring(rootDirPath.length());
 		Resource[] rootDirResources = getResources(rootDirPath);
 		Set<Resource> result = new LinkedHashSet<>(16);
-		for (Resource rootDirResource : rootDirResources) {
-			rootDirResource = resolveRootDirResource(rootDirResource);
-			URL rootDirUrl = rootDirResource.getURL();
-			if (equinoxResolveMethod != null && rootDirUrl.getProtocol().startsWith("bundle")) {
-				URL resolvedUrl = (URL) ReflectionUtils.invokeMethod(equinoxResolveMethod, null, rootDirUrl);
-				if (resolvedUrl != null) {
-					rootDirUrl = resolvedUrl;
-				}
-				rootDirResource = new UrlResource(rootDirUrl);
-			}
-			if (rootDirUrl.getProtocol().startsWith(ResourceUtils.URL_PROTOCOL_VFS)) {
-				result.addAll(VfsResourceMatchingDelegate.findMatchingResources(rootDirUrl, subPattern, getPathMatcher()));
+		if (this.parallelScanning && rootDirResources.length > 1) {
+			List<CompletableFuture<Set<Resource>>> futures = new ArrayList<>(rootDirResources.length);
+			for (Resource rootDirResource : rootDirResources) {
+				futures.add(CompletableFuture.supplyAsync(() -> {
+					try {
+						return findPathMatchingResources(rootDirResource, subPattern);
+					}
+					catch (IOException ex) {
+						throw new UncheckedIOException(ex);
+					}
+				}));
 			}
-			else if (ResourceUtils.isJarURL(rootDirUrl) || isJarResource(rootDirResource)) {
-				result.addAll(doFindPathMatchingJarResources(rootDirResource, rootDirUrl, subPattern));
+			// Collect in root order, same as for sequential scanning
+			for (CompletableFuture<Set<Resource>> future : futures) {
+				try {
+					result.addAll(future.join());
+				}
+				catch (CompletionException ex) {
+					Throwable cause = ex.getCause();
+					if (cause instanceof UncheckedIOException) {
+						throw ((UncheckedIOException) cause).getCause();
+					}
+					ReflectionUtils.rethrowRuntimeException(cause);
+				}
 			}
-			else {
-				result.addAll(doFindPathMatchingFileResources(rootDirResource, subPattern));
+		}
+		else {
+			for (Resource rootDirResource : rootDirResources) {
+				result.addAll(findPathMatchingResources(rootDirResource, subPattern));
 			}
 		}
 		if (logger.isTraceEnabled()) {
@@ -519,6 +615,32 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		return result.toArray(new Resource[0]);
 	}
 
+	/**
+	 * Find all resources underneath the given root directory that match the
+	 * given sub pattern, as called by {@link #findPathMatchingResources(String)}
+	 * for each root directory (potentially concurrently).
+	 */
+	private Set<Resource> findPathMatchingResources(Resource rootDirResource, String subPattern) throws IOException {
+		rootDirResource = resolveRootDirResource(rootDirResource);
+		URL rootDirUrl = rootDirResource.getURL();
+		if (equinoxResolveMethod != null && rootDirUrl.getProtocol().startsWith("bundle")) {
+			URL resolvedUrl = (URL) ReflectionUtils.invokeMethod(equinoxResolveMethod, null, rootDirUrl);
+			if (resolvedUrl != null) {
+				rootDirUrl = resolvedUrl;
+			}
+			rootDirResource = new UrlResource(rootDirUrl);
+		}
+		if (rootDirUrl.getProtocol().startsWith(ResourceUtils.URL_PROTOCOL_VFS)) {
+			return VfsResourceMatchingDelegate.findMatchingResources(rootDirUrl, subPattern, getPathMatcher());
+		}
+		else if (ResourceUtils.isJarURL(rootDirUrl) || isJarResource(rootDirResource)) {
+			return doFindPathMatchingJarResources(rootDirResource, rootDirUrl, subPattern);
+		}
+		else {
+			return doFindPathMatchingFileResources(rootDirResource, subPattern);
+		}
+	}
+
 	/**
 	 * Determine the root directory for the given location.
 	 * <p>Used for determining the starting point for file matching,
@@ -645,6 +767,22 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 				rootEntryPath = rootEntryPath + "/";
 			}
 			Set<Resource> result = new LinkedHashSet<>(8);
+			if (this.cacheJarIndexes || this.parallelScanning) {
+				String[] entryPaths = getJarEntryPaths(jarFile);
+				String entryRootPath = rootEntryPath;
+				Stream<String> stream = Arrays.stream(entryPaths);
+				if (this.parallelScanning && entryPaths.length >= PARALLEL_ENTRY_THRESHOLD) {
+					stream = stream.parallel();
+				}
+				List<String> matchingPaths = stream
+						.filter(entryPath -> entryPath.startsWith(entryRootPath) &&
+								getPathMatcher().match(subPattern, entryPath.substring(entryRootPath.length())))
+						.collect(Collectors.toList());
+				for (String entryPath : matchingPaths) {
+					result.add(rootDirResource.createRelative(entryPath.substring(rootEntryPath.length())));
+				}
+				return result;
+			}
 			for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
 				JarEntry entry = entries.nextElement();
 				String entryPath = entry.getName();
@@ -664,6 +802,39 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		}
 	}
 
+	/**
+	 * Determine the entry names of the given jar file, in jar file order,
+	 * from the shared jar index cache if {@link #setCacheJarIndexes enabled}.
+	 */
+	private String[] getJarEntryPaths(JarFile jarFile) {
+		if (!this.cacheJarIndexes) {
+			return JarIndex.readEntryPaths(jarFile);
+		}
+		String jarPath = jarFile.getName();
+		File file = new File(jarPath);
+		long lastModified = file.lastModified();
+		long length = file.length();
+		if (lastModified == 0) {
+			// Not a regular file (or not accessible): no reliable staleness check
+			return JarIndex.readEntryPaths(jarFile);
+		}
+		JarIndex jarIndex = jarIndexCache.get(jarPath);
+		if (jarIndex == null || !jarIndex.isValid(lastModified, length)) {
+			jarIndex = new JarIndex(lastModified, length, JarIndex.readEntryPaths(jarFile));
+			jarIndexCache.put(jarPath, jarIndex);
+		}
+		return jarIndex.entryPaths;
+	}
+
+	/**
+	 * Clear the shared cache of jar file indexes.
+	 * @since 5.1.11
+	 * @see #setCacheJarIndexes
+	 */
+	public static void clearJarIndexCache() {
+		jarIndexCache.clear();
+	}
+
 	/**
 	 * Resolve the given jar file URL into a JarFile object.
 	 */
@@ -831,6 +1002,37 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 	}
 
 
+	/**
+	 * Cached entry names of a jar file, along with the file state they were read for.
+	 */
+	private static final class JarIndex {
+
+		private final long lastModified;
+
+		private final long length;
+
+		private final String[] entryPaths;
+
+		public JarIndex(long lastModified, long length, String[] entryPaths) {
+			this.lastModified = lastModified;
+			this.length = length;
+			this.entryPaths = entryPaths;
+		}
+
+		public boolean isValid(long lastModified, long length) {
+			return (this.lastModified == lastModified && this.length == length);
+		}
+
+		public static String[] readEntryPaths(JarFile jarFile) {
+			List<String> entryPaths = new ArrayList<>(jarFile.size());
+			for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
+				entryPaths.add(entries.nextElement().getName());
+			}
+			return StringUtils.toStringArray(entryPaths);
+		}
+	}
+
+
 	/**
 	 * Inner delegate class, avoiding a hard JBoss VFS API dependency at runtime.
 	 */
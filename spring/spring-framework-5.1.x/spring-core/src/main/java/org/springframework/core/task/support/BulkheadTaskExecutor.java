@@ -0,0 +1,337 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.task.support;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureTask;
+
+/**
+ * Decorator for a {@code java.util.concurrent.Executor} which limits the number of
+ * tasks concurrently running on the target executor, holding back further tasks
+ * in a local queue of configurable capacity and rejecting tasks beyond that.
+ * Typically used as a <i>bulkhead</i> for a specific kind of task on a shared
+ * thread pool, preventing slow tasks from occupying all of its threads.
+ *
+ * <p>Exposes queue time (from submission until the start of execution,
+ * including any waiting in the target executor's queue) and execution time
+ * statistics for the tasks executed through it.
+ *
+ * <p>Queued tasks are never run in a submitting thread: if the target executor
+ * rejects a task, the task is rejected as well, with queued tasks remaining in
+ * the queue until the next accepted task completes.
+ *
+ * @author agent (agent@local)
+ * @since 5.1.11
+ * @see org.springframework.core.task.SimpleAsyncTaskExecutor#setConcurrencyLimit
+ */
+public class BulkheadTaskExecutor implements AsyncListenableTaskExecutor {
+
+	private final Executor targetExecutor;
+
+	private final int concurrencyLimit;
+
+	private final int queueCapacity;
+
+	private final Deque<BulkheadTask> queue = new ArrayDeque<>();
+
+	private final Object monitor = new Object();
+
+	private int activeCount = 0;
+
+	private final LongAdder completedCount = new LongAdder();
+
+	private final LongAdder rejectedCount = new LongAdder();
+
+	private final LongAdder totalQueueTime = new LongAdder();
+
+	private final LongAdder totalExecutionTime = new LongAdder();
+
+
+	/**
+	 * Create a new BulkheadTaskExecutor with an unbounded local queue.
+	 * @param targetExecutor the target executor to delegate to
+	 * @param concurrencyLimit the maximum number of tasks running concurrently
+	 */
+	public BulkheadTaskExecutor(Executor targetExecutor, int concurrencyLimit) {
+		this(targetExecutor, concurrencyLimit, -1);
+	}
+
+	/**
+	 * Create a new BulkheadTaskExecutor.
+	 * @param targetExecutor the target executor to delegate to
+	 * @param concurrencyLimit the maximum number of tasks running concurrently
+	 * @param queueCapacity the maximum number of tasks waiting for execution,
+	 * with further tasks being rejected (0 for rejecting any tasks beyond the
+	 * concurrency limit, or -1 for an unbounded queue)
+	 */
+	public BulkheadTaskExecutor(Executor targetExecutor, int concurrencyLimit, int queueCapacity) {
+		Assert.notNull(targetExecutor, "Target Executor must not be null");
+		Assert.isTrue(concurrencyLimit > 0, "Concurrency limit must be greater than 0");
+		this.targetExecutor = targetExecutor;
+		this.concurrencyLimit = concurrencyLimit;
+		this.queueCapacity = queueCapacity;
+	}
+
+
+	/**
+	 * Return the target executor to delegate to.
+	 */
+	public Executor getTargetExecutor() {
+		return this.targetExecutor;
+	}
+
+	/**
+	 * Return the maximum number of tasks running concurrently.
+	 */
+	public int getConcurrencyLimit() {
+		return this.concurrencyLimit;
+	}
+
+	/**
+	 * Return the maximum number of tasks waiting for execution,
+	 * or -1 for an unbounded queue.
+	 */
+	public int getQueueCapacity() {
+		return this.queueCapacity;
+	}
+
+
+	@Override
+	public void execute(Runnable task) {
+		Assert.notNull(task, "Runnable must not be null");
+		BulkheadTask bulkheadTask = new BulkheadTask(task);
+		synchronized (this.monitor) {
+			if (this.activeCount >= this.concurrencyLimit) {
+				if (this.queueCapacity >= 0 && this.queue.size() >= this.queueCapacity) {
+					this.rejectedCount.increment();
+					throw new TaskRejectedException("Bulkhead with concurrency limit " + this.concurrencyLimit +
+							" and queue capacity " + this.queueCapacity + " did not accept task: " + task);
+				}
+				this.queue.add(bulkheadTask);
+				return;
+			}
+			this.activeCount++;
+		}
+		try {
+			this.targetExecutor.execute(bulkheadTask);
+		}
+		catch (RejectedExecutionException ex) {
+			// Release the slot, passing it on to a task queued in the meantime
+			BulkheadTask next = dispatchNext();
+			if (next != null) {
+				// Rejected by the target executor as well: never run it in the submitting
+				// thread but leave it queued for the completion of the next accepted task
+				synchronized (this.monitor) {
+					this.queue.addFirst(next);
+					this.activeCount--;
+				}
+			}
+			this.rejectedCount.increment();
+			if (ex instanceof TaskRejectedException) {
+				throw ex;
+			}
+			throw new TaskRejectedException(
+					"Executor [" + this.targetExecutor + "] did not accept task: " + task, ex);
+		}
+	}
+
+	@Override
+	public void execute(Runnable task, long startTimeout) {
+		execute(task);
+	}
+
+	@Override
+	public Future<?> submit(Runnable task) {
+		FutureTask<Object> future = new FutureTask<>(task, null);
+		execute(future);
+		return future;
+	}
+
+	@Override
+	public <T> Future<T> submit(Callable<T> task) {
+		FutureTask<T> future = new FutureTask<>(task);
+		execute(future);
+		return future;
+	}
+
+	@Override
+	public ListenableFuture<?> submitListenable(Runnable task) {
+		ListenableFutureTask<Object> future = new ListenableFutureTask<>(task, null);
+		execute(future);
+		return future;
+	}
+
+	@Override
+	public <T> ListenableFuture<T> submitListenable(Callable<T> task) {
+		ListenableFutureTask<T> future = new ListenableFutureTask<>(task);
+		execute(future);
+		return future;
+	}
+
+	/**
+	 * Hand the next queued task (if any) to the target executor, or release
+	 * the concurrency slot of the completed task if there is none.
+	 * @return the next task if the target executor did not accept it, still
+	 * holding the concurrency slot, or {@code null} if none
+	 */
+	@Nullable
+	private BulkheadTask dispatchNext() {
+		BulkheadTask next;
+		synchronized (this.monitor) {
+			next = this.queue.poll();
+			if (next == null) {
+				this.activeCount--;
+				return null;
+			}
+		}
+		try {
+			this.targetExecutor.execute(next);
+			return null;
+		}
+		catch (RejectedExecutionException ex) {
+			// Keep the concurrency slot: run the task in the current thread instead
+			return next;
+		}
+	}
+
+
+	/**
+	 * Return the number of tasks currently running or handed to the target executor.
+	 */
+	public int getActiveCount() {
+		synchronized (this.monitor) {
+			return this.activeCount;
+		}
+	}
+
+	/**
+	 * Return the number of tasks currently waiting in the local queue.
+	 */
+	public int getQueueSize() {
+		synchronized (this.monitor) {
+			return this.queue.size();
+		}
+	}
+
+	/**
+	 * Return the number of tasks completed so far, successfully or not.
+	 */
+	public long getCompletedCount() {
+		return this.completedCount.sum();
+	}
+
+	/**
+	 * Return the number of tasks rejected so far, either by this bulkhead
+	 * or by the target executor.
+	 */
+	public long getRejectedCount() {
+		return this.rejectedCount.sum();
+	}
+
+	/**
+	 * Return the accumulated time (in milliseconds) that completed tasks
+	 * have spent waiting between their submission and start of execution.
+	 */
+	public long getTotalQueueTime() {
+		return TimeUnit.NANOSECONDS.toMillis(this.totalQueueTime.sum());
+	}
+
+	/**
+	 * Return the accumulated execution time (in milliseconds) of completed tasks.
+	 */
+	public long getTotalExecutionTime() {
+		return TimeUnit.NANOSECONDS.toMillis(this.totalExecutionTime.sum());
+	}
+
+	@Override
+	public String toString() {
+		return "BulkheadTaskExecutor with concurrency limit " + this.concurrencyLimit +
+				" and queue capacity " + this.queueCapacity + " for " + this.targetExecutor;
+	}
+
+
+	/**
+	 * Wrapper for a submitted task, recording its timing and dispatching
+	 * the next queued task on completion.
+	 */
+	private class BulkheadTask implements Runnable {
+
+		private final Runnable task;
+
+		private final long submissionTime = System.nanoTime();
+
+		public BulkheadTask(Runnable task) {
+			this.task = task;
+		}
+
+		@Override
+		public void run() {
+			BulkheadTask current = this;
+			Throwable failure = null;
+			while (current != null) {
+				try {
+					current.runTask();
+				}
+				catch (RuntimeException | Error ex) {
+					// Keep going with queued tasks, rethrowing the first failure at the end
+					if (failure == null) {
+						failure = ex;
+					}
+				}
+				current = dispatchNext();
+			}
+			if (failure instanceof RuntimeException) {
+				throw (RuntimeException) failure;
+			}
+			if (failure instanceof Error) {
+				throw (Error) failure;
+			}
+		}
+
+		private void runTask() {
+			long startTime = System.nanoTime();
+			totalQueueTime.add(startTime - this.submissionTime);
+			try {
+				this.task.run();
+			}
+			finally {
+				totalExecutionTime.add(System.nanoTime() - startTime);
+				completedCount.increment();
+			}
+		}
+
+		@Override
+		public String toString() {
+			return this.task.toString();
+		}
+	}
+
+}
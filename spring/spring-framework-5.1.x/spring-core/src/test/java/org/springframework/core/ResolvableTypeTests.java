@@ -51,6 +51,8 @@ import org.mockito.Captor;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import org.springframework.core.ResolvableType.VariableResolver;
+import org.springframework.tests.Assume;
+import org.springframework.tests.TestGroup;
 import org.springframework.util.MultiValueMap;
 
 import static org.hamcrest.Matchers.*;
@@ -117,6 +119,16 @@ public class ResolvableTypeTests {
 		assertTrue(type.isAssignableFrom(String.class));
 	}
 
+	@Test
+	public void forClassReturnsCanonicalInstance() throws Exception {
+		ResolvableType type = ResolvableType.forClass(ExtendsList.class);
+		assertThat(ResolvableType.forClass(ExtendsList.class), sameInstance(type));
+		assertThat(ResolvableType.forClass(null), not(sameInstance(ResolvableType.forClass(null))));
+		ResolvableType.clearCache();
+		assertThat(ResolvableType.forClass(ExtendsList.class), not(sameInstance(type)));
+		assertThat(ResolvableType.forClass(ExtendsList.class), equalTo(type));
+	}
+
 	@Test
 	public void forRawClass() throws Exception {
 		ResolvableType type = ResolvableType.forRawClass(ExtendsList.class);
@@ -422,6 +434,15 @@ public class ResolvableTypeTests {
 		assertThat(type.as(ExtendsList.class), equalTo(type));
 	}
 
+	@Test
+	public void asIsMemoizedForClass() throws Exception {
+		ResolvableType type = ResolvableType.forClass(ExtendsList.class).as(Collection.class);
+		assertThat(ResolvableType.forClass(ExtendsList.class).as(Collection.class), sameInstance(type));
+		assertThat(type.resolveGeneric(), equalTo((Class) CharSequence.class));
+		assertThat(ResolvableType.forClass(ExtendsList.class).as(Map.class), sameInstance(ResolvableType.NONE));
+		assertThat(ResolvableType.forClass(ExtendsList.class).as(Map.class), sameInstance(ResolvableType.NONE));
+	}
+
 	@Test
 	public void getSuperType() throws Exception {
 		ResolvableType type = ResolvableType.forClass(ExtendsList.class).getSuperType();
@@ -1007,6 +1028,33 @@ public class ResolvableTypeTests {
 		assertFalse(stringType.isInstance(new StringBuilder("a StringBuilder")));
 	}
 
+	@Test
+	public void isAssignableFromForClassAndPrimitive() throws Exception {
+		assertTrue(ResolvableType.forClass(int.class).isAssignableFrom(Integer.class));
+		assertTrue(ResolvableType.forClass(Integer.class).isAssignableFrom(int.class));
+		assertTrue(ResolvableType.forClass(Number.class).isAssignableFrom(int.class));
+		assertFalse(ResolvableType.forClass(int.class).isAssignableFrom(Long.class));
+		assertTrue(ResolvableType.forClass(Object[].class).isAssignableFrom(String[].class));
+		assertFalse(ResolvableType.forClass(String[].class).isAssignableFrom(Object[].class));
+	}
+
+	@Test
+	public void resolveGenericsForNonGenericClass() throws Exception {
+		assertThat(ResolvableType.forClass(String.class).resolveGenerics().length, equalTo(0));
+		assertThat(ResolvableType.forClass(String.class).resolveGenerics(Object.class).length, equalTo(0));
+	}
+
+	@Test
+	public void classTypeOperationsInTightLoop() throws Exception {
+		Assume.group(TestGroup.PERFORMANCE);
+
+		for (int i = 0; i < 1000000; i++) {
+			ResolvableType type = ResolvableType.forClass(ExtendsList.class);
+			assertNotNull(type.as(Collection.class).getGeneric(0).resolve());
+			assertTrue(ResolvableType.forClass(CharSequence.class).isAssignableFrom(String.class));
+		}
+	}
+
 	@Test
 	public void isAssignableFromCannotBeResolved() throws Exception {
 		ResolvableType objectType = ResolvableType.forClass(Object.class);
@@ -458,6 +458,30 @@ public class AnnotatedElementUtilsTests {
 		assertGetMergedAnnotation(SingleLocationTransitiveImplicitAliasesWithSkippedLevelContextConfigClass.class, "test.xml");
 	}
 
+	@Test
+	public void getMergedAnnotationReturnsCachedInstance() {
+		ContextConfig contextConfig = getMergedAnnotation(AliasedValueComposedContextConfigClass.class, ContextConfig.class);
+		assertNotNull(contextConfig);
+		assertSame(contextConfig, getMergedAnnotation(AliasedValueComposedContextConfigClass.class, ContextConfig.class));
+
+		AnnotationUtils.clearCache();
+		ContextConfig recreated = getMergedAnnotation(AliasedValueComposedContextConfigClass.class, ContextConfig.class);
+		assertNotSame(contextConfig, recreated);
+		assertEquals(contextConfig, recreated);
+	}
+
+	@Test
+	public void mergedAnnotationCacheDistinguishesGetAndFindSemantics() {
+		Class<?> element = SubInheritedAnnotationInterface.class;
+		for (int i = 0; i < 2; i++) {
+			assertNull(getMergedAnnotation(element, Transactional.class));
+			Transactional transactional = findMergedAnnotation(element, Transactional.class);
+			assertNotNull(transactional);
+			assertSame(transactional, findMergedAnnotation(element, Transactional.class));
+			assertNull(getMergedAnnotation(element, Transactional.class));
+		}
+	}
+
 	private void assertGetMergedAnnotation(Class<?> element, String... expected) {
 		String name = ContextConfig.class.getName();
 		ContextConfig contextConfig = getMergedAnnotation(element, ContextConfig.class);
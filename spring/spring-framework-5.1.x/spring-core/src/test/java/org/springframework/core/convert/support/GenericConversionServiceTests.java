@@ -640,6 +640,43 @@ public class GenericConversionServiceTests {
 				conversionService.convert("test", TypeDescriptor.valueOf(String.class), new TypeDescriptor(getClass().getField("integerCollection"))));
 	}
 
+	@Test
+	public void commonTypesServedFromConverterTable() {
+		DefaultConversionService conversionService = new DefaultConversionService();
+		assertEquals(Integer.valueOf(1), conversionService.convert("1", Integer.class));
+		assertEquals(0, conversionService.getCommonConverterHitCount());
+		assertEquals(1, conversionService.getConverterCacheMissCount());
+
+		assertEquals(Integer.valueOf(2), conversionService.convert("2", Integer.class));
+		assertEquals(Integer.valueOf(3), conversionService.convert("3", int.class));
+		assertEquals(Integer.valueOf(4), conversionService.convert("4", int.class));
+		assertEquals(2, conversionService.getCommonConverterHitCount());
+		assertEquals(2, conversionService.getConverterCacheMissCount());
+		assertEquals(0, conversionService.getConverterCacheHitCount());
+	}
+
+	@Test
+	public void converterTableInvalidatedOnRegistration() {
+		assertFalse(conversionService.canConvert(String.class, Integer.class));
+		assertFalse(conversionService.canConvert(String.class, Integer.class));
+		assertEquals(1, conversionService.getCommonConverterHitCount());
+
+		conversionService.addConverter(String.class, Integer.class, Integer::valueOf);
+		assertEquals(Integer.valueOf(3), conversionService.convert("3", Integer.class));
+		conversionService.removeConvertible(String.class, Integer.class);
+		assertFalse(conversionService.canConvert(String.class, Integer.class));
+	}
+
+	@Test
+	public void annotatedCommonTypeBypassesConverterTable() throws Exception {
+		TypeDescriptor annotatedType = new TypeDescriptor(getClass().getField("annotatedString"));
+		conversionService.convert("x", TypeDescriptor.valueOf(String.class), annotatedType);
+		conversionService.convert("x", TypeDescriptor.valueOf(String.class), annotatedType);
+		assertEquals(0, conversionService.getCommonConverterHitCount());
+		assertEquals(1, conversionService.getConverterCacheHitCount());
+		assertEquals(1, conversionService.getConverterCacheMissCount());
+	}
+
 
 	@ExampleAnnotation(active = true)
 	public String annotatedString;
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.io.buffer.support.DataBufferTestUtils;
+
+import static org.junit.Assert.*;
+import static org.springframework.core.io.buffer.DataBufferUtils.release;
+
+/**
+ * Tests for {@link TrackingDataBufferFactory}.
+ *
+ * @author agent (agent@local)
+ */
+public class TrackingDataBufferFactoryTests {
+
+	private final NettyDataBufferFactory nettyFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+
+	private final TrackingDataBufferFactory bufferFactory = new TrackingDataBufferFactory(this.nettyFactory);
+
+
+	@Test
+	public void allocateAndRelease() {
+		DataBuffer buffer1 = this.bufferFactory.allocateBuffer(64);
+		DataBuffer buffer2 = this.bufferFactory.forSource("codec").allocateBuffer(32);
+		assertEquals(2, this.bufferFactory.getAllocatedCount());
+		assertEquals(2, this.bufferFactory.getOutstandingCount());
+		assertEquals(96, this.bufferFactory.getOutstandingBytes());
+		assertEquals(Long.valueOf(1), this.bufferFactory.getOutstandingCountBySource().get("codec"));
+		assertEquals(Long.valueOf(64),
+				this.bufferFactory.getOutstandingBytesBySource().get(TrackingDataBufferFactory.DEFAULT_SOURCE));
+		assertSame(this.bufferFactory, buffer1.factory());
+
+		assertTrue(release(buffer1));
+		assertTrue(release(buffer2));
+		assertEquals(2, this.bufferFactory.getReleasedCount());
+		assertEquals(0, this.bufferFactory.getOutstandingCount());
+		assertEquals(0, this.bufferFactory.getOutstandingBytes());
+		assertEquals(Long.valueOf(0), this.bufferFactory.getOutstandingCountBySource().get("codec"));
+		assertEquals(0, this.bufferFactory.checkForLeaks());
+	}
+
+	@Test
+	public void retainAndRelease() {
+		PooledDataBuffer buffer = (PooledDataBuffer) this.bufferFactory.allocateBuffer();
+		buffer.retain();
+		assertFalse(buffer.release());
+		assertEquals(1, this.bufferFactory.getOutstandingCount());
+		assertTrue(buffer.release());
+		assertFalse(buffer.isAllocated());
+		assertEquals(0, this.bufferFactory.getOutstandingCount());
+	}
+
+	@Test
+	public void retainedSliceKeepsBufferOutstanding() {
+		this.bufferFactory.setStrict(true);
+		DataBuffer buffer = this.bufferFactory.allocateBuffer().write(new byte[] {'a', 'b', 'c'});
+		DataBuffer slice = DataBufferUtils.retain(buffer.slice(0, 2));
+		assertTrue(slice instanceof PooledDataBuffer);
+		assertEquals(2, slice.readableByteCount());
+
+		assertFalse(release(buffer));
+		assertEquals(1, this.bufferFactory.getOutstandingCount());
+		try {
+			this.bufferFactory.checkForLeaks();
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			assertEquals(1, ex.getSuppressed().length);
+		}
+
+		assertTrue(release(slice));
+		assertFalse(((PooledDataBuffer) buffer).isAllocated());
+		assertEquals(0, this.bufferFactory.getOutstandingCount());
+		assertEquals(1, this.bufferFactory.getReleasedCount());
+		this.bufferFactory.checkForLeaks();
+	}
+
+	@Test
+	public void sliceOfNonPooledBuffer() {
+		TrackingDataBufferFactory bufferFactory = new TrackingDataBufferFactory(new DefaultDataBufferFactory());
+		DataBuffer buffer = bufferFactory.allocateBuffer().write(new byte[] {'a', 'b'});
+		DataBuffer slice = buffer.slice(1, 1);
+		assertEquals('b', slice.read());
+		assertTrue(release(slice));
+		assertEquals(0, bufferFactory.getOutstandingCount());
+		assertFalse(((PooledDataBuffer) buffer).isAllocated());
+	}
+
+	@Test
+	public void fluentCallsReturnTrackedBuffer() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer();
+		assertSame(buffer, buffer.write("abc", StandardCharsets.UTF_8));
+		assertSame(buffer, buffer.writePosition(2));
+		assertEquals(2, buffer.readableByteCount());
+		release(buffer);
+	}
+
+	@Test
+	public void checkForLeaksInStrictMode() {
+		this.bufferFactory.setStrict(true);
+		DataBuffer buffer = this.bufferFactory.forSource("codec").allocateBuffer();
+		try {
+			this.bufferFactory.checkForLeaks();
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			assertTrue(ex.getMessage().contains("codec"));
+			assertEquals(1, ex.getSuppressed().length);
+			assertTrue(Arrays.stream(ex.getSuppressed()[0].getStackTrace()).anyMatch(element ->
+					element.getMethodName().equals("checkForLeaksInStrictMode")));
+		}
+		finally {
+			release(buffer);
+		}
+		this.bufferFactory.checkForLeaks();
+	}
+
+	@Test
+	public void checkForLeaksInLenientMode() {
+		this.bufferFactory.setSamplingInterval(0);
+		DataBuffer buffer = this.bufferFactory.allocateBuffer();
+		assertEquals(1, this.bufferFactory.checkForLeaks());
+		release(buffer);
+		assertEquals(0, this.bufferFactory.checkForLeaks());
+	}
+
+	@Test
+	public void leakedBufferNotRetainedByTracker() throws InterruptedException {
+		TrackingDataBufferFactory bufferFactory = new TrackingDataBufferFactory(new DefaultDataBufferFactory());
+		bufferFactory.setSamplingInterval(0);
+		WeakReference<DataBuffer> leaked = new WeakReference<>(bufferFactory.allocateBuffer());
+		for (int i = 0; i < 50 && leaked.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertNull(leaked.get());
+		assertEquals(1, bufferFactory.getOutstandingCount());
+		assertEquals(1, bufferFactory.checkForLeaks());
+	}
+
+	@Test
+	public void nonPooledBuffers() {
+		TrackingDataBufferFactory bufferFactory = new TrackingDataBufferFactory(new DefaultDataBufferFactory());
+		bufferFactory.setStrict(true);
+		DataBuffer buffer = bufferFactory.allocateBuffer();
+		assertEquals(1, bufferFactory.getOutstandingCount());
+		assertTrue(release(buffer));
+		bufferFactory.checkForLeaks();
+
+		DataBuffer wrapped = bufferFactory.wrap(new byte[] {1});
+		assertSame(wrapped, bufferFactory.track(wrapped));
+		assertEquals(0, bufferFactory.getOutstandingCount());
+	}
+
+	@Test
+	public void trackExternalBuffer() {
+		DataBuffer buffer = this.bufferFactory.track(this.nettyFactory.allocateBuffer());
+		assertEquals(1, this.bufferFactory.getOutstandingCount());
+		assertSame(buffer, this.bufferFactory.track(buffer));
+		release(buffer);
+		assertEquals(0, this.bufferFactory.getOutstandingCount());
+	}
+
+	@Test
+	public void join() {
+		DataBuffer buffer1 = this.bufferFactory.allocateBuffer().write(new byte[] {'a'});
+		DataBuffer buffer2 = this.bufferFactory.allocateBuffer().write(new byte[] {'b'});
+		DataBuffer joined = DataBufferUtils.join(Flux.just(buffer1, buffer2)).block();
+		assertNotNull(joined);
+		assertEquals(1, this.bufferFactory.getOutstandingCount());
+		assertEquals("ab", DataBufferTestUtils.dumpString(joined, StandardCharsets.UTF_8));
+		release(joined);
+		assertEquals(0, this.bufferFactory.getOutstandingCount());
+	}
+
+	@Test
+	public void toByteBufTransfersOwnership() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer();
+		ByteBuf byteBuf = NettyDataBufferFactory.toByteBuf(buffer);
+		assertEquals(0, this.bufferFactory.getOutstandingCount());
+		assertTrue(byteBuf.release());
+	}
+
+	@Test
+	public void usedPoolMemory() {
+		assertTrue(this.nettyFactory.getUsedHeapMemory() >= 0);
+		assertTrue(this.nettyFactory.getUsedDirectMemory() >= 0);
+	}
+
+}
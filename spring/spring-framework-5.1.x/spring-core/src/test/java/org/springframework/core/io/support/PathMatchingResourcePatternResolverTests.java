@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,16 +16,25 @@
 
 package org.springframework.core.io.support;
 
+import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
 
 import org.junit.Ignore;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import org.springframework.core.io.Resource;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 import static org.junit.Assert.*;
@@ -56,6 +65,9 @@ public class PathMatchingResourcePatternResolverTests {
 
 	private PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
 
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 
 	@Test(expected = FileNotFoundException.class)
 	public void invalidPrefixWithPatternElementInIt() throws IOException {
@@ -118,6 +130,107 @@ public class PathMatchingResourcePatternResolverTests {
 		assertTrue("Could not find aspectj_1_5_0.dtd in the root of the aspectjweaver jar", found);
 	}
 
+	@Test
+	public void parallelScanningWithMultipleRoots() throws IOException {
+		PathMatchingResourcePatternResolver parallelResolver = new PathMatchingResourcePatternResolver();
+		parallelResolver.setParallelScanning(true);
+		Resource[] resources = parallelResolver.getResources("classpath*:org/*/*.class");
+		assertTrue(resources.length > 0);
+		assertArrayEquals(resolver.getResources("classpath*:org/*/*.class"), resources);
+	}
+
+	@Test
+	public void parallelScanningInJar() throws IOException {
+		PathMatchingResourcePatternResolver parallelResolver = new PathMatchingResourcePatternResolver();
+		parallelResolver.setParallelScanning(true);
+		Resource[] resources = parallelResolver.getResources("classpath*:org/reactivestreams/*.class");
+		assertProtocolAndFilenames(resources, "jar", CLASSES_IN_REACTIVESTREAMS);
+		assertArrayEquals(resolver.getResources("classpath*:org/reactivestreams/*.class"), resources);
+	}
+
+	@Test
+	public void parallelScanningInLargeJar() throws IOException {
+		File jarFile = createJarFile(1000);
+		String pattern = "jar:" + jarFile.toURI().toURL() + "!/large/**/*.txt";
+		PathMatchingResourcePatternResolver parallelResolver = new PathMatchingResourcePatternResolver();
+		parallelResolver.setParallelScanning(true);
+		Resource[] resources = parallelResolver.getResources(pattern);
+		assertEquals(1000, resources.length);
+		assertEquals("entry0.txt", resources[0].getFilename());
+		assertEquals("entry999.txt", resources[999].getFilename());
+		assertArrayEquals(resolver.getResources(pattern), resources);
+	}
+
+	@Test
+	public void jarIndexCache() throws Exception {
+		File jarFile = createJarFile(10);
+		String jarUrl = "jar:" + jarFile.toURI().toURL() + "!/large/";
+		Map<String, ?> jarIndexCache = getJarIndexCache();
+		PathMatchingResourcePatternResolver.clearJarIndexCache();
+		PathMatchingResourcePatternResolver cachingResolver = new PathMatchingResourcePatternResolver();
+		cachingResolver.setCacheJarIndexes(true);
+		try {
+			assertEquals(10, cachingResolver.getResources(jarUrl + "a/*.txt").length);
+			Object jarIndex = jarIndexCache.get(jarFile.getAbsolutePath());
+			assertNotNull(jarIndex);
+
+			assertEquals(10, cachingResolver.getResources(jarUrl + "b/*.properties").length);
+			assertSame(jarIndex, jarIndexCache.get(jarFile.getAbsolutePath()));
+
+			// Modified jar file: index to be read again
+			assertTrue(jarFile.setLastModified(jarFile.lastModified() - 10000));
+			assertEquals(10, cachingResolver.getResources(jarUrl + "a/*.txt").length);
+			assertNotSame(jarIndex, jarIndexCache.get(jarFile.getAbsolutePath()));
+		}
+		finally {
+			PathMatchingResourcePatternResolver.clearJarIndexCache();
+		}
+		assertTrue(jarIndexCache.isEmpty());
+	}
+
+	@Test
+	public void jarIndexCacheWithClasspathLocations() throws IOException {
+		PathMatchingResourcePatternResolver.clearJarIndexCache();
+		PathMatchingResourcePatternResolver cachingResolver = new PathMatchingResourcePatternResolver();
+		cachingResolver.setCacheJarIndexes(true);
+		try {
+			Resource[] resources = cachingResolver.getResources("classpath*:org/reactivestreams/*.class");
+			assertProtocolAndFilenames(resources, "jar", CLASSES_IN_REACTIVESTREAMS);
+			resources = cachingResolver.getResources("classpath*:org/reactivestreams/*.class");
+			assertProtocolAndFilenames(resources, "jar", CLASSES_IN_REACTIVESTREAMS);
+			resources = cachingResolver.getResources("classpath:org/reactivestreams/Pub*.class");
+			assertProtocolAndFilenames(resources, "jar", "Publisher.class");
+		}
+		finally {
+			PathMatchingResourcePatternResolver.clearJarIndexCache();
+		}
+	}
+
+	private File createJarFile(int entriesPerDirectory) throws IOException {
+		File jarFile = this.temporaryFolder.newFile("large.jar");
+		try (JarOutputStream jar = new JarOutputStream(new FileOutputStream(jarFile))) {
+			for (String directory : new String[] {"large/", "large/a/", "large/b/"}) {
+				jar.putNextEntry(new JarEntry(directory));
+				jar.closeEntry();
+			}
+			for (int i = 0; i < entriesPerDirectory; i++) {
+				jar.putNextEntry(new JarEntry("large/a/entry" + i + ".txt"));
+				jar.closeEntry();
+				jar.putNextEntry(new JarEntry("large/b/entry" + i + ".properties"));
+				jar.closeEntry();
+			}
+		}
+		return jarFile;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, ?> getJarIndexCache() {
+		Field field = ReflectionUtils.findField(PathMatchingResourcePatternResolver.class, "jarIndexCache");
+		assertNotNull(field);
+		ReflectionUtils.makeAccessible(field);
+		return (Map<String, ?>) ReflectionUtils.getField(field, null);
+	}
+
 
 	private void assertProtocolAndFilenames(Resource[] resources, String protocol, String... filenames)
 			throws IOException {
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.task.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Test;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BulkheadTaskExecutor}.
+ *
+ * @author agent (agent@local)
+ */
+public class BulkheadTaskExecutorTests {
+
+	private final LinkedList<Runnable> dispatched = new LinkedList<>();
+
+	private final List<String> executed = new ArrayList<>();
+
+
+	@Test
+	public void concurrencyLimitWithQueue() {
+		BulkheadTaskExecutor executor = new BulkheadTaskExecutor(this.dispatched::add, 2);
+		for (int i = 0; i < 5; i++) {
+			String name = "task" + i;
+			executor.execute(() -> this.executed.add(name));
+		}
+		assertEquals(2, this.dispatched.size());
+		assertEquals(2, executor.getActiveCount());
+		assertEquals(3, executor.getQueueSize());
+
+		this.dispatched.poll().run();
+		assertEquals(2, this.dispatched.size());
+		assertEquals(2, executor.getQueueSize());
+
+		while (!this.dispatched.isEmpty()) {
+			this.dispatched.poll().run();
+		}
+		assertEquals(5, this.executed.size());
+		assertEquals(0, executor.getActiveCount());
+		assertEquals(0, executor.getQueueSize());
+		assertEquals(5, executor.getCompletedCount());
+		assertEquals(0, executor.getRejectedCount());
+		assertTrue(executor.getTotalQueueTime() >= 0);
+		assertTrue(executor.getTotalExecutionTime() >= 0);
+	}
+
+	@Test
+	public void rejectionBeyondQueueCapacity() throws Exception {
+		BulkheadTaskExecutor executor = new BulkheadTaskExecutor(this.dispatched::add, 1, 1);
+		Future<String> future1 = executor.submit(() -> "a");
+		Future<String> future2 = executor.submit(() -> "b");
+		try {
+			executor.submit(() -> "c");
+			fail("Should have thrown TaskRejectedException");
+		}
+		catch (TaskRejectedException ex) {
+			assertTrue(ex.getMessage().contains("queue capacity 1"));
+		}
+		assertEquals(1, executor.getRejectedCount());
+
+		this.dispatched.poll().run();
+		assertEquals("a", future1.get());
+		this.dispatched.poll().run();
+		assertEquals("b", future2.get());
+		assertEquals(2, executor.getCompletedCount());
+	}
+
+	@Test
+	public void rejectionWithoutQueue() throws Exception {
+		BulkheadTaskExecutor executor = new BulkheadTaskExecutor(this.dispatched::add, 1, 0);
+		ListenableFuture<String> future1 = executor.submitListenable(() -> "a");
+		try {
+			executor.submitListenable(() -> "b");
+			fail("Should have thrown TaskRejectedException");
+		}
+		catch (TaskRejectedException ex) {
+			// expected
+		}
+		this.dispatched.poll().run();
+		assertEquals("a", future1.get());
+
+		ListenableFuture<String> future2 = executor.submitListenable(() -> "c");
+		this.dispatched.poll().run();
+		assertEquals("c", future2.get());
+		assertEquals(2, executor.getCompletedCount());
+	}
+
+	@Test
+	public void rejectionByTargetExecutor() {
+		BulkheadTaskExecutor executor = new BulkheadTaskExecutor(task -> {
+			throw new RejectedExecutionException("full");
+		}, 1);
+		try {
+			executor.execute(() -> this.executed.add("a"));
+			fail("Should have thrown TaskRejectedException");
+		}
+		catch (TaskRejectedException ex) {
+			assertEquals("full", ex.getCause().getMessage());
+		}
+		assertEquals(0, executor.getActiveCount());
+		assertEquals(1, executor.getRejectedCount());
+	}
+
+	@Test
+	public void taskQueuedDuringRejectionByTargetExecutorGetsDispatched() {
+		BulkheadTaskExecutor[] executor = new BulkheadTaskExecutor[1];
+		boolean[] first = new boolean[] {true};
+		executor[0] = new BulkheadTaskExecutor(task -> {
+			if (first[0]) {
+				// Another task submitted while the first one is being handed to the target executor
+				first[0] = false;
+				executor[0].execute(() -> this.executed.add("b"));
+				throw new RejectedExecutionException("full");
+			}
+			this.dispatched.add(task);
+		}, 1);
+		try {
+			executor[0].execute(() -> this.executed.add("a"));
+			fail("Should have thrown TaskRejectedException");
+		}
+		catch (TaskRejectedException ex) {
+			assertEquals("full", ex.getCause().getMessage());
+		}
+		assertEquals(1, this.dispatched.size());
+		assertEquals(1, executor[0].getActiveCount());
+		assertEquals(0, executor[0].getQueueSize());
+
+		this.dispatched.poll().run();
+		assertEquals(Collections.singletonList("b"), this.executed);
+		assertEquals(0, executor[0].getActiveCount());
+		assertEquals(1, executor[0].getRejectedCount());
+	}
+
+	@Test
+	public void taskQueuedDuringRejectionByTargetExecutorStaysQueued() {
+		BulkheadTaskExecutor[] executor = new BulkheadTaskExecutor[1];
+		boolean[] first = new boolean[] {true};
+		boolean[] reject = new boolean[] {true};
+		executor[0] = new BulkheadTaskExecutor(task -> {
+			if (reject[0]) {
+				if (first[0]) {
+					first[0] = false;
+					executor[0].execute(() -> this.executed.add("b"));
+				}
+				throw new RejectedExecutionException("full");
+			}
+			this.dispatched.add(task);
+		}, 1);
+		try {
+			executor[0].execute(() -> this.executed.add("a"));
+			fail("Should have thrown TaskRejectedException");
+		}
+		catch (TaskRejectedException ex) {
+			// expected
+		}
+		assertTrue(this.executed.isEmpty());
+		assertEquals(0, executor[0].getActiveCount());
+		assertEquals(1, executor[0].getQueueSize());
+
+		// Dispatched on completion of the next accepted task
+		reject[0] = false;
+		executor[0].execute(() -> this.executed.add("c"));
+		while (!this.dispatched.isEmpty()) {
+			this.dispatched.poll().run();
+		}
+		assertEquals(Arrays.asList("c", "b"), this.executed);
+		assertEquals(0, executor[0].getActiveCount());
+		assertEquals(0, executor[0].getQueueSize());
+	}
+
+	@Test
+	public void queuedTaskRunsInlineWhenRejectedByTargetExecutor() {
+		boolean[] reject = new boolean[1];
+		BulkheadTaskExecutor executor = new BulkheadTaskExecutor(task -> {
+			if (reject[0]) {
+				throw new RejectedExecutionException("full");
+			}
+			this.dispatched.add(task);
+		}, 1);
+		executor.execute(() -> this.executed.add("a"));
+		executor.execute(() -> this.executed.add("b"));
+		reject[0] = true;
+		this.dispatched.poll().run();
+		assertEquals(2, this.executed.size());
+		assertTrue(this.dispatched.isEmpty());
+		assertEquals(0, executor.getActiveCount());
+	}
+
+	@Test
+	public void failingTaskReleasesSlot() {
+		BulkheadTaskExecutor executor = new BulkheadTaskExecutor(this.dispatched::add, 1);
+		executor.execute(() -> {
+			throw new IllegalStateException("failure");
+		});
+		executor.execute(() -> this.executed.add("b"));
+		try {
+			this.dispatched.poll().run();
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			assertEquals("failure", ex.getMessage());
+		}
+		this.dispatched.poll().run();
+		assertEquals(1, this.executed.size());
+		assertEquals(0, executor.getActiveCount());
+		assertEquals(2, executor.getCompletedCount());
+	}
+
+}
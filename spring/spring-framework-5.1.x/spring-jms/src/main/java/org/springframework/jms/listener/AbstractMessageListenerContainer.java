@@ -16,6 +16,8 @@
 
 package org.springframework.jms.listener;
 
+import java.util.List;
+
 import javax.jms.Connection;
 import javax.jms.Destination;
 import javax.jms.ExceptionListener;
@@ -680,6 +682,40 @@ public abstract class AbstractMessageListenerContainer extends AbstractJmsListen
 		commitIfNecessary(session, message);
 	}
 
+	/**
+	 * Execute the specified listener for a batch of messages,
+	 * committing or rolling back the transaction afterwards (if necessary).
+	 * <p>The entire batch gets committed (or acknowledged) at once,
+	 * or rolled back in case of an exception thrown for any message.
+	 * @param session the JMS Session to operate on
+	 * @param messages the received JMS Messages
+	 * @throws JMSException if thrown by JMS API methods
+	 * @since 5.1.11
+	 * @see #invokeListener(Session, List)
+	 * @see #commitIfNecessary
+	 * @see #rollbackOnExceptionIfNecessary
+	 */
+	protected void doExecuteListener(Session session, List<Message> messages) throws JMSException {
+		if (!isAcceptMessagesWhileStopping() && !isRunning()) {
+			if (logger.isWarnEnabled()) {
+				logger.warn("Rejecting received batch of " + messages.size() + " messages because of the " +
+						"listener container having been stopped in the meantime");
+			}
+			rollbackIfNecessary(session);
+			throw new MessageRejectedWhileStoppingException();
+		}
+
+		try {
+			invokeListener(session, messages);
+		}
+		catch (JMSException | RuntimeException | Error ex) {
+			rollbackOnExceptionIfNecessary(session, ex);
+			throw ex;
+		}
+		// Acknowledging the last message acknowledges all messages consumed by the session
+		commitIfNecessary(session, messages.get(messages.size() - 1));
+	}
+
 	/**
 	 * Invoke the specified listener: either as standard JMS MessageListener
 	 * or (preferably) as Spring SessionAwareMessageListener.
@@ -707,6 +743,29 @@ public abstract class AbstractMessageListenerContainer extends AbstractJmsListen
 		}
 	}
 
+	/**
+	 * Invoke the specified listener for a batch of messages: either as
+	 * {@link SessionAwareBatchMessageListener} for the entire batch, or
+	 * for each message through {@link #invokeListener(Session, Message)}.
+	 * @param session the JMS Session to operate on
+	 * @param messages the received JMS Messages
+	 * @throws JMSException if thrown by JMS API methods
+	 * @since 5.1.11
+	 */
+	@SuppressWarnings("rawtypes")
+	protected void invokeListener(Session session, List<Message> messages) throws JMSException {
+		Object listener = getMessageListener();
+
+		if (listener instanceof SessionAwareBatchMessageListener) {
+			doInvokeListener((SessionAwareBatchMessageListener) listener, session, messages);
+		}
+		else {
+			for (Message message : messages) {
+				invokeListener(session, message);
+			}
+		}
+	}
+
 	/**
 	 * Invoke the specified listener as Spring SessionAwareMessageListener,
 	 * exposing a new JMS Session (potentially with its own transaction)
@@ -748,6 +807,48 @@ public abstract class AbstractMessageListenerContainer extends AbstractJmsListen
 		}
 	}
 
+	/**
+	 * Invoke the specified listener as Spring SessionAwareBatchMessageListener,
+	 * exposing a new JMS Session (potentially with its own transaction)
+	 * to the listener if demanded.
+	 * @param listener the Spring SessionAwareBatchMessageListener to invoke
+	 * @param session the JMS Session to operate on
+	 * @param messages the received JMS Messages
+	 * @throws JMSException if thrown by JMS API methods
+	 * @since 5.1.11
+	 * @see SessionAwareBatchMessageListener
+	 * @see #setExposeListenerSession
+	 */
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	protected void doInvokeListener(SessionAwareBatchMessageListener listener, Session session,
+			List<Message> messages) throws JMSException {
+
+		Connection conToClose = null;
+		Session sessionToClose = null;
+		try {
+			Session sessionToUse = session;
+			if (!isExposeListenerSession()) {
+				// We need to expose a separate Session.
+				conToClose = createConnection();
+				sessionToClose = createSession(conToClose);
+				sessionToUse = sessionToClose;
+			}
+			// Actually invoke the message listener...
+			listener.onMessages(messages, sessionToUse);
+			// Clean up specially exposed Session, if any.
+			if (sessionToUse != session) {
+				if (sessionToUse.getTransacted() && isSessionLocallyTransacted(sessionToUse)) {
+					// Transacted session created by this container -> commit.
+					JmsUtils.commitIfNecessary(sessionToUse);
+				}
+			}
+		}
+		finally {
+			JmsUtils.closeSession(sessionToClose);
+			JmsUtils.closeConnection(conToClose);
+		}
+	}
+
 	/**
 	 * Invoke the specified listener as standard JMS MessageListener.
 	 * <p>Default implementation performs a plain invocation of the
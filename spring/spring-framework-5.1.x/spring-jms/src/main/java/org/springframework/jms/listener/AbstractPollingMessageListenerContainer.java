@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,10 @@
 
 package org.springframework.jms.listener;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import javax.jms.Connection;
 import javax.jms.Destination;
 import javax.jms.JMSException;
@@ -47,6 +51,11 @@ import org.springframework.util.Assert;
  * to the concrete implementation. The receive timeout for each attempt can be
  * configured through the {@link #setReceiveTimeout "receiveTimeout"} property.
  *
+ * <p>Each attempt may also receive a batch of messages, processed within
+ * a single transaction or acknowledgement: see {@link #setBatchSize "batchSize"}
+ * and {@link #setBatchTimeout "batchTimeout"}. A
+ * {@link SessionAwareBatchMessageListener} receives such a batch as a whole.
+ *
  * <p>The underlying mechanism is based on standard JMS MessageConsumer handling,
  * which is perfectly compatible with both native JMS and JMS in a Java EE environment.
  * Neither the JMS {@code MessageConsumer.setMessageListener} facility  nor the JMS
@@ -94,6 +103,10 @@ public abstract class AbstractPollingMessageListenerContainer extends AbstractMe
 
 	private long receiveTimeout = DEFAULT_RECEIVE_TIMEOUT;
 
+	private int batchSize = 1;
+
+	private long batchTimeout = 0;
+
 
 	@Override
 	public void setSessionTransacted(boolean sessionTransacted) {
@@ -182,6 +195,57 @@ public abstract class AbstractPollingMessageListenerContainer extends AbstractMe
 		return this.receiveTimeout;
 	}
 
+	/**
+	 * Specify the maximum number of messages to receive per attempt, processing
+	 * them within a single transaction and committing (or acknowledging) once.
+	 * Default is 1, i.e. no batching.
+	 * <p>The first message of each batch is received according to the
+	 * {@link #setReceiveTimeout "receiveTimeout"}, with further messages
+	 * added according to the {@link #setBatchTimeout "batchTimeout"}.
+	 * A {@link SessionAwareBatchMessageListener} receives the entire batch
+	 * at once, whereas any other listener gets invoked for each message.
+	 * <p>Note that a failure of any message in a batch rolls back the entire
+	 * batch (in a transacted Session or with client acknowledgement), leading
+	 * to redelivery of all of its messages.
+	 * @since 5.1.11
+	 * @see #setBatchTimeout
+	 * @see SessionAwareBatchMessageListener
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "'batchSize' must be 1 or higher");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Return the maximum number of messages to receive per attempt.
+	 * @since 5.1.11
+	 */
+	protected int getBatchSize() {
+		return this.batchSize;
+	}
+
+	/**
+	 * Set the time to wait for further messages once the first message of
+	 * a batch has been received, in <b>milliseconds</b>.
+	 * <p>The default is 0, only adding messages which are immediately
+	 * available (through no-wait receive calls) to the current batch.
+	 * Only applies in case of a {@link #setBatchSize "batchSize"} higher than 1.
+	 * @since 5.1.11
+	 * @see #setBatchSize
+	 */
+	public void setBatchTimeout(long batchTimeout) {
+		Assert.isTrue(batchTimeout >= 0, "'batchTimeout' must not be negative");
+		this.batchTimeout = batchTimeout;
+	}
+
+	/**
+	 * Return the time to wait for further messages of a batch (ms).
+	 * @since 5.1.11
+	 */
+	protected long getBatchTimeout() {
+		return this.batchTimeout;
+	}
+
 
 	@Override
 	public void initialize() {
@@ -302,8 +366,12 @@ public abstract class AbstractPollingMessageListenerContainer extends AbstractMe
 			}
 			Message message = receiveMessage(consumerToUse);
 			if (message != null) {
+				List<Message> messages = (this.batchSize > 1 ?
+						receiveBatch(consumerToUse, message) : Collections.singletonList(message));
+				long receiveTime = System.currentTimeMillis();
 				if (logger.isDebugEnabled()) {
-					logger.debug("Received message of type [" + message.getClass() + "] from consumer [" +
+					logger.debug("Received " + (messages.size() > 1 ? messages.size() + " messages" : "message") +
+							" of type [" + message.getClass() + "] from consumer [" +
 							consumerToUse + "] of " + (transactional ? "transactional " : "") + "session [" +
 							sessionToUse + "]");
 				}
@@ -315,7 +383,12 @@ public abstract class AbstractPollingMessageListenerContainer extends AbstractMe
 							obtainConnectionFactory(), new LocallyExposedJmsResourceHolder(sessionToUse));
 				}
 				try {
-					doExecuteListener(sessionToUse, message);
+					if (messages.size() > 1) {
+						doExecuteListener(sessionToUse, messages);
+					}
+					else {
+						doExecuteListener(sessionToUse, message);
+					}
 				}
 				catch (Throwable ex) {
 					if (status != null) {
@@ -335,6 +408,7 @@ public abstract class AbstractPollingMessageListenerContainer extends AbstractMe
 					if (exposeResource) {
 						TransactionSynchronizationManager.unbindResource(obtainConnectionFactory());
 					}
+					messagesProcessed(invoker, sessionToUse, messages, receiveTime, System.currentTimeMillis());
 				}
 				// Indicate that a message has been received.
 				return true;
@@ -418,6 +492,34 @@ public abstract class AbstractPollingMessageListenerContainer extends AbstractMe
 		return receiveFromConsumer(consumer, getReceiveTimeout());
 	}
 
+	/**
+	 * Receive further messages from the given consumer, completing a batch
+	 * which starts with the given message.
+	 * @param consumer the MessageConsumer to use
+	 * @param firstMessage the first message of the batch, already received
+	 * @return the batch of messages, with at least the given first message
+	 * and at most {@link #getBatchSize()} messages
+	 * @throws JMSException if thrown by JMS methods
+	 * @since 5.1.11
+	 * @see #setBatchSize
+	 * @see #setBatchTimeout
+	 */
+	protected List<Message> receiveBatch(MessageConsumer consumer, Message firstMessage) throws JMSException {
+		List<Message> messages = new ArrayList<>(this.batchSize);
+		messages.add(firstMessage);
+		long deadline = System.currentTimeMillis() + this.batchTimeout;
+		while (messages.size() < this.batchSize) {
+			long remaining = deadline - System.currentTimeMillis();
+			// A non-positive remaining time indicates a no-wait receive attempt
+			Message message = receiveFromConsumer(consumer, remaining > 0 ? remaining : -1);
+			if (message == null) {
+				break;
+			}
+			messages.add(message);
+		}
+		return messages;
+	}
+
 	/**
 	 * Template method that gets called right when a new message has been received,
 	 * before attempting to process it. Allows subclasses to react to the event
@@ -438,6 +540,23 @@ public abstract class AbstractPollingMessageListenerContainer extends AbstractMe
 	protected void noMessageReceived(Object invoker, Session session) {
 	}
 
+	/**
+	 * Template method that gets called once a received message (or batch of
+	 * messages) has been processed by the listener, successfully or not.
+	 * Allows subclasses to measure queue latency and processing time,
+	 * for example for adapting their consumer count.
+	 * @param invoker the invoker object (passed through)
+	 * @param session the receiving JMS Session
+	 * @param messages the processed messages (a single message unless batching)
+	 * @param receiveTime the system time (ms) when the messages had been received
+	 * @param completionTime the system time (ms) when processing completed
+	 * @since 5.1.11
+	 * @see #setBatchSize
+	 */
+	protected void messagesProcessed(Object invoker, Session session, List<Message> messages,
+			long receiveTime, long completionTime) {
+	}
+
 	/**
 	 * Fetch an appropriate Connection from the given JmsResourceHolder.
 	 * <p>This implementation accepts any JMS 1.1 Connection.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,11 +17,13 @@
 package org.springframework.jms.listener;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Executor;
 
 import javax.jms.Connection;
 import javax.jms.JMSException;
+import javax.jms.Message;
 import javax.jms.MessageConsumer;
 import javax.jms.Session;
 
@@ -99,6 +101,13 @@ import org.springframework.util.backoff.FixedBackOff;
  * number of 1 consumer, otherwise you'd receive the same message multiple times on
  * the same node.
  *
+ * <p>As an alternative to the idle consumer heuristics, scaling can be driven by
+ * measured queue latency: specify a {@link #setTargetQueueLatency "targetQueueLatency"}
+ * in order to add consumers while messages wait longer than that in the queue, and
+ * to remove consumers again once the latency falls well below the target. Each
+ * scaling step waits for the average processing time of a received message (or
+ * batch), giving the previous step a chance to take effect.
+ *
  * <p><b>Note: Don't use Spring's {@link org.springframework.jms.connection.CachingConnectionFactory}
  * in combination with dynamic scaling.</b> Ideally, don't use it with a message
  * listener container at all, since it is generally preferable to let the
@@ -174,6 +183,12 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 
 	private static final Constants constants = new Constants(DefaultMessageListenerContainer.class);
 
+	/**
+	 * Weight of a new measurement in the exponentially weighted averages
+	 * for queue latency and processing time.
+	 */
+	private static final double STATISTICS_WEIGHT = 0.2;
+
 
 	@Nullable
 	private Executor taskExecutor;
@@ -192,6 +207,10 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 
 	private int idleTaskExecutionLimit = 1;
 
+	private long targetQueueLatency = 0;
+
+	private long lastScalingTime = 0;
+
 	private final Set<AsyncMessageListenerInvoker> scheduledInvokers = new HashSet<>();
 
 	private int activeInvokerCount = 0;
@@ -209,6 +228,14 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 
 	private final Object recoveryMonitor = new Object();
 
+	private double averageQueueLatency = 0;
+
+	private double averageProcessingTime = 0;
+
+	private boolean statisticsAvailable = false;
+
+	private final Object statisticsMonitor = new Object();
+
 
 	/**
 	 * Set the Spring {@code TaskExecutor} to use for running the listener threads.
@@ -509,6 +536,69 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 		}
 	}
 
+	/**
+	 * Specify the target queue latency in milliseconds, i.e. the time that a
+	 * message is supposed to wait in the queue at most, as determined by its
+	 * {@link Message#getJMSTimestamp() JMS timestamp}. Setting this activates
+	 * latency-driven scaling between "concurrentConsumers" and
+	 * "maxConcurrentConsumers", replacing the "idleConsumerLimit" heuristic
+	 * for scaling up.
+	 * <p>A new consumer gets scheduled while the average queue latency exceeds
+	 * this target; a consumer gets removed once the average queue latency drops
+	 * below half of the target. Scaling happens at most once per average processing
+	 * time of a received message (or batch), as well as once per receive timeout
+	 * for scaling down.
+	 * <p>Default is 0, not applying latency-driven scaling. Note that the queue
+	 * latency includes clock differences between message producers and this
+	 * listener container, and that timestamps need to be enabled on the producer.
+	 * <p><b>This setting can be modified at runtime, for example through JMX.</b>
+	 * @since 5.1.11
+	 * @see #setMaxConcurrentConsumers
+	 * @see #getAverageQueueLatency()
+	 * @see #getAverageProcessingTime()
+	 */
+	public void setTargetQueueLatency(long targetQueueLatency) {
+		Assert.isTrue(targetQueueLatency >= 0, "'targetQueueLatency' must not be negative");
+		synchronized (this.lifecycleMonitor) {
+			this.targetQueueLatency = targetQueueLatency;
+		}
+	}
+
+	/**
+	 * Return the target queue latency (ms), or 0 if not specified.
+	 * @since 5.1.11
+	 */
+	public final long getTargetQueueLatency() {
+		synchronized (this.lifecycleMonitor) {
+			return this.targetQueueLatency;
+		}
+	}
+
+	/**
+	 * Return the (exponentially weighted) average time that received
+	 * messages waited in the queue, in milliseconds. Receive attempts which
+	 * do not return a message count as zero latency.
+	 * @since 5.1.11
+	 * @see #setTargetQueueLatency
+	 */
+	public final long getAverageQueueLatency() {
+		synchronized (this.statisticsMonitor) {
+			return Math.round(this.averageQueueLatency);
+		}
+	}
+
+	/**
+	 * Return the (exponentially weighted) average time that the listener
+	 * took to process a received message (or batch of messages), in milliseconds.
+	 * @since 5.1.11
+	 * @see #setBatchSize
+	 */
+	public final long getAverageProcessingTime() {
+		synchronized (this.statisticsMonitor) {
+			return Math.round(this.averageProcessingTime);
+		}
+	}
+
 
 	//-------------------------------------------------------------------------
 	// Implementation of AbstractMessageListenerContainer's template methods
@@ -752,6 +842,45 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 	@Override
 	protected void noMessageReceived(Object invoker, Session session) {
 		((AsyncMessageListenerInvoker) invoker).setIdle(true);
+		synchronized (this.statisticsMonitor) {
+			if (this.statisticsAvailable) {
+				// An empty queue: let the average latency decay towards zero.
+				this.averageQueueLatency -= STATISTICS_WEIGHT * this.averageQueueLatency;
+			}
+		}
+	}
+
+	/**
+	 * Records queue latency and processing time for latency-driven scaling.
+	 * @see #setTargetQueueLatency
+	 */
+	@Override
+	protected void messagesProcessed(Object invoker, Session session, List<Message> messages,
+			long receiveTime, long completionTime) {
+
+		long queueLatency = 0;
+		try {
+			// The first message of a batch has been waiting the longest.
+			long timestamp = messages.get(0).getJMSTimestamp();
+			if (timestamp > 0) {
+				queueLatency = Math.max(receiveTime - timestamp, 0);
+			}
+		}
+		catch (JMSException ex) {
+			logger.trace("Could not determine JMS timestamp of received message", ex);
+		}
+		long processingTime = Math.max(completionTime - receiveTime, 0);
+		synchronized (this.statisticsMonitor) {
+			if (this.statisticsAvailable) {
+				this.averageQueueLatency += STATISTICS_WEIGHT * (queueLatency - this.averageQueueLatency);
+				this.averageProcessingTime += STATISTICS_WEIGHT * (processingTime - this.averageProcessingTime);
+			}
+			else {
+				this.averageQueueLatency = queueLatency;
+				this.averageProcessingTime = processingTime;
+				this.statisticsAvailable = true;
+			}
+		}
 	}
 
 	/**
@@ -761,16 +890,20 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 	 * if the specified "idleConsumerLimit" has not been reached either.
 	 * <p>Called once a message has been received, in order to scale up while
 	 * processing the message in the invoker that originally received it.
+	 * <p>In case of a {@link #setTargetQueueLatency "targetQueueLatency"},
+	 * the measured queue latency decides instead of the "idleConsumerLimit".
 	 * @see #setTaskExecutor
 	 * @see #getMaxConcurrentConsumers()
 	 * @see #getIdleConsumerLimit()
+	 * @see #getTargetQueueLatency()
 	 */
 	protected void scheduleNewInvokerIfAppropriate() {
 		if (isRunning()) {
 			resumePausedTasks();
 			synchronized (this.lifecycleMonitor) {
 				if (this.scheduledInvokers.size() < this.maxConcurrentConsumers &&
-						getIdleInvokerCount() < this.idleConsumerLimit) {
+						(this.targetQueueLatency > 0 ? isQueueLatencyAboveTarget() :
+								getIdleInvokerCount() < this.idleConsumerLimit)) {
 					scheduleNewInvoker();
 					if (logger.isDebugEnabled()) {
 						logger.debug("Raised scheduled invoker count: " + this.scheduledInvokers.size());
@@ -789,8 +922,43 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 	private boolean shouldRescheduleInvoker(int idleTaskExecutionCount) {
 		boolean superfluous =
 				(idleTaskExecutionCount >= this.idleTaskExecutionLimit && getIdleInvokerCount() > 1);
-		return (this.scheduledInvokers.size() <=
-				(superfluous ? this.concurrentConsumers : this.maxConcurrentConsumers));
+		if (superfluous) {
+			return (this.scheduledInvokers.size() <= this.concurrentConsumers);
+		}
+		return (this.scheduledInvokers.size() <= this.maxConcurrentConsumers && !isQueueLatencyBelowTarget());
+	}
+
+	/**
+	 * Determine whether the average queue latency exceeds the target latency,
+	 * with the previous scaling step being at least one average processing time ago.
+	 * Records a scaling step if so. To be called within the lifecycle monitor.
+	 */
+	private boolean isQueueLatencyAboveTarget() {
+		long now = System.currentTimeMillis();
+		if (getAverageQueueLatency() > this.targetQueueLatency &&
+				now - this.lastScalingTime >= getAverageProcessingTime()) {
+			this.lastScalingTime = now;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Determine whether the average queue latency is well below the target latency,
+	 * allowing for an invoker above the "concurrentConsumers" level to shut down.
+	 * Records a scaling step if so. To be called within the lifecycle monitor.
+	 */
+	private boolean isQueueLatencyBelowTarget() {
+		if (this.targetQueueLatency <= 0 || this.scheduledInvokers.size() <= this.concurrentConsumers) {
+			return false;
+		}
+		long now = System.currentTimeMillis();
+		if (getAverageQueueLatency() < this.targetQueueLatency / 2 &&
+				now - this.lastScalingTime >= Math.max(getAverageProcessingTime(), getReceiveTimeout())) {
+			this.lastScalingTime = now;
+			return true;
+		}
+		return false;
 	}
 
 	/**
@@ -1062,6 +1230,8 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 
 		private volatile boolean idle = true;
 
+		private boolean scaledDown = false;
+
 		@Nullable
 		private volatile Thread currentReceiveThread;
 
@@ -1119,7 +1289,8 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 					this.idleTaskExecutionCount = 0;
 				}
 				synchronized (lifecycleMonitor) {
-					if (!shouldRescheduleInvoker(this.idleTaskExecutionCount) || !rescheduleTaskIfNecessary(this)) {
+					if (this.scaledDown || !shouldRescheduleInvoker(this.idleTaskExecutionCount) ||
+							!rescheduleTaskIfNecessary(this)) {
 						// We're shutting down completely.
 						scheduledInvokers.remove(this);
 						if (logger.isDebugEnabled()) {
@@ -1175,6 +1346,10 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 					if (scheduledInvokers.size() > maxConcurrentConsumers) {
 						active = false;
 					}
+					else if (isQueueLatencyBelowTarget()) {
+						this.scaledDown = true;
+						active = false;
+					}
 				}
 				if (active) {
 					messageReceived = (invokeListener() || messageReceived);
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jms.listener;
+
+import java.util.Collections;
+import java.util.List;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.Session;
+
+/**
+ * Extension of the {@link SessionAwareMessageListener} interface,
+ * receiving a batch of messages at once.
+ *
+ * <p>Supported by Spring's {@link DefaultMessageListenerContainer}
+ * in combination with a {@link AbstractPollingMessageListenerContainer#setBatchSize
+ * "batchSize"} higher than 1: all messages of a batch are received within
+ * the same transaction and committed (or acknowledged) once after this
+ * listener returned. Any other listener container invokes the listener
+ * with a single message per call, as a regular SessionAwareMessageListener.
+ *
+ * @author agent (agent@local)
+ * @since 5.1.11
+ * @param <M> the message type
+ * @see AbstractPollingMessageListenerContainer#setBatchSize
+ * @see AbstractPollingMessageListenerContainer#setBatchTimeout
+ */
+@FunctionalInterface
+public interface SessionAwareBatchMessageListener<M extends Message> extends SessionAwareMessageListener<M> {
+
+	/**
+	 * Callback for processing a batch of received JMS messages.
+	 * <p>Implementors are supposed to process all of the given messages,
+	 * throwing an exception in order to roll back the entire batch.
+	 * @param messages the received JMS messages (never empty)
+	 * @param session the underlying JMS Session (never {@code null})
+	 * @throws JMSException if thrown by JMS methods
+	 */
+	void onMessages(List<M> messages, Session session) throws JMSException;
+
+	/**
+	 * Process a single message as a batch of one.
+	 * @see #onMessages
+	 */
+	@Override
+	default void onMessage(M message, Session session) throws JMSException {
+		onMessages(Collections.singletonList(message), session);
+	}
+
+}
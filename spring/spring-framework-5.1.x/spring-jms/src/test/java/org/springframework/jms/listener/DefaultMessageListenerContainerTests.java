@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,12 @@
 
 package org.springframework.jms.listener;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -23,6 +29,10 @@ import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.Destination;
 import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.Session;
 
 import org.junit.Test;
 import org.mockito.invocation.InvocationOnMock;
@@ -104,6 +114,127 @@ public class DefaultMessageListenerContainerTests {
 	}
 
 
+	@Test
+	public void batchListenerReceivesBatchesUpToBatchSize() throws Exception {
+		Queue<Message> queue = new ConcurrentLinkedQueue<>();
+		Message message1 = createMessage(0);
+		Message message2 = createMessage(0);
+		Message message3 = createMessage(0);
+		queue.addAll(Arrays.asList(message1, message2, message3));
+		Session session = mock(Session.class);
+		given(session.getTransacted()).willReturn(true);
+
+		List<List<Message>> batches = new CopyOnWriteArrayList<>();
+		CountDownLatch latch = new CountDownLatch(2);
+		DefaultMessageListenerContainer container = createContainer(createQueueConnectionFactory(queue, session));
+		container.setSessionTransacted(true);
+		container.setCacheLevel(DefaultMessageListenerContainer.CACHE_CONSUMER);
+		container.setReceiveTimeout(10);
+		container.setBatchSize(2);
+		container.setMessageListener((SessionAwareBatchMessageListener<Message>) (messages, sess) -> {
+			batches.add(new ArrayList<>(messages));
+			latch.countDown();
+		});
+		container.afterPropertiesSet();
+		container.start();
+		try {
+			assertTrue(latch.await(2, TimeUnit.SECONDS));
+			assertEquals(Arrays.asList(message1, message2), batches.get(0));
+			assertEquals(Arrays.asList(message3), batches.get(1));
+			verify(session, never()).rollback();
+			verify(session, timeout(1000).atLeast(2)).commit();
+		}
+		finally {
+			container.shutdown();
+		}
+	}
+
+	@Test
+	public void batchOfRegularListenerRolledBackOnFailure() throws Exception {
+		Queue<Message> queue = new ConcurrentLinkedQueue<>();
+		Message message1 = createMessage(0);
+		Message message2 = createMessage(0);
+		queue.addAll(Arrays.asList(message1, message2));
+		Session session = mock(Session.class);
+		given(session.getTransacted()).willReturn(true);
+
+		List<Message> received = new CopyOnWriteArrayList<>();
+		CountDownLatch latch = new CountDownLatch(1);
+		DefaultMessageListenerContainer container = createContainer(createQueueConnectionFactory(queue, session));
+		container.setSessionTransacted(true);
+		container.setCacheLevel(DefaultMessageListenerContainer.CACHE_CONSUMER);
+		container.setReceiveTimeout(10);
+		container.setBatchSize(10);
+		container.setBatchTimeout(50);
+		container.setErrorHandler(ex -> latch.countDown());
+		container.setMessageListener((MessageListener) message -> {
+			received.add(message);
+			if (message == message2) {
+				throw new IllegalStateException("intentional test failure");
+			}
+		});
+		container.afterPropertiesSet();
+		container.start();
+		try {
+			assertTrue(latch.await(2, TimeUnit.SECONDS));
+			assertEquals(Arrays.asList(message1, message2), received);
+			verify(session, timeout(1000)).rollback();
+		}
+		finally {
+			container.shutdown();
+		}
+	}
+
+	@Test
+	public void scalesConsumersAccordingToQueueLatency() throws Exception {
+		Queue<Message> queue = new ConcurrentLinkedQueue<>();
+		for (int i = 0; i < 200; i++) {
+			queue.add(createMessage(System.currentTimeMillis() - 10000));
+		}
+		DefaultMessageListenerContainer container =
+				createContainer(createQueueConnectionFactory(queue, mock(Session.class)));
+		container.setCacheLevel(DefaultMessageListenerContainer.CACHE_CONSUMER);
+		container.setReceiveTimeout(10);
+		container.setMaxConcurrentConsumers(3);
+		container.setTargetQueueLatency(1000);
+		container.setMessageListener((MessageListener) message -> {
+			try {
+				Thread.sleep(5);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		container.afterPropertiesSet();
+		container.start();
+		try {
+			assertTrue(awaitScheduledConsumerCount(container, 3));
+			assertTrue(container.getAverageQueueLatency() > 1000);
+
+			// Queue drained: latency decays and consumers get removed again
+			assertTrue(awaitScheduledConsumerCount(container, 1));
+			assertTrue(queue.isEmpty());
+			assertTrue(container.getAverageQueueLatency() < 500);
+		}
+		finally {
+			container.shutdown();
+		}
+	}
+
+
+	private boolean awaitScheduledConsumerCount(DefaultMessageListenerContainer container, int count)
+			throws InterruptedException {
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while (container.getScheduledConsumerCount() != count) {
+			if (System.currentTimeMillis() > deadline) {
+				return false;
+			}
+			Thread.sleep(5);
+		}
+		return true;
+	}
+
 	private DefaultMessageListenerContainer createRunningContainer() {
 		DefaultMessageListenerContainer container = createContainer(createSuccessfulConnectionFactory());
 		container.afterPropertiesSet();
@@ -157,6 +288,35 @@ public class DefaultMessageListenerContainerTests {
 		}
 	}
 
+	private ConnectionFactory createQueueConnectionFactory(Queue<Message> queue, Session session) {
+		try {
+			MessageConsumer consumer = mock(MessageConsumer.class);
+			given(consumer.receive(anyLong())).will(invocation -> {
+				Message message = queue.poll();
+				if (message == null) {
+					Thread.sleep(invocation.getArgument(0));
+				}
+				return message;
+			});
+			given(consumer.receiveNoWait()).will(invocation -> queue.poll());
+			given(session.createConsumer(any(), any())).willReturn(consumer);
+			Connection connection = mock(Connection.class);
+			given(connection.createSession(anyBoolean(), anyInt())).willReturn(session);
+			ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+			given(connectionFactory.createConnection()).willReturn(connection);
+			return connectionFactory;
+		}
+		catch (JMSException ex) {
+			throw new IllegalStateException(ex);  // never happen
+		}
+	}
+
+	private Message createMessage(long timestamp) throws JMSException {
+		Message message = mock(Message.class);
+		given(message.getJMSTimestamp()).willReturn(timestamp);
+		return message;
+	}
+
 	private ConnectionFactory createSuccessfulConnectionFactory() {
 		try {
 			ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
@@ -16,7 +16,6 @@
 
 package org.springframework.messaging.simp.stomp;
 
-import java.io.ByteArrayOutputStream;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
@@ -43,6 +42,11 @@ import org.springframework.util.MultiValueMap;
  * partial content. The caller is then responsible for dealing with that
  * incomplete content by buffering until there is more input available.
  *
+ * <p>Frames are read directly from the given buffer, without intermediate
+ * copies of header lines, and with shared String instances for commands and
+ * well-known header names. This decoder is stateless and may be shared
+ * across STOMP sessions.
+ *
  * @author Andy Wilkinson
  * @author Rossen Stoyanchev
  * @since 4.0
@@ -53,6 +57,43 @@ public class StompDecoder {
 
 	private static final Log logger = SimpLogging.forLogName(StompDecoder.class);
 
+	private static final StompCommand[] COMMANDS = StompCommand.values();
+
+	private static final byte[][] COMMAND_BYTES = new byte[COMMANDS.length][];
+
+	// Header names shared across all decoded frames instead of a new String per header
+	private static final String[] KNOWN_HEADER_NAMES = new String[] {
+			StompHeaderAccessor.STOMP_DESTINATION_HEADER,
+			StompHeaderAccessor.STOMP_CONTENT_TYPE_HEADER,
+			StompHeaderAccessor.STOMP_CONTENT_LENGTH_HEADER,
+			StompHeaderAccessor.STOMP_SUBSCRIPTION_HEADER,
+			StompHeaderAccessor.STOMP_MESSAGE_ID_HEADER,
+			StompHeaderAccessor.STOMP_ID_HEADER,
+			StompHeaderAccessor.STOMP_RECEIPT_HEADER,
+			StompHeaderAccessor.STOMP_RECEIPT_ID_HEADER,
+			StompHeaderAccessor.STOMP_ACK_HEADER,
+			StompHeaderAccessor.STOMP_NACK_HEADER,
+			StompHeaderAccessor.STOMP_HOST_HEADER,
+			StompHeaderAccessor.STOMP_ACCEPT_VERSION_HEADER,
+			StompHeaderAccessor.STOMP_VERSION_HEADER,
+			StompHeaderAccessor.STOMP_HEARTBEAT_HEADER,
+			StompHeaderAccessor.STOMP_LOGIN_HEADER,
+			StompHeaderAccessor.STOMP_PASSCODE_HEADER,
+			StompHeaderAccessor.STOMP_MESSAGE_HEADER,
+			"transaction"
+	};
+
+	private static final byte[][] KNOWN_HEADER_NAME_BYTES = new byte[KNOWN_HEADER_NAMES.length][];
+
+	static {
+		for (int i = 0; i < COMMANDS.length; i++) {
+			COMMAND_BYTES[i] = COMMANDS[i].name().getBytes(StandardCharsets.UTF_8);
+		}
+		for (int i = 0; i < KNOWN_HEADER_NAMES.length; i++) {
+			KNOWN_HEADER_NAME_BYTES[i] = KNOWN_HEADER_NAMES[i].getBytes(StandardCharsets.UTF_8);
+		}
+	}
+
 	@Nullable
 	private MessageHeaderInitializer headerInitializer;
 
@@ -135,16 +176,20 @@ public class StompDecoder {
 		Buffer buffer = byteBuffer;
 		buffer.mark();
 
-		String command = readCommand(byteBuffer);
-		if (command.length() > 0) {
+		if (byteBuffer.hasRemaining()) {
 			StompHeaderAccessor headerAccessor = null;
 			byte[] payload = null;
-			if (byteBuffer.remaining() > 0) {
-				StompCommand stompCommand = StompCommand.valueOf(command);
-				headerAccessor = StompHeaderAccessor.create(stompCommand);
-				initHeaders(headerAccessor);
-				readHeaders(byteBuffer, headerAccessor);
-				payload = readPayload(byteBuffer, headerAccessor);
+			int commandEnd = findEndOfLine(byteBuffer);
+			if (commandEnd != -1) {
+				int commandStart = byteBuffer.position();
+				consumeEndOfLine(byteBuffer, commandEnd);
+				if (byteBuffer.remaining() > 0) {
+					StompCommand stompCommand = readCommand(byteBuffer, commandStart, commandEnd);
+					headerAccessor = StompHeaderAccessor.create(stompCommand);
+					initHeaders(headerAccessor);
+					readHeaders(byteBuffer, headerAccessor);
+					payload = readPayload(byteBuffer, headerAccessor);
+				}
 			}
 			if (payload != null) {
 				if (payload.length > 0) {
@@ -206,51 +251,71 @@ public class StompDecoder {
 		}
 	}
 
-	private String readCommand(ByteBuffer byteBuffer) {
-		ByteArrayOutputStream command = new ByteArrayOutputStream(256);
-		while (byteBuffer.remaining() > 0 && !tryConsumeEndOfLine(byteBuffer)) {
-			command.write(byteBuffer.get());
+	/**
+	 * Resolve the command in the given range, matching the bytes against
+	 * the known STOMP commands without creating a String for them.
+	 */
+	private StompCommand readCommand(ByteBuffer byteBuffer, int start, int commandEnd) {
+		for (int i = 0; i < COMMANDS.length; i++) {
+			if (matches(byteBuffer, start, commandEnd, COMMAND_BYTES[i])) {
+				return COMMANDS[i];
+			}
 		}
-		return new String(command.toByteArray(), StandardCharsets.UTF_8);
+		return StompCommand.valueOf(decodeString(byteBuffer, start, commandEnd));
 	}
 
+	/**
+	 * Read header lines directly from the given buffer, sharing String
+	 * instances for the well-known STOMP header names.
+	 */
 	private void readHeaders(ByteBuffer byteBuffer, StompHeaderAccessor headerAccessor) {
 		while (true) {
-			ByteArrayOutputStream headerStream = new ByteArrayOutputStream(256);
-			boolean headerComplete = false;
-			while (byteBuffer.hasRemaining()) {
-				if (tryConsumeEndOfLine(byteBuffer)) {
-					headerComplete = true;
+			int start = byteBuffer.position();
+			int headerEnd = findEndOfLine(byteBuffer);
+			if (headerEnd == -1) {
+				// Incomplete header line: to be read again with more content
+				((Buffer) byteBuffer).position(byteBuffer.limit());
+				break;
+			}
+			consumeEndOfLine(byteBuffer, headerEnd);
+			if (headerEnd == start) {
+				break;
+			}
+			int colonIndex = -1;
+			for (int i = start; i < headerEnd; i++) {
+				if (byteBuffer.get(i) == ':') {
+					colonIndex = i;
 					break;
 				}
-				headerStream.write(byteBuffer.get());
 			}
-			if (headerStream.size() > 0 && headerComplete) {
-				String header = new String(headerStream.toByteArray(), StandardCharsets.UTF_8);
-				int colonIndex = header.indexOf(':');
-				if (colonIndex <= 0) {
-					if (byteBuffer.remaining() > 0) {
-						throw new StompConversionException("Illegal header: '" + header +
-								"'. A header must be of the form <name>:[<value>].");
-					}
+			if (colonIndex <= start) {
+				if (byteBuffer.remaining() > 0) {
+					throw new StompConversionException("Illegal header: '" + decodeString(byteBuffer, start, headerEnd) +
+							"'. A header must be of the form <name>:[<value>].");
 				}
-				else {
-					String headerName = unescape(header.substring(0, colonIndex));
-					String headerValue = unescape(header.substring(colonIndex + 1));
-					try {
-						headerAccessor.addNativeHeader(headerName, headerValue);
-					}
-					catch (InvalidMimeTypeException ex) {
-						if (byteBuffer.remaining() > 0) {
-							throw ex;
-						}
+			}
+			else {
+				String headerName = readHeaderName(byteBuffer, start, colonIndex);
+				String headerValue = unescape(decodeString(byteBuffer, colonIndex + 1, headerEnd));
+				try {
+					headerAccessor.addNativeHeader(headerName, headerValue);
+				}
+				catch (InvalidMimeTypeException ex) {
+					if (byteBuffer.remaining() > 0) {
+						throw ex;
 					}
 				}
 			}
-			else {
-				break;
+		}
+	}
+
+	private String readHeaderName(ByteBuffer byteBuffer, int start, int end) {
+		for (int i = 0; i < KNOWN_HEADER_NAMES.length; i++) {
+			if (matches(byteBuffer, start, end, KNOWN_HEADER_NAME_BYTES[i])) {
+				return KNOWN_HEADER_NAMES[i];
 			}
 		}
+		return unescape(decodeString(byteBuffer, start, end));
 	}
 
 	/**
@@ -258,9 +323,13 @@ public class StompDecoder {
 	 * <a href="https://stomp.github.io/stomp-specification-1.2.html#Value_Encoding">"Value Encoding"</a>.
 	 */
 	private String unescape(String inString) {
+		int index = inString.indexOf('\\');
+		if (index == -1) {
+			return inString;
+		}
+
 		StringBuilder sb = new StringBuilder(inString.length());
 		int pos = 0;  // position in the old string
-		int index = inString.indexOf('\\');
 
 		while (index >= 0) {
 			sb.append(inString.substring(pos, index));
@@ -319,20 +388,77 @@ public class StompDecoder {
 			}
 		}
 		else {
-			ByteArrayOutputStream payload = new ByteArrayOutputStream(256);
-			while (byteBuffer.remaining() > 0) {
-				byte b = byteBuffer.get();
-				if (b == 0) {
-					return payload.toByteArray();
-				}
-				else {
-					payload.write(b);
+			int limit = byteBuffer.limit();
+			for (int i = byteBuffer.position(); i < limit; i++) {
+				if (byteBuffer.get(i) == 0) {
+					byte[] payload = new byte[i - byteBuffer.position()];
+					byteBuffer.get(payload);
+					byteBuffer.get();
+					return payload;
 				}
 			}
+			((Buffer) byteBuffer).position(limit);
 		}
 		return null;
 	}
 
+	/**
+	 * Find the EOL for the line starting at the current buffer position,
+	 * without changing the position.
+	 * @return the index of the EOL, or -1 if the line is incomplete
+	 */
+	private int findEndOfLine(ByteBuffer byteBuffer) {
+		int limit = byteBuffer.limit();
+		for (int i = byteBuffer.position(); i < limit; i++) {
+			byte b = byteBuffer.get(i);
+			if (b == '\n') {
+				return i;
+			}
+			else if (b == '\r') {
+				if (i + 1 < limit && byteBuffer.get(i + 1) == '\n') {
+					return i;
+				}
+				throw new StompConversionException("'\\r' must be followed by '\\n'");
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Move the buffer position past the EOL at the given index.
+	 */
+	private void consumeEndOfLine(ByteBuffer byteBuffer, int eolIndex) {
+		// Explicit cast for compatibility with covariant return type on JDK 9's ByteBuffer
+		((Buffer) byteBuffer).position(eolIndex + (byteBuffer.get(eolIndex) == '\r' ? 2 : 1));
+	}
+
+	private boolean matches(ByteBuffer byteBuffer, int start, int end, byte[] candidate) {
+		if (end - start != candidate.length) {
+			return false;
+		}
+		for (int i = 0; i < candidate.length; i++) {
+			if (byteBuffer.get(start + i) != candidate[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Decode the given range of the buffer as UTF-8, straight from the
+	 * backing array if available.
+	 */
+	private String decodeString(ByteBuffer byteBuffer, int start, int end) {
+		if (byteBuffer.hasArray()) {
+			return new String(byteBuffer.array(), byteBuffer.arrayOffset() + start, end - start, StandardCharsets.UTF_8);
+		}
+		byte[] bytes = new byte[end - start];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = byteBuffer.get(start + i);
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
 	/**
 	 * Try to read an EOL incrementing the buffer position if successful.
 	 * @return whether an EOL was consumed
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.messaging.simp.stomp;
 
 import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import org.junit.Test;
@@ -27,7 +28,9 @@ import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.util.InvalidMimeTypeException;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 /**
  * Test fixture for {@link StompDecoder}.
@@ -160,6 +163,34 @@ public class StompDecoderTests {
 		assertEquals("alpha:bravo\r\n\\", headers.getFirstNativeHeader("a:\r\n\\b"));
 	}
 
+	@Test
+	public void decodeFrameWithSharedHeaderNames() {
+		Message<byte[]> frame1 = decode("SEND\ndestination:/queue/a\ncontent-length:1\n\nA\0");
+		Message<byte[]> frame2 = decode("SEND\ndestination:/queue/b\ncontent-length:1\n\nB\0");
+		String name1 = StompHeaderAccessor.wrap(frame1).toNativeHeaderMap().keySet().iterator().next();
+		String name2 = StompHeaderAccessor.wrap(frame2).toNativeHeaderMap().keySet().iterator().next();
+
+		assertEquals("destination", name1);
+		assertSame(name1, name2);
+		assertEquals("/queue/b", StompHeaderAccessor.wrap(frame2).getDestination());
+	}
+
+	@Test
+	public void decodeFrameFromDirectBuffer() {
+		byte[] bytes = "SEND\ndestination:/queue/\u00e4\nkey:v\\cal\n\nThe body\0".getBytes(StandardCharsets.UTF_8);
+		ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+		buffer.put(bytes);
+		buffer.flip();
+		Message<byte[]> frame = decode(buffer);
+		StompHeaderAccessor headers = StompHeaderAccessor.wrap(frame);
+
+		assertEquals(StompCommand.SEND, headers.getCommand());
+		assertEquals("/queue/\u00e4", headers.getDestination());
+		assertEquals("v:al", headers.getFirstNativeHeader("key"));
+		assertEquals("The body", new String(frame.getPayload(), StandardCharsets.UTF_8));
+		assertFalse(buffer.hasRemaining());
+	}
+
 	@Test(expected = StompConversionException.class)
 	public void decodeFrameBodyNotAllowed() {
 		decode("CONNECT\naccept-version:1.2\n\nThe body of the message\0");
@@ -202,6 +233,16 @@ public class StompDecoderTests {
 		assertIncompleteDecode("MESSAG");
 	}
 
+	@Test
+	public void decodeFrameWithIncompleteUnknownCommand() {
+		assertIncompleteDecode("UNKNOWN\n");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void decodeFrameWithUnknownCommand() {
+		decode("UNKNOWN\n\n\0");
+	}
+
 	@Test
 	public void decodeFrameWithIncompleteHeader() {
 		assertIncompleteDecode("SEND\ndestination");
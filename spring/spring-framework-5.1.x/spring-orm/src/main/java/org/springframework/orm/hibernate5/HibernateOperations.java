@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.io.Serializable;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.hibernate.Filter;
 import org.hibernate.LockMode;
@@ -678,6 +679,8 @@ public interface HibernateOperations {
 	/**
 	 * Execute an HQL query, binding a number of values to "?" parameters
 	 * in the query string.
+	 * <p>Note that {@link #stream(String, Object...)} binds its values to
+	 * JPA-style ordinal parameters ({@code ?1}, {@code ?2}, etc) instead.
 	 * @param queryString a query expressed in Hibernate's query language
 	 * @param values the values of the parameters
 	 * @return a {@link List} containing the results of the query execution
@@ -854,4 +857,81 @@ public interface HibernateOperations {
 	@Deprecated
 	int bulkUpdate(String queryString, Object... values) throws DataAccessException;
 
+
+	//-------------------------------------------------------------------------
+	// Convenience methods for streaming reads and batched writes
+	//-------------------------------------------------------------------------
+
+	/**
+	 * Return a {@link Stream} over all persistent instances of the given entity class,
+	 * scrolling through the underlying JDBC result set instead of materializing
+	 * the entire result in memory.
+	 * <p>The instances are read through a {@link org.hibernate.StatelessSession},
+	 * i.e. they are not associated with any Session and do not accumulate in a
+	 * first-level cache; lazy associations cannot be initialized on them.
+	 * Within a transaction, the same JDBC Connection is used as for the current Session.
+	 * <p><b>The returned {@code Stream} must be closed after use</b> (e.g. through a
+	 * try-with-resources block), releasing the underlying {@code ScrollableResults}.
+	 * @param entityClass a persistent class
+	 * @return a {@link Stream} containing 0 or more persistent instances
+	 * @throws DataAccessException if there is a Hibernate error
+	 * @since 5.1.11
+	 * @see org.hibernate.StatelessSession#createCriteria
+	 * @see org.hibernate.Criteria#scroll(org.hibernate.ScrollMode)
+	 */
+	<T> Stream<T> streamAll(Class<T> entityClass) throws DataAccessException;
+
+	/**
+	 * Return a {@link Stream} over the results of the given query, binding a number
+	 * of values to JPA-style ordinal parameters ({@code ?1}, {@code ?2}, etc) in the
+	 * query string, and scrolling through the underlying JDBC result set instead of
+	 * materializing the entire result in memory.
+	 * <p>Note that the plain "?" parameters as accepted by {@link #find(String, Object...)}
+	 * are not supported here.
+	 * <p>The query is executed through a {@link org.hibernate.StatelessSession},
+	 * with the same characteristics as for {@link #streamAll(Class)}.
+	 * <p><b>The returned {@code Stream} must be closed after use</b> (e.g. through a
+	 * try-with-resources block), releasing the underlying {@code ScrollableResults}.
+	 * @param queryString a query expressed in Hibernate's query language
+	 * @param values the values of the parameters
+	 * @return a {@link Stream} containing the results of the query execution
+	 * @throws DataAccessException in case of Hibernate errors
+	 * @since 5.1.11
+	 * @see org.hibernate.StatelessSession#createQuery
+	 * @see org.hibernate.Query#scroll(org.hibernate.ScrollMode)
+	 */
+	Stream<?> stream(String queryString, Object... values) throws DataAccessException;
+
+	/**
+	 * Insert all given transient instances through a {@link org.hibernate.StatelessSession},
+	 * executing JDBC batches according to the configured batch size instead of
+	 * registering the instances with the current Session.
+	 * <p>Within a transaction, the same JDBC Connection is used as for the current
+	 * Session; otherwise, the inserts are performed within a transaction of their own.
+	 * @param entities the transient instances to insert
+	 * @throws DataAccessException in case of Hibernate errors
+	 * @since 5.1.11
+	 * @see HibernateTemplate#setBatchSize
+	 * @see org.hibernate.StatelessSession#insert(Object)
+	 */
+	void insertAll(Collection<?> entities) throws DataAccessException;
+
+	/**
+	 * Save or update all given persistent instances, according to their ids
+	 * (matching the configured "unsaved-value"?), flushing and clearing the
+	 * current Session after every batch of instances if a batch size has been
+	 * configured on the template.
+	 * <p>Note that clearing the Session detaches all of its instances,
+	 * including ones which have been loaded before this operation.
+	 * @param entities the persistent instances to save or update
+	 * (to be associated with the Hibernate {@code Session})
+	 * @throws DataAccessException in case of Hibernate errors
+	 * @since 5.1.11
+	 * @see HibernateTemplate#setBatchSize
+	 * @see org.hibernate.Session#saveOrUpdate(Object)
+	 * @see org.hibernate.Session#flush()
+	 * @see org.hibernate.Session#clear()
+	 */
+	void saveOrUpdateAll(Collection<?> entities) throws DataAccessException;
+
 }
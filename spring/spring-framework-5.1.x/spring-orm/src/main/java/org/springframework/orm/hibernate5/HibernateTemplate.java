@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,9 +21,16 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.sql.Connection;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.persistence.PersistenceException;
 
@@ -37,10 +44,16 @@ import org.hibernate.HibernateException;
 import org.hibernate.LockMode;
 import org.hibernate.LockOptions;
 import org.hibernate.ReplicationMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
 import org.hibernate.criterion.DetachedCriteria;
 import org.hibernate.criterion.Example;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SessionImplementor;
 
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.dao.DataAccessException;
@@ -49,6 +62,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.transaction.support.ResourceHolderSupport;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.ReflectionUtils;
 
 /**
@@ -94,12 +108,25 @@ public class HibernateTemplate implements HibernateOperations, InitializingBean
 
 	private static final Method getNamedQueryMethod;
 
+	private static final Method createStatelessQueryMethod;
+
+	// Hibernate 5.2+ only: JDBC batch size per Session
+	@Nullable
+	private static final Method setJdbcBatchSizeMethod =
+			ClassUtils.getMethodIfAvailable(StatelessSession.class, "setJdbcBatchSize", Integer.class);
+
+	// Declared on SharedSessionContractImplementor as of Hibernate 5.2, on SessionImplementor before
+	@Nullable
+	private static final Method getJdbcCoordinatorMethod =
+			ClassUtils.getMethodIfAvailable(SessionImplementor.class, "getJdbcCoordinator");
+
 	static {
 		// Hibernate 5.2's createQuery method declares a new subtype as return type,
 		// so we need to use reflection for binary compatibility with 5.0/5.1 here.
 		try {
 			createQueryMethod = Session.class.getMethod("createQuery", String.class);
 			getNamedQueryMethod = Session.class.getMethod("getNamedQuery", String.class);
+			createStatelessQueryMethod = StatelessSession.class.getMethod("createQuery", String.class);
 		}
 		catch (NoSuchMethodException ex) {
 			throw new IllegalStateException("Incompatible Hibernate Session API", ex);
@@ -128,6 +155,8 @@ public class HibernateTemplate implements HibernateOperations, InitializingBean
 
 	private int maxResults = 0;
 
+	private int batchSize = 0;
+
 
 	/**
 	 * Create a new HibernateTemplate instance.
@@ -323,6 +352,29 @@ public class HibernateTemplate implements HibernateOperations, InitializingBean
 		return this.maxResults;
 	}
 
+	/**
+	 * Set the batch size for the batched write operations on this HibernateTemplate:
+	 * {@link #insertAll} applies it as JDBC batch size (on Hibernate ORM 5.2+) and
+	 * executes pending JDBC batches accordingly, while {@link #saveOrUpdateAll}
+	 * flushes and clears the current Session after the given number of instances.
+	 * <p>Default is 0, indicating to use the "hibernate.jdbc.batch_size" setting
+	 * of the SessionFactory, with pending changes only being flushed at the end.
+	 * @since 5.1.11
+	 * @see #insertAll
+	 * @see #saveOrUpdateAll
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Return the batch size specified for this HibernateTemplate.
+	 * @since 5.1.11
+	 */
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
 	@Override
 	public void afterPropertiesSet() {
 		if (getSessionFactory() == null) {
@@ -1076,6 +1128,73 @@ public class HibernateTemplate implements HibernateOperations, InitializingBean
 	}
 
 
+	//-------------------------------------------------------------------------
+	// Convenience methods for streaming reads and batched writes
+	//-------------------------------------------------------------------------
+
+	@Override
+	@SuppressWarnings("deprecation")
+	public <T> Stream<T> streamAll(final Class<T> entityClass) throws DataAccessException {
+		return doStream(statelessSession -> {
+			Criteria criteria = statelessSession.createCriteria(entityClass);
+			prepareCriteria(criteria);
+			return criteria.scroll(ScrollMode.FORWARD_ONLY);
+		});
+	}
+
+	@Override
+	@SuppressWarnings({"rawtypes", "deprecation"})
+	public Stream<?> stream(final String queryString, @Nullable final Object... values) throws DataAccessException {
+		return doStream(statelessSession -> {
+			org.hibernate.Query queryObject = queryObject(
+					ReflectionUtils.invokeMethod(createStatelessQueryMethod, statelessSession, queryString));
+			prepareQuery(queryObject);
+			if (values != null) {
+				for (int i = 0; i < values.length; i++) {
+					queryObject.setParameter(i + 1, values[i]);
+				}
+			}
+			return queryObject.scroll(ScrollMode.FORWARD_ONLY);
+		});
+	}
+
+	@Override
+	public void insertAll(final Collection<?> entities) throws DataAccessException {
+		doInStatelessSession(statelessSession -> {
+			int count = 0;
+			for (Object entity : entities) {
+				statelessSession.insert(entity);
+				count++;
+				if (getBatchSize() > 0 && count % getBatchSize() == 0) {
+					executeBatch(statelessSession);
+				}
+			}
+			executeBatch(statelessSession);
+		});
+	}
+
+	@Override
+	public void saveOrUpdateAll(final Collection<?> entities) throws DataAccessException {
+		executeWithNativeSession(session -> {
+			checkWriteOperationAllowed(session);
+			int count = 0;
+			for (Object entity : entities) {
+				session.saveOrUpdate(entity);
+				count++;
+				if (getBatchSize() > 0 && count % getBatchSize() == 0) {
+					session.flush();
+					session.clear();
+				}
+			}
+			if (getBatchSize() > 0 && count % getBatchSize() != 0) {
+				session.flush();
+				session.clear();
+			}
+			return null;
+		});
+	}
+
+
 	//-------------------------------------------------------------------------
 	// Helper methods used by the operations above
 	//-------------------------------------------------------------------------
@@ -1178,6 +1297,174 @@ public class HibernateTemplate implements HibernateOperations, InitializingBean
 		}
 	}
 
+	/**
+	 * Open a {@link StatelessSession} for the streaming and batched write operations.
+	 * <p>Within a transaction with a current Session (e.g. as managed by
+	 * {@link HibernateTransactionManager}), pending changes in the current Session
+	 * get flushed (unless in {@code FlushMode.MANUAL}/{@code COMMIT}), and the
+	 * StatelessSession is opened on the current Session's JDBC Connection,
+	 * participating in the transaction. Otherwise, a StatelessSession with
+	 * a JDBC Connection of its own is opened.
+	 * @param transactionalSession the current transactional Session, if any
+	 * @return the StatelessSession (to be closed after use)
+	 * @since 5.1.11
+	 * @see SessionFactory#openStatelessSession(Connection)
+	 */
+	protected StatelessSession openStatelessSession(@Nullable Session transactionalSession) {
+		StatelessSession statelessSession;
+		if (transactionalSession != null) {
+			if (!SessionFactoryUtils.getFlushMode(transactionalSession).lessThan(FlushMode.AUTO)) {
+				transactionalSession.flush();
+			}
+			Connection con = ((SessionImplementor) transactionalSession).connection();
+			statelessSession = obtainSessionFactory().openStatelessSession(con);
+		}
+		else {
+			statelessSession = obtainSessionFactory().openStatelessSession();
+		}
+		if (getBatchSize() > 0 && setJdbcBatchSizeMethod != null) {
+			ReflectionUtils.invokeMethod(setJdbcBatchSizeMethod, statelessSession, getBatchSize());
+		}
+		return statelessSession;
+	}
+
+	/**
+	 * Return the Session of the current transaction, if any.
+	 */
+	@Nullable
+	private Session getTransactionalSession() {
+		Object resource = TransactionSynchronizationManager.getResource(obtainSessionFactory());
+		if (resource instanceof SessionHolder && TransactionSynchronizationManager.isActualTransactionActive()) {
+			return ((SessionHolder) resource).getSession();
+		}
+		return null;
+	}
+
+	/**
+	 * Obtain {@code ScrollableResults} from a new StatelessSession and expose them as a
+	 * {@link Stream}, closing the results as well as the StatelessSession on stream close.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> Stream<T> doStream(Function<StatelessSession, ScrollableResults> scrollFunction) {
+		StatelessSession statelessSession;
+		ScrollableResults results;
+		try {
+			statelessSession = openStatelessSession(getTransactionalSession());
+		}
+		catch (RuntimeException ex) {
+			throw translateException(ex);
+		}
+		try {
+			results = scrollFunction.apply(statelessSession);
+		}
+		catch (RuntimeException ex) {
+			closeStatelessSession(statelessSession);
+			throw translateException(ex);
+		}
+		Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED) {
+			@Override
+			public boolean tryAdvance(Consumer<? super T> action) {
+				try {
+					if (!results.next()) {
+						return false;
+					}
+					Object[] row = results.get();
+					action.accept((T) (row.length == 1 ? row[0] : row));
+					return true;
+				}
+				catch (RuntimeException ex) {
+					throw translateException(ex);
+				}
+			}
+		};
+		return StreamSupport.stream(spliterator, false).onClose(() -> {
+			try {
+				results.close();
+			}
+			catch (RuntimeException ex) {
+				throw translateException(ex);
+			}
+			finally {
+				closeStatelessSession(statelessSession);
+			}
+		});
+	}
+
+	/**
+	 * Perform the given write action on a new StatelessSession, either participating
+	 * in the current transaction or within a Hibernate transaction of its own.
+	 */
+	private void doInStatelessSession(Consumer<StatelessSession> action) {
+		Session transactionalSession = getTransactionalSession();
+		if (transactionalSession != null) {
+			checkWriteOperationAllowed(transactionalSession);
+		}
+		StatelessSession statelessSession = null;
+		Transaction transaction = null;
+		try {
+			statelessSession = openStatelessSession(transactionalSession);
+			if (transactionalSession == null) {
+				transaction = statelessSession.beginTransaction();
+			}
+			action.accept(statelessSession);
+			if (transaction != null) {
+				transaction.commit();
+			}
+		}
+		catch (RuntimeException ex) {
+			if (transaction != null) {
+				try {
+					transaction.rollback();
+				}
+				catch (RuntimeException ex2) {
+					logger.debug("Could not roll back StatelessSession transaction", ex2);
+				}
+			}
+			throw translateException(ex);
+		}
+		finally {
+			if (statelessSession != null) {
+				closeStatelessSession(statelessSession);
+			}
+		}
+	}
+
+	/**
+	 * Close the given StatelessSession, catching and logging any cleanup exceptions thrown.
+	 */
+	private void closeStatelessSession(StatelessSession statelessSession) {
+		try {
+			statelessSession.close();
+		}
+		catch (Throwable ex) {
+			logger.debug("Could not close Hibernate StatelessSession", ex);
+		}
+	}
+
+	/**
+	 * Execute pending JDBC batch statements on the given StatelessSession
+	 * which does not flush those on its own.
+	 */
+	private static void executeBatch(StatelessSession statelessSession) {
+		if (getJdbcCoordinatorMethod != null &&
+				getJdbcCoordinatorMethod.getDeclaringClass().isInstance(statelessSession)) {
+			Object jdbcCoordinator = ReflectionUtils.invokeMethod(getJdbcCoordinatorMethod, statelessSession);
+			if (jdbcCoordinator instanceof JdbcCoordinator) {
+				((JdbcCoordinator) jdbcCoordinator).executeBatch();
+			}
+		}
+	}
+
+	private static RuntimeException translateException(RuntimeException ex) {
+		if (ex instanceof HibernateException) {
+			return SessionFactoryUtils.convertHibernateAccessException((HibernateException) ex);
+		}
+		if (ex instanceof PersistenceException && ex.getCause() instanceof HibernateException) {
+			return SessionFactoryUtils.convertHibernateAccessException((HibernateException) ex.getCause());
+		}
+		return ex;
+	}
+
 	@Deprecated
 	@SuppressWarnings({"rawtypes", "deprecation"})
 	private static org.hibernate.Query queryObject(@Nullable Object result) {
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.orm.hibernate5;
+
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.hibernate.Criteria;
+import org.hibernate.FlushMode;
+import org.hibernate.HibernateException;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.query.Query;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * Tests for the streaming and batched write operations of {@link HibernateTemplate}.
+ *
+ * @author agent (agent@local)
+ */
+public class HibernateTemplateTests {
+
+	private final SessionFactory sessionFactory = mock(SessionFactory.class);
+
+	private final SessionImplementor session = mock(SessionImplementor.class);
+
+	private final StatelessSession statelessSession =
+			mock(StatelessSession.class, withSettings().extraInterfaces(SharedSessionContractImplementor.class));
+
+	private final JdbcCoordinator jdbcCoordinator = mock(JdbcCoordinator.class);
+
+	private final ScrollableResults results = mock(ScrollableResults.class);
+
+	private final HibernateTemplate hibernateTemplate = new HibernateTemplate(this.sessionFactory);
+
+
+	@Before
+	public void setup() {
+		given(this.sessionFactory.openStatelessSession()).willReturn(this.statelessSession);
+		given(((SharedSessionContractImplementor) this.statelessSession).getJdbcCoordinator())
+				.willReturn(this.jdbcCoordinator);
+		given(this.session.getHibernateFlushMode()).willReturn(FlushMode.AUTO);
+	}
+
+	@After
+	public void verifyTransactionSynchronizationManagerState() {
+		assertTrue(TransactionSynchronizationManager.getResourceMap().isEmpty());
+		assertFalse(TransactionSynchronizationManager.isSynchronizationActive());
+	}
+
+
+	@Test
+	@SuppressWarnings("deprecation")
+	public void streamAllClosesResultsAndStatelessSession() {
+		Criteria criteria = mock(Criteria.class);
+		given(this.statelessSession.createCriteria(String.class)).willReturn(criteria);
+		given(criteria.scroll(ScrollMode.FORWARD_ONLY)).willReturn(this.results);
+		given(this.results.next()).willReturn(true, true, false);
+		given(this.results.get()).willReturn(new Object[] {"a"}, new Object[] {"b"});
+
+		try (Stream<String> stream = this.hibernateTemplate.streamAll(String.class)) {
+			assertEquals(Arrays.asList("a", "b"), stream.collect(Collectors.toList()));
+			verify(this.results, never()).close();
+			verify(this.statelessSession, never()).close();
+		}
+		verify(this.results).close();
+		verify(this.statelessSession).close();
+	}
+
+	@Test
+	public void streamWithOrdinalParameters() {
+		Query<?> query = mock(Query.class);
+		given(this.statelessSession.createQuery("from Person where name = ?1 and age = ?2")).willReturn(query);
+		given(query.scroll(ScrollMode.FORWARD_ONLY)).willReturn(this.results);
+		given(this.results.next()).willReturn(true, false);
+		given(this.results.get()).willReturn(new Object[] {"a", 42});
+
+		try (Stream<?> stream = this.hibernateTemplate.stream("from Person where name = ?1 and age = ?2", "a", 42)) {
+			List<?> rows = stream.collect(Collectors.toList());
+			assertEquals(1, rows.size());
+			assertArrayEquals(new Object[] {"a", 42}, (Object[]) rows.get(0));
+		}
+		verify(query).setParameter(1, (Object) "a");
+		verify(query).setParameter(2, (Object) 42);
+		verify(this.results).close();
+		verify(this.statelessSession).close();
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	public void streamFailureClosesStatelessSession() {
+		given(this.statelessSession.createCriteria(String.class)).willThrow(new HibernateException("failure"));
+
+		try {
+			this.hibernateTemplate.streamAll(String.class);
+			fail("Should have thrown DataAccessException");
+		}
+		catch (DataAccessException ex) {
+			assertEquals("failure", ex.getCause().getMessage());
+		}
+		verify(this.statelessSession).close();
+	}
+
+	@Test
+	public void insertAllWithinTransactionOnSameConnection() {
+		Connection con = mock(Connection.class);
+		Transaction tx = mock(Transaction.class);
+		given(this.sessionFactory.openSession()).willReturn(this.session);
+		given(this.session.beginTransaction()).willReturn(tx);
+		given(this.session.connection()).willReturn(con);
+		given(this.sessionFactory.openStatelessSession(con)).willReturn(this.statelessSession);
+
+		HibernateTransactionManager tm = new HibernateTransactionManager(this.sessionFactory);
+		tm.setPrepareConnection(false);
+		new TransactionTemplate(tm).execute(status -> {
+			this.hibernateTemplate.insertAll(Arrays.asList("a", "b"));
+			status.setRollbackOnly();
+			return null;
+		});
+
+		verify(this.session).flush();
+		verify(this.sessionFactory, never()).openStatelessSession();
+		verify(this.statelessSession).insert("a");
+		verify(this.statelessSession).insert("b");
+		verify(this.statelessSession, never()).beginTransaction();
+		verify(this.statelessSession).close();
+		verify(tx).rollback();
+		verify(tx, never()).commit();
+		verify(this.session).close();
+	}
+
+	@Test
+	public void insertAllWithoutTransaction() {
+		Transaction tx = mock(Transaction.class);
+		given(this.statelessSession.beginTransaction()).willReturn(tx);
+
+		this.hibernateTemplate.insertAll(Arrays.asList("a", "b"));
+
+		verify(this.statelessSession).insert("a");
+		verify(this.statelessSession).insert("b");
+		verify(tx).commit();
+		verify(tx, never()).rollback();
+		verify(this.statelessSession).close();
+	}
+
+	@Test
+	public void insertAllFailureWithoutTransaction() {
+		Transaction tx = mock(Transaction.class);
+		given(this.statelessSession.beginTransaction()).willReturn(tx);
+		given(this.statelessSession.insert("b")).willThrow(new HibernateException("failure"));
+
+		try {
+			this.hibernateTemplate.insertAll(Arrays.asList("a", "b"));
+			fail("Should have thrown DataAccessException");
+		}
+		catch (DataAccessException ex) {
+			assertEquals("failure", ex.getCause().getMessage());
+		}
+		verify(tx).rollback();
+		verify(tx, never()).commit();
+		verify(this.statelessSession).close();
+	}
+
+	@Test
+	public void insertAllExecutesBatches() {
+		given(this.statelessSession.beginTransaction()).willReturn(mock(Transaction.class));
+		this.hibernateTemplate.setBatchSize(2);
+
+		this.hibernateTemplate.insertAll(Arrays.asList("a", "b", "c", "d", "e"));
+
+		verify(this.statelessSession).setJdbcBatchSize(2);
+		verify(this.statelessSession, times(5)).insert(any());
+		// After "b" and "d", as well as for the remainder at the end
+		verify(this.jdbcCoordinator, times(3)).executeBatch();
+	}
+
+	@Test
+	public void saveOrUpdateAllFlushesBatches() {
+		given(this.sessionFactory.getCurrentSession()).willReturn(this.session);
+		this.hibernateTemplate.setBatchSize(2);
+
+		this.hibernateTemplate.saveOrUpdateAll(Arrays.asList("a", "b", "c", "d", "e"));
+
+		verify(this.session, times(5)).saveOrUpdate(any());
+		verify(this.session, times(3)).flush();
+		verify(this.session, times(3)).clear();
+	}
+
+}
@@ -37,6 +37,9 @@ import java.util.Calendar;
 import java.util.Date;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
 
 import javax.activation.DataHandler;
 import javax.activation.DataSource;
@@ -59,6 +62,8 @@ import javax.xml.datatype.XMLGregorianCalendar;
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.Result;
@@ -122,6 +127,7 @@ import org.springframework.util.xml.StaxUtils;
  * @see #setMarshallerListener
  * @see #setUnmarshallerListener
  * @see #setAdapters
+ * @see #setPoolSize
  */
 public class Jaxb2Marshaller implements MimeMarshaller, MimeUnmarshaller, GenericMarshaller, GenericUnmarshaller,
 		BeanClassLoaderAware, InitializingBean {
@@ -199,6 +205,15 @@ public class Jaxb2Marshaller implements MimeMarshaller, MimeUnmarshaller, Generi
 
 	private boolean processExternalEntities = false;
 
+	@Nullable
+	private BlockingQueue<Marshaller> marshallerPool;
+
+	@Nullable
+	private BlockingQueue<Unmarshaller> unmarshallerPool;
+
+	@Nullable
+	private volatile XMLInputFactory inputFactory;
+
 
 	/**
 	 * Set multiple JAXB context paths. The given array of context paths gets
@@ -376,6 +391,24 @@ public class Jaxb2Marshaller implements MimeMarshaller, MimeUnmarshaller, Generi
 		this.mtomEnabled = mtomEnabled;
 	}
 
+	/**
+	 * Specify the maximum number of idle JAXB {@link Marshaller} and
+	 * {@link Unmarshaller} instances (each) to keep for reuse across calls.
+	 * <p>Default is 0, creating and initializing a new JAXB marshaller or
+	 * unmarshaller for every call. Since such instances are not thread-safe,
+	 * pooled ones are handed out to one caller at a time, with any per-call
+	 * state (such as MTOM attachment handlers) being reset before reuse.
+	 * Instances beyond the specified number will simply be discarded.
+	 * @since 5.1.11
+	 * @see #createMarshaller()
+	 * @see #createUnmarshaller()
+	 */
+	public void setPoolSize(int poolSize) {
+		Assert.isTrue(poolSize >= 0, "Pool size must not be negative");
+		this.marshallerPool = (poolSize > 0 ? new ArrayBlockingQueue<>(poolSize) : null);
+		this.unmarshallerPool = (poolSize > 0 ? new ArrayBlockingQueue<>(poolSize) : null);
+	}
+
 	/**
 	 * Specify whether the {@link #supports(Class)} returns {@code true} for the
 	 * {@link JAXBElement} class.
@@ -698,8 +731,9 @@ public class Jaxb2Marshaller implements MimeMarshaller, MimeUnmarshaller, Generi
 	@Override
 	public void marshal(Object graph, Result result, @Nullable MimeContainer mimeContainer) throws XmlMappingException {
 		try {
-			Marshaller marshaller = createMarshaller();
-			if (this.mtomEnabled && mimeContainer != null) {
+			Marshaller marshaller = obtainMarshaller();
+			boolean attachments = (this.mtomEnabled && mimeContainer != null);
+			if (attachments) {
 				marshaller.setAttachmentMarshaller(new Jaxb2AttachmentMarshaller(mimeContainer));
 			}
 			if (StaxUtils.isStaxResult(result)) {
@@ -708,6 +742,10 @@ public class Jaxb2Marshaller implements MimeMarshaller, MimeUnmarshaller, Generi
 			else {
 				marshaller.marshal(graph, result);
 			}
+			if (attachments) {
+				marshaller.setAttachmentMarshaller(null);
+			}
+			releaseMarshaller(marshaller);
 		}
 		catch (JAXBException ex) {
 			throw convertJaxbException(ex);
@@ -729,6 +767,27 @@ public class Jaxb2Marshaller implements MimeMarshaller, MimeUnmarshaller, Generi
 		}
 	}
 
+	/**
+	 * Obtain a pooled JAXB marshaller if available, or create a new one otherwise.
+	 * @see #setPoolSize
+	 */
+	private Marshaller obtainMarshaller() {
+		BlockingQueue<Marshaller> pool = this.marshallerPool;
+		Marshaller marshaller = (pool != null ? pool.poll() : null);
+		return (marshaller != null ? marshaller : createMarshaller());
+	}
+
+	/**
+	 * Return the given JAXB marshaller to the pool after successful use,
+	 * unless the pool is disabled or already full.
+	 */
+	private void releaseMarshaller(Marshaller marshaller) {
+		BlockingQueue<Marshaller> pool = this.marshallerPool;
+		if (pool != null) {
+			pool.offer(marshaller);
+		}
+	}
+
 	private void marshalStaxResult(Marshaller jaxbMarshaller, Object graph, Result staxResult) throws JAXBException {
 		XMLStreamWriter streamWriter = StaxUtils.getXMLStreamWriter(staxResult);
 		if (streamWriter != null) {
@@ -790,19 +849,26 @@ public class Jaxb2Marshaller implements MimeMarshaller, MimeUnmarshaller, Generi
 		source = processSource(source);
 
 		try {
-			Unmarshaller unmarshaller = createUnmarshaller();
-			if (this.mtomEnabled && mimeContainer != null) {
+			Unmarshaller unmarshaller = obtainUnmarshaller();
+			boolean attachments = (this.mtomEnabled && mimeContainer != null);
+			if (attachments) {
 				unmarshaller.setAttachmentUnmarshaller(new Jaxb2AttachmentUnmarshaller(mimeContainer));
 			}
+			Object result;
 			if (StaxUtils.isStaxSource(source)) {
-				return unmarshalStaxSource(unmarshaller, source);
+				result = unmarshalStaxSource(unmarshaller, source);
 			}
 			else if (this.mappedClass != null) {
-				return unmarshaller.unmarshal(source, this.mappedClass).getValue();
+				result = unmarshaller.unmarshal(source, this.mappedClass).getValue();
 			}
 			else {
-				return unmarshaller.unmarshal(source);
+				result = unmarshaller.unmarshal(source);
+			}
+			if (attachments) {
+				unmarshaller.setAttachmentUnmarshaller(null);
 			}
+			releaseUnmarshaller(unmarshaller);
+			return result;
 		}
 		catch (NullPointerException ex) {
 			if (!isSupportDtd()) {
@@ -831,6 +897,125 @@ public class Jaxb2Marshaller implements MimeMarshaller, MimeUnmarshaller, Generi
 		}
 	}
 
+	/**
+	 * Unmarshal every element with the given name in the given XML document
+	 * one at a time, handing each resulting object to the given consumer
+	 * before reading on. As opposed to {@link #unmarshal(Source)}, the document
+	 * as a whole is never held in memory, making this suitable for very large
+	 * documents that consist of a long sequence of repeated elements.
+	 * <p>Matching elements may be nested at any depth; their content (including
+	 * any nested elements of the same name) is unmarshalled in one piece.
+	 * @param source the source to read from: either a StAX source or a
+	 * {@link StreamSource} backed by an {@code InputStream} or {@code Reader}
+	 * @param elementName the qualified name of the elements to unmarshal
+	 * @param elementType the JAXB type to unmarshal each element to
+	 * @param elementConsumer the consumer to hand each unmarshalled object to
+	 * @throws XmlMappingException if the given source cannot be unmarshalled
+	 * @since 5.1.11
+	 * @see Unmarshaller#unmarshal(XMLStreamReader, Class)
+	 */
+	public <T> void unmarshalElements(Source source, QName elementName, Class<T> elementType,
+			Consumer<? super T> elementConsumer) throws XmlMappingException {
+
+		Assert.notNull(source, "Source must not be null");
+		Assert.notNull(elementName, "Element name must not be null");
+		Assert.notNull(elementType, "Element type must not be null");
+		Assert.notNull(elementConsumer, "Element consumer must not be null");
+
+		try {
+			XMLStreamReader streamReader = getXMLStreamReader(source);
+			try {
+				Unmarshaller unmarshaller = obtainUnmarshaller();
+				while (streamReader.hasNext()) {
+					if (streamReader.isStartElement() && elementName.equals(streamReader.getName())) {
+						// leaves the reader positioned right after the element's end tag
+						elementConsumer.accept(unmarshaller.unmarshal(streamReader, elementType).getValue());
+					}
+					else {
+						streamReader.next();
+					}
+				}
+				releaseUnmarshaller(unmarshaller);
+			}
+			finally {
+				if (!StaxUtils.isStaxSource(source)) {
+					streamReader.close();
+				}
+			}
+		}
+		catch (XMLStreamException ex) {
+			throw new UnmarshallingFailureException("Failed to read XML stream: " + ex.getMessage(), ex);
+		}
+		catch (JAXBException ex) {
+			throw convertJaxbException(ex);
+		}
+	}
+
+	private XMLStreamReader getXMLStreamReader(Source source) throws XMLStreamException {
+		if (StaxUtils.isStaxSource(source)) {
+			XMLStreamReader streamReader = StaxUtils.getXMLStreamReader(source);
+			if (streamReader == null) {
+				XMLEventReader eventReader = StaxUtils.getXMLEventReader(source);
+				Assert.state(eventReader != null, "StaxSource contains neither XMLStreamReader nor XMLEventReader");
+				streamReader = StaxUtils.createEventStreamReader(eventReader);
+			}
+			return streamReader;
+		}
+		else if (source instanceof StreamSource) {
+			StreamSource streamSource = (StreamSource) source;
+			XMLInputFactory inputFactory = getXMLInputFactory();
+			if (streamSource.getInputStream() != null) {
+				return inputFactory.createXMLStreamReader(streamSource.getInputStream());
+			}
+			else if (streamSource.getReader() != null) {
+				return inputFactory.createXMLStreamReader(streamSource.getReader());
+			}
+		}
+		throw new IllegalArgumentException("Streaming unmarshalling requires a StAX source or a StreamSource " +
+				"with an InputStream or Reader, not " + source);
+	}
+
+	/**
+	 * Return the lazily created StAX input factory for streaming unmarshalling,
+	 * configured according to the {@link #setSupportDtd "supportDtd"} and
+	 * {@link #setProcessExternalEntities "processExternalEntities"} settings.
+	 */
+	private XMLInputFactory getXMLInputFactory() {
+		XMLInputFactory inputFactory = this.inputFactory;
+		if (inputFactory == null) {
+			if (isSupportDtd()) {
+				inputFactory = XMLInputFactory.newInstance();
+				inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, isProcessExternalEntities());
+			}
+			else {
+				inputFactory = StaxUtils.createDefensiveInputFactory();
+			}
+			this.inputFactory = inputFactory;
+		}
+		return inputFactory;
+	}
+
+	/**
+	 * Obtain a pooled JAXB unmarshaller if available, or create a new one otherwise.
+	 * @see #setPoolSize
+	 */
+	private Unmarshaller obtainUnmarshaller() {
+		BlockingQueue<Unmarshaller> pool = this.unmarshallerPool;
+		Unmarshaller unmarshaller = (pool != null ? pool.poll() : null);
+		return (unmarshaller != null ? unmarshaller : createUnmarshaller());
+	}
+
+	/**
+	 * Return the given JAXB unmarshaller to the pool after successful use,
+	 * unless the pool is disabled or already full.
+	 */
+	private void releaseUnmarshaller(Unmarshaller unmarshaller) {
+		BlockingQueue<Unmarshaller> pool = this.unmarshallerPool;
+		if (pool != null) {
+			pool.offer(unmarshaller);
+		}
+	}
+
 	protected Object unmarshalStaxSource(Unmarshaller jaxbUnmarshaller, Source staxSource) throws JAXBException {
 		XMLStreamReader streamReader = StaxUtils.getXMLStreamReader(staxSource);
 		if (streamReader != null) {
@@ -22,10 +22,12 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.activation.DataHandler;
 import javax.activation.FileDataSource;
 import javax.xml.bind.JAXBElement;
+import javax.xml.bind.Marshaller;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlType;
 import javax.xml.namespace.QName;
@@ -127,6 +129,29 @@ public class Jaxb2MarshallerTests extends AbstractMarshallerTests<Jaxb2Marshalle
 				isSimilarTo(EXPECTED_STRING).withDifferenceEvaluator(ev));
 	}
 
+	@Test
+	public void marshalWithPooledMarshaller() throws Exception {
+		AtomicInteger created = new AtomicInteger();
+		marshaller = new Jaxb2Marshaller() {
+			@Override
+			protected Marshaller createMarshaller() {
+				created.incrementAndGet();
+				return super.createMarshaller();
+			}
+		};
+		marshaller.setContextPath(CONTEXT_PATH);
+		marshaller.setPoolSize(2);
+		marshaller.afterPropertiesSet();
+		DifferenceEvaluator ev = chain(Default, downgradeDifferencesToEqual(XML_STANDALONE));
+		for (int i = 0; i < 3; i++) {
+			StringWriter writer = new StringWriter();
+			marshaller.marshal(flights, new StreamResult(writer));
+			assertThat("Marshaller writes invalid StreamResult", writer.toString(),
+					isSimilarTo(EXPECTED_STRING).withDifferenceEvaluator(ev));
+		}
+		assertEquals(1, created.get());
+	}
+
 	@Test
 	public void properties() throws Exception {
 		Jaxb2Marshaller marshaller = new Jaxb2Marshaller();
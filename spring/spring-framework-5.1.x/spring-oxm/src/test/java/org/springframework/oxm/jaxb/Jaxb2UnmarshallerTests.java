@@ -19,10 +19,15 @@ package org.springframework.oxm.jaxb;
 import java.io.File;
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.activation.DataHandler;
 import javax.activation.FileDataSource;
 import javax.xml.bind.JAXBElement;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.namespace.QName;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.Source;
@@ -135,6 +140,52 @@ public class Jaxb2UnmarshallerTests extends AbstractUnmarshallerTests<Jaxb2Marsh
 				"test", airplane.getValue().getName());
 	}
 
+	@Test
+	public void unmarshalWithPooledUnmarshaller() throws Exception {
+		AtomicInteger created = new AtomicInteger();
+		unmarshaller = new Jaxb2Marshaller() {
+			@Override
+			protected Unmarshaller createUnmarshaller() {
+				created.incrementAndGet();
+				return super.createUnmarshaller();
+			}
+		};
+		unmarshaller.setContextPath("org.springframework.oxm.jaxb.test");
+		unmarshaller.setPoolSize(2);
+		unmarshaller.afterPropertiesSet();
+		for (int i = 0; i < 3; i++) {
+			testFlights(unmarshaller.unmarshal(new StreamSource(new StringReader(INPUT_STRING))));
+		}
+		assertEquals(1, created.get());
+	}
+
+	@Test
+	public void unmarshalElements() throws Exception {
+		String content = "<tns:flights xmlns:tns=\"http://samples.springframework.org/flight\">" +
+				"<tns:flight><tns:number>1</tns:number></tns:flight>" +
+				"<tns:flight><tns:number>2</tns:number></tns:flight>\n" +
+				"<tns:flight><tns:number>3</tns:number></tns:flight></tns:flights>";
+		QName elementName = new QName("http://samples.springframework.org/flight", "flight");
+		List<Long> numbers = new ArrayList<>();
+		unmarshaller.unmarshalElements(new StreamSource(new StringReader(content)), elementName,
+				FlightType.class, flight -> numbers.add(flight.getNumber()));
+		assertEquals(3, numbers.size());
+		assertEquals(Long.valueOf(1), numbers.get(0));
+		assertEquals(Long.valueOf(2), numbers.get(1));
+		assertEquals(Long.valueOf(3), numbers.get(2));
+	}
+
+	@Test
+	public void unmarshalElementsFromStaxSource() throws Exception {
+		XMLStreamReader streamReader = XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(INPUT_STRING));
+		QName elementName = new QName("http://samples.springframework.org/flight", "flight");
+		List<FlightType> flights = new ArrayList<>();
+		unmarshaller.unmarshalElements(StaxUtils.createStaxSource(streamReader), elementName,
+				FlightType.class, flights::add);
+		assertEquals(1, flights.size());
+		testFlight(flights.get(0));
+	}
+
 	@Test
 	public void unmarshalFile() throws IOException {
 		Resource resource = new ClassPathResource("jaxb2.xml", getClass());
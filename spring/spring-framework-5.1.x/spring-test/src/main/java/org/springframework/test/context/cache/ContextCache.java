@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -72,6 +72,19 @@ public interface ContextCache {
 	 */
 	String MAX_CONTEXT_CACHE_SIZE_PROPERTY_NAME = "spring.test.context.cache.maxSize";
 
+	/**
+	 * System property used to switch the {@link ContextCache} from plain
+	 * <em>least recently used</em> eviction to eviction weighted by the measured
+	 * load time and estimated heap footprint of each context: {@code "true"}.
+	 * May alternatively be configured via the
+	 * {@link org.springframework.core.SpringProperties} mechanism.
+	 * <p>Note that implementations of {@code ContextCache} are not required to
+	 * support weighted eviction. Consult the documentation of the corresponding
+	 * implementation for details.
+	 * @since 5.1.11
+	 */
+	String WEIGHTED_EVICTION_PROPERTY_NAME = "spring.test.context.cache.weightedEviction";
+
 
 	/**
 	 * Determine whether there is a cached context for the given key.
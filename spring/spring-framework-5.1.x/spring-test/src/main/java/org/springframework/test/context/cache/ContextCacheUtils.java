@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,11 @@
 
 package org.springframework.test.context.cache;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 import org.springframework.core.SpringProperties;
+import org.springframework.test.context.TestContextManager;
 import org.springframework.util.StringUtils;
 
 /**
@@ -51,4 +55,42 @@ public abstract class ContextCacheUtils {
 		return ContextCache.DEFAULT_MAX_CONTEXT_CACHE_SIZE;
 	}
 
+	/**
+	 * Determine whether the {@link ContextCache} should use weighted eviction.
+	 * <p>Uses {@link SpringProperties} to retrieve a system property or Spring
+	 * property named {@code spring.test.context.cache.weightedEviction}.
+	 * @return {@code true} if weighted eviction has been enabled
+	 * @since 5.1.11
+	 * @see ContextCache#WEIGHTED_EVICTION_PROPERTY_NAME
+	 */
+	public static boolean retrieveWeightedEviction() {
+		return SpringProperties.getFlag(ContextCache.WEIGHTED_EVICTION_PROPERTY_NAME);
+	}
+
+	/**
+	 * Load the application contexts for the given test classes in the background,
+	 * storing them in the context cache for the test classes to pick up once they
+	 * actually run.
+	 * <p>This is primarily intended for parallel test execution, e.g. invoked from
+	 * a custom runner or listener that knows about upcoming test classes. Each
+	 * context is loaded through the {@link TestContextManager} for the test class,
+	 * i.e. with the same bootstrapping and context caching that the test class
+	 * will use itself. Contexts for distinct configurations may be loaded in
+	 * parallel, whereas each configuration will only be loaded once.
+	 * @param executor the executor to load the contexts with
+	 * @param testClasses the test classes to load contexts for
+	 * @return a future that completes once all contexts have been loaded, or
+	 * completes exceptionally if loading any of the contexts has failed
+	 * @since 5.1.11
+	 */
+	public static CompletableFuture<Void> preloadContexts(Executor executor, Class<?>... testClasses) {
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[testClasses.length];
+		for (int i = 0; i < testClasses.length; i++) {
+			Class<?> testClass = testClasses[i];
+			futures[i] = CompletableFuture.runAsync(
+					() -> new TestContextManager(testClass).getTestContext().getApplicationContext(), executor);
+		}
+		return CompletableFuture.allOf(futures);
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,13 @@
 
 package org.springframework.test.context.cache;
 
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -27,6 +34,7 @@ import org.springframework.test.context.ContextLoader;
 import org.springframework.test.context.MergedContextConfiguration;
 import org.springframework.test.context.SmartContextLoader;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 /**
  * Default implementation of the {@link CacheAwareContextLoaderDelegate} interface.
@@ -36,6 +44,13 @@ import org.springframework.util.Assert;
  * invoke the {@link #DefaultCacheAwareContextLoaderDelegate(ContextCache)}
  * and provide a custom {@link ContextCache} implementation.
  *
+ * <p>As of 5.1.11, contexts are loaded outside of the lock on the context cache:
+ * concurrent requests for the same context still result in a single load (also
+ * across delegate instances sharing the same {@link ContextCache}), while
+ * distinct contexts may be loaded in parallel, e.g. with parallel test execution
+ * or through {@link #loadContextAsync}. The load time and an estimate of the heap
+ * footprint of each loaded context are passed on to a {@link DefaultContextCache}.
+ *
  * @author Sam Brannen
  * @since 4.1
  */
@@ -48,8 +63,18 @@ public class DefaultCacheAwareContextLoaderDelegate implements CacheAwareContext
 	 */
 	static final ContextCache defaultContextCache = new DefaultContextCache();
 
+	/**
+	 * Monitors for contexts currently being loaded, per context cache:
+	 * a new delegate is created for each test class, typically sharing
+	 * the static default cache with all other delegates.
+	 */
+	private static final Map<ContextCache, ConcurrentMap<MergedContextConfiguration, Object>> loadingMonitorsPerCache =
+			new ConcurrentReferenceHashMap<>(4, ConcurrentReferenceHashMap.ReferenceType.WEAK);
+
 	private final ContextCache contextCache;
 
+	private final ConcurrentMap<MergedContextConfiguration, Object> loadingMonitors;
+
 
 	/**
 	 * Construct a new {@code DefaultCacheAwareContextLoaderDelegate} using
@@ -71,6 +96,7 @@ public class DefaultCacheAwareContextLoaderDelegate implements CacheAwareContext
 	public DefaultCacheAwareContextLoaderDelegate(ContextCache contextCache) {
 		Assert.notNull(contextCache, "ContextCache must not be null");
 		this.contextCache = contextCache;
+		this.loadingMonitors = loadingMonitorsPerCache.computeIfAbsent(contextCache, cache -> new ConcurrentHashMap<>(16));
 	}
 
 	/**
@@ -110,32 +136,89 @@ public class DefaultCacheAwareContextLoaderDelegate implements CacheAwareContext
 
 	@Override
 	public ApplicationContext loadContext(MergedContextConfiguration mergedContextConfiguration) {
+		ApplicationContext context;
 		synchronized (this.contextCache) {
-			ApplicationContext context = this.contextCache.get(mergedContextConfiguration);
-			if (context == null) {
+			context = this.contextCache.get(mergedContextConfiguration);
+		}
+		if (context == null) {
+			Object monitor = this.loadingMonitors.computeIfAbsent(mergedContextConfiguration, key -> new Object());
+			synchronized (monitor) {
 				try {
-					context = loadContextInternal(mergedContextConfiguration);
-					if (logger.isDebugEnabled()) {
-						logger.debug(String.format("Storing ApplicationContext in cache under key [%s]",
-								mergedContextConfiguration));
+					synchronized (this.contextCache) {
+						// Loaded by another thread in the meantime?
+						if (this.contextCache.contains(mergedContextConfiguration)) {
+							context = this.contextCache.get(mergedContextConfiguration);
+						}
+					}
+					if (context == null) {
+						context = loadAndStoreContext(mergedContextConfiguration);
 					}
-					this.contextCache.put(mergedContextConfiguration, context);
 				}
-				catch (Exception ex) {
-					throw new IllegalStateException("Failed to load ApplicationContext", ex);
+				finally {
+					this.loadingMonitors.remove(mergedContextConfiguration, monitor);
 				}
 			}
-			else {
-				if (logger.isDebugEnabled()) {
-					logger.debug(String.format("Retrieved ApplicationContext from cache with key [%s]",
-							mergedContextConfiguration));
-				}
+		}
+		else {
+			if (logger.isDebugEnabled()) {
+				logger.debug(String.format("Retrieved ApplicationContext from cache with key [%s]",
+						mergedContextConfiguration));
 			}
+		}
 
+		synchronized (this.contextCache) {
 			this.contextCache.logStatistics();
+		}
 
-			return context;
+		return context;
+	}
+
+	/**
+	 * Load the {@code ApplicationContext} for the supplied merged context configuration
+	 * asynchronously, storing it in the context cache once loaded.
+	 * <p>This allows for pre-loading contexts for upcoming tests in the background.
+	 * @param mergedContextConfiguration the merged context configuration to use
+	 * to load the application context
+	 * @param executor the executor to load the context with
+	 * @return a future for the application context
+	 * @since 5.1.11
+	 * @see #loadContext(MergedContextConfiguration)
+	 */
+	public CompletableFuture<ApplicationContext> loadContextAsync(
+			MergedContextConfiguration mergedContextConfiguration, Executor executor) {
+
+		return CompletableFuture.supplyAsync(() -> loadContext(mergedContextConfiguration), executor);
+	}
+
+	private ApplicationContext loadAndStoreContext(MergedContextConfiguration mergedContextConfiguration) {
+		ApplicationContext context;
+		Runtime runtime = Runtime.getRuntime();
+		long usedMemory = runtime.totalMemory() - runtime.freeMemory();
+		long startTime = System.nanoTime();
+		try {
+			context = loadContextInternal(mergedContextConfiguration);
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException("Failed to load ApplicationContext", ex);
+		}
+		Duration loadTime = Duration.ofNanos(System.nanoTime() - startTime);
+		// Rough estimate only: concurrent allocations and garbage collection distort it
+		long estimatedFootprint = Math.max(runtime.totalMemory() - runtime.freeMemory() - usedMemory, -1);
+
+		if (logger.isDebugEnabled()) {
+			logger.debug(String.format("Storing ApplicationContext in cache under key [%s] (loaded in %d ms)",
+					mergedContextConfiguration, loadTime.toMillis()));
+		}
+		synchronized (this.contextCache) {
+			if (this.contextCache instanceof DefaultContextCache) {
+				((DefaultContextCache) this.contextCache).put(
+						mergedContextConfiguration, context, loadTime, estimatedFootprint);
+			}
+			else {
+				this.contextCache.put(mergedContextConfiguration, context);
+			}
 		}
+		return context;
 	}
 
 	@Override
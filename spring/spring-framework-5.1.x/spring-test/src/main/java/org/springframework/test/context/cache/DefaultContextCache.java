@@ -16,6 +16,7 @@
 
 package org.springframework.test.context.cache;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -25,6 +26,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -48,10 +50,21 @@ import org.springframework.util.Assert;
  * constructor argument} or set via a system property or Spring property named
  * {@code spring.test.context.cache.maxSize}.
  *
+ * <p>As of 5.1.11, statistics are additionally tracked per context key, including
+ * the time it took to load each context and a rough estimate of its heap footprint
+ * (if {@linkplain #put(MergedContextConfiguration, ApplicationContext, Duration, long)
+ * provided} by the loader). With {@linkplain #DefaultContextCache(int, boolean)
+ * weighted eviction} enabled, the cache evicts the context that is cheapest to
+ * reload relative to its footprint among the least recently used entries, rather
+ * than strictly the least recently used one. Weighted eviction may also be
+ * enabled via a system property or Spring property named
+ * {@code spring.test.context.cache.weightedEviction}.
+ *
  * @author Sam Brannen
  * @author Juergen Hoeller
  * @since 2.5
  * @see ContextCacheUtils#retrieveMaxCacheSize()
+ * @see ContextCacheUtils#retrieveWeightedEviction()
  */
 public class DefaultContextCache implements ContextCache {
 
@@ -72,8 +85,16 @@ public class DefaultContextCache implements ContextCache {
 	private final Map<MergedContextConfiguration, Set<MergedContextConfiguration>> hierarchyMap =
 			new ConcurrentHashMap<>(32);
 
+	/**
+	 * Map of context keys to statistics for the corresponding contexts.
+	 */
+	private final Map<MergedContextConfiguration, ContextStatistics> statisticsMap =
+			new ConcurrentHashMap<>(32);
+
 	private final int maxSize;
 
+	private final boolean weightedEviction;
+
 	private final AtomicInteger hitCount = new AtomicInteger();
 
 	private final AtomicInteger missCount = new AtomicInteger();
@@ -81,13 +102,15 @@ public class DefaultContextCache implements ContextCache {
 
 	/**
 	 * Create a new {@code DefaultContextCache} using the maximum cache size
-	 * obtained via {@link ContextCacheUtils#retrieveMaxCacheSize()}.
+	 * obtained via {@link ContextCacheUtils#retrieveMaxCacheSize()} and the
+	 * eviction policy obtained via {@link ContextCacheUtils#retrieveWeightedEviction()}.
 	 * @since 4.3
-	 * @see #DefaultContextCache(int)
+	 * @see #DefaultContextCache(int, boolean)
 	 * @see ContextCacheUtils#retrieveMaxCacheSize()
+	 * @see ContextCacheUtils#retrieveWeightedEviction()
 	 */
 	public DefaultContextCache() {
-		this(ContextCacheUtils.retrieveMaxCacheSize());
+		this(ContextCacheUtils.retrieveMaxCacheSize(), ContextCacheUtils.retrieveWeightedEviction());
 	}
 
 	/**
@@ -100,8 +123,26 @@ public class DefaultContextCache implements ContextCache {
 	 * @see #DefaultContextCache()
 	 */
 	public DefaultContextCache(int maxSize) {
+		this(maxSize, false);
+	}
+
+	/**
+	 * Create a new {@code DefaultContextCache} using the supplied maximum
+	 * cache size and eviction policy.
+	 * @param maxSize the maximum cache size
+	 * @param weightedEviction whether to evict the least valuable context among
+	 * the least recently used quarter of the cache, weighing its load time against
+	 * its estimated heap footprint ({@code true}), or strictly the least recently
+	 * used context ({@code false})
+	 * @throws IllegalArgumentException if the supplied {@code maxSize} value
+	 * is not positive
+	 * @since 5.1.11
+	 * @see #put(MergedContextConfiguration, ApplicationContext, Duration, long)
+	 */
+	public DefaultContextCache(int maxSize, boolean weightedEviction) {
 		Assert.isTrue(maxSize > 0, "'maxSize' must be positive");
 		this.maxSize = maxSize;
+		this.weightedEviction = weightedEviction;
 	}
 
 
@@ -127,6 +168,13 @@ public class DefaultContextCache implements ContextCache {
 		}
 		else {
 			this.hitCount.incrementAndGet();
+			// Only track statistics for contexts that are actually stored
+			ContextStatistics statistics = this.statisticsMap.computeIfAbsent(key, k -> new ContextStatistics());
+			statistics.hitCount.increment();
+			if (!this.contextMap.containsKey(key)) {
+				// Removed concurrently: drop the statistics again
+				this.statisticsMap.remove(key, statistics);
+			}
 		}
 		return context;
 	}
@@ -150,6 +198,31 @@ public class DefaultContextCache implements ContextCache {
 		}
 	}
 
+	/**
+	 * Explicitly add an {@code ApplicationContext} instance to the cache under
+	 * the given key, recording how long it took to load the context and how much
+	 * heap it occupies.
+	 * <p>The measurements are exposed through {@link #getContextStatistics} and
+	 * serve as input for weighted eviction, if enabled.
+	 * @param key the context key (never {@code null})
+	 * @param context the {@code ApplicationContext} instance (never {@code null})
+	 * @param loadTime the time it took to load the context
+	 * @param estimatedFootprint the estimated heap footprint of the context in bytes,
+	 * or {@code -1} if unknown
+	 * @since 5.1.11
+	 * @see #put(MergedContextConfiguration, ApplicationContext)
+	 */
+	public void put(MergedContextConfiguration key, ApplicationContext context,
+			Duration loadTime, long estimatedFootprint) {
+
+		Assert.notNull(loadTime, "Load time must not be null");
+		ContextStatistics statistics = this.statisticsMap.computeIfAbsent(key, k -> new ContextStatistics());
+		statistics.loadCount.increment();
+		statistics.loadTime = loadTime;
+		statistics.estimatedFootprint = estimatedFootprint;
+		put(key, context);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -203,6 +276,7 @@ public class DefaultContextCache implements ContextCache {
 		// Physically remove and close leaf nodes first (i.e., on the way back up the
 		// stack as opposed to prior to the recursive call).
 		ApplicationContext context = this.contextMap.remove(key);
+		this.statisticsMap.remove(key);
 		if (context instanceof ConfigurableApplicationContext) {
 			((ConfigurableApplicationContext) context).close();
 		}
@@ -224,6 +298,15 @@ public class DefaultContextCache implements ContextCache {
 		return this.maxSize;
 	}
 
+	/**
+	 * Return whether this cache uses weighted eviction.
+	 * @since 5.1.11
+	 * @see #DefaultContextCache(int, boolean)
+	 */
+	public boolean isWeightedEviction() {
+		return this.weightedEviction;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -248,6 +331,28 @@ public class DefaultContextCache implements ContextCache {
 		return this.missCount.get();
 	}
 
+	/**
+	 * Get the statistics for all contexts currently stored in this cache,
+	 * as recorded since the statistics were last cleared. Statistics for a
+	 * context are discarded once the context is removed from the cache.
+	 * @since 5.1.11
+	 * @see #clearStatistics()
+	 */
+	public Map<MergedContextConfiguration, ContextStatistics> getContextStatistics() {
+		return Collections.unmodifiableMap(this.statisticsMap);
+	}
+
+	/**
+	 * Get the statistics for the given context key, if any.
+	 * @param key the context key (never {@code null})
+	 * @since 5.1.11
+	 */
+	@Nullable
+	public ContextStatistics getContextStatistics(MergedContextConfiguration key) {
+		Assert.notNull(key, "Key must not be null");
+		return this.statisticsMap.get(key);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -267,6 +372,7 @@ public class DefaultContextCache implements ContextCache {
 		synchronized (this.contextMap) {
 			this.contextMap.clear();
 			this.hierarchyMap.clear();
+			this.statisticsMap.clear();
 		}
 	}
 
@@ -278,6 +384,7 @@ public class DefaultContextCache implements ContextCache {
 		synchronized (this.contextMap) {
 			this.hitCount.set(0);
 			this.missCount.set(0);
+			this.statisticsMap.clear();
 		}
 	}
 
@@ -289,6 +396,10 @@ public class DefaultContextCache implements ContextCache {
 		if (statsLogger.isDebugEnabled()) {
 			statsLogger.debug("Spring test ApplicationContext cache statistics: " + this);
 		}
+		if (statsLogger.isTraceEnabled()) {
+			this.statisticsMap.forEach((key, statistics) ->
+					statsLogger.trace("Spring test ApplicationContext statistics " + statistics + " for key " + key));
+		}
 	}
 
 	/**
@@ -303,6 +414,7 @@ public class DefaultContextCache implements ContextCache {
 		return new ToStringCreator(this)
 				.append("size", size())
 				.append("maxSize", getMaxSize())
+				.append("weightedEviction", isWeightedEviction())
 				.append("parentContextCount", getParentContextCount())
 				.append("hitCount", getHitCount())
 				.append("missCount", getMissCount())
@@ -310,6 +422,97 @@ public class DefaultContextCache implements ContextCache {
 	}
 
 
+	/**
+	 * Determine the key of the context to evict from the given cache, which
+	 * is expected to be ordered from least to most recently used.
+	 * <p>Considers the least recently used quarter of the cache (at least one
+	 * entry) and picks the context with the lowest load time per byte of heap
+	 * footprint, i.e. the one that is cheapest to reload relative to the memory
+	 * that evicting it frees up. Contexts without a recorded load time or with
+	 * an unknown footprint come first, and ties are resolved in favor of the
+	 * least recently used context.
+	 */
+	private MergedContextConfiguration determineWeightedEvictionKey(
+			Map<MergedContextConfiguration, ApplicationContext> cache) {
+
+		int window = Math.max(cache.size() / 4, 1);
+		MergedContextConfiguration evictionKey = null;
+		double lowestScore = Double.MAX_VALUE;
+		for (MergedContextConfiguration key : cache.keySet()) {
+			ContextStatistics statistics = this.statisticsMap.get(key);
+			Duration loadTime = (statistics != null ? statistics.loadTime : null);
+			double score = (loadTime != null && statistics.estimatedFootprint > 0 ?
+					(double) loadTime.toNanos() / statistics.estimatedFootprint : 0);
+			if (evictionKey == null || score < lowestScore) {
+				evictionKey = key;
+				lowestScore = score;
+			}
+			if (--window == 0) {
+				break;
+			}
+		}
+		return evictionKey;
+	}
+
+
+	/**
+	 * Statistics for a specific context key.
+	 * @since 5.1.11
+	 * @see #getContextStatistics()
+	 */
+	public static final class ContextStatistics {
+
+		private final LongAdder hitCount = new LongAdder();
+
+		private final LongAdder loadCount = new LongAdder();
+
+		@Nullable
+		private volatile Duration loadTime;
+
+		private volatile long estimatedFootprint = -1;
+
+		ContextStatistics() {
+		}
+
+		/**
+		 * Return the number of times the context was retrieved from the cache.
+		 */
+		public long getHitCount() {
+			return this.hitCount.sum();
+		}
+
+		/**
+		 * Return the number of times the context has been loaded.
+		 */
+		public long getLoadCount() {
+			return this.loadCount.sum();
+		}
+
+		/**
+		 * Return the time it took to load the context most recently,
+		 * or {@code null} if not measured.
+		 */
+		@Nullable
+		public Duration getLoadTime() {
+			return this.loadTime;
+		}
+
+		/**
+		 * Return the estimated heap footprint of the most recently loaded
+		 * context in bytes, or {@code -1} if unknown.
+		 */
+		public long getEstimatedFootprint() {
+			return this.estimatedFootprint;
+		}
+
+		@Override
+		public String toString() {
+			return "[hitCount = " + getHitCount() + ", loadCount = " + getLoadCount() +
+					", loadTime = " + getLoadTime() + ", estimatedFootprint = " + getEstimatedFootprint() + "]";
+		}
+	}
+
+
 	/**
 	 * Simple cache implementation based on {@link LinkedHashMap} with a maximum
 	 * size and a <em>least recently used</em> (LRU) eviction policy that
@@ -332,9 +535,11 @@ public class DefaultContextCache implements ContextCache {
 		@Override
 		protected boolean removeEldestEntry(Map.Entry<MergedContextConfiguration, ApplicationContext> eldest) {
 			if (this.size() > DefaultContextCache.this.getMaxSize()) {
+				MergedContextConfiguration evictionKey = (DefaultContextCache.this.weightedEviction ?
+						determineWeightedEvictionKey(this) : eldest.getKey());
 				// Do NOT delete "DefaultContextCache.this."; otherwise, we accidentally
 				// invoke java.util.Map.remove(Object, Object).
-				DefaultContextCache.this.remove(eldest.getKey(), HierarchyMode.CURRENT_LEVEL);
+				DefaultContextCache.this.remove(evictionKey, HierarchyMode.CURRENT_LEVEL);
 			}
 
 			// Return false since we invoke a custom eviction algorithm.
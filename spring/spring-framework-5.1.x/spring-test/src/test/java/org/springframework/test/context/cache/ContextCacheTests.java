@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,10 @@
 
 package org.springframework.test.context.cache;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -29,6 +33,7 @@ import org.springframework.test.context.ContextHierarchy;
 import org.springframework.test.context.MergedContextConfiguration;
 import org.springframework.test.context.TestContext;
 import org.springframework.test.context.TestContextTestUtils;
+import org.springframework.test.context.cache.DefaultContextCache.ContextStatistics;
 import org.springframework.test.context.support.AnnotationConfigContextLoader;
 import org.springframework.test.util.ReflectionTestUtils;
 
@@ -285,6 +290,68 @@ public class ContextCacheTests {
 		assertParentContextCount(0);
 	}
 
+	@Test
+	public void recordsLoadStatisticsPerContext() {
+		loadCtxAndAssertStats(AnnotationConfigContextLoaderTestCase.class, 1, 0, 1);
+		loadCtxAndAssertStats(AnnotationConfigContextLoaderTestCase.class, 1, 1, 1);
+
+		MergedContextConfiguration key = getMergedContextConfiguration(
+				TestContextTestUtils.buildTestContext(AnnotationConfigContextLoaderTestCase.class, contextCache));
+		ContextStatistics statistics = ((DefaultContextCache) contextCache).getContextStatistics(key);
+		assertNotNull(statistics);
+		assertEquals(1, statistics.getHitCount());
+		assertEquals(1, statistics.getLoadCount());
+		assertNotNull(statistics.getLoadTime());
+	}
+
+	@Test
+	public void loadsContextOnlyOnceWhenRequestedConcurrently() throws Exception {
+		DefaultCacheAwareContextLoaderDelegate delegate = new DefaultCacheAwareContextLoaderDelegate(contextCache);
+		MergedContextConfiguration key = getMergedContextConfiguration(
+				TestContextTestUtils.buildTestContext(AnnotationConfigContextLoaderTestCase.class, delegate));
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			CompletableFuture<?>[] futures = new CompletableFuture<?>[8];
+			for (int i = 0; i < futures.length; i++) {
+				futures[i] = delegate.loadContextAsync(key, executor);
+			}
+			CompletableFuture.allOf(futures).get();
+			for (CompletableFuture<?> future : futures) {
+				assertSame(futures[0].get(), future.get());
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(1, contextCache.size());
+		assertEquals(1, ((DefaultContextCache) contextCache).getContextStatistics(key).getLoadCount());
+	}
+
+	@Test
+	public void loadsContextOnlyOnceWhenRequestedConcurrentlyThroughSeparateDelegates() throws Exception {
+		MergedContextConfiguration key = getMergedContextConfiguration(
+				TestContextTestUtils.buildTestContext(AnnotationConfigContextLoaderTestCase.class, contextCache));
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			// One delegate per test class, as created by the TestContext bootstrapper
+			CompletableFuture<?>[] futures = new CompletableFuture<?>[8];
+			for (int i = 0; i < futures.length; i++) {
+				futures[i] = new DefaultCacheAwareContextLoaderDelegate(contextCache).loadContextAsync(key, executor);
+			}
+			CompletableFuture.allOf(futures).get();
+			for (CompletableFuture<?> future : futures) {
+				assertSame(futures[0].get(), future.get());
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(1, contextCache.size());
+		assertEquals(1, ((DefaultContextCache) contextCache).getContextStatistics(key).getLoadCount());
+	}
+
 
 	@Configuration
 	static class Config {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -39,6 +39,8 @@ public class ContextCacheUtilsTests {
 	public void clearProperties() {
 		System.clearProperty(MAX_CONTEXT_CACHE_SIZE_PROPERTY_NAME);
 		SpringProperties.setProperty(MAX_CONTEXT_CACHE_SIZE_PROPERTY_NAME, null);
+		System.clearProperty(WEIGHTED_EVICTION_PROPERTY_NAME);
+		SpringProperties.setProperty(WEIGHTED_EVICTION_PROPERTY_NAME, null);
 	}
 
 	@Test
@@ -82,6 +84,23 @@ public class ContextCacheUtilsTests {
 		assertEquals(99, retrieveMaxCacheSize());
 	}
 
+	@Test
+	public void retrieveWeightedEvictionFromDefault() {
+		assertFalse(retrieveWeightedEviction());
+	}
+
+	@Test
+	public void retrieveWeightedEvictionFromSystemProperty() {
+		System.setProperty(WEIGHTED_EVICTION_PROPERTY_NAME, "true");
+		assertTrue(retrieveWeightedEviction());
+	}
+
+	@Test
+	public void retrieveWeightedEvictionFromSpringProperty() {
+		SpringProperties.setFlag(WEIGHTED_EVICTION_PROPERTY_NAME);
+		assertTrue(retrieveWeightedEviction());
+	}
+
 	private static void assertDefaultValue() {
 		assertEquals(DEFAULT_MAX_CONTEXT_CACHE_SIZE, retrieveMaxCacheSize());
 	}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.test.context.cache;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
@@ -148,6 +149,103 @@ public class LruContextCacheTests {
 	}
 
 
+	@Test
+	public void weightedEvictionPrefersCheapContextsAmongLeastRecentlyUsed() {
+		DefaultContextCache cache = new DefaultContextCache(7, true);
+		assertTrue(cache.isWeightedEviction());
+
+		// Foo is expensive to reload, Bar is cheap: Bar gets evicted first
+		cache.put(fooConfig, fooContext, Duration.ofSeconds(10), 1000);
+		cache.put(barConfig, barContext, Duration.ofMillis(10), 1000);
+		cache.put(bazConfig, bazContext, Duration.ofMillis(1), 1000);
+		cache.put(config(String.class), mock(ConfigurableApplicationContext.class));
+		cache.put(config(Integer.class), mock(ConfigurableApplicationContext.class));
+		cache.put(config(Long.class), mock(ConfigurableApplicationContext.class));
+		cache.put(config(Short.class), mock(ConfigurableApplicationContext.class));
+		assertEquals(7, cache.size());
+
+		// Considers the two least recently used entries: Foo and Bar
+		cache.put(abcConfig, abcContext);
+		assertCacheContents(cache, "Foo", "Baz", "String", "Integer", "Long", "Short", "Abc");
+		verify(barContext, times(1)).close();
+		verify(fooContext, never()).close();
+		verify(bazContext, never()).close();
+	}
+
+	@Test
+	public void weightedEvictionWithoutMeasurementsFallsBackToLru() {
+		DefaultContextCache cache = new DefaultContextCache(2, true);
+
+		cache.put(fooConfig, fooContext);
+		cache.put(barConfig, barContext);
+		cache.put(bazConfig, bazContext);
+		assertCacheContents(cache, "Bar", "Baz");
+		verify(fooContext, times(1)).close();
+	}
+
+	@Test
+	public void contextStatistics() {
+		DefaultContextCache cache = new DefaultContextCache(2);
+		assertNull(cache.get(fooConfig));
+		cache.put(fooConfig, fooContext, Duration.ofMillis(42), 1024);
+		cache.get(fooConfig);
+		cache.get(fooConfig);
+
+		DefaultContextCache.ContextStatistics statistics = cache.getContextStatistics(fooConfig);
+		assertNotNull(statistics);
+		assertEquals(2, statistics.getHitCount());
+		assertEquals(1, statistics.getLoadCount());
+		assertEquals(Duration.ofMillis(42), statistics.getLoadTime());
+		assertEquals(1024, statistics.getEstimatedFootprint());
+		assertEquals(1, cache.getContextStatistics().size());
+
+		cache.clearStatistics();
+		assertNull(cache.getContextStatistics(fooConfig));
+		assertEquals(0, cache.getHitCount());
+	}
+
+	@Test
+	public void contextStatisticsOnlyForStoredContexts() {
+		DefaultContextCache cache = new DefaultContextCache(1);
+		for (int i = 0; i < 10; i++) {
+			assertNull(cache.get(config(Integer.class)));
+		}
+		assertEquals(10, cache.getMissCount());
+		assertTrue(cache.getContextStatistics().isEmpty());
+
+		cache.put(fooConfig, fooContext, Duration.ofMillis(42), 1024);
+		cache.get(fooConfig);
+		cache.put(barConfig, barContext, Duration.ofMillis(42), 1024);
+		assertNull(cache.getContextStatistics(fooConfig));
+		assertNotNull(cache.getContextStatistics(barConfig));
+		assertEquals(1, cache.getContextStatistics().size());
+
+		cache.remove(barConfig, null);
+		assertTrue(cache.getContextStatistics().isEmpty());
+
+		cache.put(bazConfig, bazContext, Duration.ofMillis(42), 1024);
+		cache.clear();
+		assertTrue(cache.getContextStatistics().isEmpty());
+	}
+
+	@Test
+	public void weightedEvictionPrefersContextsWithUnknownFootprint() {
+		DefaultContextCache cache = new DefaultContextCache(4, true);
+
+		// Foo has an unknown footprint: evicted before the cheaper Bar
+		cache.put(fooConfig, fooContext, Duration.ofSeconds(10), -1);
+		cache.put(barConfig, barContext, Duration.ofMillis(1), 1000);
+		cache.put(bazConfig, bazContext, Duration.ofMillis(1), 1000);
+		cache.put(config(String.class), mock(ConfigurableApplicationContext.class));
+		assertEquals(4, cache.size());
+
+		cache.put(abcConfig, abcContext);
+		assertCacheContents(cache, "Bar", "Baz", "String", "Abc");
+		verify(fooContext, times(1)).close();
+		verify(barContext, never()).close();
+	}
+
+
 	private static MergedContextConfiguration config(Class<?> clazz) {
 		return new MergedContextConfiguration(null, null, new Class<?>[] { clazz }, null, null);
 	}
@@ -414,6 +414,15 @@ public class HttpHeaders implements MultiValueMap<String, String>, Serializable
 
 	final MultiValueMap<String, String> headers;
 
+	@Nullable
+	private transient ParsedValue<List<MediaType>> parsedAccept;
+
+	@Nullable
+	private transient ParsedValue<MediaType> parsedContentType;
+
+	@Nullable
+	private transient ParsedValue<ZonedDateTime> parsedDate;
+
 
 	/**
 	 * Construct a new, empty instance of the {@code HttpHeaders} object.
@@ -450,7 +459,17 @@ public class HttpHeaders implements MultiValueMap<String, String>, Serializable
 	 * <p>Returns an empty list when the acceptable media types are unspecified.
 	 */
 	public List<MediaType> getAccept() {
-		return MediaType.parseMediaTypes(get(ACCEPT));
+		List<String> values = get(ACCEPT);
+		if (CollectionUtils.isEmpty(values)) {
+			return MediaType.parseMediaTypes(values);
+		}
+		ParsedValue<List<MediaType>> parsed = this.parsedAccept;
+		if (parsed == null || !parsed.source.equals(values)) {
+			parsed = new ParsedValue<>(new ArrayList<>(values), MediaType.parseMediaTypes(values));
+			this.parsedAccept = parsed;
+		}
+		// Mutable copy of the memoized list, as returned by parseMediaTypes
+		return new ArrayList<>(parsed.value);
 	}
 
 	/**
@@ -935,7 +954,15 @@ public class HttpHeaders implements MultiValueMap<String, String>, Serializable
 	@Nullable
 	public MediaType getContentType() {
 		String value = getFirst(CONTENT_TYPE);
-		return (StringUtils.hasLength(value) ? MediaType.parseMediaType(value) : null);
+		if (!StringUtils.hasLength(value)) {
+			return null;
+		}
+		ParsedValue<MediaType> parsed = this.parsedContentType;
+		if (parsed == null || !parsed.source.equals(value)) {
+			parsed = new ParsedValue<>(value, MediaType.parseMediaType(value));
+			this.parsedContentType = parsed;
+		}
+		return parsed.value;
 	}
 
 	/**
@@ -1429,9 +1456,15 @@ public class HttpHeaders implements MultiValueMap<String, String>, Serializable
 				headerValue = headerValue.substring(0, parametersIndex);
 			}
 
+			ParsedValue<ZonedDateTime> parsed = this.parsedDate;
+			if (parsed != null && parsed.source.equals(headerValue)) {
+				return parsed.value;
+			}
 			for (DateTimeFormatter dateFormatter : DATE_PARSERS) {
 				try {
-					return ZonedDateTime.parse(headerValue, dateFormatter);
+					ZonedDateTime dateTime = ZonedDateTime.parse(headerValue, dateFormatter);
+					this.parsedDate = new ParsedValue<>(headerValue, dateTime);
+					return dateTime;
 				}
 				catch (DateTimeParseException ex) {
 					// ignore
@@ -1748,4 +1781,21 @@ public class HttpHeaders implements MultiValueMap<String, String>, Serializable
 		return DATE_FORMATTER.format(time);
 	}
 
+
+	/**
+	 * Parsed representation of a header value, memoized for repeated access
+	 * as long as the raw header value remains the same.
+	 */
+	private static final class ParsedValue<T> {
+
+		final Object source;
+
+		final T value;
+
+		ParsedValue(Object source, T value) {
+			this.source = source;
+			this.value = value;
+		}
+	}
+
 }
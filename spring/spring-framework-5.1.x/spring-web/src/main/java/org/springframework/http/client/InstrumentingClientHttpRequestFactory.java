@@ -0,0 +1,366 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.lang.Nullable;
+
+/**
+ * Wrapper for a {@link ClientHttpRequestFactory} that records per-host
+ * metrics for all requests executed through it: request and error counts,
+ * latency until the response status and headers are available, as well as
+ * the number of exchanges in progress (i.e. executed but not closed yet).
+ *
+ * <p>Applicable to any of the request factory implementations in this package,
+ * e.g. for RestTemplate usage, preserving {@link StreamingHttpOutputMessage}
+ * support of the underlying requests. Since the active exchange count per host reflects
+ * the number of connections held at any point, its peak value indicates how close
+ * a connection pool with a per-route limit gets to saturation. Subclasses may
+ * override {@link #exchangeCompleted} for exporting measurements as they occur.
+ *
+ * @author agent (agent@local)
+ * @since 5.1.11
+ * @see #getHostMetrics()
+ */
+public class InstrumentingClientHttpRequestFactory extends AbstractClientHttpRequestFactoryWrapper {
+
+	private final ConcurrentMap<String, HostMetrics> hostMetrics = new ConcurrentHashMap<>(16);
+
+
+	/**
+	 * Create an {@code InstrumentingClientHttpRequestFactory} for the given request factory.
+	 * @param requestFactory the request factory to be wrapped
+	 */
+	public InstrumentingClientHttpRequestFactory(ClientHttpRequestFactory requestFactory) {
+		super(requestFactory);
+	}
+
+
+	@Override
+	protected ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod, ClientHttpRequestFactory requestFactory)
+			throws IOException {
+
+		ClientHttpRequest request = requestFactory.createRequest(uri, httpMethod);
+		return (request instanceof StreamingHttpOutputMessage ?
+				new StreamingInstrumentingClientHttpRequest(request) : new InstrumentingClientHttpRequest(request));
+	}
+
+	/**
+	 * Return the metrics for all hosts that requests have been executed against,
+	 * keyed by "host:port".
+	 */
+	public Map<String, HostMetrics> getHostMetrics() {
+		return Collections.unmodifiableMap(this.hostMetrics);
+	}
+
+	/**
+	 * Return the metrics for the host of the given URI, if any requests
+	 * have been executed against it.
+	 * @param uri a URI pointing to the host of interest
+	 */
+	@Nullable
+	public HostMetrics getHostMetrics(URI uri) {
+		return this.hostMetrics.get(getHostKey(uri));
+	}
+
+	/**
+	 * Determine the key under which to track metrics for the given URI.
+	 * <p>The default implementation returns "host:port", with the default
+	 * port for the URI's scheme if none specified.
+	 */
+	protected String getHostKey(URI uri) {
+		int port = uri.getPort();
+		if (port == -1) {
+			port = ("https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80);
+		}
+		return uri.getHost() + ":" + port;
+	}
+
+	/**
+	 * Template method called after each exchange, i.e. once the response has been
+	 * closed or the request has failed with an exception.
+	 * <p>The default implementation is empty. Can be overridden in subclasses,
+	 * e.g. for exporting measurements to an external monitoring system.
+	 * @param request the executed request
+	 * @param rawStatusCode the HTTP status code of the response,
+	 * or -1 if the request failed
+	 * @param latency the time until the response status and headers were available
+	 * @param duration the time until the response was closed
+	 * @param ex the exception that the request failed with, if any
+	 */
+	protected void exchangeCompleted(ClientHttpRequest request, int rawStatusCode,
+			Duration latency, Duration duration, @Nullable IOException ex) {
+	}
+
+
+	/**
+	 * Request decorator that measures the time spent in {@link #execute()}.
+	 */
+	private class InstrumentingClientHttpRequest implements ClientHttpRequest {
+
+		protected final ClientHttpRequest request;
+
+		public InstrumentingClientHttpRequest(ClientHttpRequest request) {
+			this.request = request;
+		}
+
+		@Override
+		public String getMethodValue() {
+			return this.request.getMethodValue();
+		}
+
+		@Override
+		public URI getURI() {
+			return this.request.getURI();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return this.request.getHeaders();
+		}
+
+		@Override
+		public OutputStream getBody() throws IOException {
+			return this.request.getBody();
+		}
+
+		@Override
+		public ClientHttpResponse execute() throws IOException {
+			HostMetrics metrics = hostMetrics.computeIfAbsent(getHostKey(getURI()), key -> new HostMetrics());
+			metrics.exchangeStarted();
+			long startTime = System.nanoTime();
+			ClientHttpResponse response;
+			try {
+				response = this.request.execute();
+			}
+			catch (IOException | RuntimeException ex) {
+				long elapsed = System.nanoTime() - startTime;
+				metrics.exchangeCompleted(elapsed, elapsed, false);
+				exchangeCompleted(this, -1, Duration.ofNanos(elapsed), Duration.ofNanos(elapsed),
+						(ex instanceof IOException ? (IOException) ex : null));
+				throw ex;
+			}
+			return new InstrumentingClientHttpResponse(this, response, metrics, startTime, System.nanoTime());
+		}
+	}
+
+
+	/**
+	 * Variant of {@link InstrumentingClientHttpRequest} for a streaming request,
+	 * exposing {@link StreamingHttpOutputMessage#setBody} as well.
+	 */
+	private class StreamingInstrumentingClientHttpRequest extends InstrumentingClientHttpRequest
+			implements StreamingHttpOutputMessage {
+
+		public StreamingInstrumentingClientHttpRequest(ClientHttpRequest request) {
+			super(request);
+		}
+
+		@Override
+		public void setBody(Body body) {
+			((StreamingHttpOutputMessage) this.request).setBody(body);
+		}
+	}
+
+
+	/**
+	 * Response decorator that completes the exchange metrics on {@link #close()}.
+	 */
+	private class InstrumentingClientHttpResponse implements ClientHttpResponse {
+
+		private final ClientHttpRequest request;
+
+		private final ClientHttpResponse response;
+
+		private final HostMetrics metrics;
+
+		private final long startTime;
+
+		private final long responseTime;
+
+		private final AtomicBoolean closed = new AtomicBoolean();
+
+		public InstrumentingClientHttpResponse(ClientHttpRequest request, ClientHttpResponse response,
+				HostMetrics metrics, long startTime, long responseTime) {
+
+			this.request = request;
+			this.response = response;
+			this.metrics = metrics;
+			this.startTime = startTime;
+			this.responseTime = responseTime;
+		}
+
+		@Override
+		public HttpStatus getStatusCode() throws IOException {
+			return this.response.getStatusCode();
+		}
+
+		@Override
+		public int getRawStatusCode() throws IOException {
+			return this.response.getRawStatusCode();
+		}
+
+		@Override
+		public String getStatusText() throws IOException {
+			return this.response.getStatusText();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return this.response.getHeaders();
+		}
+
+		@Override
+		public InputStream getBody() throws IOException {
+			return this.response.getBody();
+		}
+
+		@Override
+		public void close() {
+			if (this.closed.compareAndSet(false, true)) {
+				int statusCode;
+				try {
+					statusCode = this.response.getRawStatusCode();
+				}
+				catch (IOException ex) {
+					statusCode = -1;
+				}
+				this.response.close();
+				long latency = this.responseTime - this.startTime;
+				long duration = System.nanoTime() - this.startTime;
+				this.metrics.exchangeCompleted(latency, duration, statusCode >= 0 && statusCode < 500);
+				exchangeCompleted(this.request, statusCode, Duration.ofNanos(latency), Duration.ofNanos(duration), null);
+			}
+		}
+	}
+
+
+	/**
+	 * Metrics for all exchanges with a specific host.
+	 */
+	public static final class HostMetrics {
+
+		private final LongAdder requestCount = new LongAdder();
+
+		private final LongAdder errorCount = new LongAdder();
+
+		private final AtomicInteger activeCount = new AtomicInteger();
+
+		private final LongAccumulator peakActiveCount = new LongAccumulator(Math::max, 0);
+
+		private final LongAdder totalLatency = new LongAdder();
+
+		private final LongAccumulator maxLatency = new LongAccumulator(Math::max, 0);
+
+		private final LongAdder totalDuration = new LongAdder();
+
+		HostMetrics() {
+		}
+
+		void exchangeStarted() {
+			this.peakActiveCount.accumulate(this.activeCount.incrementAndGet());
+		}
+
+		void exchangeCompleted(long latency, long duration, boolean success) {
+			this.activeCount.decrementAndGet();
+			this.requestCount.increment();
+			if (!success) {
+				this.errorCount.increment();
+			}
+			this.totalLatency.add(latency);
+			this.maxLatency.accumulate(latency);
+			this.totalDuration.add(duration);
+		}
+
+		/**
+		 * Return the number of completed exchanges so far.
+		 */
+		public long getRequestCount() {
+			return this.requestCount.sum();
+		}
+
+		/**
+		 * Return the number of exchanges that failed with an exception
+		 * or a 5xx server error status.
+		 */
+		public long getErrorCount() {
+			return this.errorCount.sum();
+		}
+
+		/**
+		 * Return the number of exchanges currently in progress.
+		 */
+		public int getActiveCount() {
+			return this.activeCount.get();
+		}
+
+		/**
+		 * Return the highest number of exchanges in progress at the same time.
+		 */
+		public int getPeakActiveCount() {
+			return (int) this.peakActiveCount.get();
+		}
+
+		/**
+		 * Return the average time until response status and headers were available.
+		 */
+		public Duration getAverageLatency() {
+			long count = this.requestCount.sum();
+			return Duration.ofNanos(count > 0 ? this.totalLatency.sum() / count : 0);
+		}
+
+		/**
+		 * Return the maximum time until response status and headers were available.
+		 */
+		public Duration getMaxLatency() {
+			return Duration.ofNanos(this.maxLatency.get());
+		}
+
+		/**
+		 * Return the average time from request execution until the response was closed.
+		 */
+		public Duration getAverageDuration() {
+			long count = this.requestCount.sum();
+			return Duration.ofNanos(count > 0 ? this.totalDuration.sum() / count : 0);
+		}
+
+		@Override
+		public String toString() {
+			return "requests=" + getRequestCount() + ", errors=" + getErrorCount() +
+					", active=" + getActiveCount() + ", peakActive=" + getPeakActiveCount() +
+					", avgLatency=" + getAverageLatency() + ", maxLatency=" + getMaxLatency();
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.http.converter.xml;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -25,12 +27,16 @@ import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
 
 import org.springframework.http.converter.HttpMessageConversionException;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
 /**
  * Abstract base class for {@link org.springframework.http.converter.HttpMessageConverter HttpMessageConverters}
  * that use JAXB2. Creates {@link JAXBContext} object lazily.
  *
+ * <p>As of 5.1.11, JAXB marshallers and unmarshallers may optionally be kept in
+ * bounded per-class pools for reuse: see {@link #setPoolSize}.
+ *
  * @author Arjen Poutsma
  * @author Rossen Stoyanchev
  * @since 3.0
@@ -40,6 +46,40 @@ public abstract class AbstractJaxb2HttpMessageConverter<T> extends AbstractXmlHt
 
 	private final ConcurrentMap<Class<?>, JAXBContext> jaxbContexts = new ConcurrentHashMap<>(64);
 
+	private final ConcurrentMap<Class<?>, BlockingQueue<Marshaller>> marshallerPools = new ConcurrentHashMap<>(64);
+
+	private final ConcurrentMap<Class<?>, BlockingQueue<Unmarshaller>> unmarshallerPools = new ConcurrentHashMap<>(64);
+
+	private int poolSize = 0;
+
+
+	/**
+	 * Specify the maximum number of idle JAXB {@link Marshaller} and
+	 * {@link Unmarshaller} instances (each) to keep per class for reuse
+	 * across messages.
+	 * <p>Default is 0, creating and customizing a new JAXB marshaller or
+	 * unmarshaller for every message. Pooled instances are handed out to
+	 * one message at a time; instances beyond the specified number will
+	 * simply be discarded.
+	 * @since 5.1.11
+	 * @see #obtainMarshaller(Class)
+	 * @see #obtainUnmarshaller(Class)
+	 */
+	public void setPoolSize(int poolSize) {
+		this.poolSize = poolSize;
+		this.marshallerPools.clear();
+		this.unmarshallerPools.clear();
+	}
+
+	/**
+	 * Return the maximum number of idle JAXB marshallers and unmarshallers
+	 * to keep per class.
+	 * @since 5.1.11
+	 */
+	public int getPoolSize() {
+		return this.poolSize;
+	}
+
 
 	/**
 	 * Create a new {@link Marshaller} for the given class.
@@ -99,6 +139,74 @@ public abstract class AbstractJaxb2HttpMessageConverter<T> extends AbstractXmlHt
 	protected void customizeUnmarshaller(Unmarshaller unmarshaller) {
 	}
 
+	/**
+	 * Obtain a pooled {@link Marshaller} for the given class if available,
+	 * or {@link #createMarshaller(Class) create} a new one otherwise.
+	 * @param clazz the class to obtain the marshaller for
+	 * @return the {@code Marshaller}
+	 * @throws HttpMessageConversionException in case of JAXB errors
+	 * @since 5.1.11
+	 * @see #releaseMarshaller(Class, Marshaller)
+	 */
+	protected final Marshaller obtainMarshaller(Class<?> clazz) {
+		BlockingQueue<Marshaller> pool = this.marshallerPools.get(clazz);
+		Marshaller marshaller = (pool != null ? pool.poll() : null);
+		return (marshaller != null ? marshaller : createMarshaller(clazz));
+	}
+
+	/**
+	 * Return the given {@link Marshaller} to the pool for the given class
+	 * after successful use, unless pooling is disabled or the pool is full.
+	 * <p>The caller is responsible for resetting any per-message state
+	 * on the marshaller before returning it.
+	 * @param clazz the class that the marshaller was obtained for
+	 * @param marshaller the marshaller to return
+	 * @since 5.1.11
+	 */
+	protected final void releaseMarshaller(Class<?> clazz, Marshaller marshaller) {
+		BlockingQueue<Marshaller> pool = getPool(this.marshallerPools, clazz);
+		if (pool != null) {
+			pool.offer(marshaller);
+		}
+	}
+
+	/**
+	 * Obtain a pooled {@link Unmarshaller} for the given class if available,
+	 * or {@link #createUnmarshaller(Class) create} a new one otherwise.
+	 * @param clazz the class to obtain the unmarshaller for
+	 * @return the {@code Unmarshaller}
+	 * @throws HttpMessageConversionException in case of JAXB errors
+	 * @since 5.1.11
+	 * @see #releaseUnmarshaller(Class, Unmarshaller)
+	 */
+	protected final Unmarshaller obtainUnmarshaller(Class<?> clazz) {
+		BlockingQueue<Unmarshaller> pool = this.unmarshallerPools.get(clazz);
+		Unmarshaller unmarshaller = (pool != null ? pool.poll() : null);
+		return (unmarshaller != null ? unmarshaller : createUnmarshaller(clazz));
+	}
+
+	/**
+	 * Return the given {@link Unmarshaller} to the pool for the given class
+	 * after successful use, unless pooling is disabled or the pool is full.
+	 * @param clazz the class that the unmarshaller was obtained for
+	 * @param unmarshaller the unmarshaller to return
+	 * @since 5.1.11
+	 */
+	protected final void releaseUnmarshaller(Class<?> clazz, Unmarshaller unmarshaller) {
+		BlockingQueue<Unmarshaller> pool = getPool(this.unmarshallerPools, clazz);
+		if (pool != null) {
+			pool.offer(unmarshaller);
+		}
+	}
+
+	@Nullable
+	private <E> BlockingQueue<E> getPool(ConcurrentMap<Class<?>, BlockingQueue<E>> pools, Class<?> clazz) {
+		if (this.poolSize <= 0) {
+			return null;
+		}
+		return pools.computeIfAbsent(clazz, key -> new ArrayBlockingQueue<>(this.poolSize));
+	}
+
 	/**
 	 * Return a {@link JAXBContext} for the given class.
 	 * @param clazz the class to return the context for
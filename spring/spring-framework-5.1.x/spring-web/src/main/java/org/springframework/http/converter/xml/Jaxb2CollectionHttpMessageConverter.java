@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -148,7 +148,7 @@ public class Jaxb2CollectionHttpMessageConverter<T extends Collection>
 		Class<?> elementClass = (Class<?>) parameterizedType.getActualTypeArguments()[0];
 
 		try {
-			Unmarshaller unmarshaller = createUnmarshaller(elementClass);
+			Unmarshaller unmarshaller = obtainUnmarshaller(elementClass);
 			XMLStreamReader streamReader = this.inputFactory.createXMLStreamReader(inputMessage.getBody());
 			int event = moveToFirstChildOfRootElement(streamReader);
 
@@ -166,6 +166,7 @@ public class Jaxb2CollectionHttpMessageConverter<T extends Collection>
 				}
 				event = moveToNextElement(streamReader);
 			}
+			releaseUnmarshaller(elementClass, unmarshaller);
 			return result;
 		}
 		catch (XMLStreamException ex) {
@@ -125,14 +125,17 @@ public class Jaxb2RootElementHttpMessageConverter extends AbstractJaxb2HttpMessa
 	protected Object readFromSource(Class<?> clazz, HttpHeaders headers, Source source) throws Exception {
 		try {
 			source = processSource(source);
-			Unmarshaller unmarshaller = createUnmarshaller(clazz);
+			Unmarshaller unmarshaller = obtainUnmarshaller(clazz);
+			Object result;
 			if (clazz.isAnnotationPresent(XmlRootElement.class)) {
-				return unmarshaller.unmarshal(source);
+				result = unmarshaller.unmarshal(source);
 			}
 			else {
 				JAXBElement<?> jaxbElement = unmarshaller.unmarshal(source, clazz);
-				return jaxbElement.getValue();
+				result = jaxbElement.getValue();
 			}
+			releaseUnmarshaller(clazz, unmarshaller);
+			return result;
 		}
 		catch (NullPointerException ex) {
 			if (!isSupportDtd()) {
@@ -178,9 +181,15 @@ public class Jaxb2RootElementHttpMessageConverter extends AbstractJaxb2HttpMessa
 	protected void writeToResult(Object o, HttpHeaders headers, Result result) throws Exception {
 		try {
 			Class<?> clazz = ClassUtils.getUserClass(o);
-			Marshaller marshaller = createMarshaller(clazz);
+			Marshaller marshaller = obtainMarshaller(clazz);
+			Object encoding = (getPoolSize() > 0 ? marshaller.getProperty(Marshaller.JAXB_ENCODING) : null);
 			setCharset(headers.getContentType(), marshaller);
 			marshaller.marshal(o, result);
+			if (encoding != null) {
+				// Restore pre-configured encoding before handing the Marshaller back to the pool
+				marshaller.setProperty(Marshaller.JAXB_ENCODING, encoding);
+				releaseMarshaller(clazz, marshaller);
+			}
 		}
 		catch (MarshalException ex) {
 			throw ex;
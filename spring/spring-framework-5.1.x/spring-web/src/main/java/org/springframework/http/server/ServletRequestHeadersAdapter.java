@@ -0,0 +1,297 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.server;
+
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@code MultiValueMap} implementation for a live view on the headers of a
+ * {@link HttpServletRequest}, including the {@code Content-Type} and
+ * {@code Content-Length} headers as exposed through request properties.
+ *
+ * <p>Lookups for specific headers go to the Servlet request directly, so
+ * common accessors such as {@link HttpHeaders#getContentType()} do not need
+ * a copy of all headers. Bulk operations such as iteration work on a copy
+ * that is created on first demand, as do modifications: Servlet request
+ * headers are read-only, so any changes only apply to this adapter.
+ *
+ * @author agent (agent@local)
+ * @since 5.1.11
+ * @see ServletServerHttpRequest#getHeaders()
+ */
+class ServletRequestHeadersAdapter implements MultiValueMap<String, String> {
+
+	private final HttpServletRequest servletRequest;
+
+	@Nullable
+	private List<String> contentType;
+
+	@Nullable
+	private MultiValueMap<String, String> headers;
+
+
+	ServletRequestHeadersAdapter(HttpServletRequest servletRequest) {
+		this.servletRequest = servletRequest;
+	}
+
+
+	@Override
+	@Nullable
+	public String getFirst(String key) {
+		if (this.headers != null) {
+			return this.headers.getFirst(key);
+		}
+		List<String> values = getLiveValues(key);
+		return (values != null ? values.get(0) : null);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		if (this.headers != null) {
+			return this.headers.containsKey(key);
+		}
+		return (key instanceof String && getLiveValues((String) key) != null);
+	}
+
+	@Override
+	@Nullable
+	public List<String> get(Object key) {
+		if (this.headers != null) {
+			return this.headers.get(key);
+		}
+		return (key instanceof String ? getLiveValues((String) key) : null);
+	}
+
+	@Nullable
+	private List<String> getLiveValues(String key) {
+		if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(key)) {
+			List<String> contentType = this.contentType;
+			if (contentType == null) {
+				contentType = resolveContentType();
+				this.contentType = contentType;
+			}
+			return (!contentType.isEmpty() ? contentType : null);
+		}
+		Enumeration<String> values = this.servletRequest.getHeaders(key);
+		if (values != null && values.hasMoreElements()) {
+			return Collections.list(values);
+		}
+		if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(key)) {
+			int contentLength = this.servletRequest.getContentLength();
+			if (contentLength != -1) {
+				return Collections.singletonList(Integer.toString(contentLength));
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * HttpServletRequest exposes the content type as a property as well,
+	 * possibly with a separately specified character encoding: we should
+	 * take those into account if not already present in the header.
+	 */
+	private List<String> resolveContentType() {
+		List<String> headerValues = Collections.emptyList();
+		Enumeration<String> values = this.servletRequest.getHeaders(HttpHeaders.CONTENT_TYPE);
+		if (values != null && values.hasMoreElements()) {
+			headerValues = Collections.list(values);
+		}
+		try {
+			MediaType contentType = null;
+			boolean fromHeader = false;
+			if (!headerValues.isEmpty() && StringUtils.hasLength(headerValues.get(0))) {
+				contentType = MediaType.parseMediaType(headerValues.get(0));
+				fromHeader = true;
+			}
+			else {
+				String requestContentType = this.servletRequest.getContentType();
+				if (StringUtils.hasLength(requestContentType)) {
+					contentType = MediaType.parseMediaType(requestContentType);
+				}
+			}
+			if (contentType != null && contentType.getCharset() == null) {
+				String requestEncoding = this.servletRequest.getCharacterEncoding();
+				if (StringUtils.hasLength(requestEncoding)) {
+					Charset charSet = Charset.forName(requestEncoding);
+					Map<String, String> params = new LinkedCaseInsensitiveMap<>();
+					params.putAll(contentType.getParameters());
+					params.put("charset", charSet.toString());
+					contentType = new MediaType(contentType.getType(), contentType.getSubtype(), params);
+					fromHeader = false;
+				}
+			}
+			if (contentType != null && !fromHeader) {
+				return Collections.singletonList(contentType.toString());
+			}
+		}
+		catch (InvalidMediaTypeException ex) {
+			// Ignore: simply not exposing an invalid content type in HttpHeaders...
+		}
+		return headerValues;
+	}
+
+	/**
+	 * Return the copy of all headers, creating it on first access.
+	 * <p>Values are copied into mutable lists, as with {@link HttpHeaders#add}.
+	 */
+	private MultiValueMap<String, String> getHeaders() {
+		MultiValueMap<String, String> headers = this.headers;
+		if (headers == null) {
+			headers = CollectionUtils.toMultiValueMap(new LinkedCaseInsensitiveMap<>(8, Locale.ENGLISH));
+			for (Enumeration<?> names = this.servletRequest.getHeaderNames(); names.hasMoreElements();) {
+				String headerName = (String) names.nextElement();
+				List<String> values = getLiveValues(headerName);
+				if (values != null) {
+					headers.put(headerName, new LinkedList<>(values));
+				}
+			}
+			if (!headers.containsKey(HttpHeaders.CONTENT_TYPE)) {
+				List<String> contentType = getLiveValues(HttpHeaders.CONTENT_TYPE);
+				if (contentType != null) {
+					headers.put(HttpHeaders.CONTENT_TYPE, new LinkedList<>(contentType));
+				}
+			}
+			if (!headers.containsKey(HttpHeaders.CONTENT_LENGTH)) {
+				List<String> contentLength = getLiveValues(HttpHeaders.CONTENT_LENGTH);
+				if (contentLength != null) {
+					headers.put(HttpHeaders.CONTENT_LENGTH, new LinkedList<>(contentLength));
+				}
+			}
+			this.headers = headers;
+		}
+		return headers;
+	}
+
+
+	@Override
+	public void add(String key, @Nullable String value) {
+		getHeaders().add(key, value);
+	}
+
+	@Override
+	public void addAll(String key, List<? extends String> values) {
+		getHeaders().addAll(key, values);
+	}
+
+	@Override
+	public void addAll(MultiValueMap<String, String> values) {
+		getHeaders().addAll(values);
+	}
+
+	@Override
+	public void set(String key, @Nullable String value) {
+		getHeaders().set(key, value);
+	}
+
+	@Override
+	public void setAll(Map<String, String> values) {
+		getHeaders().setAll(values);
+	}
+
+	@Override
+	public Map<String, String> toSingleValueMap() {
+		return getHeaders().toSingleValueMap();
+	}
+
+	@Override
+	public int size() {
+		return getHeaders().size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return getHeaders().isEmpty();
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		return getHeaders().containsValue(value);
+	}
+
+	@Override
+	@Nullable
+	public List<String> put(String key, List<String> value) {
+		return getHeaders().put(key, value);
+	}
+
+	@Override
+	@Nullable
+	public List<String> remove(Object key) {
+		return getHeaders().remove(key);
+	}
+
+	@Override
+	public void putAll(Map<? extends String, ? extends List<String>> map) {
+		getHeaders().putAll(map);
+	}
+
+	@Override
+	public void clear() {
+		getHeaders().clear();
+	}
+
+	@Override
+	public Set<String> keySet() {
+		return getHeaders().keySet();
+	}
+
+	@Override
+	public Collection<List<String>> values() {
+		return getHeaders().values();
+	}
+
+	@Override
+	public Set<Entry<String, List<String>>> entrySet() {
+		return getHeaders().entrySet();
+	}
+
+
+	@Override
+	public boolean equals(Object other) {
+		return (this == other || getHeaders().equals(other));
+	}
+
+	@Override
+	public int hashCode() {
+		return getHeaders().hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return HttpHeaders.formatHeaders(this);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,15 +19,20 @@ package org.springframework.http.server.reactive;
 import java.net.URISyntaxException;
 import java.util.function.BiFunction;
 
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import org.apache.commons.logging.Log;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.netty.http.server.HttpServerRequest;
 import reactor.netty.http.server.HttpServerResponse;
 
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.core.io.buffer.TrackingDataBufferFactory;
 import org.springframework.http.HttpLogging;
 import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
 /**
@@ -44,6 +49,12 @@ public class ReactorHttpHandlerAdapter implements BiFunction<HttpServerRequest,
 
 	private final HttpHandler httpHandler;
 
+	@Nullable
+	private TrackingDataBufferFactory trackingBufferFactory;
+
+	@Nullable
+	private volatile NettyDataBufferFactory lastBufferFactory;
+
 
 	public ReactorHttpHandlerAdapter(HttpHandler httpHandler) {
 		Assert.notNull(httpHandler, "HttpHandler must not be null");
@@ -51,18 +62,88 @@ public class ReactorHttpHandlerAdapter implements BiFunction<HttpServerRequest,
 	}
 
 
+	/**
+	 * Track request body buffers as well as buffers allocated for the response
+	 * through the given {@link TrackingDataBufferFactory}, attributed to the
+	 * sources "request" and "response", respectively.
+	 * <p>The given factory serves as a template for the per-request factories
+	 * around the channel's allocator, collecting their statistics. By default,
+	 * buffers are not tracked.
+	 * @param trackingBufferFactory the factory to collect buffer statistics in
+	 * @since 5.1.11
+	 * @see TrackingDataBufferFactory#decorate
+	 */
+	public void setTrackingBufferFactory(@Nullable TrackingDataBufferFactory trackingBufferFactory) {
+		this.trackingBufferFactory = trackingBufferFactory;
+	}
+
+	/**
+	 * Return the factory to collect buffer statistics in, if any.
+	 * @since 5.1.11
+	 */
+	@Nullable
+	public TrackingDataBufferFactory getTrackingBufferFactory() {
+		return this.trackingBufferFactory;
+	}
+
+	/**
+	 * Return the amount of heap memory used by the allocator of the channel
+	 * that the most recent request was received on, typically the server's
+	 * pooled allocator shared by all channels.
+	 * @return the used heap memory in bytes, or -1 if no request has been
+	 * handled yet or if not exposed by the allocator
+	 * @since 5.1.11
+	 * @see NettyDataBufferFactory#getUsedHeapMemory()
+	 */
+	public long getUsedHeapMemory() {
+		NettyDataBufferFactory bufferFactory = this.lastBufferFactory;
+		return (bufferFactory != null ? bufferFactory.getUsedHeapMemory() : -1);
+	}
+
+	/**
+	 * Return the amount of direct memory used by the allocator of the channel
+	 * that the most recent request was received on, typically the server's
+	 * pooled allocator shared by all channels.
+	 * @return the used direct memory in bytes, or -1 if no request has been
+	 * handled yet or if not exposed by the allocator
+	 * @since 5.1.11
+	 * @see NettyDataBufferFactory#getUsedDirectMemory()
+	 */
+	public long getUsedDirectMemory() {
+		NettyDataBufferFactory bufferFactory = this.lastBufferFactory;
+		return (bufferFactory != null ? bufferFactory.getUsedDirectMemory() : -1);
+	}
+
+
 	@Override
 	public Mono<Void> apply(HttpServerRequest reactorRequest, HttpServerResponse reactorResponse) {
-		NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(reactorResponse.alloc());
+		NettyDataBufferFactory bufferFactory = getBufferFactory(reactorResponse.alloc());
 		try {
 			ReactorServerHttpRequest request = new ReactorServerHttpRequest(reactorRequest, bufferFactory);
-			ServerHttpResponse response = new ReactorServerHttpResponse(reactorResponse, bufferFactory);
+			ServerHttpRequest handlerRequest = request;
+			ServerHttpResponse response;
+
+			TrackingDataBufferFactory trackingBufferFactory = this.trackingBufferFactory;
+			if (trackingBufferFactory != null) {
+				TrackingDataBufferFactory requestFactory = trackingBufferFactory.decorate(bufferFactory, "request");
+				handlerRequest = new ServerHttpRequestDecorator(request) {
+					@Override
+					public Flux<DataBuffer> getBody() {
+						return super.getBody().map(requestFactory::track);
+					}
+				};
+				response = new ReactorServerHttpResponse(reactorResponse,
+						trackingBufferFactory.decorate(bufferFactory, "response"));
+			}
+			else {
+				response = new ReactorServerHttpResponse(reactorResponse, bufferFactory);
+			}
 
 			if (request.getMethod() == HttpMethod.HEAD) {
 				response = new HttpHeadResponseDecorator(response);
 			}
 
-			return this.httpHandler.handle(request, response)
+			return this.httpHandler.handle(handlerRequest, response)
 					.doOnError(ex -> logger.trace(request.getLogPrefix() + "Failed to complete: " + ex.getMessage()))
 					.doOnSuccess(aVoid -> logger.trace(request.getLogPrefix() + "Handling completed"));
 		}
@@ -75,4 +156,13 @@ public class ReactorHttpHandlerAdapter implements BiFunction<HttpServerRequest,
 		}
 	}
 
+	private NettyDataBufferFactory getBufferFactory(ByteBufAllocator allocator) {
+		NettyDataBufferFactory bufferFactory = this.lastBufferFactory;
+		if (bufferFactory == null || bufferFactory.getByteBufAllocator() != allocator) {
+			bufferFactory = new NettyDataBufferFactory(allocator);
+			this.lastBufferFactory = bufferFactory;
+		}
+		return bufferFactory;
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,16 +18,21 @@ package org.springframework.web.filter;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.ServletOutputStream;
 import javax.servlet.ServletRequest;
+import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.DigestUtils;
 import org.springframework.web.util.ContentCachingResponseWrapper;
@@ -43,6 +48,11 @@ import org.springframework.web.util.WebUtils;
  * (e.g. a {@link org.springframework.web.servlet.View}) is still rendered.
  * As such, this filter only saves bandwidth, not server performance.
  *
+ * <p>By default, the entire response body is buffered in memory. For potentially
+ * large responses, consider specifying a {@link #setContentCacheLimit content cache
+ * limit}: the ETag is then computed incrementally while the body is being written,
+ * and responses exceeding the limit are streamed to the client without an ETag.
+ *
  * <p><b>NOTE:</b> As of Spring Framework 5.0, this filter uses request/response
  * decorators built on the Servlet 3.1 API.
  *
@@ -64,9 +74,15 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 	private static final String STREAMING_ATTRIBUTE = ShallowEtagHeaderFilter.class.getName() + ".STREAMING";
 
+	private static final char[] HEX_CHARS =
+			{'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+
 
 	private boolean writeWeakETag = false;
 
+	@Nullable
+	private Integer contentCacheLimit;
+
 
 	/**
 	 * Set whether the ETag value written to the response should be weak, as per RFC 7232.
@@ -87,6 +103,34 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		return this.writeWeakETag;
 	}
 
+	/**
+	 * Set the maximum number of response body bytes to buffer for ETag generation.
+	 * <p>Default is none, buffering the entire response body in memory. If a limit
+	 * is specified, the (MD5-based) ETag is computed incrementally as the content
+	 * is being written; once the body exceeds the limit, the buffered content is
+	 * sent to the client and the remainder is written through directly, with no
+	 * ETag being generated for such a response.
+	 * <p><b>NOTE:</b> In this mode, {@link #generateETagHeaderValue(InputStream, boolean)}
+	 * is not being called since the body content is not available as a whole.
+	 * Should be configured using an {@code <init-param>} for parameter name
+	 * "contentCacheLimit" in the filter definition in {@code web.xml}.
+	 * @since 5.1.11
+	 */
+	public void setContentCacheLimit(int contentCacheLimit) {
+		Assert.isTrue(contentCacheLimit >= 0, "Content cache limit must not be negative");
+		this.contentCacheLimit = contentCacheLimit;
+	}
+
+	/**
+	 * Return the maximum number of response body bytes to buffer for ETag
+	 * generation, or {@code null} if the entire body is buffered.
+	 * @since 5.1.11
+	 */
+	@Nullable
+	public Integer getContentCacheLimit() {
+		return this.contentCacheLimit;
+	}
+
 
 	/**
 	 * The default value is {@code false} so that the filter may delay the generation
@@ -103,7 +147,8 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 		HttpServletResponse responseToUse = response;
 		if (!isAsyncDispatch(request) && !(response instanceof ContentCachingResponseWrapper)) {
-			responseToUse = new HttpStreamingAwareContentCachingResponseWrapper(response, request);
+			responseToUse = new HttpStreamingAwareContentCachingResponseWrapper(
+					response, request, this.contentCacheLimit);
 		}
 
 		filterChain.doFilter(request, responseToUse);
@@ -120,11 +165,23 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		HttpServletResponse rawResponse = (HttpServletResponse) responseWrapper.getResponse();
 		int statusCode = responseWrapper.getStatusCode();
 
+		byte[] digest = null;
+		if (responseWrapper instanceof HttpStreamingAwareContentCachingResponseWrapper) {
+			HttpStreamingAwareContentCachingResponseWrapper streamingWrapper =
+					(HttpStreamingAwareContentCachingResponseWrapper) responseWrapper;
+			if (streamingWrapper.isContentCacheLimitExceeded()) {
+				responseWrapper.copyBodyToResponse();
+				return;
+			}
+			digest = streamingWrapper.getContentDigest();
+		}
+
 		if (rawResponse.isCommitted()) {
 			responseWrapper.copyBodyToResponse();
 		}
 		else if (isEligibleForEtag(request, responseWrapper, statusCode, responseWrapper.getContentInputStream())) {
-			String responseETag = generateETagHeaderValue(responseWrapper.getContentInputStream(), this.writeWeakETag);
+			String responseETag = (digest != null ? generateETagHeaderValue(digest, this.writeWeakETag) :
+					generateETagHeaderValue(responseWrapper.getContentInputStream(), this.writeWeakETag));
 			rawResponse.setHeader(HEADER_ETAG, responseETag);
 			String requestETag = request.getHeader(HEADER_IF_NONE_MATCH);
 			if (requestETag != null && ("*".equals(requestETag) || compareETagHeaderValue(requestETag, responseETag))) {
@@ -184,6 +241,24 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		return builder.toString();
 	}
 
+	/**
+	 * Generate the ETag header value from the given incrementally computed
+	 * MD5 digest, in the same format as {@link #generateETagHeaderValue(InputStream, boolean)}.
+	 */
+	private String generateETagHeaderValue(byte[] digest, boolean isWeak) {
+		StringBuilder builder = new StringBuilder(37);
+		if (isWeak) {
+			builder.append("W/");
+		}
+		builder.append("\"0");
+		for (byte b : digest) {
+			builder.append(HEX_CHARS[(b >>> 4) & 0xF]);
+			builder.append(HEX_CHARS[b & 0xF]);
+		}
+		builder.append('"');
+		return builder.toString();
+	}
+
 	private boolean compareETagHeaderValue(String requestETag, String responseETag) {
 		if (requestETag.startsWith("W/")) {
 			requestETag = requestETag.substring(2);
@@ -216,24 +291,256 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 		private final HttpServletRequest request;
 
-		public HttpStreamingAwareContentCachingResponseWrapper(HttpServletResponse response, HttpServletRequest request) {
+		@Nullable
+		private final Integer contentCacheLimit;
+
+		@Nullable
+		private MessageDigest digest;
+
+		private boolean contentCacheLimitExceeded;
+
+		@Nullable
+		private ServletOutputStream limitedOutputStream;
+
+		@Nullable
+		private PrintWriter limitedWriter;
+
+		public HttpStreamingAwareContentCachingResponseWrapper(HttpServletResponse response,
+				HttpServletRequest request, @Nullable Integer contentCacheLimit) {
+
 			super(response);
 			this.request = request;
+			this.contentCacheLimit = contentCacheLimit;
+			if (contentCacheLimit != null) {
+				try {
+					this.digest = MessageDigest.getInstance("MD5");
+				}
+				catch (NoSuchAlgorithmException ex) {
+					throw new IllegalStateException("Could not find MessageDigest with algorithm \"MD5\"", ex);
+				}
+			}
 		}
 
 		@Override
 		public ServletOutputStream getOutputStream() throws IOException {
-			return (useRawResponse() ? getResponse().getOutputStream() : super.getOutputStream());
+			if (useRawResponse()) {
+				return getResponse().getOutputStream();
+			}
+			if (this.contentCacheLimit == null) {
+				return super.getOutputStream();
+			}
+			if (this.limitedOutputStream == null) {
+				this.limitedOutputStream = new ContentCacheLimitOutputStream(
+						super.getOutputStream(), this.contentCacheLimit);
+			}
+			return this.limitedOutputStream;
 		}
 
 		@Override
 		public PrintWriter getWriter() throws IOException {
-			return (useRawResponse() ? getResponse().getWriter() : super.getWriter());
+			if (useRawResponse()) {
+				return getResponse().getWriter();
+			}
+			if (this.contentCacheLimit == null) {
+				return super.getWriter();
+			}
+			if (this.limitedWriter == null) {
+				String characterEncoding = getCharacterEncoding();
+				this.limitedWriter = new ContentCacheLimitPrintWriter(getOutputStream(),
+						(characterEncoding != null ? characterEncoding : WebUtils.DEFAULT_CHARACTER_ENCODING));
+			}
+			return this.limitedWriter;
+		}
+
+		@Override
+		public void setContentLength(int len) {
+			if (this.contentCacheLimit != null && len > this.contentCacheLimit) {
+				// Known to exceed the limit: do not pre-allocate a buffer for it
+				this.contentCacheLimitExceeded = true;
+				this.digest = null;
+				getResponse().setContentLength(len);
+			}
+			else {
+				super.setContentLength(len);
+			}
+		}
+
+		@Override
+		public void setContentLengthLong(long len) {
+			if (this.contentCacheLimit != null && len > this.contentCacheLimit) {
+				this.contentCacheLimitExceeded = true;
+				this.digest = null;
+				getResponse().setContentLengthLong(len);
+			}
+			else {
+				super.setContentLengthLong(len);
+			}
+		}
+
+		@Override
+		public void setBufferSize(int size) {
+			if (this.contentCacheLimit == null || size <= this.contentCacheLimit) {
+				super.setBufferSize(size);
+			}
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			if (this.contentCacheLimitExceeded) {
+				copyBodyToResponse(false);
+				getResponse().flushBuffer();
+			}
+		}
+
+		/**
+		 * Return whether the response body exceeded the content cache limit,
+		 * having been written through to the client without full buffering.
+		 */
+		public boolean isContentCacheLimitExceeded() {
+			return this.contentCacheLimitExceeded;
+		}
+
+		/**
+		 * Complete and return the MD5 digest of the body content, if computed
+		 * incrementally (i.e. in case of a content cache limit being specified).
+		 */
+		@Nullable
+		public byte[] getContentDigest() {
+			return (this.digest != null ? this.digest.digest() : null);
+		}
+
+		@Override
+		public void resetBuffer() {
+			super.resetBuffer();
+			if (this.digest != null) {
+				this.digest.reset();
+			}
+		}
+
+		@Override
+		public void reset() {
+			super.reset();
+			if (this.digest != null) {
+				this.digest.reset();
+			}
 		}
 
 		private boolean useRawResponse() {
 			return isContentCachingDisabled(this.request);
 		}
+
+
+		/**
+		 * Digests and caches content until the limit is exceeded,
+		 * then switches to writing to the raw response.
+		 */
+		private class ContentCacheLimitOutputStream extends ServletOutputStream {
+
+			private final ServletOutputStream cachingStream;
+
+			private final int limit;
+
+			public ContentCacheLimitOutputStream(ServletOutputStream cachingStream, int limit) {
+				this.cachingStream = cachingStream;
+				this.limit = limit;
+			}
+
+			@Override
+			public void write(int b) throws IOException {
+				if (checkLimit(1)) {
+					getResponse().getOutputStream().write(b);
+				}
+				else {
+					Assert.state(digest != null, "No MessageDigest");
+					digest.update((byte) b);
+					this.cachingStream.write(b);
+				}
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				if (checkLimit(len)) {
+					getResponse().getOutputStream().write(b, off, len);
+				}
+				else {
+					Assert.state(digest != null, "No MessageDigest");
+					digest.update(b, off, len);
+					this.cachingStream.write(b, off, len);
+				}
+			}
+
+			/**
+			 * Check whether writing the given number of bytes exceeds the limit,
+			 * sending the content cached so far to the raw response if so.
+			 * @return {@code true} if the content is to be written to the raw response
+			 */
+			private boolean checkLimit(int len) throws IOException {
+				if (!contentCacheLimitExceeded && getContentSize() + len > this.limit) {
+					contentCacheLimitExceeded = true;
+					digest = null;
+				}
+				if (contentCacheLimitExceeded) {
+					// Content cached before the switch (e.g. before a Content-Length
+					// beyond the limit was set) goes out ahead of any raw writes
+					copyBodyToResponse(false);
+				}
+				return contentCacheLimitExceeded;
+			}
+
+			@Override
+			public boolean isReady() {
+				try {
+					return (contentCacheLimitExceeded ?
+							getResponse().getOutputStream().isReady() : this.cachingStream.isReady());
+				}
+				catch (IOException ex) {
+					throw new IllegalStateException("Could not obtain response OutputStream", ex);
+				}
+			}
+
+			@Override
+			public void setWriteListener(WriteListener writeListener) {
+				if (contentCacheLimitExceeded) {
+					try {
+						getResponse().getOutputStream().setWriteListener(writeListener);
+					}
+					catch (IOException ex) {
+						throw new IllegalStateException("Could not obtain response OutputStream", ex);
+					}
+				}
+				else {
+					this.cachingStream.setWriteListener(writeListener);
+				}
+			}
+		}
+
+
+		private class ContentCacheLimitPrintWriter extends PrintWriter {
+
+			public ContentCacheLimitPrintWriter(ServletOutputStream outputStream, String characterEncoding)
+					throws IOException {
+
+				super(new OutputStreamWriter(outputStream, characterEncoding));
+			}
+
+			@Override
+			public void write(char[] buf, int off, int len) {
+				super.write(buf, off, len);
+				super.flush();
+			}
+
+			@Override
+			public void write(String s, int off, int len) {
+				super.write(s, off, len);
+				super.flush();
+			}
+
+			@Override
+			public void write(int c) {
+				super.write(c);
+				super.flush();
+			}
+		}
 	}
 
 }
@@ -17,10 +17,13 @@
 package org.springframework.web.method;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -28,17 +31,22 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.beans.factory.BeanFactory;
+import org.springframework.cglib.reflect.FastClass;
+import org.springframework.cglib.reflect.FastMethod;
 import org.springframework.core.BridgeMethodResolver;
 import org.springframework.core.GenericTypeResolver;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.ResolvableType;
+import org.springframework.core.SpringProperties;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.annotation.SynthesizingMethodParameter;
 import org.springframework.http.HttpStatus;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
@@ -61,6 +69,27 @@ import org.springframework.web.bind.annotation.ResponseStatus;
  */
 public class HandlerMethod {
 
+	/**
+	 * System property that instructs Spring to invoke handler methods through a
+	 * generated invoker class per controller class (a CGLIB {@link FastClass})
+	 * instead of through reflection: "spring.web.compileHandlerMethods", with a
+	 * value of "true" enabling generated invokers for handler methods created
+	 * from then on, i.e. typically at the time of request mapping registration.
+	 * <p>The default is "false", invoking handler methods reflectively. Methods
+	 * that cannot be invoked through a generated class (e.g. non-public methods or
+	 * classes) are still invoked reflectively, as are all methods when running
+	 * with a security manager.
+	 * @since 5.1.11
+	 * @see #invokeBridgedMethod
+	 */
+	public static final String COMPILE_INVOKERS_PROPERTY_NAME = "spring.web.compileHandlerMethods";
+
+	private static final Object NO_INVOKER = new Object();
+
+	/** Generated invokers (or a marker if not applicable) keyed by bridged method. */
+	private static final Map<Method, Object> invokerCache = new ConcurrentReferenceHashMap<>(256);
+
+
 	/** Logger that is available to subclasses. */
 	protected final Log logger = LogFactory.getLog(getClass());
 
@@ -89,6 +118,9 @@ public class HandlerMethod {
 	@Nullable
 	private volatile List<Annotation[][]> interfaceParameterAnnotations;
 
+	@Nullable
+	private final GeneratedInvoker invoker;
+
 
 	/**
 	 * Create an instance from a bean instance and a method.
@@ -102,6 +134,7 @@ public class HandlerMethod {
 		this.method = method;
 		this.bridgedMethod = BridgeMethodResolver.findBridgedMethod(method);
 		this.parameters = initMethodParameters();
+		this.invoker = initInvoker();
 		evaluateResponseStatus();
 	}
 
@@ -118,6 +151,7 @@ public class HandlerMethod {
 		this.method = bean.getClass().getMethod(methodName, parameterTypes);
 		this.bridgedMethod = BridgeMethodResolver.findBridgedMethod(this.method);
 		this.parameters = initMethodParameters();
+		this.invoker = initInvoker();
 		evaluateResponseStatus();
 	}
 
@@ -140,6 +174,7 @@ public class HandlerMethod {
 		this.method = method;
 		this.bridgedMethod = BridgeMethodResolver.findBridgedMethod(method);
 		this.parameters = initMethodParameters();
+		this.invoker = initInvoker();
 		evaluateResponseStatus();
 	}
 
@@ -154,6 +189,7 @@ public class HandlerMethod {
 		this.method = handlerMethod.method;
 		this.bridgedMethod = handlerMethod.bridgedMethod;
 		this.parameters = handlerMethod.parameters;
+		this.invoker = handlerMethod.invoker;
 		this.responseStatus = handlerMethod.responseStatus;
 		this.responseStatusReason = handlerMethod.responseStatusReason;
 		this.resolvedFromHandlerMethod = handlerMethod.resolvedFromHandlerMethod;
@@ -171,6 +207,7 @@ public class HandlerMethod {
 		this.method = handlerMethod.method;
 		this.bridgedMethod = handlerMethod.bridgedMethod;
 		this.parameters = handlerMethod.parameters;
+		this.invoker = handlerMethod.invoker;
 		this.responseStatus = handlerMethod.responseStatus;
 		this.responseStatusReason = handlerMethod.responseStatusReason;
 		this.resolvedFromHandlerMethod = handlerMethod;
@@ -187,6 +224,41 @@ public class HandlerMethod {
 		return result;
 	}
 
+	@Nullable
+	private GeneratedInvoker initInvoker() {
+		if (!SpringProperties.getFlag(COMPILE_INVOKERS_PROPERTY_NAME) || System.getSecurityManager() != null) {
+			return null;
+		}
+		Object invoker = invokerCache.get(this.bridgedMethod);
+		if (invoker == null) {
+			invoker = generateInvoker(this.bridgedMethod);
+			invokerCache.put(this.bridgedMethod, invoker);
+		}
+		return (invoker instanceof GeneratedInvoker ? (GeneratedInvoker) invoker : null);
+	}
+
+	private Object generateInvoker(Method method) {
+		Class<?> declaringClass = method.getDeclaringClass();
+		if (!Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(declaringClass.getModifiers()) ||
+				declaringClass.getClassLoader() == null) {
+			return NO_INVOKER;
+		}
+		try {
+			FastClass.Generator generator = new FastClass.Generator();
+			generator.setType(declaringClass);
+			generator.setClassLoader(declaringClass.getClassLoader());
+			FastMethod fastMethod = generator.create().getMethod(method);
+			return (fastMethod.getIndex() >= 0 ? new GeneratedInvoker(fastMethod) : NO_INVOKER);
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to generate invoker for " + method.toGenericString() +
+						" - falling back to reflective invocation", ex);
+			}
+			return NO_INVOKER;
+		}
+	}
+
 	private void evaluateResponseStatus() {
 		ResponseStatus annotation = getMethodAnnotation(ResponseStatus.class);
 		if (annotation == null) {
@@ -412,6 +484,32 @@ public class HandlerMethod {
 				param.getExecutable().toGenericString() + (StringUtils.hasText(message) ? ": " + message : "");
 	}
 
+	/**
+	 * Invoke the {@linkplain #getBridgedMethod() bridged method} on the given bean
+	 * with the given argument values, through a generated invoker if
+	 * {@linkplain #COMPILE_INVOKERS_PROPERTY_NAME enabled} and applicable,
+	 * or through reflection otherwise.
+	 * <p>Failures are reported as with {@link Method#invoke}, in particular with
+	 * an {@link IllegalArgumentException} for a target bean or argument values
+	 * not matching the method signature and an {@link InvocationTargetException}
+	 * for an exception thrown by the method itself.
+	 * @param bean the bean to invoke the method on
+	 * @param args the argument values
+	 * @return the value returned by the method, if any
+	 * @since 5.1.11
+	 */
+	@Nullable
+	protected Object invokeBridgedMethod(Object bean, Object... args)
+			throws IllegalAccessException, InvocationTargetException {
+
+		GeneratedInvoker invoker = this.invoker;
+		if (invoker != null && invoker.canInvoke(bean, args)) {
+			return invoker.invoke(bean, args);
+		}
+		ReflectionUtils.makeAccessible(this.bridgedMethod);
+		return this.bridgedMethod.invoke(bean, args);
+	}
+
 	/**
 	 * Assert that the target bean class is an instance of the class where the given
 	 * method is declared. In some cases the actual controller instance at request-
@@ -444,6 +542,43 @@ public class HandlerMethod {
 	}
 
 
+	/**
+	 * A generated invoker for a specific method.
+	 */
+	private static final class GeneratedInvoker {
+
+		private final FastMethod fastMethod;
+
+		private final Class<?> declaringClass;
+
+		private final Class<?>[] parameterTypes;
+
+		public GeneratedInvoker(FastMethod fastMethod) {
+			this.fastMethod = fastMethod;
+			this.declaringClass = fastMethod.getDeclaringClass();
+			this.parameterTypes = fastMethod.getParameterTypes();
+		}
+
+		public boolean canInvoke(Object bean, Object[] args) {
+			// Leave mismatches to reflective invocation, for its IllegalArgumentException
+			if (!this.declaringClass.isInstance(bean) || args.length != this.parameterTypes.length) {
+				return false;
+			}
+			for (int i = 0; i < args.length; i++) {
+				if (!ClassUtils.isAssignableValue(this.parameterTypes[i], args[i])) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Nullable
+		public Object invoke(Object bean, Object[] args) throws InvocationTargetException {
+			return this.fastMethod.invoke(bean, args);
+		}
+	}
+
+
 	/**
 	 * A MethodParameter with HandlerMethod-specific behavior.
 	 */
@@ -0,0 +1,330 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.DefaultUriBuilderFactory.EncodingMode;
+import org.springframework.web.util.HierarchicalUriComponents.Type;
+import org.springframework.web.util.UriComponents.UriTemplateVariables;
+
+/**
+ * Pre-parsed form of a URI template as prepared by {@link DefaultUriBuilderFactory},
+ * expanding URI variables straight into the URI string without re-parsing and
+ * re-encoding the template for every expansion.
+ *
+ * <p>The template is kept as a sequence of literal parts, encoded upfront as
+ * required by the {@link EncodingMode}, alternating with URI variables which
+ * are encoded according to the component they appear in. The result is the
+ * same as for {@link UriComponents#expand} followed by {@link UriComponents#toUriString()}.
+ *
+ * <p>Only templates with variables in the path, query parameter values and
+ * fragment are supported: see {@link #compile} for the precise rules.
+ *
+ * @author agent (agent@local)
+ * @since 5.1.11
+ * @see DefaultUriBuilderFactory#setUriTemplateCacheLimit
+ */
+final class CompiledUriTemplate {
+
+	private static final Pattern NAMES_PATTERN = Pattern.compile("\\{([^/]+?)\\}");
+
+
+	// Literal parts, one more than variable parts: literal[0], variable[0], literal[1], ...
+	private final String[] literals;
+
+	private final int[] variableIndexes;
+
+	// Variables in the order of expansion as performed by HierarchicalUriComponents
+	private final String[] variableNames;
+
+	private final boolean[] queryVariables;
+
+	@Nullable
+	private final Type[] variableTypes;
+
+
+	private CompiledUriTemplate(String[] literals, int[] variableIndexes, String[] variableNames,
+			boolean[] queryVariables, @Nullable Type[] variableTypes) {
+
+		this.literals = literals;
+		this.variableIndexes = variableIndexes;
+		this.variableNames = variableNames;
+		this.queryVariables = queryVariables;
+		this.variableTypes = variableTypes;
+	}
+
+
+	/**
+	 * Expand this template with the given variables.
+	 * @param uriVariables the URI variables, already encoded in case of
+	 * {@link EncodingMode#VALUES_ONLY}
+	 * @return the expanded URI
+	 */
+	public URI expand(Map<String, ?> uriVariables) {
+		return expand(new UriComponents.MapTemplateVariables(uriVariables));
+	}
+
+	/**
+	 * Expand this template with the given variable values.
+	 * @param uriVariableValues the URI variable values, already encoded in
+	 * case of {@link EncodingMode#VALUES_ONLY}
+	 * @return the expanded URI
+	 */
+	public URI expand(Object... uriVariableValues) {
+		return expand(new UriComponents.VarArgsTemplateVariables(uriVariableValues));
+	}
+
+	private URI expand(UriTemplateVariables uriVariables) {
+		String[] values = new String[this.variableNames.length];
+		int length = 0;
+		for (int i = 0; i < values.length; i++) {
+			Object value = uriVariables.getValue(this.variableNames[i]);
+			if (this.queryVariables[i] && ObjectUtils.isArray(value)) {
+				value = StringUtils.arrayToCommaDelimitedString(ObjectUtils.toObjectArray(value));
+			}
+			String formatted = (value != null ? value.toString() : "");
+			if (this.variableTypes != null) {
+				formatted = HierarchicalUriComponents.encodeUriComponent(
+						formatted, StandardCharsets.UTF_8, this.variableTypes[i]);
+			}
+			values[i] = formatted;
+			length += formatted.length();
+		}
+		StringBuilder uriString = new StringBuilder(length + 16 * this.literals.length);
+		uriString.append(this.literals[0]);
+		for (int i = 0; i < this.variableIndexes.length; i++) {
+			uriString.append(values[this.variableIndexes[i]]).append(this.literals[i + 1]);
+		}
+		return URI.create(uriString.toString());
+	}
+
+
+	/**
+	 * Compile the given URI template, as prepared for the given encoding mode.
+	 * <p>Templates are only supported if they are hierarchical, and contain
+	 * URI variables only in the path (not at its very start if preceded by a
+	 * host or scheme), in query parameter values and in the fragment, with no
+	 * regular expressions or nested braces in the variable declarations.
+	 * @param template the URI template to compile, with the template already
+	 * encoded in case of {@link EncodingMode#TEMPLATE_AND_VALUES} and with the
+	 * path already split into segments if requested for
+	 * {@link EncodingMode#URI_COMPONENT}
+	 * @param encodingMode the encoding mode to apply
+	 * @param pathSegments whether the path has been split into path segments
+	 * @return the compiled template, or {@code null} if not supported
+	 */
+	@Nullable
+	static CompiledUriTemplate compile(UriComponents template, EncodingMode encodingMode, boolean pathSegments) {
+		if (!(template instanceof HierarchicalUriComponents)) {
+			return null;
+		}
+		HierarchicalUriComponents uric = (HierarchicalUriComponents) template;
+		if (hasVariable(uric.getScheme()) || hasVariable(uric.getUserInfo()) || hasVariable(uric.getHost())) {
+			return null;
+		}
+		try {
+			uric.getPort();
+		}
+		catch (IllegalStateException | NumberFormatException ex) {
+			return null;
+		}
+
+		Compiler compiler = new Compiler(encodingMode);
+		UriComponents prefix = UriComponentsBuilder.newInstance().uriComponents(uric)
+				.replacePath(null).replaceQuery(null).fragment(null).build();
+		String prefixString = (compiler.encodeLiterals ? prefix.encode() : prefix).toUriString();
+
+		// Variables in order of expansion: fragment, path, query
+		String fragment = uric.getFragment();
+		List<Object> fragmentParts = null;
+		if (fragment != null) {
+			fragmentParts = compiler.parse(fragment, Type.FRAGMENT, Type.FRAGMENT, false);
+			if (fragmentParts == null) {
+				return null;
+			}
+		}
+
+		List<Object> parts = new ArrayList<>();
+		parts.add(prefixString);
+		String path = uric.getPath();
+		if (StringUtils.hasLength(path)) {
+			if (!prefixString.isEmpty() && path.charAt(0) != '/') {
+				if (path.charAt(0) == '{') {
+					// Path delimiter to be inserted only if the expanded path is not empty
+					return null;
+				}
+				parts.add("/");
+			}
+			List<Object> pathParts = compiler.parse(path, Type.PATH, (pathSegments ? Type.PATH_SEGMENT : Type.PATH), false);
+			if (pathParts == null) {
+				return null;
+			}
+			parts.addAll(pathParts);
+		}
+
+		MultiValueMap<String, String> queryParams = uric.getQueryParams();
+		if (!queryParams.isEmpty()) {
+			parts.add("?");
+			boolean first = true;
+			for (Map.Entry<String, List<String>> entry : queryParams.entrySet()) {
+				String name = entry.getKey();
+				if (!StringUtils.hasLength(name) || name.indexOf('{') != -1) {
+					// Expanded names may collide with other names: not supported
+					return null;
+				}
+				String encodedName = compiler.encode(name, Type.QUERY_PARAM);
+				List<String> values = entry.getValue();
+				if (CollectionUtils.isEmpty(values)) {
+					parts.add(first ? encodedName : "&" + encodedName);
+					first = false;
+					continue;
+				}
+				for (String value : values) {
+					parts.add(first ? encodedName : "&" + encodedName);
+					first = false;
+					if (value != null) {
+						parts.add("=");
+						List<Object> valueParts = compiler.parse(value, Type.QUERY_PARAM, Type.QUERY_PARAM, true);
+						if (valueParts == null) {
+							return null;
+						}
+						parts.addAll(valueParts);
+					}
+				}
+			}
+		}
+
+		if (fragmentParts != null) {
+			parts.add("#");
+			parts.addAll(fragmentParts);
+		}
+		return compiler.build(parts);
+	}
+
+	private static boolean hasVariable(@Nullable String component) {
+		return (component != null && component.indexOf('{') != -1);
+	}
+
+
+	/**
+	 * Collects the variables of a URI template, in order of expansion.
+	 */
+	private static class Compiler {
+
+		final boolean encodeLiterals;
+
+		@Nullable
+		private final Type variableType;
+
+		private final List<String> variableNames = new ArrayList<>();
+
+		private final List<Boolean> queryVariables = new ArrayList<>();
+
+		private final List<Type> variableTypes = new ArrayList<>();
+
+		Compiler(EncodingMode encodingMode) {
+			this.encodeLiterals = (encodingMode == EncodingMode.URI_COMPONENT);
+			// Strict encoding of variable values for a pre-encoded template
+			this.variableType = (encodingMode == EncodingMode.TEMPLATE_AND_VALUES ? Type.URI : null);
+		}
+
+		/**
+		 * Parse the given URI component into literal parts and variable indexes.
+		 * @return the parts, or {@code null} if not supported
+		 */
+		@Nullable
+		List<Object> parse(String source, Type literalType, Type variableType, boolean query) {
+			if (source.indexOf('{') == -1) {
+				List<Object> parts = new ArrayList<>(1);
+				parts.add(encode(source, literalType));
+				return parts;
+			}
+			int level = 0;
+			for (int i = 0; i < source.length(); i++) {
+				char c = source.charAt(i);
+				level += (c == '{' ? 1 : (c == '}' ? -1 : 0));
+				if (level > 1) {
+					// Nested braces, as in regular expressions
+					return null;
+				}
+			}
+			List<Object> parts = new ArrayList<>();
+			Matcher matcher = NAMES_PATTERN.matcher(source);
+			int literalStart = 0;
+			while (matcher.find()) {
+				String name = matcher.group(1);
+				if (name.indexOf(':') != -1 || name.indexOf('{') != -1) {
+					return null;
+				}
+				parts.add(encode(source.substring(literalStart, matcher.start()), literalType));
+				parts.add(this.variableNames.size());
+				this.variableNames.add(name);
+				this.queryVariables.add(query);
+				this.variableTypes.add(this.encodeLiterals ? variableType : this.variableType);
+				literalStart = matcher.end();
+			}
+			parts.add(encode(source.substring(literalStart), literalType));
+			return parts;
+		}
+
+		String encode(String literal, Type type) {
+			return (this.encodeLiterals ?
+					HierarchicalUriComponents.encodeUriComponent(literal, StandardCharsets.UTF_8, type) : literal);
+		}
+
+		CompiledUriTemplate build(List<Object> parts) {
+			List<String> literals = new ArrayList<>();
+			List<Integer> variableIndexes = new ArrayList<>();
+			StringBuilder literal = new StringBuilder();
+			for (Object part : parts) {
+				if (part instanceof Integer) {
+					literals.add(literal.toString());
+					literal.setLength(0);
+					variableIndexes.add((Integer) part);
+				}
+				else {
+					literal.append((String) part);
+				}
+			}
+			literals.add(literal.toString());
+
+			int variableCount = this.variableNames.size();
+			boolean[] queryVariables = new boolean[variableCount];
+			for (int i = 0; i < variableCount; i++) {
+				queryVariables[i] = this.queryVariables.get(i);
+			}
+			boolean encodeVariables = (this.encodeLiterals || this.variableType != null);
+			return new CompiledUriTemplate(StringUtils.toStringArray(literals),
+					variableIndexes.stream().mapToInt(Integer::intValue).toArray(),
+					StringUtils.toStringArray(this.variableNames), queryVariables,
+					(encodeVariables ? this.variableTypes.toArray(new Type[0]) : null));
+		}
+	}
+
+}
@@ -19,9 +19,13 @@ package org.springframework.web.util;
 import java.net.URI;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
@@ -39,6 +43,13 @@ import org.springframework.util.StringUtils;
  */
 public class DefaultUriBuilderFactory implements UriBuilderFactory {
 
+	/**
+	 * Marker for URI templates which cannot be expanded through a
+	 * {@link CompiledUriTemplate}, avoiding repeated compilation attempts.
+	 */
+	private static final Object NOT_COMPILABLE = new Object();
+
+
 	/**
 	 * Enum to represent multiple URI encoding strategies.
 	 * @see #setEncodingMode
@@ -97,6 +108,32 @@ public class DefaultUriBuilderFactory implements UriBuilderFactory {
 
 	private boolean parsePath = true;
 
+	private int uriTemplateCacheLimit = 256;
+
+	/** Whether a subclass customizes {@link #uriString}, to be used by {@code expand} as well. */
+	private final boolean uriStringOverridden = (getClass() != DefaultUriBuilderFactory.class &&
+			ClassUtils.getMethod(getClass(), "uriString", String.class).getDeclaringClass() !=
+					DefaultUriBuilderFactory.class);
+
+	/** Fast access cache for compiled URI templates, returning without a global lock. */
+	private final Map<String, Object> uriTemplateAccessCache = new ConcurrentHashMap<>(64);
+
+	/** Map from URI template to compiled template, synchronized for compilation. */
+	@SuppressWarnings("serial")
+	private final Map<String, Object> uriTemplateCreationCache =
+			new LinkedHashMap<String, Object>(64, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+					if (size() > getUriTemplateCacheLimit()) {
+						uriTemplateAccessCache.remove(eldest.getKey());
+						return true;
+					}
+					else {
+						return false;
+					}
+				}
+			};
+
 
 	/**
 	 * Default constructor without a base URI.
@@ -143,6 +180,7 @@ public class DefaultUriBuilderFactory implements UriBuilderFactory {
 	 */
 	public void setEncodingMode(EncodingMode encodingMode) {
 		this.encodingMode = encodingMode;
+		clearUriTemplateCache();
 	}
 
 	/**
@@ -181,6 +219,7 @@ public class DefaultUriBuilderFactory implements UriBuilderFactory {
 	 */
 	public void setParsePath(boolean parsePath) {
 		this.parsePath = parsePath;
+		clearUriTemplateCache();
 	}
 
 	/**
@@ -191,15 +230,110 @@ public class DefaultUriBuilderFactory implements UriBuilderFactory {
 		return this.parsePath;
 	}
 
+	/**
+	 * Specify the maximum number of URI templates to keep in pre-parsed form
+	 * for {@link #expand(String, Map)} and {@link #expand(String, Object...)}.
+	 * <p>A cached template is expanded without re-parsing and re-encoding
+	 * it for every request, as is common for a {@code RestTemplate} calling
+	 * the same few endpoints with different URI variables. The result is the
+	 * same as for {@link #uriString(String) uriString(uriTemplate).build(uriVars)}
+	 * which remains in use for templates with URI variables in other places
+	 * than path, query parameter values and fragment. Beyond the limit, the
+	 * least recently compiled templates get evicted from the cache.
+	 * <p>Templates are not cached if a subclass overrides {@link #uriString},
+	 * with {@code expand} consistently going through the overridden method.
+	 * <p>The default is 256. Set this to 0 in order to always parse templates.
+	 * @param uriTemplateCacheLimit the maximum number of cached URI templates
+	 * @since 5.1.11
+	 */
+	public void setUriTemplateCacheLimit(int uriTemplateCacheLimit) {
+		Assert.isTrue(uriTemplateCacheLimit >= 0, "URI template cache limit must not be negative");
+		this.uriTemplateCacheLimit = uriTemplateCacheLimit;
+		clearUriTemplateCache();
+	}
+
+	/**
+	 * Return the maximum number of URI templates to keep in pre-parsed form.
+	 * @since 5.1.11
+	 */
+	public int getUriTemplateCacheLimit() {
+		return this.uriTemplateCacheLimit;
+	}
+
 
 	// UriTemplateHandler
 
 	public URI expand(String uriTemplate, Map<String, ?> uriVars) {
-		return uriString(uriTemplate).build(uriVars);
+		CompiledUriTemplate compiledTemplate = getCompiledUriTemplate(uriTemplate);
+		if (compiledTemplate == null) {
+			return uriString(uriTemplate).build(uriVars);
+		}
+		return compiledTemplate.expand(prepareUriVariables(uriVars));
 	}
 
 	public URI expand(String uriTemplate, Object... uriVars) {
-		return uriString(uriTemplate).build(uriVars);
+		CompiledUriTemplate compiledTemplate = getCompiledUriTemplate(uriTemplate);
+		if (compiledTemplate == null) {
+			return uriString(uriTemplate).build(uriVars);
+		}
+		if (ObjectUtils.isEmpty(uriVars) && !this.defaultUriVariables.isEmpty()) {
+			return compiledTemplate.expand(prepareUriVariables(Collections.emptyMap()));
+		}
+		Assert.notNull(uriVars, "URI variables must not be null");
+		if (this.encodingMode.equals(EncodingMode.VALUES_ONLY)) {
+			uriVars = UriUtils.encodeUriVariables(uriVars);
+		}
+		return compiledTemplate.expand(uriVars);
+	}
+
+	/**
+	 * Return the pre-parsed form of the given URI template, compiling and
+	 * caching it on first access if within the cache limit.
+	 * @return the compiled template, or {@code null} if not available
+	 */
+	@Nullable
+	private CompiledUriTemplate getCompiledUriTemplate(String uriTemplate) {
+		if (this.uriTemplateCacheLimit == 0 || this.uriStringOverridden) {
+			return null;
+		}
+		Object cached = this.uriTemplateAccessCache.get(uriTemplate);
+		if (cached == null) {
+			// Compile outside of the lock, with the first result for a template winning
+			UriComponents template = new DefaultUriBuilder(uriTemplate).uriComponentsBuilder.build();
+			boolean pathSegments = (this.parsePath && this.encodingMode.equals(EncodingMode.URI_COMPONENT));
+			Object compiled = CompiledUriTemplate.compile(template, this.encodingMode, pathSegments);
+			if (compiled == null) {
+				compiled = NOT_COMPILABLE;
+			}
+			synchronized (this.uriTemplateCreationCache) {
+				cached = this.uriTemplateCreationCache.putIfAbsent(uriTemplate, compiled);
+				if (cached == null) {
+					cached = compiled;
+					this.uriTemplateAccessCache.put(uriTemplate, cached);
+				}
+			}
+		}
+		return (cached != NOT_COMPILABLE ? (CompiledUriTemplate) cached : null);
+	}
+
+	private void clearUriTemplateCache() {
+		synchronized (this.uriTemplateCreationCache) {
+			this.uriTemplateAccessCache.clear();
+			this.uriTemplateCreationCache.clear();
+		}
+	}
+
+	private Map<String, ?> prepareUriVariables(Map<String, ?> uriVars) {
+		if (!this.defaultUriVariables.isEmpty()) {
+			Map<String, Object> map = new HashMap<>();
+			map.putAll(this.defaultUriVariables);
+			map.putAll(uriVars);
+			uriVars = map;
+		}
+		if (this.encodingMode.equals(EncodingMode.VALUES_ONLY)) {
+			uriVars = UriUtils.encodeUriVariables(uriVars);
+		}
+		return uriVars;
 	}
 
 	// UriBuilderFactory
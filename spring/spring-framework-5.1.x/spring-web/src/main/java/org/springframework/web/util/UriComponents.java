@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -330,7 +330,7 @@ public abstract class UriComponents implements Serializable {
 	/**
 	 * URI template variables backed by a map.
 	 */
-	private static class MapTemplateVariables implements UriTemplateVariables {
+	static class MapTemplateVariables implements UriTemplateVariables {
 
 		private final Map<String, ?> uriVariables;
 
@@ -352,7 +352,7 @@ public abstract class UriComponents implements Serializable {
 	/**
 	 * URI template variables backed by a variable argument array.
 	 */
-	private static class VarArgsTemplateVariables implements UriTemplateVariables {
+	static class VarArgsTemplateVariables implements UriTemplateVariables {
 
 		private final Iterator<Object> valueIterator;
 
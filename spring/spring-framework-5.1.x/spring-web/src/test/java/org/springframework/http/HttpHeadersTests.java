@@ -92,6 +92,34 @@ public class HttpHeadersTests {
 		assertEquals("Invalid Accept header", expected, headers.getAccept());
 	}
 
+	@Test
+	public void acceptMemoizedUntilChanged() {
+		headers.add("Accept", "text/html,text/plain");
+		List<MediaType> accept = headers.getAccept();
+		assertEquals(Arrays.asList(MediaType.TEXT_HTML, MediaType.TEXT_PLAIN), accept);
+		accept.clear();
+		assertEquals(Arrays.asList(MediaType.TEXT_HTML, MediaType.TEXT_PLAIN), headers.getAccept());
+
+		headers.add("Accept", "application/json");
+		assertEquals(Arrays.asList(MediaType.TEXT_HTML, MediaType.TEXT_PLAIN, MediaType.APPLICATION_JSON),
+				headers.getAccept());
+		headers.get("Accept").set(0, "text/xml");
+		assertEquals(Arrays.asList(MediaType.TEXT_XML, MediaType.APPLICATION_JSON), headers.getAccept());
+	}
+
+	@Test
+	public void contentTypeMemoizedUntilChanged() {
+		headers.set("Content-Type", "text/html");
+		MediaType contentType = headers.getContentType();
+		assertEquals(MediaType.TEXT_HTML, contentType);
+		assertSame(contentType, headers.getContentType());
+
+		headers.set("Content-Type", "text/plain");
+		assertEquals(MediaType.TEXT_PLAIN, headers.getContentType());
+		headers.remove("Content-Type");
+		assertNull(headers.getContentType());
+	}
+
 	@Test
 	public void acceptCharsets() {
 		Charset charset1 = StandardCharsets.UTF_8;
@@ -509,6 +537,19 @@ public class HttpHeadersTests {
 		assertThat(headers.getFirstDate(HttpHeaders.DATE), is(1496370120000L));
 	}
 
+	@Test
+	public void firstDateMemoizedUntilChanged() {
+		headers.set(HttpHeaders.DATE, "Fri, 02 Jun 2017 02:22:00 GMT");
+		assertThat(headers.getFirstDate(HttpHeaders.DATE), is(1496370120000L));
+		assertThat(headers.getFirstDate(HttpHeaders.DATE), is(1496370120000L));
+
+		headers.set(HttpHeaders.DATE, "Sat, 18 Dec 2010 10:20:00 GMT");
+		assertThat(headers.getFirstDate(HttpHeaders.DATE), is(1292667600000L));
+		headers.set(HttpHeaders.EXPIRES, "Fri, 02 Jun 2017 02:22:00 GMT");
+		assertThat(headers.getExpires(), is(1496370120000L));
+		assertThat(headers.getFirstDate(HttpHeaders.DATE), is(1292667600000L));
+	}
+
 	@Test
 	public void firstZonedDateTime() {
 		ZonedDateTime date = ZonedDateTime.of(2017, 6, 2, 2, 22, 0, 0, ZoneId.of("GMT"));
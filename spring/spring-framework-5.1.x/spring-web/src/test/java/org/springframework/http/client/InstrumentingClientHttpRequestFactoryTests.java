@@ -0,0 +1,213 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.lang.Nullable;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * Tests for {@link InstrumentingClientHttpRequestFactory}.
+ *
+ * @author agent (agent@local)
+ */
+public class InstrumentingClientHttpRequestFactoryTests {
+
+	private final ClientHttpRequestFactory delegate = mock(ClientHttpRequestFactory.class);
+
+	private final ClientHttpRequest request = mock(ClientHttpRequest.class);
+
+	private final ClientHttpResponse response = mock(ClientHttpResponse.class);
+
+	private final List<Integer> completedStatusCodes = new ArrayList<>();
+
+	private final InstrumentingClientHttpRequestFactory requestFactory =
+			new InstrumentingClientHttpRequestFactory(this.delegate) {
+				@Override
+				protected void exchangeCompleted(ClientHttpRequest request, int rawStatusCode,
+						Duration latency, Duration duration, @Nullable IOException ex) {
+					completedStatusCodes.add(rawStatusCode);
+				}
+			};
+
+
+	@Before
+	public void setup() throws Exception {
+		given(this.delegate.createRequest(any(), any())).willReturn(this.request);
+		given(this.request.execute()).willReturn(this.response);
+		given(this.response.getRawStatusCode()).willReturn(200);
+	}
+
+
+	@Test
+	public void recordsExchangePerHost() throws Exception {
+		URI uri = URI.create("http://example.com/path");
+		given(this.request.getURI()).willReturn(uri);
+
+		ClientHttpRequest request = this.requestFactory.createRequest(uri, HttpMethod.GET);
+		ClientHttpResponse response = request.execute();
+		InstrumentingClientHttpRequestFactory.HostMetrics metrics = this.requestFactory.getHostMetrics(uri);
+		assertNotNull(metrics);
+		assertEquals(1, metrics.getActiveCount());
+		assertEquals(0, metrics.getRequestCount());
+
+		response.close();
+		response.close();
+		assertEquals(0, metrics.getActiveCount());
+		assertEquals(1, metrics.getPeakActiveCount());
+		assertEquals(1, metrics.getRequestCount());
+		assertEquals(0, metrics.getErrorCount());
+		assertSame(metrics, this.requestFactory.getHostMetrics().get("example.com:80"));
+		assertEquals(1, this.completedStatusCodes.size());
+		assertEquals(Integer.valueOf(200), this.completedStatusCodes.get(0));
+		verify(this.response).close();
+	}
+
+	@Test
+	public void exposesStreamingRequest() throws Exception {
+		URI uri = URI.create("http://example.com/path");
+		StreamingRequest streamingRequest = new StreamingRequest(uri);
+		given(this.delegate.createRequest(uri, HttpMethod.POST)).willReturn(streamingRequest);
+
+		ClientHttpRequest request = this.requestFactory.createRequest(uri, HttpMethod.POST);
+		assertTrue(request instanceof StreamingHttpOutputMessage);
+		((StreamingHttpOutputMessage) request).setBody(outputStream -> outputStream.write(new byte[] {1, 2}));
+		request.execute().close();
+
+		assertArrayEquals(new byte[] {1, 2}, streamingRequest.content.toByteArray());
+		assertEquals(1, this.requestFactory.getHostMetrics(uri).getRequestCount());
+	}
+
+	@Test
+	public void doesNotExposeStreamingForRegularRequest() throws Exception {
+		URI uri = URI.create("http://example.com/path");
+		assertFalse(this.requestFactory.createRequest(uri, HttpMethod.GET) instanceof StreamingHttpOutputMessage);
+	}
+
+	@Test
+	public void tracksPeakActiveExchanges() throws Exception {
+		URI uri = URI.create("https://example.com/path");
+		given(this.request.getURI()).willReturn(uri);
+
+		ClientHttpResponse response1 = this.requestFactory.createRequest(uri, HttpMethod.GET).execute();
+		ClientHttpResponse response2 = this.requestFactory.createRequest(uri, HttpMethod.GET).execute();
+		response1.close();
+		response2.close();
+		this.requestFactory.createRequest(uri, HttpMethod.GET).execute().close();
+
+		InstrumentingClientHttpRequestFactory.HostMetrics metrics =
+				this.requestFactory.getHostMetrics().get("example.com:443");
+		assertEquals(3, metrics.getRequestCount());
+		assertEquals(2, metrics.getPeakActiveCount());
+		assertEquals(0, metrics.getActiveCount());
+	}
+
+	@Test
+	public void recordsServerErrors() throws Exception {
+		URI uri = URI.create("http://example.com:8080/path");
+		given(this.request.getURI()).willReturn(uri);
+		given(this.response.getRawStatusCode()).willReturn(503);
+
+		this.requestFactory.createRequest(uri, HttpMethod.GET).execute().close();
+
+		InstrumentingClientHttpRequestFactory.HostMetrics metrics = this.requestFactory.getHostMetrics(uri);
+		assertEquals(1, metrics.getRequestCount());
+		assertEquals(1, metrics.getErrorCount());
+		assertEquals(Integer.valueOf(503), this.completedStatusCodes.get(0));
+	}
+
+	@Test
+	public void recordsFailedRequests() throws Exception {
+		URI uri = URI.create("http://example.com/path");
+		given(this.request.getURI()).willReturn(uri);
+		given(this.request.execute()).willThrow(new IOException("Connection refused"));
+
+		try {
+			this.requestFactory.createRequest(uri, HttpMethod.GET).execute();
+			fail("Should have thrown IOException");
+		}
+		catch (IOException ex) {
+			// expected
+		}
+
+		InstrumentingClientHttpRequestFactory.HostMetrics metrics = this.requestFactory.getHostMetrics(uri);
+		assertEquals(1, metrics.getRequestCount());
+		assertEquals(1, metrics.getErrorCount());
+		assertEquals(0, metrics.getActiveCount());
+		assertEquals(Integer.valueOf(-1), this.completedStatusCodes.get(0));
+	}
+
+
+
+	private class StreamingRequest extends AbstractClientHttpRequest implements StreamingHttpOutputMessage {
+
+		private final URI uri;
+
+		private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+		@Nullable
+		private Body body;
+
+		StreamingRequest(URI uri) {
+			this.uri = uri;
+		}
+
+		@Override
+		public String getMethodValue() {
+			return "POST";
+		}
+
+		@Override
+		public URI getURI() {
+			return this.uri;
+		}
+
+		@Override
+		public void setBody(Body body) {
+			this.body = body;
+		}
+
+		@Override
+		protected OutputStream getBodyInternal(HttpHeaders headers) {
+			throw new UnsupportedOperationException("getBody not supported");
+		}
+
+		@Override
+		protected ClientHttpResponse executeInternal(HttpHeaders headers) throws IOException {
+			if (this.body != null) {
+				this.body.writeTo(this.content);
+			}
+			return response;
+		}
+	}
+
+}
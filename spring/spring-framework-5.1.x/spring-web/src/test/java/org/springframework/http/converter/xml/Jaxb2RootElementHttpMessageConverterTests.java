@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -221,6 +221,38 @@ public class Jaxb2RootElementHttpMessageConverterTests {
 	}
 
 
+	@Test
+	public void writeWithPooledMarshaller() throws Exception {
+		MyJaxb2RootElementHttpMessageConverter myConverter = new MyJaxb2RootElementHttpMessageConverter();
+		myConverter.setPoolSize(2);
+		MyRootElement element = new MyRootElement(new MyCustomElement("a", "b"));
+
+		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+		myConverter.write(element, new MediaType("application", "xml", StandardCharsets.ISO_8859_1), outputMessage);
+		assertTrue(outputMessage.getBodyAsString(StandardCharsets.ISO_8859_1).contains("ISO-8859-1"));
+
+		outputMessage = new MockHttpOutputMessage();
+		myConverter.write(element, null, outputMessage);
+		String result = outputMessage.getBodyAsString(StandardCharsets.UTF_8);
+		assertTrue(result.contains("UTF-8"));
+		assertTrue(result.contains("<element>a|||b</element>"));
+		assertEquals(1, myConverter.marshallerCount);
+	}
+
+	@Test
+	public void readWithPooledUnmarshaller() throws Exception {
+		MyJaxb2RootElementHttpMessageConverter myConverter = new MyJaxb2RootElementHttpMessageConverter();
+		myConverter.setPoolSize(2);
+		byte[] body = "<myRootElement><element>a|||b</element></myRootElement>".getBytes("UTF-8");
+		for (int i = 0; i < 3; i++) {
+			MyRootElement result = (MyRootElement) myConverter.read(MyRootElement.class, new MockHttpInputMessage(body));
+			assertEquals("a", result.getElement().getField1());
+			assertEquals("b", result.getElement().getField2());
+		}
+		assertEquals(1, myConverter.unmarshallerCount);
+	}
+
+
 	@XmlRootElement
 	public static class RootElement {
 
@@ -255,13 +287,19 @@ public class Jaxb2RootElementHttpMessageConverterTests {
 
 	public static class MyJaxb2RootElementHttpMessageConverter extends Jaxb2RootElementHttpMessageConverter {
 
+		int marshallerCount;
+
+		int unmarshallerCount;
+
 		@Override
 		protected void customizeMarshaller(Marshaller marshaller) {
+			this.marshallerCount++;
 			marshaller.setAdapter(new MyCustomElementAdapter());
 		}
 
 		@Override
 		protected void customizeUnmarshaller(Unmarshaller unmarshaller) {
+			this.unmarshallerCount++;
 			unmarshaller.setAdapter(new MyCustomElementAdapter());
 		}
 	}
@@ -20,6 +20,9 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 
 import org.junit.Before;
@@ -148,6 +151,69 @@ public class ServletServerHttpRequestTests {
 		assertNull(headers.getContentType());
 	}
 
+	@Test
+	public void getHeadersWithInvalidContentType() {
+		mockRequest.addHeader("Content-Type", "invalid");
+
+		HttpHeaders headers = request.getHeaders();
+		assertEquals("invalid", headers.getFirst("Content-Type"));
+		assertEquals(Collections.singletonList("invalid"), headers.get("content-type"));
+	}
+
+	@Test
+	public void getHeadersWithContentLength() {
+		mockRequest.setContent("Hello World".getBytes(StandardCharsets.UTF_8));
+
+		HttpHeaders headers = request.getHeaders();
+		assertTrue(headers.containsKey("Content-Length"));
+		assertEquals(11, headers.getContentLength());
+		assertTrue(headers.keySet().contains("content-length"));
+	}
+
+	@Test
+	public void getHeadersIsLiveViewUntilModified() {
+		HttpHeaders headers = request.getHeaders();
+		mockRequest.addHeader("MyHeader", "value1");
+		mockRequest.setContentType("text/plain");
+		assertEquals("value1", headers.getFirst("myheader"));
+		assertEquals(MediaType.TEXT_PLAIN, headers.getContentType());
+		assertFalse(headers.containsKey("OtherHeader"));
+		assertNull(headers.get("OtherHeader"));
+
+		headers.add("MyHeader", "value2");
+		headers.set("OtherHeader", "other");
+		mockRequest.addHeader("MyHeader", "value3");
+		assertEquals(Arrays.asList("value1", "value2"), headers.get("MyHeader"));
+		assertEquals("other", headers.getFirst("OtherHeader"));
+		assertNull(mockRequest.getHeader("OtherHeader"));
+		assertEquals(new HashSet<>(Arrays.asList("MyHeader", "Content-Type", "OtherHeader")), headers.keySet());
+	}
+
+	@Test
+	public void getHeadersWithDerivedValuesIsModifiable() {
+		mockRequest.setContentType("text/plain");
+		mockRequest.setCharacterEncoding("UTF-8");
+		mockRequest.setContent("Hello World".getBytes(StandardCharsets.UTF_8));
+
+		HttpHeaders headers = request.getHeaders();
+		headers.add("Content-Length", "12");
+		headers.add("Content-Type", "text/html");
+		assertEquals(Arrays.asList("11", "12"), headers.get("Content-Length"));
+		assertEquals(Arrays.asList("text/plain;charset=UTF-8", "text/html"), headers.get("Content-Type"));
+	}
+
+	@Test
+	public void getHeadersEquality() {
+		mockRequest.addHeader("MyHeader", "value1");
+		mockRequest.setContentType("text/plain");
+
+		HttpHeaders expected = new HttpHeaders();
+		expected.add("MyHeader", "value1");
+		expected.add("Content-Type", "text/plain");
+		assertEquals(expected, request.getHeaders());
+		assertEquals(expected.hashCode(), request.getHeaders().hashCode());
+	}
+
 	@Test
 	public void getBody() throws IOException {
 		byte[] content = "Hello World".getBytes("UTF-8");
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.server.reactive;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import org.junit.After;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.core.io.buffer.TrackingDataBufferFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ReactorHttpHandlerAdapter} against a Reactor Netty server.
+ *
+ * @author agent (agent@local)
+ */
+public class ReactorHttpHandlerAdapterTests {
+
+	private final TrackingDataBufferFactory trackingBufferFactory =
+			new TrackingDataBufferFactory(new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT));
+
+	private final List<DataBufferFactory> usedBufferFactories = new CopyOnWriteArrayList<>();
+
+	private DisposableServer server;
+
+
+	@After
+	public void stopServer() {
+		if (this.server != null) {
+			this.server.disposeNow();
+		}
+	}
+
+
+	@Test
+	public void trackRequestAndResponseBuffers() {
+		this.trackingBufferFactory.setStrict(true);
+		ReactorHttpHandlerAdapter adapter = new ReactorHttpHandlerAdapter((request, response) -> {
+			this.usedBufferFactories.add(response.bufferFactory());
+			return response.writeWith(Flux.concat(
+					request.getBody().doOnNext(buffer -> this.usedBufferFactories.add(buffer.factory())),
+					Mono.fromSupplier(() -> response.bufferFactory().allocateBuffer().write("!", StandardCharsets.UTF_8))));
+		});
+		adapter.setTrackingBufferFactory(this.trackingBufferFactory);
+		assertSame(this.trackingBufferFactory, adapter.getTrackingBufferFactory());
+
+		assertEquals("hello!", exchange(adapter, "hello"));
+		assertTrue(this.usedBufferFactories.size() >= 2);
+		assertEquals("response", ((TrackingDataBufferFactory) this.usedBufferFactories.get(0)).getSource());
+		for (DataBufferFactory bufferFactory : this.usedBufferFactories.subList(1, this.usedBufferFactories.size())) {
+			assertEquals("request", ((TrackingDataBufferFactory) bufferFactory).getSource());
+		}
+		assertEquals(this.usedBufferFactories.size(), this.trackingBufferFactory.getAllocatedCount());
+		assertEquals(0, this.trackingBufferFactory.getOutstandingCount());
+		this.trackingBufferFactory.checkForLeaks();
+	}
+
+	@Test
+	public void noTrackingByDefault() {
+		ReactorHttpHandlerAdapter adapter = new ReactorHttpHandlerAdapter((request, response) -> {
+			this.usedBufferFactories.add(response.bufferFactory());
+			return response.writeWith(request.getBody()
+					.doOnNext(buffer -> this.usedBufferFactories.add(buffer.factory())));
+		});
+		assertNull(adapter.getTrackingBufferFactory());
+
+		assertEquals("hello", exchange(adapter, "hello"));
+		assertTrue(this.usedBufferFactories.size() >= 2);
+		for (DataBufferFactory bufferFactory : this.usedBufferFactories) {
+			assertTrue(bufferFactory instanceof NettyDataBufferFactory);
+		}
+	}
+
+	@Test
+	public void usedPoolMemory() {
+		ReactorHttpHandlerAdapter adapter = new ReactorHttpHandlerAdapter((request, response) ->
+				response.writeWith(request.getBody()));
+		assertEquals(-1, adapter.getUsedHeapMemory());
+		assertEquals(-1, adapter.getUsedDirectMemory());
+
+		assertEquals("hello", exchange(adapter, "hello"));
+		assertTrue(adapter.getUsedHeapMemory() >= 0);
+		assertTrue(adapter.getUsedDirectMemory() >= 0);
+	}
+
+	private String exchange(ReactorHttpHandlerAdapter adapter, String body) {
+		this.server = HttpServer.create()
+				.tcpConfiguration(server -> server.host("127.0.0.1"))
+				.handle(adapter)
+				.bindNow();
+		return HttpClient.create()
+				.tcpConfiguration(client -> client.host("127.0.0.1"))
+				.port(this.server.port())
+				.post()
+				.uri("/echo")
+				.send(ByteBufFlux.fromString(Mono.just(body)))
+				.responseContent()
+				.aggregate()
+				.asString()
+				.block(Duration.ofSeconds(10));
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,17 +16,24 @@
 
 package org.springframework.web.filter;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import javax.servlet.FilterChain;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletResponse;
 
 import org.junit.Test;
 
+import org.springframework.mock.web.test.DelegatingServletOutputStream;
 import org.springframework.mock.web.test.MockHttpServletRequest;
 import org.springframework.mock.web.test.MockHttpServletResponse;
 import org.springframework.util.FileCopyUtils;
 import org.springframework.util.StreamUtils;
 
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
 
 /**
  * @author Arjen Poutsma
@@ -262,4 +269,142 @@ public class ShallowEtagHeaderFilterTests {
 		assertArrayEquals("Invalid content", responseBody, response.getContentAsByteArray());
 	}
 
+	@Test
+	public void filterNoMatchWithContentCacheLimit() throws Exception {
+		this.filter.setContentCacheLimit(64);
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		final byte[] responseBody = "Hello World".getBytes("UTF-8");
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			((HttpServletResponse) filterResponse).setStatus(HttpServletResponse.SC_OK);
+			filterResponse.getOutputStream().write(responseBody, 0, 5);
+			filterResponse.getOutputStream().write(responseBody, 5, responseBody.length - 5);
+		};
+		filter.doFilter(request, response, filterChain);
+
+		assertEquals("Invalid status", 200, response.getStatus());
+		assertEquals("Invalid ETag header", "\"0b10a8db164e0754105b7a99be72e3fe5\"", response.getHeader("ETag"));
+		assertEquals("Invalid Content-Length header", responseBody.length, response.getContentLength());
+		assertArrayEquals("Invalid content", responseBody, response.getContentAsByteArray());
+	}
+
+	@Test
+	public void filterWriterMatchWithContentCacheLimit() throws Exception {
+		this.filter.setContentCacheLimit(64);
+		this.filter.setWriteWeakETag(true);
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		request.addHeader("If-None-Match", "\"0b10a8db164e0754105b7a99be72e3fe5\"");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			((HttpServletResponse) filterResponse).setStatus(HttpServletResponse.SC_OK);
+			FileCopyUtils.copy("Hello World", filterResponse.getWriter());
+		};
+		filter.doFilter(request, response, filterChain);
+
+		assertEquals("Invalid status", 304, response.getStatus());
+		assertEquals("Invalid ETag header", "W/\"0b10a8db164e0754105b7a99be72e3fe5\"", response.getHeader("ETag"));
+		assertArrayEquals("Invalid content", new byte[0], response.getContentAsByteArray());
+	}
+
+	@Test
+	public void filterExceedingContentCacheLimit() throws Exception {
+		this.filter.setContentCacheLimit(8);
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		request.addHeader("If-None-Match", "\"0b10a8db164e0754105b7a99be72e3fe5\"");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		final byte[] responseBody = "Hello World".getBytes("UTF-8");
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			((HttpServletResponse) filterResponse).setStatus(HttpServletResponse.SC_OK);
+			filterResponse.getOutputStream().write(responseBody, 0, 5);
+			assertArrayEquals(new byte[0], response.getContentAsByteArray());
+			filterResponse.getOutputStream().write(responseBody, 5, responseBody.length - 5);
+			assertArrayEquals(responseBody, response.getContentAsByteArray());
+		};
+		filter.doFilter(request, response, filterChain);
+
+		assertEquals("Invalid status", 200, response.getStatus());
+		assertNull("Unexpected ETag header", response.getHeader("ETag"));
+		assertArrayEquals("Invalid content", responseBody, response.getContentAsByteArray());
+	}
+
+	@Test
+	public void filterWithContentLengthExceedingContentCacheLimit() throws Exception {
+		this.filter.setContentCacheLimit(8);
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		final byte[] responseBody = "Hello World".getBytes("UTF-8");
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			((HttpServletResponse) filterResponse).setStatus(HttpServletResponse.SC_OK);
+			filterResponse.setContentLength(responseBody.length);
+			FileCopyUtils.copy(responseBody, filterResponse.getOutputStream());
+		};
+		filter.doFilter(request, response, filterChain);
+
+		assertEquals("Invalid status", 200, response.getStatus());
+		assertNull("Unexpected ETag header", response.getHeader("ETag"));
+		assertEquals("Invalid Content-Length header", responseBody.length, response.getContentLength());
+		assertArrayEquals("Invalid content", responseBody, response.getContentAsByteArray());
+	}
+
+	@Test
+	public void filterWithContentLengthExceedingContentCacheLimitAfterWrite() throws Exception {
+		this.filter.setContentCacheLimit(8);
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		final byte[] responseBody = "Hello World".getBytes("UTF-8");
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			((HttpServletResponse) filterResponse).setStatus(HttpServletResponse.SC_OK);
+			filterResponse.getOutputStream().write(responseBody, 0, 5);
+			filterResponse.setContentLength(responseBody.length);
+			filterResponse.getOutputStream().write(responseBody, 5, responseBody.length - 5);
+			assertArrayEquals(responseBody, response.getContentAsByteArray());
+		};
+		filter.doFilter(request, response, filterChain);
+
+		assertNull("Unexpected ETag header", response.getHeader("ETag"));
+		assertEquals("Invalid Content-Length header", responseBody.length, response.getContentLength());
+		assertArrayEquals("Invalid content", responseBody, response.getContentAsByteArray());
+	}
+
+	@Test
+	public void filterExceedingContentCacheLimitWithWriteListener() throws Exception {
+		this.filter.setContentCacheLimit(8);
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		final List<WriteListener> writeListeners = new ArrayList<>();
+		MockHttpServletResponse response = new MockHttpServletResponse() {
+			@Override
+			public ServletOutputStream getOutputStream() {
+				ServletOutputStream outputStream = super.getOutputStream();
+				return new DelegatingServletOutputStream(outputStream) {
+					@Override
+					public boolean isReady() {
+						return false;
+					}
+					@Override
+					public void setWriteListener(WriteListener writeListener) {
+						writeListeners.add(writeListener);
+					}
+				};
+			}
+		};
+
+		final byte[] responseBody = "Hello World".getBytes("UTF-8");
+		final WriteListener writeListener = mock(WriteListener.class);
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			ServletOutputStream outputStream = filterResponse.getOutputStream();
+			outputStream.write(responseBody);
+			assertFalse(outputStream.isReady());
+			outputStream.setWriteListener(writeListener);
+		};
+		filter.doFilter(request, response, filterChain);
+
+		assertEquals(Collections.singletonList(writeListener), writeListeners);
+		assertArrayEquals("Invalid content", responseBody, response.getContentAsByteArray());
+	}
+
 }
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.method.support;
+
+import java.lang.reflect.Method;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.mock.web.test.MockHttpServletRequest;
+import org.springframework.mock.web.test.MockHttpServletResponse;
+import org.springframework.tests.Assume;
+import org.springframework.tests.TestGroup;
+import org.springframework.util.StopWatch;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.ResolvableMethod;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link InvocableHandlerMethod} with generated invokers enabled.
+ *
+ * @author agent (agent@local)
+ * @see HandlerMethod#COMPILE_INVOKERS_PROPERTY_NAME
+ */
+public class InvocableHandlerMethodCompiledInvokerTests {
+
+	private final NativeWebRequest request =
+			new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse());
+
+	private final HandlerMethodArgumentResolverComposite composite = new HandlerMethodArgumentResolverComposite();
+
+
+	@Before
+	public void enableCompiledInvokers() {
+		SpringProperties.setFlag(HandlerMethod.COMPILE_INVOKERS_PROPERTY_NAME);
+	}
+
+	@After
+	public void disableCompiledInvokers() {
+		SpringProperties.setProperty(HandlerMethod.COMPILE_INVOKERS_PROPERTY_NAME, null);
+	}
+
+
+	@Test
+	public void invokedThroughGeneratedInvoker() throws Exception {
+		this.composite.addResolver(new StubArgumentResolver(99));
+		this.composite.addResolver(new StubArgumentResolver("value"));
+		CompiledHandler handler = new CompiledHandler();
+
+		Object value = getInvocable(handler, Integer.class, String.class).invokeForRequest(this.request, null);
+		assertEquals("99-value", value);
+		assertTrue(handler.lastCaller, handler.lastCaller.contains("FastClass"));
+	}
+
+	@Test
+	public void generatedInvokerSharedWithResolvedHandlerMethod() throws Exception {
+		CompiledHandler handler = new CompiledHandler();
+		Method method = ResolvableMethod.on(CompiledHandler.class).argTypes(Integer.class, String.class).resolveMethod();
+		HandlerMethod handlerMethod = new HandlerMethod(handler, method).createWithResolvedBean();
+
+		Object value = new InvocableHandlerMethod(handlerMethod).invokeForRequest(this.request, null, 1, "provided");
+		assertEquals("1-provided", value);
+		assertTrue(handler.lastCaller, handler.lastCaller.contains("FastClass"));
+	}
+
+	@Test
+	public void primitiveArgument() throws Exception {
+		this.composite.addResolver(new StubArgumentResolver(double.class, 2.5));
+
+		Object value = getInvocable(new CompiledHandler(), double.class).invokeForRequest(this.request, null);
+		assertEquals(5.0, value);
+	}
+
+	@Test
+	public void illegalArgumentReportedAsWithReflection() throws Exception {
+		this.composite.addResolver(new StubArgumentResolver(Integer.class, "__not_an_int__"));
+		this.composite.addResolver(new StubArgumentResolver("value"));
+		try {
+			getInvocable(new CompiledHandler(), Integer.class, String.class).invokeForRequest(this.request, null);
+			fail("Expected exception");
+		}
+		catch (IllegalStateException ex) {
+			assertTrue(ex.getCause() instanceof IllegalArgumentException);
+			assertTrue(ex.getMessage().contains("[0] [type=java.lang.String] [value=__not_an_int__]"));
+		}
+	}
+
+	@Test
+	public void nullForPrimitiveReportedAsWithReflection() throws Exception {
+		this.composite.addResolver(new StubArgumentResolver(double.class));
+		try {
+			getInvocable(new CompiledHandler(), double.class).invokeForRequest(this.request, null);
+			fail("Expected exception");
+		}
+		catch (IllegalStateException ex) {
+			assertTrue(ex.getCause() instanceof IllegalArgumentException);
+		}
+	}
+
+	@Test
+	public void exceptionFromGeneratedInvoker() throws Exception {
+		Exception expected = new Exception("error");
+		try {
+			getInvocable(new CompiledHandler(), Throwable.class).invokeForRequest(this.request, null, expected);
+			fail("Expected exception");
+		}
+		catch (Exception actual) {
+			assertSame(expected, actual);
+		}
+	}
+
+	@Test
+	public void nonPublicClassFallsBackToReflection() throws Exception {
+		Method method = ResolvableMethod.on(NonPublicHandler.class).argTypes(String.class).resolveMethod();
+		InvocableHandlerMethod handlerMethod = new InvocableHandlerMethod(new NonPublicHandler(), method);
+
+		assertEquals("value", handlerMethod.invokeForRequest(this.request, null, "value"));
+	}
+
+	@Test
+	public void comparePerformanceWithReflectiveInvocation() throws Exception {
+		Assume.group(TestGroup.PERFORMANCE);
+		this.composite.addResolver(new StubArgumentResolver(99));
+		this.composite.addResolver(new StubArgumentResolver("value"));
+
+		StopWatch sw = new StopWatch();
+		CompiledHandler handler = new CompiledHandler();
+		invokeHandler(handler, sw, "compiled");
+		assertTrue(handler.lastCaller, handler.lastCaller.contains("FastClass"));
+		disableCompiledInvokers();
+		invokeHandler(handler, sw, "reflective");
+		assertFalse(handler.lastCaller, handler.lastCaller.contains("FastClass"));
+	}
+
+	private void invokeHandler(CompiledHandler handler, StopWatch sw, String taskName) throws Exception {
+		Method method = ResolvableMethod.on(CompiledHandler.class).argTypes(Integer.class, String.class).resolveMethod();
+		HandlerMethod handlerMethod = new HandlerMethod(handler, method);
+		sw.start(taskName);
+		for (int i = 0; i < 200000; i++) {
+			// As for a request: a new invocable handler method per invocation
+			InvocableHandlerMethod invocable = new InvocableHandlerMethod(handlerMethod.createWithResolvedBean());
+			invocable.setHandlerMethodArgumentResolvers(this.composite);
+			invocable.invokeForRequest(this.request, null);
+		}
+		sw.stop();
+	}
+
+	private InvocableHandlerMethod getInvocable(Object handler, Class<?>... argTypes) {
+		Method method = ResolvableMethod.on(handler.getClass()).argTypes(argTypes).resolveMethod();
+		InvocableHandlerMethod handlerMethod = new InvocableHandlerMethod(handler, method);
+		handlerMethod.setHandlerMethodArgumentResolvers(this.composite);
+		return handlerMethod;
+	}
+
+
+	public static class CompiledHandler {
+
+		private String lastCaller;
+
+		public String handle(Integer intArg, String stringArg) {
+			this.lastCaller = Thread.currentThread().getStackTrace()[2].getClassName();
+			return intArg + "-" + stringArg;
+		}
+
+		public double handle(double amount) {
+			return amount * 2;
+		}
+
+		public void handleWithException(Throwable ex) throws Throwable {
+			throw ex;
+		}
+	}
+
+
+	static class NonPublicHandler {
+
+		public String handle(String value) {
+			return value;
+		}
+	}
+
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.springframework.lang.Nullable;
+import org.springframework.tests.Assume;
+import org.springframework.tests.TestGroup;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StopWatch;
+import org.springframework.web.util.DefaultUriBuilderFactory.EncodingMode;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link CompiledUriTemplate} as used by {@link DefaultUriBuilderFactory},
+ * verifying the same results as for regular expansion through {@link UriComponentsBuilder}.
+ *
+ * @author agent (agent@local)
+ */
+public class CompiledUriTemplateTests {
+
+	private static final String[] TEMPLATES = new String[] {
+			"/hotels/{hotel}/bookings/{booking}",
+			"/hotels/{hotel}/",
+			"https://example.com/hotels/{hotel}?q={q}&q={q2}&flag&empty=",
+			"https://user@example.com:8080/a b/{hotel}?name=a%20b {q}#frag-{booking}",
+			"http://example.com/{hotel}{booking}/{q}",
+			"http://example.com",
+			"/ä/{hotel}?ü={q}",
+			"hotels/{hotel}",
+			"{hotel}/bookings",
+			"https://example.com/{hotel:[a-z]+}",
+			"https://{host}/hotels",
+			"https://example.com/hotels?{q}={booking}",
+			"mailto:{hotel}@example.com",
+	};
+
+	private static final Object[][] VALUES = new Object[][] {
+			{"42", "7", "x"},
+			{"a/b", "c d", "ä&ö=ü"},
+			{"{x}", "%20", "a+b;c?d#e"},
+			{"", null, "$"},
+	};
+
+
+	@Test
+	public void compiledForSupportedTemplates() {
+		assertNotNull(compile("/hotels/{hotel}"));
+		assertNotNull(compile("https://example.com/hotels/{hotel}?q={q}#{fragment}"));
+		assertNotNull(compile("https://example.com"));
+	}
+
+	@Test
+	public void notCompiledForUnsupportedTemplates() {
+		assertNull(compile("https://{host}/hotels"));
+		assertNull(compile("https://example.com:{port}/hotels"));
+		assertNull(compile("https://example.com/{hotel:[a-z]{2}}"));
+		assertNull(compile("https://example.com/{hotel:[a-z]+}"));
+		assertNull(compile("https://example.com/hotels?{q}=1"));
+		assertNull(compile("mailto:{user}@example.com"));
+	}
+
+	@Test
+	public void expandWithMapInAllEncodingModes() {
+		for (EncodingMode encodingMode : EncodingMode.values()) {
+			for (String template : TEMPLATES) {
+				for (Object[] values : VALUES) {
+					Map<String, Object> uriVars = new HashMap<>();
+					uriVars.put("hotel", values[0]);
+					uriVars.put("booking", values[1]);
+					uriVars.put("q", values[2]);
+					uriVars.put("q2", new String[] {"a", "b"});
+					uriVars.put("host", "example.org");
+					assertSameResult(encodingMode, template, factory -> factory.expand(template, uriVars));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void expandWithVarArgsInAllEncodingModes() {
+		for (EncodingMode encodingMode : EncodingMode.values()) {
+			for (String template : TEMPLATES) {
+				for (Object[] values : VALUES) {
+					Object[] uriVars = new Object[] {values[0], values[1], values[2], values[0], values[1]};
+					assertSameResult(encodingMode, template, factory -> factory.expand(template, uriVars));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void expandWithBaseUri() {
+		for (EncodingMode encodingMode : EncodingMode.values()) {
+			for (String template : new String[] {"/hotels/{hotel}", "hotels/{hotel}?q={q}", "", "https://example.org/{hotel}"}) {
+				assertSameResult(encodingMode, template,
+						factory -> factory.expand(template, "a b", "c/d"), "https://example.com/v1?id=1");
+			}
+		}
+	}
+
+	@Test
+	public void expandWithDefaultUriVariables() {
+		Map<String, String> defaultUriVars = new HashMap<>();
+		defaultUriVars.put("hotel", "default");
+		defaultUriVars.put("q", "1 2");
+		DefaultUriBuilderFactory factory = new DefaultUriBuilderFactory();
+		factory.setDefaultUriVariables(defaultUriVars);
+		assertEquals("/hotels/default?q=1%202", factory.expand("/hotels/{hotel}?q={q}").toString());
+		assertEquals("/hotels/42?q=1%202",
+				factory.expand("/hotels/{hotel}?q={q}", Collections.singletonMap("hotel", 42)).toString());
+	}
+
+	@Test
+	public void expandWithParsePathDisabled() {
+		DefaultUriBuilderFactory factory = new DefaultUriBuilderFactory();
+		factory.setEncodingMode(EncodingMode.URI_COMPONENT);
+		assertEquals("/hotels/a%2Fb", factory.expand("/hotels/{hotel}", "a/b").toString());
+		factory.setParsePath(false);
+		assertEquals("/hotels/a/b", factory.expand("/hotels/{hotel}", "a/b").toString());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void expandWithMissingMapValue() {
+		new DefaultUriBuilderFactory().expand("/hotels/{hotel}/{booking}", Collections.singletonMap("hotel", 1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void expandWithMissingVarArgsValue() {
+		new DefaultUriBuilderFactory().expand("/hotels/{hotel}/{booking}", 1);
+	}
+
+	@Test
+	public void cacheLimit() {
+		DefaultUriBuilderFactory factory = new DefaultUriBuilderFactory();
+		factory.setUriTemplateCacheLimit(1);
+		assertEquals("/a/1", factory.expand("/a/{x}", 1).toString());
+		assertEquals("/b/2", factory.expand("/b/{x}", 2).toString());
+		assertEquals("/a/3", factory.expand("/a/{x}", 3).toString());
+		assertEquals("/b/4", factory.expand("/b/{x}", 4).toString());
+		assertEquals(Collections.singleton("/b/{x}"), getUriTemplateCache(factory).keySet());
+	}
+
+	@Test
+	public void cacheEvictsLeastRecentlyCompiledTemplates() {
+		DefaultUriBuilderFactory factory = new DefaultUriBuilderFactory();
+		factory.setUriTemplateCacheLimit(2);
+		factory.expand("/a/{x}", 1);
+		factory.expand("/b/{x}", 2);
+		Map<String, ?> cache = getUriTemplateCache(factory);
+		Object compiledTemplate = cache.get("/b/{x}");
+		assertNotNull(compiledTemplate);
+
+		assertEquals("/c/3", factory.expand("/c/{x}", 3).toString());
+		assertEquals(new HashSet<>(Arrays.asList("/b/{x}", "/c/{x}")), cache.keySet());
+		assertEquals("/b/4", factory.expand("/b/{x}", 4).toString());
+		assertSame(compiledTemplate, cache.get("/b/{x}"));
+
+		factory.setEncodingMode(EncodingMode.VALUES_ONLY);
+		assertTrue(cache.isEmpty());
+	}
+
+	@Test
+	public void notCachedWithOverriddenUriString() {
+		DefaultUriBuilderFactory factory = new DefaultUriBuilderFactory() {
+			@Override
+			public UriBuilder uriString(String uriTemplate) {
+				return super.uriString(uriTemplate).queryParam("custom", "true");
+			}
+		};
+		assertEquals("/a/1?custom=true", factory.expand("/a/{x}", 1).toString());
+		assertEquals("/a/2?custom=true", factory.expand("/a/{x}", Collections.singletonMap("x", 2)).toString());
+		assertTrue(getUriTemplateCache(factory).isEmpty());
+	}
+
+	@Test
+	public void comparePerformanceWithRegularExpansion() {
+		Assume.group(TestGroup.PERFORMANCE);
+		DefaultUriBuilderFactory factory = new DefaultUriBuilderFactory();
+		factory.setEncodingMode(EncodingMode.URI_COMPONENT);
+		StopWatch sw = new StopWatch();
+		long compiledTime = expandTemplate(factory, sw, "compiled");
+		factory.setUriTemplateCacheLimit(0);
+		long regularTime = expandTemplate(factory, sw, "regular");
+		assertTrue("Compiled templates slower than regular expansion: " + sw.prettyPrint(),
+				compiledTime < regularTime);
+	}
+
+	private long expandTemplate(DefaultUriBuilderFactory factory, StopWatch sw, String taskName) {
+		String template = "https://example.com/hotels/{hotel}/bookings/{booking}?q={q}";
+		sw.start(taskName);
+		for (int i = 0; i < 200000; i++) {
+			factory.expand(template, i, "booking " + i, "a&b");
+		}
+		sw.stop();
+		return sw.getLastTaskTimeMillis();
+	}
+
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, ?> getUriTemplateCache(DefaultUriBuilderFactory factory) {
+		Field field = ReflectionUtils.findField(DefaultUriBuilderFactory.class, "uriTemplateAccessCache");
+		assertNotNull(field);
+		ReflectionUtils.makeAccessible(field);
+		return (Map<String, ?>) ReflectionUtils.getField(field, factory);
+	}
+
+	@Nullable
+	private static CompiledUriTemplate compile(String template) {
+		UriComponents uric = UriComponentsBuilder.fromUriString(template).encode().build();
+		return CompiledUriTemplate.compile(uric, EncodingMode.TEMPLATE_AND_VALUES, false);
+	}
+
+	private static void assertSameResult(EncodingMode encodingMode, String template, Expansion expansion) {
+		assertSameResult(encodingMode, template, expansion, null);
+	}
+
+	private static void assertSameResult(EncodingMode encodingMode, String template,
+			Expansion expansion, @Nullable String baseUri) {
+
+		DefaultUriBuilderFactory compiled = createFactory(encodingMode, baseUri);
+		DefaultUriBuilderFactory regular = createFactory(encodingMode, baseUri);
+		regular.setUriTemplateCacheLimit(0);
+		String expected;
+		try {
+			expected = expansion.expand(regular).toString();
+		}
+		catch (IllegalArgumentException ex) {
+			try {
+				expansion.expand(compiled);
+				fail("Expected " + ex + " for template [" + template + "] in mode " + encodingMode);
+			}
+			catch (IllegalArgumentException expectedEx) {
+				// as expected
+			}
+			return;
+		}
+		assertEquals("Template [" + template + "] in mode " + encodingMode,
+				expected, expansion.expand(compiled).toString());
+		// Second expansion from the cache
+		assertEquals("Template [" + template + "] in mode " + encodingMode,
+				expected, expansion.expand(compiled).toString());
+	}
+
+	private static DefaultUriBuilderFactory createFactory(EncodingMode encodingMode, @Nullable String baseUri) {
+		DefaultUriBuilderFactory factory =
+				(baseUri != null ? new DefaultUriBuilderFactory(baseUri) : new DefaultUriBuilderFactory());
+		factory.setEncodingMode(encodingMode);
+		return factory;
+	}
+
+
+	private interface Expansion {
+
+		URI expand(DefaultUriBuilderFactory factory);
+	}
+
+}
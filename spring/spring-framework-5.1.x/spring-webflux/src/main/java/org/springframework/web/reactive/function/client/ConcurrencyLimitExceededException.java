@@ -0,0 +1,51 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+/**
+ * Exception published when a request is rejected without being sent
+ * since the concurrency limit for its target host has been reached.
+ *
+ * @author agent (agent@local)
+ * @since 5.1.11
+ * @see ConcurrencyLimitingExchangeFilterFunction
+ */
+@SuppressWarnings("serial")
+public class ConcurrencyLimitExceededException extends WebClientException {
+
+	private final int limit;
+
+
+	/**
+	 * Create a new {@code ConcurrencyLimitExceededException}.
+	 * @param host the target host of the rejected request
+	 * @param limit the concurrency limit in effect for the host
+	 */
+	public ConcurrencyLimitExceededException(String host, int limit) {
+		super("Concurrency limit of " + limit + " in-flight requests reached for host [" + host + "]");
+		this.limit = limit;
+	}
+
+
+	/**
+	 * Return the concurrency limit that was in effect for the target host.
+	 */
+	public int getLimit() {
+		return this.limit;
+	}
+
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import reactor.core.publisher.Mono;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ExchangeFilterFunction} that adaptively limits the number of in-flight
+ * requests per target host, rejecting ("shedding") requests beyond the current
+ * limit with a {@link ConcurrencyLimitExceededException}.
+ *
+ * <p>The limit per host follows an AIMD (additive increase, multiplicative
+ * decrease) scheme driven by the observed round-trip time: as long as responses
+ * arrive within {@link #setRttTolerance tolerance} of the lowest round-trip time
+ * seen for the host, the limit grows by about one per limit's worth of responses;
+ * once responses get slower than that (indicating queueing on the server side)
+ * or fail with an error or 5xx status, the limit is multiplied by the
+ * {@link #setBackoffRatio backoff ratio}.
+ *
+ * <p>A request occupies a slot from subscription until its response status and
+ * headers have been received, or until it fails or gets cancelled.
+ *
+ * @author agent (agent@local)
+ * @since 5.1.11
+ * @see HedgingExchangeFilterFunction
+ */
+public class ConcurrencyLimitingExchangeFilterFunction implements ExchangeFilterFunction {
+
+	private final ConcurrentMap<String, Limiter> limiters = new ConcurrentHashMap<>(16);
+
+	private final LongAdder shedCount = new LongAdder();
+
+	private int initialLimit = 20;
+
+	private int minLimit = 1;
+
+	private int maxLimit = 200;
+
+	private double backoffRatio = 0.9;
+
+	private double rttTolerance = 2.0;
+
+
+	/**
+	 * Set the initial concurrency limit per host. Default is 20.
+	 */
+	public void setInitialLimit(int initialLimit) {
+		Assert.isTrue(initialLimit > 0, "Initial limit must be greater than 0");
+		this.initialLimit = initialLimit;
+	}
+
+	/**
+	 * Set the minimum concurrency limit per host. Default is 1.
+	 */
+	public void setMinLimit(int minLimit) {
+		Assert.isTrue(minLimit > 0, "Minimum limit must be greater than 0");
+		this.minLimit = minLimit;
+	}
+
+	/**
+	 * Set the maximum concurrency limit per host. Default is 200.
+	 */
+	public void setMaxLimit(int maxLimit) {
+		Assert.isTrue(maxLimit > 0, "Maximum limit must be greater than 0");
+		this.maxLimit = maxLimit;
+	}
+
+	/**
+	 * Set the factor to multiply the limit with when backing off,
+	 * in the range between 0 and 1 (exclusive). Default is 0.9.
+	 */
+	public void setBackoffRatio(double backoffRatio) {
+		Assert.isTrue(backoffRatio > 0 && backoffRatio < 1, "Backoff ratio must be between 0 and 1");
+		this.backoffRatio = backoffRatio;
+	}
+
+	/**
+	 * Set the multiple of the lowest observed round-trip time up to which
+	 * a response is considered unaffected by queueing. Default is 2.0.
+	 */
+	public void setRttTolerance(double rttTolerance) {
+		Assert.isTrue(rttTolerance >= 1, "RTT tolerance must not be less than 1");
+		this.rttTolerance = rttTolerance;
+	}
+
+
+	@Override
+	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+		return Mono.defer(() -> {
+			String host = getHostKey(request.url());
+			Limiter limiter = this.limiters.computeIfAbsent(host, key -> new Limiter());
+			if (!limiter.tryAcquire()) {
+				this.shedCount.increment();
+				return Mono.error(new ConcurrencyLimitExceededException(host, limiter.getLimit()));
+			}
+			long startTime = System.nanoTime();
+			AtomicBoolean released = new AtomicBoolean();
+			return next.exchange(request)
+					.doOnSuccess(response -> {
+						if (released.compareAndSet(false, true)) {
+							boolean success = (response != null && response.rawStatusCode() < 500);
+							limiter.release(System.nanoTime() - startTime, success);
+						}
+					})
+					.doOnError(ex -> {
+						if (released.compareAndSet(false, true)) {
+							limiter.release(System.nanoTime() - startTime, false);
+						}
+					})
+					.doOnCancel(() -> {
+						if (released.compareAndSet(false, true)) {
+							limiter.release();
+						}
+					});
+		});
+	}
+
+	/**
+	 * Determine the key under which to track the limit for the given URL.
+	 * <p>The default implementation returns "host:port", with the port
+	 * left out if not specified.
+	 */
+	protected String getHostKey(URI url) {
+		return (url.getPort() != -1 ? url.getHost() + ":" + url.getPort() : url.getHost());
+	}
+
+
+	/**
+	 * Return the current concurrency limit for the host of the given URL,
+	 * or the initial limit if no request has been sent to it yet.
+	 */
+	public int getLimit(URI url) {
+		Limiter limiter = this.limiters.get(getHostKey(url));
+		return (limiter != null ? limiter.getLimit() : this.initialLimit);
+	}
+
+	/**
+	 * Return the current number of in-flight requests for the host of the given URL.
+	 */
+	public int getInFlightCount(URI url) {
+		Limiter limiter = this.limiters.get(getHostKey(url));
+		return (limiter != null ? limiter.getInFlight() : 0);
+	}
+
+	/**
+	 * Return the lowest round-trip time observed for the host of the given URL,
+	 * or {@code null} if no response has been received from it yet.
+	 */
+	@Nullable
+	public Duration getMinRtt(URI url) {
+		Limiter limiter = this.limiters.get(getHostKey(url));
+		long minRtt = (limiter != null ? limiter.getMinRtt() : Long.MAX_VALUE);
+		return (minRtt != Long.MAX_VALUE ? Duration.ofNanos(minRtt) : null);
+	}
+
+	/**
+	 * Return the number of requests rejected so far due to a concurrency limit.
+	 */
+	public long getShedCount() {
+		return this.shedCount.sum();
+	}
+
+
+	/**
+	 * Concurrency limit state for a specific host.
+	 */
+	private class Limiter {
+
+		private double limit = initialLimit;
+
+		private int inFlight;
+
+		private long minRtt = Long.MAX_VALUE;
+
+		public synchronized boolean tryAcquire() {
+			if (this.inFlight >= (int) this.limit) {
+				return false;
+			}
+			this.inFlight++;
+			return true;
+		}
+
+		public synchronized void release() {
+			this.inFlight--;
+		}
+
+		public synchronized void release(long rtt, boolean success) {
+			this.inFlight--;
+			if (success) {
+				this.minRtt = Math.min(this.minRtt, rtt);
+			}
+			if (success && rtt <= this.minRtt * rttTolerance) {
+				// Additive increase: about one per limit's worth of responses,
+				// as long as the limit is actually being used
+				if (this.inFlight + 1 >= (int) this.limit / 2) {
+					this.limit = Math.min(this.limit + 1 / this.limit, maxLimit);
+				}
+			}
+			else {
+				this.limit = Math.max(this.limit * backoffRatio, minLimit);
+			}
+		}
+
+		public synchronized int getLimit() {
+			return (int) this.limit;
+		}
+
+		public synchronized int getInFlight() {
+			return this.inFlight;
+		}
+
+		public synchronized long getMinRtt() {
+			return this.minRtt;
+		}
+	}
+
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.web.reactive.function.BodyInserters;
+
+/**
+ * {@link ExchangeFilterFunction} that reduces tail latency by "hedging" requests:
+ * if no response has arrived after a certain delay, an identical second request
+ * is sent, and whichever response arrives first is used. The other request is
+ * cancelled, or its response body released if it has already arrived.
+ *
+ * <p>Hedging only applies to idempotent methods ({@code GET}, {@code HEAD} and
+ * {@code OPTIONS} by default) and to requests without a body, since a body
+ * publisher cannot generally be subscribed to twice. The hedge delay is either
+ * {@link #setHedgeDelay fixed} or derived from a {@link #setLatencyPercentile
+ * percentile} of recently observed response latencies; in the latter case,
+ * requests are not hedged until enough latency samples have been collected.
+ *
+ * <p>An error from one of the requests is only propagated if there is no other
+ * request in flight; a failed first request does not trigger a hedge by itself.
+ *
+ * @author agent (agent@local)
+ * @since 5.1.11
+ * @see ConcurrencyLimitingExchangeFilterFunction
+ */
+public class HedgingExchangeFilterFunction implements ExchangeFilterFunction {
+
+	private static final int MIN_SAMPLES = 16;
+
+
+	private Set<HttpMethod> hedgedMethods = EnumSet.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS);
+
+	@Nullable
+	private Duration hedgeDelay;
+
+	private double latencyPercentile = 0.95;
+
+	private Scheduler scheduler = Schedulers.parallel();
+
+	private final long[] latencySamples = new long[128];
+
+	private int sampleCount;
+
+	private volatile long adaptiveHedgeDelay = -1;
+
+	private final LongAdder hedgedCount = new LongAdder();
+
+	private final LongAdder hedgeWinCount = new LongAdder();
+
+
+	/**
+	 * Specify the HTTP methods to hedge requests for.
+	 * Default is {@code GET}, {@code HEAD} and {@code OPTIONS}.
+	 * <p>Only ever specify idempotent methods here.
+	 */
+	public void setHedgedMethods(HttpMethod... hedgedMethods) {
+		this.hedgedMethods = EnumSet.copyOf(Arrays.asList(hedgedMethods));
+	}
+
+	/**
+	 * Specify a fixed delay after which to send a hedged request.
+	 * <p>Default is none, deriving the delay from observed response latencies.
+	 * @see #setLatencyPercentile
+	 */
+	public void setHedgeDelay(@Nullable Duration hedgeDelay) {
+		this.hedgeDelay = hedgeDelay;
+	}
+
+	/**
+	 * Specify the percentile of recent response latencies to use as hedge delay,
+	 * unless a {@link #setHedgeDelay fixed delay} has been specified.
+	 * <p>Default is 0.95, i.e. hedging the slowest 5% of requests.
+	 */
+	public void setLatencyPercentile(double latencyPercentile) {
+		Assert.isTrue(latencyPercentile > 0 && latencyPercentile < 1, "Latency percentile must be between 0 and 1");
+		this.latencyPercentile = latencyPercentile;
+	}
+
+	/**
+	 * Specify the scheduler to trigger hedged requests on.
+	 * Default is {@link Schedulers#parallel()}.
+	 */
+	public void setScheduler(Scheduler scheduler) {
+		Assert.notNull(scheduler, "Scheduler must not be null");
+		this.scheduler = scheduler;
+	}
+
+
+	@Override
+	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+		if (!this.hedgedMethods.contains(request.method()) || request.body() != BodyInserters.empty()) {
+			return next.exchange(request);
+		}
+		return Mono.defer(() -> {
+			long delay = getHedgeDelayNanos();
+			if (delay < 0) {
+				// Not enough latency samples yet
+				long startTime = System.nanoTime();
+				return next.exchange(request).doOnNext(response -> recordLatency(System.nanoTime() - startTime));
+			}
+			return Mono.create(sink -> new HedgedExchange(request, next, sink).start(delay));
+		});
+	}
+
+	private long getHedgeDelayNanos() {
+		return (this.hedgeDelay != null ? this.hedgeDelay.toNanos() : this.adaptiveHedgeDelay);
+	}
+
+	/**
+	 * Record the given latency sample, recalculating the adaptive hedge delay
+	 * every {@code MIN_SAMPLES} samples.
+	 * @param latency the latency in nanoseconds
+	 */
+	private void recordLatency(long latency) {
+		if (this.hedgeDelay != null) {
+			return;
+		}
+		long[] sorted = null;
+		synchronized (this.latencySamples) {
+			this.latencySamples[this.sampleCount % this.latencySamples.length] = latency;
+			this.sampleCount++;
+			if (this.sampleCount % MIN_SAMPLES == 0) {
+				sorted = Arrays.copyOf(this.latencySamples, Math.min(this.sampleCount, this.latencySamples.length));
+			}
+		}
+		if (sorted != null) {
+			Arrays.sort(sorted);
+			this.adaptiveHedgeDelay = sorted[(int) (this.latencyPercentile * (sorted.length - 1))];
+		}
+	}
+
+
+	/**
+	 * Return the number of hedged requests sent so far.
+	 */
+	public long getHedgedCount() {
+		return this.hedgedCount.sum();
+	}
+
+	/**
+	 * Return the number of exchanges so far in which the hedged request won.
+	 */
+	public long getHedgeWinCount() {
+		return this.hedgeWinCount.sum();
+	}
+
+	/**
+	 * Return the current hedge delay, or {@code null} if not determined yet.
+	 */
+	@Nullable
+	public Duration getCurrentHedgeDelay() {
+		long delay = getHedgeDelayNanos();
+		return (delay >= 0 ? Duration.ofNanos(delay) : null);
+	}
+
+
+	/**
+	 * A single exchange with a primary and an optional hedged request.
+	 */
+	private class HedgedExchange {
+
+		private final ClientRequest request;
+
+		private final ExchangeFunction next;
+
+		private final MonoSink<ClientResponse> sink;
+
+		private final Disposable.Composite disposables = Disposables.composite();
+
+		private final AtomicBoolean done = new AtomicBoolean();
+
+		private final AtomicInteger pending = new AtomicInteger();
+
+		private long startTime;
+
+		public HedgedExchange(ClientRequest request, ExchangeFunction next, MonoSink<ClientResponse> sink) {
+			this.request = request;
+			this.next = next;
+			this.sink = sink;
+		}
+
+		public void start(long delay) {
+			this.startTime = System.nanoTime();
+			// Cancels in-flight requests and the hedge timer on completion or cancellation
+			this.sink.onDispose(this.disposables);
+			this.disposables.add(scheduler.schedule(() -> send(true), delay, TimeUnit.NANOSECONDS));
+			send(false);
+		}
+
+		private void send(boolean hedge) {
+			if (this.done.get()) {
+				return;
+			}
+			this.pending.incrementAndGet();
+			if (hedge) {
+				hedgedCount.increment();
+			}
+			this.disposables.add(this.next.exchange(this.request).subscribe(
+					response -> {
+						if (this.done.compareAndSet(false, true)) {
+							// Measured from the primary request: if the hedged request won, this is
+							// a lower bound for the latency of the cancelled primary request, rather
+							// than the shorter latency of the hedged request itself
+							recordLatency(System.nanoTime() - this.startTime);
+							if (hedge) {
+								hedgeWinCount.increment();
+							}
+							this.sink.success(response);
+						}
+						else {
+							// Lost the race: release the connection
+							response.bodyToMono(Void.class).subscribe();
+						}
+					},
+					ex -> {
+						if (this.pending.decrementAndGet() == 0 && this.done.compareAndSet(false, true)) {
+							this.sink.error(ex);
+						}
+					}));
+		}
+	}
+
+}
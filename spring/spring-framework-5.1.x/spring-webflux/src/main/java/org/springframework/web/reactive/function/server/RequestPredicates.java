@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -52,6 +52,7 @@ import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
 import org.springframework.web.reactive.function.BodyExtractor;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebSession;
@@ -73,6 +74,8 @@ public abstract class RequestPredicates {
 
 	private static final PathPatternParser DEFAULT_PATTERN_PARSER = new PathPatternParser();
 
+	private static final String[] EMPTY_PATH_SEGMENTS = new String[0];
+
 
 	/**
 	 * Return a {@code RequestPredicate} that always matches.
@@ -126,7 +129,7 @@ public abstract class RequestPredicates {
 	 */
 	public static Function<String, RequestPredicate> pathPredicates(PathPatternParser patternParser) {
 		Assert.notNull(patternParser, "PathPatternParser must not be null");
-		return pattern -> new PathPatternPredicate(patternParser.parse(pattern));
+		return pattern -> new PathPatternPredicate(patternParser.parse(pattern), patternParser.isCaseSensitive());
 	}
 
 	/**
@@ -287,6 +290,29 @@ public abstract class RequestPredicates {
 	}
 
 
+	/**
+	 * Determine the literal path segments that the path of a request needs to
+	 * start with in order for the given predicate to match, as far as determinable
+	 * from path predicates that the given predicate requires. Used for indexing
+	 * routes in {@link RouterFunctions#compile(RouterFunction)}.
+	 * @param predicate the predicate to introspect
+	 * @return the required literal path segments (as matched against
+	 * {@link PathContainer.PathSegment#valueToMatch()}), or an empty array if none
+	 * @since 5.1.11
+	 */
+	static String[] getRequiredPathSegments(RequestPredicate predicate) {
+		if (predicate instanceof PathPatternPredicate) {
+			return ((PathPatternPredicate) predicate).getLiteralPathSegments();
+		}
+		else if (predicate instanceof AndRequestPredicate) {
+			// Both sides need to match: the longer literal path prefix is required
+			String[] left = getRequiredPathSegments(((AndRequestPredicate) predicate).left);
+			String[] right = getRequiredPathSegments(((AndRequestPredicate) predicate).right);
+			return (left.length >= right.length ? left : right);
+		}
+		return EMPTY_PATH_SEGMENTS;
+	}
+
 	private static void traceMatch(String prefix, Object desired, @Nullable Object actual, boolean match) {
 		if (logger.isTraceEnabled()) {
 			logger.trace(String.format("%s \"%s\" %s against value \"%s\"",
@@ -473,9 +499,31 @@ public abstract class RequestPredicates {
 
 		private final PathPattern pattern;
 
-		public PathPatternPredicate(PathPattern pattern) {
+		private final boolean caseSensitive;
+
+		public PathPatternPredicate(PathPattern pattern, boolean caseSensitive) {
 			Assert.notNull(pattern, "'pattern' must not be null");
 			this.pattern = pattern;
+			this.caseSensitive = caseSensitive;
+		}
+
+		/**
+		 * Return the leading path segments of the pattern without any
+		 * wildcards or variables, to be matched literally.
+		 */
+		public String[] getLiteralPathSegments() {
+			String patternString = this.pattern.getPatternString();
+			if (!this.caseSensitive || !patternString.startsWith("/")) {
+				return EMPTY_PATH_SEGMENTS;
+			}
+			List<String> segments = new ArrayList<>();
+			for (String segment : StringUtils.delimitedListToStringArray(patternString.substring(1), "/")) {
+				if (segment.isEmpty() || segment.chars().anyMatch(c -> "{}*?;".indexOf(c) != -1)) {
+					break;
+				}
+				segments.add(segment);
+			}
+			return StringUtils.toStringArray(segments);
 		}
 
 		@Override
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,10 @@
 
 package org.springframework.web.reactive.function.server;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.BiFunction;
@@ -30,7 +34,9 @@ import reactor.core.publisher.Mono;
 
 import org.springframework.core.io.Resource;
 import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.server.PathContainer;
 import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.web.reactive.result.view.ViewResolver;
 import org.springframework.web.server.ServerWebExchange;
@@ -185,6 +191,64 @@ public abstract class RouterFunctions {
 		return new ResourcesRouterFunction(lookupFunction);
 	}
 
+	/**
+	 * Compile the given router function into an equivalent one that evaluates
+	 * only the routes which may match the path of a given request.
+	 * <p>The routes of composed router functions are flattened into a single list,
+	 * and routes with a path predicate (possibly combined with further predicates
+	 * through {@link RequestPredicate#and and}, such as in
+	 * {@link RequestPredicates#GET(String)}) are indexed in a trie by the literal
+	 * leading segments of their path pattern. For each request, the routes found
+	 * along the request path in that trie are evaluated in their original order,
+	 * together with all routes that cannot be indexed, e.g. with a negated or
+	 * alternative path predicate, as well as resource or custom router functions.
+	 * Nested and filtered router functions are compiled recursively.
+	 * <p>This is worth doing for router functions with many routes, typically
+	 * once at startup, before converting them via {@link #toHttpHandler} or
+	 * exposing them as a bean.
+	 * @param routerFunction the router function to compile
+	 * @return the compiled router function
+	 * @since 5.1.11
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T extends ServerResponse> RouterFunction<T> compile(RouterFunction<T> routerFunction) {
+		Assert.notNull(routerFunction, "RouterFunction must not be null");
+		List<RouterFunction<?>> routerFunctions = new ArrayList<>();
+		flatten(routerFunction, routerFunctions);
+		if (routerFunctions.size() == 1) {
+			return (RouterFunction<T>) routerFunctions.get(0);
+		}
+		return new CompiledRouterFunction<>(routerFunctions);
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static void flatten(RouterFunction<?> routerFunction, List<RouterFunction<?>> result) {
+		if (routerFunction instanceof SameComposedRouterFunction) {
+			SameComposedRouterFunction<?> composed = (SameComposedRouterFunction<?>) routerFunction;
+			flatten(composed.first, result);
+			flatten(composed.second, result);
+		}
+		else if (routerFunction instanceof DifferentComposedRouterFunction) {
+			DifferentComposedRouterFunction composed = (DifferentComposedRouterFunction) routerFunction;
+			flatten(composed.first, result);
+			flatten(composed.second, result);
+		}
+		else if (routerFunction instanceof CompiledRouterFunction) {
+			Collections.addAll(result, ((CompiledRouterFunction<?>) routerFunction).routerFunctions);
+		}
+		else if (routerFunction instanceof DefaultNestedRouterFunction) {
+			DefaultNestedRouterFunction<?> nested = (DefaultNestedRouterFunction<?>) routerFunction;
+			result.add(new DefaultNestedRouterFunction(nested.predicate, compile(nested.routerFunction)));
+		}
+		else if (routerFunction instanceof FilteredRouterFunction) {
+			FilteredRouterFunction<?, ?> filtered = (FilteredRouterFunction<?, ?>) routerFunction;
+			result.add(new FilteredRouterFunction(compile(filtered.routerFunction), filtered.filterFunction));
+		}
+		else {
+			result.add(routerFunction);
+		}
+	}
+
 	/**
 	 * Convert the given {@linkplain RouterFunction router function} into a {@link HttpHandler}.
 	 * This conversion uses {@linkplain HandlerStrategies#builder() default strategies}.
@@ -898,15 +962,21 @@ public abstract class RouterFunctions {
 
 		@Override
 		public Mono<HandlerFunction<T>> route(ServerRequest request) {
+			HandlerFunction<T> handlerFunction = match(request);
+			return (handlerFunction != null ? Mono.just(handlerFunction) : Mono.empty());
+		}
+
+		@Nullable
+		public HandlerFunction<T> match(ServerRequest request) {
 			if (this.predicate.test(request)) {
 				if (logger.isTraceEnabled()) {
 					String logPrefix = request.exchange().getLogPrefix();
 					logger.trace(logPrefix + String.format("Matched %s", this.predicate));
 				}
-				return Mono.just(this.handlerFunction);
+				return this.handlerFunction;
 			}
 			else {
-				return Mono.empty();
+				return null;
 			}
 		}
 
@@ -960,6 +1030,90 @@ public abstract class RouterFunctions {
 	}
 
 
+	/**
+	 * A router function that evaluates a flat list of router functions in order,
+	 * skipping routes that cannot match the request path according to a trie of
+	 * literal path segments.
+	 * @param <T> the server response type
+	 * @see #compile(RouterFunction)
+	 */
+	static final class CompiledRouterFunction<T extends ServerResponse> extends AbstractRouterFunction<T> {
+
+		private final RouterFunction<?>[] routerFunctions;
+
+		private final RouteNode root = new RouteNode();
+
+		public CompiledRouterFunction(List<RouterFunction<?>> routerFunctions) {
+			this.routerFunctions = routerFunctions.toArray(new RouterFunction<?>[0]);
+			for (int i = 0; i < this.routerFunctions.length; i++) {
+				RouteNode node = this.root;
+				if (this.routerFunctions[i] instanceof DefaultRouterFunction) {
+					RequestPredicate predicate = ((DefaultRouterFunction<?>) this.routerFunctions[i]).predicate;
+					for (String segment : RequestPredicates.getRequiredPathSegments(predicate)) {
+						node = node.children.computeIfAbsent(segment, key -> new RouteNode());
+					}
+				}
+				node.routes.set(i);
+			}
+		}
+
+		@Override
+		public Mono<HandlerFunction<T>> route(ServerRequest request) {
+			BitSet candidates = (BitSet) this.root.routes.clone();
+			RouteNode node = this.root;
+			for (PathContainer.Element element : request.pathContainer().elements()) {
+				if (element instanceof PathContainer.PathSegment) {
+					node = node.children.get(((PathContainer.PathSegment) element).valueToMatch());
+					if (node == null) {
+						break;
+					}
+					candidates.or(node.routes);
+				}
+			}
+			return route(request, candidates, candidates.nextSetBit(0));
+		}
+
+		private Mono<HandlerFunction<T>> route(ServerRequest request, BitSet candidates, int index) {
+			for (int i = index; i >= 0; i = candidates.nextSetBit(i + 1)) {
+				RouterFunction<?> routerFunction = this.routerFunctions[i];
+				if (routerFunction instanceof DefaultRouterFunction) {
+					HandlerFunction<?> handlerFunction = ((DefaultRouterFunction<?>) routerFunction).match(request);
+					if (handlerFunction != null) {
+						return Mono.just(cast(handlerFunction));
+					}
+				}
+				else {
+					// Not a plain route: continue with the next candidate once this one completes empty
+					int next = candidates.nextSetBit(i + 1);
+					return routerFunction.route(request)
+							.map(RouterFunctions::<T>cast)
+							.switchIfEmpty(Mono.defer(() -> (next >= 0 ? route(request, candidates, next) : Mono.empty())));
+				}
+			}
+			return Mono.empty();
+		}
+
+		@Override
+		public void accept(Visitor visitor) {
+			for (RouterFunction<?> routerFunction : this.routerFunctions) {
+				routerFunction.accept(visitor);
+			}
+		}
+	}
+
+
+	/**
+	 * Trie node in a {@link CompiledRouterFunction}, holding the indexes of the routes
+	 * that require the literal path segments leading to the node.
+	 */
+	private static final class RouteNode {
+
+		final Map<String, RouteNode> children = new HashMap<>(4);
+
+		final BitSet routes = new BitSet();
+	}
+
+
 	private static class ResourcesRouterFunction extends  AbstractRouterFunction<ServerResponse> {
 
 		private final Function<ServerRequest, Mono<Resource>> lookupFunction;
@@ -22,7 +22,6 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Stream;
 
 import reactor.core.publisher.Mono;
 
@@ -35,7 +34,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.util.ObjectUtils;
-import org.springframework.util.ReflectionUtils;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.reactive.BindingContext;
 import org.springframework.web.reactive.HandlerResult;
@@ -133,8 +131,7 @@ public class InvocableHandlerMethod extends HandlerMethod {
 		return getMethodArgumentValues(exchange, bindingContext, providedArgs).flatMap(args -> {
 			Object value;
 			try {
-				ReflectionUtils.makeAccessible(getBridgedMethod());
-				value = getBridgedMethod().invoke(getBean(), args);
+				value = invokeBridgedMethod(getBean(), args);
 			}
 			catch (IllegalArgumentException ex) {
 				assertTargetBean(getBridgedMethod(), getBean(), args);
@@ -182,12 +179,13 @@ public class InvocableHandlerMethod extends HandlerMethod {
 				argMonos.add(Mono.just(providedArg));
 				continue;
 			}
-			if (!this.resolvers.supportsParameter(parameter)) {
+			HandlerMethodArgumentResolver resolver = this.resolvers.getArgumentResolver(parameter);
+			if (resolver == null) {
 				return Mono.error(new IllegalStateException(
 						formatArgumentError(parameter, "No suitable resolver")));
 			}
 			try {
-				argMonos.add(this.resolvers.resolveArgument(parameter, bindingContext, exchange)
+				argMonos.add(resolver.resolveArgument(parameter, bindingContext, exchange)
 						.defaultIfEmpty(NO_ARG_VALUE)
 						.doOnError(ex -> logArgumentErrorIfNecessary(exchange, parameter, ex)));
 			}
@@ -196,8 +194,14 @@ public class InvocableHandlerMethod extends HandlerMethod {
 				argMonos.add(Mono.error(ex));
 			}
 		}
-		return Mono.zip(argMonos, values ->
-				Stream.of(values).map(value -> value != NO_ARG_VALUE ? value : null).toArray());
+		return Mono.zip(argMonos, values -> {
+			for (int i = 0; i < values.length; i++) {
+				if (values[i] == NO_ARG_VALUE) {
+					values[i] = null;
+				}
+			}
+			return values;
+		});
 	}
 
 	private void logArgumentErrorIfNecessary(ServerWebExchange exchange, MethodParameter parameter, Throwable ex) {
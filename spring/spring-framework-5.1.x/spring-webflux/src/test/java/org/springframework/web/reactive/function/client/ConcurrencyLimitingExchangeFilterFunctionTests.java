@@ -0,0 +1,132 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+import java.net.URI;
+
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.test.StepVerifier;
+
+import org.springframework.http.HttpMethod;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * Tests for {@link ConcurrencyLimitingExchangeFilterFunction}.
+ *
+ * @author agent (agent@local)
+ */
+public class ConcurrencyLimitingExchangeFilterFunctionTests {
+
+	private static final URI URL = URI.create("https://example.com/resource");
+
+	private final ClientRequest request = ClientRequest.create(HttpMethod.GET, URL).build();
+
+	private final ConcurrencyLimitingExchangeFilterFunction filter = new ConcurrencyLimitingExchangeFilterFunction();
+
+
+	@Test
+	public void shedsRequestsBeyondLimit() {
+		this.filter.setInitialLimit(2);
+		MonoProcessor<ClientResponse> pending1 = MonoProcessor.create();
+		MonoProcessor<ClientResponse> pending2 = MonoProcessor.create();
+		ClientResponse response = mockResponse(200);
+
+		this.filter.filter(this.request, r -> pending1).subscribe();
+		this.filter.filter(this.request, r -> pending2).subscribe();
+		assertEquals(2, this.filter.getInFlightCount(URL));
+
+		StepVerifier.create(this.filter.filter(this.request, r -> Mono.just(response)))
+				.expectError(ConcurrencyLimitExceededException.class)
+				.verify();
+		assertEquals(1, this.filter.getShedCount());
+
+		pending1.onNext(response);
+		assertEquals(1, this.filter.getInFlightCount(URL));
+		StepVerifier.create(this.filter.filter(this.request, r -> Mono.just(response)))
+				.expectNext(response)
+				.verifyComplete();
+		assertEquals(1, this.filter.getShedCount());
+		assertNotNull(this.filter.getMinRtt(URL));
+	}
+
+	@Test
+	public void backsOffOnServerErrors() {
+		this.filter.setInitialLimit(10);
+		this.filter.setBackoffRatio(0.5);
+		ClientResponse response = mockResponse(503);
+
+		this.filter.filter(this.request, r -> Mono.just(response)).block();
+		assertEquals(5, this.filter.getLimit(URL));
+		this.filter.filter(this.request, r -> Mono.just(response)).block();
+		assertEquals(2, this.filter.getLimit(URL));
+		this.filter.filter(this.request, r -> Mono.just(response)).block();
+		this.filter.filter(this.request, r -> Mono.just(response)).block();
+		assertEquals(1, this.filter.getLimit(URL));
+		assertEquals(0, this.filter.getInFlightCount(URL));
+	}
+
+	@Test
+	public void backsOffOnErrors() {
+		this.filter.setInitialLimit(10);
+		this.filter.setBackoffRatio(0.5);
+
+		StepVerifier.create(this.filter.filter(this.request, r -> Mono.error(new IllegalStateException())))
+				.expectError(IllegalStateException.class)
+				.verify();
+		assertEquals(5, this.filter.getLimit(URL));
+		assertEquals(0, this.filter.getInFlightCount(URL));
+	}
+
+	@Test
+	public void increasesLimitWhileFullyUsed() {
+		this.filter.setInitialLimit(2);
+		ClientResponse response = mockResponse(200);
+
+		for (int i = 0; i < 10; i++) {
+			MonoProcessor<ClientResponse> pending1 = MonoProcessor.create();
+			MonoProcessor<ClientResponse> pending2 = MonoProcessor.create();
+			this.filter.filter(this.request, r -> pending1).subscribe();
+			this.filter.filter(this.request, r -> pending2).subscribe();
+			pending1.onNext(response);
+			pending2.onNext(response);
+		}
+		assertTrue(this.filter.getLimit(URL) > 2);
+	}
+
+	@Test
+	public void releasesSlotOnCancel() {
+		this.filter.setInitialLimit(1);
+		Disposable subscription = this.filter.filter(this.request, r -> Mono.never()).subscribe();
+		assertEquals(1, this.filter.getInFlightCount(URL));
+
+		subscription.dispose();
+		assertEquals(0, this.filter.getInFlightCount(URL));
+		assertEquals(1, this.filter.getLimit(URL));
+	}
+
+	private static ClientResponse mockResponse(int statusCode) {
+		ClientResponse response = mock(ClientResponse.class);
+		given(response.rawStatusCode()).willReturn(statusCode);
+		return response;
+	}
+
+}
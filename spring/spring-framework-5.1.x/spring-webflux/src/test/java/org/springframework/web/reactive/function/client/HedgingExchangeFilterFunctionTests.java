@@ -0,0 +1,160 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.http.HttpMethod;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link HedgingExchangeFilterFunction}.
+ *
+ * @author agent (agent@local)
+ */
+public class HedgingExchangeFilterFunctionTests {
+
+	private static final URI URL = URI.create("https://example.com/resource");
+
+	private final ClientResponse response = mock(ClientResponse.class);
+
+	private final HedgingExchangeFilterFunction filter = new HedgingExchangeFilterFunction();
+
+
+	@Test
+	public void hedgesSlowRequest() {
+		this.filter.setHedgeDelay(Duration.ofMillis(20));
+		AtomicInteger attempts = new AtomicInteger();
+		AtomicBoolean cancelled = new AtomicBoolean();
+		ExchangeFunction exchange = r -> (attempts.incrementAndGet() == 1 ?
+				Mono.<ClientResponse>never().doOnCancel(() -> cancelled.set(true)) : Mono.just(this.response));
+
+		StepVerifier.create(this.filter.filter(ClientRequest.create(HttpMethod.GET, URL).build(), exchange))
+				.expectNext(this.response)
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+
+		assertEquals(2, attempts.get());
+		assertTrue(cancelled.get());
+		assertEquals(1, this.filter.getHedgedCount());
+		assertEquals(1, this.filter.getHedgeWinCount());
+	}
+
+	@Test
+	public void doesNotHedgeFastRequest() {
+		this.filter.setHedgeDelay(Duration.ofSeconds(10));
+		AtomicInteger attempts = new AtomicInteger();
+		ExchangeFunction exchange = r -> {
+			attempts.incrementAndGet();
+			return Mono.just(this.response);
+		};
+
+		StepVerifier.create(this.filter.filter(ClientRequest.create(HttpMethod.GET, URL).build(), exchange))
+				.expectNext(this.response)
+				.verifyComplete();
+
+		assertEquals(1, attempts.get());
+		assertEquals(0, this.filter.getHedgedCount());
+	}
+
+	@Test
+	public void doesNotHedgeNonIdempotentRequest() {
+		this.filter.setHedgeDelay(Duration.ZERO);
+		AtomicInteger attempts = new AtomicInteger();
+		ExchangeFunction exchange = r -> {
+			attempts.incrementAndGet();
+			return Mono.delay(Duration.ofMillis(50)).map(l -> this.response);
+		};
+
+		StepVerifier.create(this.filter.filter(ClientRequest.create(HttpMethod.POST, URL).build(), exchange))
+				.expectNext(this.response)
+				.verifyComplete();
+
+		assertEquals(1, attempts.get());
+		assertEquals(0, this.filter.getHedgedCount());
+	}
+
+	@Test
+	public void propagatesErrorOnceNoRequestLeft() {
+		this.filter.setHedgeDelay(Duration.ofMillis(10));
+		AtomicInteger attempts = new AtomicInteger();
+		ExchangeFunction exchange = r -> {
+			attempts.incrementAndGet();
+			return Mono.delay(Duration.ofMillis(50)).then(Mono.error(new IllegalStateException()));
+		};
+
+		StepVerifier.create(this.filter.filter(ClientRequest.create(HttpMethod.GET, URL).build(), exchange))
+				.expectError(IllegalStateException.class)
+				.verify(Duration.ofSeconds(5));
+
+		assertEquals(2, attempts.get());
+	}
+
+	@Test
+	public void derivesHedgeDelayFromObservedLatencies() {
+		ExchangeFunction exchange = r -> Mono.just(this.response);
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, URL).build();
+
+		for (int i = 0; i < 15; i++) {
+			this.filter.filter(request, exchange).block();
+		}
+		assertNull(this.filter.getCurrentHedgeDelay());
+
+		this.filter.filter(request, exchange).block();
+		assertNotNull(this.filter.getCurrentHedgeDelay());
+		assertEquals(0, this.filter.getHedgedCount());
+	}
+
+	@Test
+	public void hedgeWinsDoNotLowerHedgeDelay() {
+		this.filter.setLatencyPercentile(0.25);
+		AtomicBoolean primarySlow = new AtomicBoolean();
+		AtomicInteger attempts = new AtomicInteger();
+		ExchangeFunction exchange = r -> {
+			if (!primarySlow.get()) {
+				return Mono.delay(Duration.ofMillis(20)).map(l -> this.response);
+			}
+			// Primary requests hang, hedged requests respond immediately
+			return (attempts.incrementAndGet() % 2 == 1 ? Mono.never() : Mono.just(this.response));
+		};
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, URL).build();
+
+		for (int i = 0; i < 16; i++) {
+			this.filter.filter(request, exchange).block(Duration.ofSeconds(5));
+		}
+		Duration initialDelay = this.filter.getCurrentHedgeDelay();
+		assertNotNull(initialDelay);
+		assertTrue(initialDelay.toMillis() >= 20);
+
+		primarySlow.set(true);
+		for (int i = 0; i < 16; i++) {
+			this.filter.filter(request, exchange).block(Duration.ofSeconds(5));
+		}
+		assertEquals(16, this.filter.getHedgeWinCount());
+		assertTrue(this.filter.getCurrentHedgeDelay().compareTo(initialDelay) >= 0);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.web.reactive.function.server;
 
+import java.net.URI;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -24,11 +26,15 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.lang.Nullable;
 import org.springframework.mock.http.server.reactive.test.MockServerHttpRequest;
 import org.springframework.mock.http.server.reactive.test.MockServerHttpResponse;
+import org.springframework.tests.Assume;
+import org.springframework.tests.TestGroup;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.server.ResponseStatusException;
@@ -38,6 +44,7 @@ import org.springframework.web.server.WebFilterChain;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
+import static org.springframework.web.reactive.function.server.RequestPredicates.*;
 
 /**
  * @author Arjen Poutsma
@@ -283,4 +290,111 @@ public class RouterFunctionsTests {
 		assertTrue(filterInvoked.get());
 	}
 
+	@Test
+	public void compileMatchesInOrder() {
+		HandlerFunction<ServerResponse> fooHandler = request -> ServerResponse.ok().build();
+		HandlerFunction<ServerResponse> fooBarHandler = request -> ServerResponse.ok().build();
+		HandlerFunction<ServerResponse> fallbackHandler = request -> ServerResponse.ok().build();
+		RouterFunction<ServerResponse> routerFunction = RouterFunctions
+				.route(GET("/foo/bar"), fooBarHandler)
+				.andRoute(GET("/foo/**"), fooHandler)
+				.andRoute(path("/baz").negate(), fallbackHandler);
+
+		RouterFunction<ServerResponse> compiled = RouterFunctions.compile(routerFunction);
+		assertTrue(compiled instanceof RouterFunctions.CompiledRouterFunction);
+
+		assertRoute(compiled, HttpMethod.GET, "/foo/bar", fooBarHandler);
+		assertRoute(compiled, HttpMethod.GET, "/foo/baz", fooHandler);
+		assertRoute(compiled, HttpMethod.POST, "/foo/bar", fallbackHandler);
+		assertRoute(compiled, HttpMethod.GET, "/qux", fallbackHandler);
+		assertRoute(compiled, HttpMethod.GET, "/baz", null);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void compileWithPathVariables() {
+		HandlerFunction<ServerResponse> handlerFunction = request -> ServerResponse.ok().build();
+		RouterFunction<ServerResponse> compiled = RouterFunctions.compile(RouterFunctions
+				.route(GET("/users"), request -> ServerResponse.ok().build())
+				.andRoute(GET("/users/{id}"), handlerFunction));
+
+		MockServerRequest request = MockServerRequest.builder()
+				.method(HttpMethod.GET).uri(URI.create("http://localhost/users/42")).build();
+		StepVerifier.create(compiled.route(request))
+				.expectNext(handlerFunction)
+				.verifyComplete();
+		Map<String, String> variables =
+				(Map<String, String>) request.attributes().get(RouterFunctions.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+		assertEquals("42", variables.get("id"));
+	}
+
+	@Test
+	public void compileNestedAndFiltered() {
+		HandlerFunction<ServerResponse> nestedHandler = request -> ServerResponse.ok().build();
+		HandlerFunction<ServerResponse> filteredHandler = request -> ServerResponse.ok().build();
+		RouterFunction<ServerResponse> routerFunction = RouterFunctions
+				.nest(path("/api"), RouterFunctions
+						.route(GET("/foo"), nestedHandler)
+						.andRoute(GET("/bar"), nestedHandler))
+				.and(RouterFunctions
+						.route(GET("/filtered"), filteredHandler)
+						.andRoute(GET("/other"), filteredHandler)
+						.filter((request, next) -> next.handle(request)))
+				.andRoute(GET("/api/baz"), filteredHandler);
+
+		RouterFunction<ServerResponse> compiled = RouterFunctions.compile(routerFunction);
+
+		assertRoute(compiled, HttpMethod.GET, "/api/foo", nestedHandler);
+		assertRoute(compiled, HttpMethod.GET, "/api/baz", filteredHandler);
+		assertRoute(compiled, HttpMethod.GET, "/bar", null);
+
+		MockServerRequest request = MockServerRequest.builder()
+				.method(HttpMethod.GET).uri(URI.create("http://localhost/filtered")).build();
+		StepVerifier.create(compiled.route(request))
+				.expectNextMatches(handlerFunction -> handlerFunction != filteredHandler)
+				.verifyComplete();
+	}
+
+	@Test
+	public void compileSingleRoute() {
+		RouterFunction<ServerResponse> routerFunction =
+				RouterFunctions.route(GET("/foo"), request -> ServerResponse.ok().build());
+		assertSame(routerFunction, RouterFunctions.compile(routerFunction));
+	}
+
+	@Test
+	public void compiledRoutingWithManyRoutes() {
+		Assume.group(TestGroup.PERFORMANCE);
+
+		HandlerFunction<ServerResponse> lastHandler = request -> ServerResponse.ok().build();
+		RouterFunction<ServerResponse> routerFunction =
+				RouterFunctions.route(GET("/resource0/{id}"), request -> ServerResponse.ok().build());
+		for (int i = 1; i < 599; i++) {
+			routerFunction = routerFunction.andRoute(GET("/resource" + i + "/{id}"), request -> ServerResponse.ok().build());
+		}
+		routerFunction = routerFunction.andRoute(GET("/resource599/{id}"), lastHandler);
+		RouterFunction<ServerResponse> compiled = RouterFunctions.compile(routerFunction);
+		URI uri = URI.create("http://localhost/resource599/42");
+
+		for (int i = 0; i < 1000; i++) {
+			MockServerRequest request = MockServerRequest.builder().method(HttpMethod.GET).uri(uri).build();
+			assertSame(lastHandler, routerFunction.route(request).block());
+			request = MockServerRequest.builder().method(HttpMethod.GET).uri(uri).build();
+			assertSame(lastHandler, compiled.route(request).block());
+		}
+	}
+
+	private void assertRoute(RouterFunction<ServerResponse> routerFunction, HttpMethod method, String path,
+			@Nullable HandlerFunction<ServerResponse> expected) {
+
+		MockServerRequest request = MockServerRequest.builder()
+				.method(method).uri(URI.create("http://localhost" + path)).build();
+		if (expected != null) {
+			StepVerifier.create(routerFunction.route(request)).expectNext(expected).verifyComplete();
+		}
+		else {
+			StepVerifier.create(routerFunction.route(request)).verifyComplete();
+		}
+	}
+
 }
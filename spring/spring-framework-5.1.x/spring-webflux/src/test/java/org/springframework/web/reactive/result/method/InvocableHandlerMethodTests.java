@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,6 +28,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import org.springframework.core.SpringProperties;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpStatus;
@@ -36,6 +37,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.mock.http.server.reactive.test.MockServerHttpRequest;
 import org.springframework.mock.web.test.server.MockServerWebExchange;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.method.ResolvableMethod;
 import org.springframework.web.reactive.BindingContext;
 import org.springframework.web.reactive.HandlerResult;
@@ -230,6 +232,27 @@ public class InvocableHandlerMethodTests {
 	}
 
 
+	@Test
+	public void generatedInvoker() {
+		SpringProperties.setFlag(HandlerMethod.COMPILE_INVOKERS_PROPERTY_NAME);
+		try {
+			this.resolvers.add(stubResolver("value1"));
+			Method method = ResolvableMethod.on(PublicController.class).mockCall(o -> o.singleArg(null)).method();
+			PublicController controller = new PublicController();
+			assertHandlerResultValue(invoke(controller, method), "success:value1");
+			assertTrue(controller.lastCaller, controller.lastCaller.contains("FastClass"));
+
+			method = ResolvableMethod.on(PublicController.class).mockCall(PublicController::exceptionMethod).method();
+			StepVerifier.create(invoke(new PublicController(), method))
+					.expectErrorMessage("boo")
+					.verify();
+		}
+		finally {
+			SpringProperties.setProperty(HandlerMethod.COMPILE_INVOKERS_PROPERTY_NAME, null);
+		}
+	}
+
+
 	@Nullable
 	private HandlerResult invokeForResult(Object handler, Method method, Object... providedArgs) {
 		return invoke(handler, method, providedArgs).block(Duration.ofSeconds(5));
@@ -311,4 +334,20 @@ public class InvocableHandlerMethodTests {
 		}
 	}
 
+
+	@SuppressWarnings("unused")
+	public static class PublicController {
+
+		private String lastCaller;
+
+		public String singleArg(String q) {
+			this.lastCaller = Thread.currentThread().getStackTrace()[2].getClassName();
+			return "success:" + q;
+		}
+
+		public void exceptionMethod() {
+			throw new IllegalStateException("boo");
+		}
+	}
+
 }
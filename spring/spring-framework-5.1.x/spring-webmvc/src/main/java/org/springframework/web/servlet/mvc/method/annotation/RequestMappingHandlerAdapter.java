@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 
 import javax.servlet.http.HttpServletRequest;
@@ -35,6 +36,7 @@ import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.MethodIntrospector;
+import org.springframework.core.MethodParameter;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.core.annotation.AnnotatedElementUtils;
@@ -42,6 +44,7 @@ import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.core.log.LogFormatUtils;
 import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.converter.ByteArrayHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.StringHttpMessageConverter;
@@ -51,6 +54,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.ui.ModelMap;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.ReflectionUtils.MethodFilter;
+import org.springframework.util.concurrent.ListenableFuture;
 import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.ModelAttribute;
@@ -65,6 +69,7 @@ import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.context.request.async.AsyncWebRequest;
 import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
 import org.springframework.web.context.request.async.WebAsyncManager;
 import org.springframework.web.context.request.async.WebAsyncTask;
@@ -159,6 +164,9 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 
 	private AsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("MvcAsync");
 
+	@Nullable
+	private AsyncTaskExecutor invocationExecutor;
+
 	@Nullable
 	private Long asyncRequestTimeout;
 
@@ -192,6 +200,8 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 
 	private final Map<ControllerAdviceBean, Set<Method>> modelAttributeAdviceCache = new LinkedHashMap<>();
 
+	private final Map<Method, Boolean> asyncReturnTypeCache = new ConcurrentHashMap<>(64);
+
 
 	public RequestMappingHandlerAdapter() {
 		StringHttpMessageConverter stringHttpMessageConverter = new StringHttpMessageConverter();
@@ -412,6 +422,30 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		this.taskExecutor = taskExecutor;
 	}
 
+	/**
+	 * Set an {@link AsyncTaskExecutor} to invoke handler methods on, e.g. a
+	 * {@link org.springframework.scheduling.concurrent.VirtualThreadTaskExecutor}
+	 * on JDK 21, releasing the container thread while a blocking handler method
+	 * is running, without the need for an async return type like {@link Callable}.
+	 * <p>By default, handler methods are invoked on the container thread. If an
+	 * invocation executor is set, handler methods are invoked on it as part of
+	 * the async request lifecycle: argument resolution and method invocation
+	 * happen on the executor, with the current request exposed through
+	 * {@link org.springframework.web.context.request.RequestContextHolder}
+	 * and {@link org.springframework.context.i18n.LocaleContextHolder} there
+	 * by {@code FrameworkServlet}, and the return value is handled after the
+	 * request has been dispatched back to the container. As with a
+	 * {@link Callable} return value,
+	 * {@link #setAsyncRequestTimeout async request timeouts} and
+	 * {@link #setCallableInterceptors callable interceptors} apply, and
+	 * {@code AsyncHandlerInterceptors} are notified of concurrent handling.
+	 * @since 5.1.11
+	 * @see #shouldInvokeOnExecutor
+	 */
+	public void setInvocationExecutor(@Nullable AsyncTaskExecutor invocationExecutor) {
+		this.invocationExecutor = invocationExecutor;
+	}
+
 	/**
 	 * Specify the amount of time, in milliseconds, before concurrent handling
 	 * should time out. In Servlet 3, the timeout begins after the main request
@@ -887,10 +921,22 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 					String formatted = LogFormatUtils.formatValue(result, !traceOn);
 					return "Resume with async result [" + formatted + "]";
 				});
-				invocableMethod = invocableMethod.wrapConcurrentResult(result);
+				if (result instanceof InvocationResult) {
+					// Handler method invoked on the invocation executor: handle its return value
+					invocableMethod.handleReturnValue(((InvocationResult) result).getReturnValue(), webRequest, mavContainer);
+				}
+				else {
+					invocableMethod = invocableMethod.wrapConcurrentResult(result);
+					invocableMethod.invokeAndHandle(webRequest, mavContainer);
+				}
+			}
+			else if (this.invocationExecutor != null && shouldInvokeOnExecutor(handlerMethod, request)) {
+				startInvocationOnExecutor(this.invocationExecutor, invocableMethod, webRequest, mavContainer);
+			}
+			else {
+				invocableMethod.invokeAndHandle(webRequest, mavContainer);
 			}
 
-			invocableMethod.invokeAndHandle(webRequest, mavContainer);
 			if (asyncManager.isConcurrentHandlingStarted()) {
 				return null;
 			}
@@ -902,6 +948,54 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		}
 	}
 
+	/**
+	 * Determine whether to invoke the given handler method for the given request on the
+	 * {@link #setInvocationExecutor invocation executor}, if one has been specified.
+	 * <p>The default implementation returns {@code true} for requests that support async
+	 * processing, unless {@link #setSynchronizeOnSession synchronizing on the session},
+	 * and for handler methods without an async return type of their own, such as
+	 * {@link Callable}, {@code DeferredResult}, {@code ResponseBodyEmitter} or a
+	 * reactive type, possibly within a {@code ResponseEntity}.
+	 * @param handlerMethod the handler method to invoke
+	 * @param request the current request
+	 * @since 5.1.11
+	 */
+	protected boolean shouldInvokeOnExecutor(HandlerMethod handlerMethod, HttpServletRequest request) {
+		if (!request.isAsyncSupported() || this.synchronizeOnSession) {
+			return false;
+		}
+		Boolean asyncReturnType = this.asyncReturnTypeCache.get(handlerMethod.getMethod());
+		if (asyncReturnType == null) {
+			asyncReturnType = hasAsyncReturnType(handlerMethod);
+			this.asyncReturnTypeCache.put(handlerMethod.getMethod(), asyncReturnType);
+		}
+		return !asyncReturnType;
+	}
+
+	private boolean hasAsyncReturnType(HandlerMethod handlerMethod) {
+		MethodParameter returnType = handlerMethod.getReturnType();
+		Class<?> type = returnType.getParameterType();
+		if (HttpEntity.class.isAssignableFrom(type)) {
+			type = returnType.nested().getNestedParameterType();
+		}
+		return (Callable.class.isAssignableFrom(type) || WebAsyncTask.class.isAssignableFrom(type) ||
+				DeferredResult.class.isAssignableFrom(type) || ListenableFuture.class.isAssignableFrom(type) ||
+				CompletionStage.class.isAssignableFrom(type) || ResponseBodyEmitter.class.isAssignableFrom(type) ||
+				StreamingResponseBody.class.isAssignableFrom(type) ||
+				this.reactiveAdapterRegistry.getAdapter(type) != null);
+	}
+
+	private void startInvocationOnExecutor(AsyncTaskExecutor executor, ServletInvocableHandlerMethod invocableMethod,
+			ServletWebRequest webRequest, ModelAndViewContainer mavContainer) throws Exception {
+
+		// Request and locale context holders are bound on the executor thread by the
+		// callable interceptors, e.g. FrameworkServlet's RequestBindingInterceptor
+		Callable<InvocationResult> invocation = () ->
+				new InvocationResult(invocableMethod.invokeForRequest(webRequest, mavContainer));
+		WebAsyncUtils.getAsyncManager(webRequest.getRequest()).startCallableProcessing(
+				new WebAsyncTask<>(null, executor, invocation), mavContainer);
+	}
+
 	/**
 	 * Create a {@link ServletInvocableHandlerMethod} from the given {@link HandlerMethod} definition.
 	 * @param handlerMethod the {@link HandlerMethod} definition
@@ -1018,4 +1112,29 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		return mav;
 	}
 
+
+	/**
+	 * Holder for the value returned by a handler method invoked on the invocation executor,
+	 * distinguishing it from the result of an async return value such as a {@link Callable}.
+	 */
+	private static class InvocationResult {
+
+		@Nullable
+		private final Object returnValue;
+
+		public InvocationResult(@Nullable Object returnValue) {
+			this.returnValue = returnValue;
+		}
+
+		@Nullable
+		public Object getReturnValue() {
+			return this.returnValue;
+		}
+
+		@Override
+		public String toString() {
+			return String.valueOf(this.returnValue);
+		}
+	}
+
 }
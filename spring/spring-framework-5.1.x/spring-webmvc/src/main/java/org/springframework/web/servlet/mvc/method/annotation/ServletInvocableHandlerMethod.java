@@ -103,6 +103,21 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
 			Object... providedArgs) throws Exception {
 
 		Object returnValue = invokeForRequest(webRequest, mavContainer, providedArgs);
+		handleReturnValue(returnValue, webRequest, mavContainer);
+	}
+
+	/**
+	 * Handle the given value returned by the method through one of the configured
+	 * {@link HandlerMethodReturnValueHandler HandlerMethodReturnValueHandlers},
+	 * as the second part of {@link #invokeAndHandle}.
+	 * @param returnValue the value returned by the method
+	 * @param webRequest the current request
+	 * @param mavContainer the ModelAndViewContainer for this request
+	 * @since 5.1.11
+	 */
+	void handleReturnValue(@Nullable Object returnValue, ServletWebRequest webRequest,
+			ModelAndViewContainer mavContainer) throws Exception {
+
 		setResponseStatus(webRequest);
 
 		if (returnValue == null) {
@@ -24,6 +24,10 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
 
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -44,10 +48,17 @@ import org.springframework.http.server.ServletServerHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.mock.web.test.MockHttpServletRequest;
 import org.springframework.mock.web.test.MockHttpServletResponse;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.SessionAttributes;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.context.support.StaticWebApplicationContext;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.method.annotation.ModelMethodProcessor;
@@ -259,6 +270,74 @@ public class RequestMappingHandlerAdapterTests {
 		assertEquals("{\"status\":400,\"message\":\"body\"}", this.response.getContentAsString());
 	}
 
+	@Test
+	public void invocationOnExecutor() throws Exception {
+		this.handlerAdapter.setInvocationExecutor(new ConcurrentTaskExecutor(Runnable::run));
+		// Binds the request on the executor thread, as FrameworkServlet does
+		this.handlerAdapter.setCallableInterceptors(Collections.singletonList(new CallableProcessingInterceptor() {
+			@Override
+			public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+				RequestContextHolder.setRequestAttributes(
+						new ServletRequestAttributes(request.getNativeRequest(HttpServletRequest.class)));
+			}
+			@Override
+			public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+				RequestContextHolder.resetRequestAttributes();
+			}
+		}));
+		this.handlerAdapter.afterPropertiesSet();
+		this.request.setAsyncSupported(true);
+		InvocationExecutorController controller = new InvocationExecutorController();
+		HandlerMethod handlerMethod = handlerMethod(controller, "handle", Model.class);
+
+		assertNull(this.handlerAdapter.handle(this.request, this.response, handlerMethod));
+		assertTrue(this.request.isAsyncStarted());
+
+		ModelAndView mav = redispatch(handlerMethod);
+		assertEquals("view", mav.getViewName());
+		assertEquals(Boolean.TRUE, mav.getModel().get("requestAttributesExposed"));
+		assertEquals("lAttr1", mav.getModel().get("attr1"));
+		// Request scope must not be completed before the view has been rendered
+		assertFalse(controller.requestScopeDestroyed);
+	}
+
+	@Test
+	public void invocationOnExecutorWithResponseEntity() throws Exception {
+		this.handlerAdapter.setInvocationExecutor(new ConcurrentTaskExecutor(Runnable::run));
+		this.handlerAdapter.afterPropertiesSet();
+		this.request.setAsyncSupported(true);
+		HandlerMethod handlerMethod = handlerMethod(new SimpleController(), "handleBadRequest");
+
+		assertNull(this.handlerAdapter.handle(this.request, this.response, handlerMethod));
+		assertNull(redispatch(handlerMethod));
+		assertEquals(400, this.response.getStatus());
+		assertEquals("body", this.response.getContentAsString());
+	}
+
+	@Test
+	public void invocationOnExecutorNotApplicable() throws Exception {
+		this.handlerAdapter.setInvocationExecutor(new ConcurrentTaskExecutor(Runnable::run));
+		this.handlerAdapter.afterPropertiesSet();
+		HandlerMethod handlerMethod = handlerMethod(new InvocationExecutorController(), "handle", Model.class);
+
+		ModelAndView mav = this.handlerAdapter.handle(this.request, this.response, handlerMethod);
+		assertEquals("view", mav.getViewName());
+		assertFalse(this.request.isAsyncStarted());
+
+		this.request.setAsyncSupported(true);
+		assertTrue(this.handlerAdapter.shouldInvokeOnExecutor(handlerMethod, this.request));
+		handlerMethod = handlerMethod(new InvocationExecutorController(), "handleCallable");
+		assertFalse(this.handlerAdapter.shouldInvokeOnExecutor(handlerMethod, this.request));
+		handlerMethod = handlerMethod(new InvocationExecutorController(), "handleDeferredResult");
+		assertFalse(this.handlerAdapter.shouldInvokeOnExecutor(handlerMethod, this.request));
+	}
+
+	private ModelAndView redispatch(HandlerMethod handlerMethod) throws Exception {
+		this.request.setAsyncStarted(false);
+		this.request.setDispatcherType(DispatcherType.ASYNC);
+		return this.handlerAdapter.handle(this.request, this.response, handlerMethod);
+	}
+
 	private HandlerMethod handlerMethod(Object handler, String methodName, Class<?>... paramTypes) throws Exception {
 		Method method = handler.getClass().getDeclaredMethod(methodName, paramTypes);
 		return new InvocableHandlerMethod(handler, method);
@@ -295,6 +374,36 @@ public class RequestMappingHandlerAdapterTests {
 	}
 
 
+	@SuppressWarnings("unused")
+	private static class InvocationExecutorController {
+
+		private boolean requestScopeDestroyed;
+
+		@ModelAttribute
+		public void addAttributes(Model model) {
+			model.addAttribute("attr1", "lAttr1");
+		}
+
+		public String handle(Model model) {
+			RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+			model.addAttribute("requestAttributesExposed", attributes != null);
+			if (attributes != null) {
+				attributes.registerDestructionCallback("bean",
+						() -> this.requestScopeDestroyed = true, RequestAttributes.SCOPE_REQUEST);
+			}
+			return "view";
+		}
+
+		public ResponseEntity<Callable<String>> handleCallable() {
+			return ResponseEntity.ok(() -> "body");
+		}
+
+		public DeferredResult<String> handleDeferredResult() {
+			return new DeferredResult<>();
+		}
+	}
+
+
 	@SessionAttributes("attr1")
 	private static class SessionAttributeController {
 
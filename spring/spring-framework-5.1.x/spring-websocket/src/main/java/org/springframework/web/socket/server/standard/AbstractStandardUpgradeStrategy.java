@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -110,7 +110,9 @@ public abstract class AbstractStandardUpgradeStrategy implements RequestUpgradeS
 			@Nullable Principal user, WebSocketHandler wsHandler, Map<String, Object> attrs)
 			throws HandshakeFailureException {
 
-		HttpHeaders headers = request.getHeaders();
+		// Copy, since the session outlives the handshake request
+		HttpHeaders headers = new HttpHeaders();
+		headers.putAll(request.getHeaders());
 		InetSocketAddress localAddr = null;
 		try {
 			localAddr = request.getLocalAddress();
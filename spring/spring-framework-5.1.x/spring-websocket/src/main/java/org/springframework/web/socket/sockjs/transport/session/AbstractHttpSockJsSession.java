@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -202,7 +202,10 @@ public abstract class AbstractHttpSockJsSession extends AbstractSockJsSession {
 			SockJsFrameFormat frameFormat) throws SockJsException {
 
 		this.uri = request.getURI();
-		this.handshakeHeaders = request.getHeaders();
+		// Copy, since the session outlives the initial request
+		HttpHeaders handshakeHeaders = new HttpHeaders();
+		handshakeHeaders.putAll(request.getHeaders());
+		this.handshakeHeaders = handshakeHeaders;
 		this.principal = request.getPrincipal();
 		try {
 			this.localAddress = request.getLocalAddress();
@@ -17,12 +17,14 @@
 package org.springframework.web.socket.messaging;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.security.Principal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Before;
@@ -43,6 +45,7 @@ import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.TestPrincipal;
 import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompDecoder;
 import org.springframework.messaging.simp.stomp.StompEncoder;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.simp.user.DestinationUserNameProvider;
@@ -51,7 +54,10 @@ import org.springframework.messaging.support.ExecutorSubscribableChannel;
 import org.springframework.messaging.support.ImmutableMessageChannelInterceptor;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.tests.Assume;
+import org.springframework.tests.TestGroup;
 import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StopWatch;
 import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
@@ -315,6 +321,36 @@ public class StompSubProtocolHandlerTests {
 		assertEquals(0, this.session.getSentMessages().size());
 	}
 
+	@Test
+	public void handleMessageFromClientThroughput() {
+		Assume.group(TestGroup.PERFORMANCE);
+		TextMessage textMessage = StompTextMessageBuilder.create(StompCommand.SEND).headers(
+				"destination:/app/orders", "content-type:application/json", "receipt:r1", "priority:9")
+				.body("{\"id\":42,\"item\":\"book\"}").build();
+		AtomicInteger sent = new AtomicInteger();
+		MessageChannel channel = (message, timeout) -> sent.incrementAndGet() > 0;
+		this.protocolHandler.afterSessionStarted(this.session, channel);
+
+		int count = 200000;
+		StompDecoder decoder = new StompDecoder();
+		byte[] frame = textMessage.asBytes();
+		StopWatch sw = new StopWatch();
+		sw.start("StompDecoder baseline for " + count + " frames");
+		int decoded = 0;
+		for (int i = 0; i < count; i++) {
+			decoded += decoder.decode(ByteBuffer.wrap(frame)).size();
+		}
+		sw.stop();
+		sw.start("StompSubProtocolHandler for " + count + " frames");
+		for (int i = 0; i < count; i++) {
+			this.protocolHandler.handleMessageFromClient(this.session, textMessage, channel);
+		}
+		sw.stop();
+		assertEquals(count, decoded);
+		assertEquals(count, sent.get());
+		System.out.println(sw.prettyPrint());
+	}
+
 	@Test
 	public void handleMessageFromClientWithImmutableMessageInterceptor() {
 		AtomicReference<Boolean> mutable = new AtomicReference<>();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.web.socket.sockjs.transport.session;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Map;
 
 import org.junit.Before;
@@ -87,6 +88,18 @@ public class HttpSockJsSessionTests extends AbstractSockJsSessionTests<TestAbstr
 		verify(this.webSocketHandler).afterConnectionEstablished(this.session);
 	}
 
+	@Test
+	public void handshakeHeadersCopiedFromInitialRequest() throws Exception {
+		this.servletRequest.addHeader("MyHeader", "value1");
+		this.session.handleInitialRequest(this.request, this.response, this.frameFormat);
+
+		// The request may be recycled by the container after the initial request
+		this.servletRequest.addHeader("MyHeader", "value2");
+		this.servletRequest.addHeader("OtherHeader", "other");
+		assertEquals(Collections.singletonList("value1"), this.session.getHandshakeHeaders().get("MyHeader"));
+		assertFalse(this.session.getHandshakeHeaders().containsKey("OtherHeader"));
+	}
+
 	@Test
 	public void handleSuccessiveRequest() throws Exception {
 